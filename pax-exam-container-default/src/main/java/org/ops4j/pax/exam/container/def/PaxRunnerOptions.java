@@ -140,6 +140,16 @@ public class PaxRunnerOptions
         return new CleanCachesOption();
     }
 
+    /**
+     * Creates a {@link ContainerPoolOption}.
+     *
+     * @return container pool option
+     */
+    public static ContainerPoolOption containerPool()
+    {
+        return new ContainerPoolOption();
+    }
+
     /**
      * Creates a {@link org.ops4j.pax.exam.container.def.options.RBCLookupTimeoutOption}.
      *
@@ -456,4 +466,34 @@ public class PaxRunnerOptions
         return new WorkingDirectoryOption( directory );
     }
 
+    /**
+     * Creates a {@link IsolatedWorkspaceOption}.
+     *
+     * @return isolated workspace option
+     */
+    public static IsolatedWorkspaceOption isolatedWorkspace()
+    {
+        return new IsolatedWorkspaceOption();
+    }
+
+    /**
+     * Creates a {@link FrameworkCacheOption}.
+     *
+     * @return framework cache option
+     */
+    public static FrameworkCacheOption frameworkCache()
+    {
+        return new FrameworkCacheOption();
+    }
+
+    /**
+     * Creates a {@link SocketTransportOption}.
+     *
+     * @return socket transport option
+     */
+    public static SocketTransportOption socketTransport()
+    {
+        return new SocketTransportOption();
+    }
+
 }
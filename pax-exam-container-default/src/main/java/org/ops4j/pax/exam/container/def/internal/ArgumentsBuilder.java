@@ -21,14 +21,18 @@ package org.ops4j.pax.exam.container.def.internal;
 import java.io.File;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 import org.ops4j.pax.exam.Customizer;
 import org.ops4j.pax.exam.Option;
 import static org.ops4j.pax.exam.OptionUtils.*;
 import org.ops4j.pax.exam.container.def.options.AutoWrapOption;
 import org.ops4j.pax.exam.container.def.options.CleanCachesOption;
 import org.ops4j.pax.exam.container.def.options.ExcludeDefaultRepositoriesOption;
+import org.ops4j.pax.exam.container.def.options.FrameworkCacheOption;
+import org.ops4j.pax.exam.container.def.options.IsolatedWorkspaceOption;
 import org.ops4j.pax.exam.container.def.options.LocalRepositoryOption;
 import org.ops4j.pax.exam.container.def.options.ProfileOption;
 import org.ops4j.pax.exam.container.def.options.RawPaxRunnerOptionOption;
@@ -43,6 +47,7 @@ import org.ops4j.pax.exam.options.DebugClassLoadingOption;
 import org.ops4j.pax.exam.options.FrameworkOption;
 import org.ops4j.pax.exam.options.FrameworkStartLevelOption;
 import org.ops4j.pax.exam.options.MavenPluginGeneratedConfigOption;
+import org.ops4j.pax.exam.options.ParallelFrameworksOption;
 import org.ops4j.pax.exam.options.ProvisionOption;
 import org.ops4j.pax.exam.options.SystemPackageOption;
 import org.ops4j.pax.exam.options.SystemPropertyOption;
@@ -57,6 +62,11 @@ import org.ops4j.pax.exam.options.SystemPropertyOption;
 class ArgumentsBuilder
 {
 
+    /**
+     * Prefix of the Pax Runner argument carrying the vm options.
+     */
+    private static final String VM_OPTIONS = "--vmOptions=";
+
     /**
      * Controls if one of the options set a Args Option manually.
      * Otherwise, defaultArguments will include a --noArgs flag to prevent
@@ -79,6 +89,16 @@ class ArgumentsBuilder
     private File m_workingFolder;
     private Customizer[] m_customizers;
 
+    /**
+     * Shared download cache folder, if test container runs in an isolated working folder. Null otherwise.
+     */
+    private File m_downloadCache;
+
+    /**
+     * Framework storage snapshots folder, if framework cache is enabled. Null otherwise.
+     */
+    private File m_frameworkCache;
+
     /**
      * Converts configuration options to Pax Runner arguments.
      *
@@ -103,6 +123,7 @@ class ArgumentsBuilder
         );
         add( arguments, extractArguments( filter( AutoWrapOption.class, options ) ) );
         add( arguments, extractArguments( filter( CleanCachesOption.class, options ) ) );
+        add( arguments, extractArguments( filter( FrameworkCacheOption.class, options ) ) );
         add( arguments, extractArguments( filter( LocalRepositoryOption.class, options ) ) );
         add( arguments, extractArguments( filter( FrameworkStartLevelOption.class, options ) ) );
         add( arguments, extractArguments( filter( BundleStartLevelOption.class, options ) ) );
@@ -117,7 +138,13 @@ class ArgumentsBuilder
         );
         add( arguments, extractArguments( filter( BootClasspathLibraryOption.class, options ) ) );
         add( arguments, extractArguments( filter( DebugClassLoadingOption.class, options ) ) );
-        add( arguments, defaultArguments() );
+        add( arguments,
+             defaultArguments(
+                 filter( FrameworkOption.class, options ),
+                 filter( ParallelFrameworksOption.class, options ),
+                 filter( IsolatedWorkspaceOption.class, options )
+             )
+        );
 
         m_parsedArgs = arguments.toArray( new String[arguments.size()] );
     }
@@ -130,6 +157,34 @@ class ArgumentsBuilder
         return m_parsedArgs;
     }
 
+    /**
+     * Returns the Pax Runner arguments extended with system properties that are only known when the test container
+     * starts. The system properties are added to the vm options.
+     *
+     * @param systemProperties additional system properties
+     *
+     * @return Pax Runner arguments
+     */
+    public String[] getArguments( final SystemPropertyOption... systemProperties )
+    {
+        final String vmOptions = extractArguments( systemProperties, null );
+        if( vmOptions.length() == 0 )
+        {
+            return m_parsedArgs;
+        }
+        final List<String> arguments = new ArrayList<String>( Arrays.asList( m_parsedArgs ) );
+        for( int i = 0; i < arguments.size(); i++ )
+        {
+            if( arguments.get( i ).startsWith( VM_OPTIONS ) )
+            {
+                arguments.set( i, arguments.get( i ) + " " + vmOptions.substring( VM_OPTIONS.length() ) );
+                return arguments.toArray( new String[arguments.size()] );
+            }
+        }
+        arguments.add( vmOptions );
+        return arguments.toArray( new String[arguments.size()] );
+    }
+
     /**
      * Adds a collection of arguments to a list of arguments by skipping null arguments.
      *
@@ -163,9 +218,17 @@ class ArgumentsBuilder
     /**
      * Returns a collection of default Pax Runner arguments.
      *
+     * @param frameworks                framework options
+     * @param parallelFrameworksOptions if not empty, frameworks run in parallel so each framework gets its own default
+     *                                  working directory
+     * @param isolatedWorkspaceOptions  if not empty and there is no working directory option, a new unique working
+     *                                  directory is used (created only when the test container starts)
+     *
      * @return collection of default arguments
      */
-    private Collection<String> defaultArguments()
+    private Collection<String> defaultArguments( final FrameworkOption[] frameworks,
+                                                 final ParallelFrameworksOption[] parallelFrameworksOptions,
+                                                 final IsolatedWorkspaceOption[] isolatedWorkspaceOptions )
     {
         final List<String> arguments = new ArrayList<String>();
         arguments.add( "--noConsole" );
@@ -177,11 +240,59 @@ class ArgumentsBuilder
         String folder = System.getProperty( "java.io.tmpdir" )
                         + "/paxexam_runner_"
                         + System.getProperty( "user.name" );
+        if( parallelFrameworksOptions.length > 0 && frameworks.length > 0 )
+        {
+            folder = folder + "_" + frameworkFolderSuffix( frameworks[ 0 ] );
+        }
+        if( isolatedWorkspaceOptions.length > 0 && m_workingFolder == null )
+        {
+            m_downloadCache = new File( isolatedWorkspaceOptions[ 0 ].getCacheFolder() );
+            m_workingFolder = createUniqueFolder( folder );
+            arguments.add( "--workingDirectory=" + m_workingFolder.getAbsolutePath() );
+            return arguments;
+        }
 
         arguments.add( "--workingDirectory=" + createWorkingDirectory( folder ).getAbsolutePath() );
         return arguments;
     }
 
+    /**
+     * Chooses a new, unique folder by appending a random suffix to the given folder name. The folder is not created,
+     * so options can be converted without side effects on the file system.
+     *
+     * @param folder base folder name
+     *
+     * @return unique folder
+     */
+    private static File createUniqueFolder( final String folder )
+    {
+        File unique;
+        do
+        {
+            unique = new File( folder + "_" + UUID.randomUUID() ).getAbsoluteFile();
+        }
+        while( unique.exists() );
+        return unique;
+    }
+
+    /**
+     * Computes a working directory suffix out of framework name and version, that is safe to be used as file name.
+     *
+     * @param framework framework option
+     *
+     * @return working directory suffix
+     */
+    private static String frameworkFolderSuffix( final FrameworkOption framework )
+    {
+        String suffix = framework.getName();
+        final String version = framework.getVersion();
+        if( version != null && version.trim().length() > 0 )
+        {
+            suffix = suffix + "_" + version;
+        }
+        return suffix.replaceAll( "[^A-Za-z0-9._-]", "_" );
+    }
+
     /**
      * Converts framework options into corresponding arguments (--platform, --version).
      *
@@ -390,7 +501,7 @@ class ArgumentsBuilder
         }
         if( argument.length() > 0 )
         {
-            argument.insert( 0, "--vmOptions=" );
+            argument.insert( 0, VM_OPTIONS );
         }
         return argument.toString();
     }
@@ -453,6 +564,23 @@ class ArgumentsBuilder
         }
     }
 
+    /**
+     * Keeps the framework storage between runs, as it is restored out of a snapshot before start up.
+     *
+     * @param frameworkCacheOptions framework cache options
+     *
+     * @return persisted state argument or null if framework cache is not enabled
+     */
+    private String extractArguments( final FrameworkCacheOption[] frameworkCacheOptions )
+    {
+        if( frameworkCacheOptions.length > 0 )
+        {
+            m_frameworkCache = new File( frameworkCacheOptions[ 0 ].getCacheFolder() );
+            return "--usePersistedState=true";
+        }
+        return null;
+    }
+
     private String extractArguments( LocalRepositoryOption[] localRepositoryOptions )
     {
         if( localRepositoryOptions != null && localRepositoryOptions.length > 0 )
@@ -607,6 +735,26 @@ class ArgumentsBuilder
         return m_workingFolder;
     }
 
+    /**
+     * Getter.
+     *
+     * @return shared download cache folder if test container runs in an isolated working folder, null otherwise
+     */
+    public File getDownloadCache()
+    {
+        return m_downloadCache;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return framework storage snapshots folder if framework cache is enabled, null otherwise
+     */
+    public File getFrameworkCache()
+    {
+        return m_frameworkCache;
+    }
+
     public Customizer[] getCustomizers()
     {
         return m_customizers;
@@ -0,0 +1,635 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.container.def.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.ops4j.io.FileUtils;
+import org.ops4j.io.StreamUtils;
+
+/**
+ * Snapshot of the framework storage of a test container, kept in a cache folder under the options fingerprint.
+ * The framework storage is made out of all folders of the working folder except the one where Pax Runner keeps
+ * downloaded bundles. The snapshot is captured once, from the first test container with a fingerprint after its
+ * framework stopped (so the storage is consistent), and restored into the working folder of later test containers
+ * before they start, so the framework finds all bundles already installed and resolved.
+ * The framework storage refers to bundles by absolute paths of the working folder. Files doing so are recorded on
+ * capture and rewritten on restore to refer to the new working folder, so a snapshot can be restored in any working
+ * folder (e.g. the unique working folders of isolated workspaces). Binary files can only be rewritten if both working
+ * folder paths have the same length (as isolated working folders with the same base have).
+ * Snapshots are cloned copy-on-write (reflink) where the platform supports it and copied otherwise. Hard links are not
+ * used as frameworks rewrite their storage files in place, which would change the snapshot as well.
+ * Failures are logged and do not stop the test container from running, as the snapshot is only an optimization.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+class FrameworkSnapshot
+{
+
+    /**
+     * JCL logger.
+     */
+    private static final Log LOG = LogFactory.getLog( FrameworkSnapshot.class );
+
+    /**
+     * Name of the folder (relative to working folder) where Pax Runner keeps downloaded bundles.
+     */
+    private static final String BUNDLES_FOLDER = "bundles";
+
+    /**
+     * Name of the folder (relative to snapshot folder) holding the framework storage.
+     */
+    private static final String STORAGE_FOLDER = "storage";
+
+    /**
+     * Name of the file (relative to snapshot folder) describing the snapshot.
+     */
+    private static final String DESCRIPTOR_FILE = "snapshot.properties";
+
+    /**
+     * Descriptor property holding the working folder the snapshot was captured from.
+     */
+    private static final String WORKING_FOLDER_PROPERTY = "workingFolder";
+
+    /**
+     * Prefix of descriptor properties holding the files (relative to storage folder) that refer to the working folder.
+     */
+    private static final String FILE_PROPERTY_PREFIX = "file.";
+
+    /**
+     * Snapshot folder.
+     */
+    private final File m_snapshotFolder;
+
+    /**
+     * Constructor.
+     *
+     * @param cacheFolder folder where snapshots are kept
+     * @param fingerprint options fingerprint of the test container
+     */
+    FrameworkSnapshot( final File cacheFolder,
+                       final String fingerprint )
+    {
+        m_snapshotFolder = new File( cacheFolder, fingerprint );
+    }
+
+    /**
+     * Replaces the framework storage in the working folder with the snapshot. If there is no usable snapshot the
+     * framework storage is just removed, so the framework starts clean.
+     *
+     * @param workingFolder working folder of the test container about to be started
+     *
+     * @return true if the snapshot was restored
+     */
+    boolean restore( final File workingFolder )
+    {
+        clear( workingFolder );
+        if( !m_snapshotFolder.isDirectory() )
+        {
+            return false;
+        }
+        final Properties descriptor = readDescriptor();
+        if( descriptor == null || descriptor.getProperty( WORKING_FOLDER_PROPERTY ) == null )
+        {
+            return false;
+        }
+        final long startedAt = System.currentTimeMillis();
+        try
+        {
+            for( File folder : listStorage( new File( m_snapshotFolder, STORAGE_FOLDER ) ) )
+            {
+                cloneTree( folder, new File( workingFolder, folder.getName() ) );
+            }
+            final File capturedIn = new File( descriptor.getProperty( WORKING_FOLDER_PROPERTY ) );
+            if( !capturedIn.equals( workingFolder.getAbsoluteFile() ) )
+            {
+                for( String file : getFiles( descriptor ) )
+                {
+                    relocate( new File( workingFolder, file ), capturedIn, workingFolder.getAbsoluteFile() );
+                }
+            }
+        }
+        catch( IOException e )
+        {
+            LOG.warn( "Cannot restore framework snapshot " + m_snapshotFolder + ": " + e.getMessage() );
+            clear( workingFolder );
+            return false;
+        }
+        LOG.info( "Restored framework snapshot " + m_snapshotFolder + " in "
+                  + ( System.currentTimeMillis() - startedAt ) + " millis"
+        );
+        return true;
+    }
+
+    /**
+     * Captures the framework storage of the working folder, if there is no snapshot yet. The snapshot is captured in a
+     * temporary folder and renamed afterwards so no partial snapshots are ever visible.
+     * Must be called only while the framework is not running, as otherwise the framework storage could be captured
+     * half written.
+     *
+     * @param workingFolder working folder of a test container whose framework was stopped
+     */
+    void capture( final File workingFolder )
+    {
+        if( m_snapshotFolder.exists() )
+        {
+            return;
+        }
+        final File tempFolder = new File( m_snapshotFolder.getParentFile(),
+                                          m_snapshotFolder.getName() + "." + UUID.randomUUID() + ".tmp"
+        );
+        try
+        {
+            final File storage = new File( tempFolder, STORAGE_FOLDER );
+            storage.mkdirs();
+            for( File folder : listStorage( workingFolder ) )
+            {
+                cloneTree( folder, new File( storage, folder.getName() ) );
+            }
+            final List<String> files = new ArrayList<String>();
+            findReferences( storage, "", getPathForms( workingFolder.getAbsoluteFile() ), files );
+            writeDescriptor( tempFolder, workingFolder, files );
+            if( tempFolder.renameTo( m_snapshotFolder ) )
+            {
+                LOG.info( "Captured framework snapshot " + m_snapshotFolder );
+            }
+        }
+        catch( IOException e )
+        {
+            LOG.warn( "Cannot capture framework snapshot " + m_snapshotFolder + ": " + e.getMessage() );
+        }
+        finally
+        {
+            // still there if another test container captured the snapshot first or if capturing failed
+            if( tempFolder.exists() )
+            {
+                FileUtils.delete( tempFolder );
+            }
+        }
+    }
+
+    /**
+     * Removes the framework storage from the working folder.
+     *
+     * @param workingFolder working folder
+     */
+    private static void clear( final File workingFolder )
+    {
+        for( File folder : listStorage( workingFolder ) )
+        {
+            FileUtils.delete( folder );
+        }
+    }
+
+    /**
+     * Lists the folders that make up the framework storage.
+     *
+     * @param folder working folder or snapshot storage folder
+     *
+     * @return framework storage folders (never null)
+     */
+    private static List<File> listStorage( final File folder )
+    {
+        final List<File> storage = new ArrayList<File>();
+        final File[] files = folder.listFiles();
+        if( files != null )
+        {
+            for( File file : files )
+            {
+                if( file.isDirectory() && !BUNDLES_FOLDER.equals( file.getName() ) )
+                {
+                    storage.add( file );
+                }
+            }
+        }
+        return storage;
+    }
+
+    /**
+     * Clones a folder. Tries first a copy-on-write clone via the platform copy command and falls back to copying.
+     *
+     * @param source folder to clone
+     * @param target clone folder (must not exist)
+     *
+     * @throws IOException - If folder cannot be copied
+     */
+    private static void cloneTree( final File source,
+                                   final File target )
+        throws IOException
+    {
+        final String[] command = getCloneCommand( source, target );
+        if( command != null )
+        {
+            try
+            {
+                final Process process = new ProcessBuilder( command ).redirectErrorStream( true ).start();
+                StreamUtils.copyStream( process.getInputStream(), new NullOutputStream(), true );
+                if( process.waitFor() == 0 )
+                {
+                    return;
+                }
+            }
+            catch( IOException e )
+            {
+                LOG.debug( "Cannot clone " + source + ": " + e.getMessage() );
+            }
+            catch( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                throw new IOException( "Interrupted while cloning " + source );
+            }
+            FileUtils.delete( target );
+        }
+        copyTree( source, target );
+    }
+
+    /**
+     * Returns the platform command that clones a folder copy-on-write, if known.
+     *
+     * @param source folder to clone
+     * @param target clone folder
+     *
+     * @return clone command or null if the platform has no such command
+     */
+    private static String[] getCloneCommand( final File source,
+                                             final File target )
+    {
+        final String os = System.getProperty( "os.name", "" );
+        if( os.startsWith( "Linux" ) )
+        {
+            // GNU cp falls back to a plain copy when the file system cannot reflink
+            return new String[]{
+                "cp", "-R", "--reflink=auto", source.getAbsolutePath(), target.getAbsolutePath()
+            };
+        }
+        if( os.startsWith( "Mac" ) )
+        {
+            // clonefile(2) on APFS
+            return new String[]{ "cp", "-R", "-c", source.getAbsolutePath(), target.getAbsolutePath() };
+        }
+        return null;
+    }
+
+    /**
+     * Copies a folder recursively.
+     *
+     * @param source folder to copy
+     * @param target target folder
+     *
+     * @throws IOException - If a file cannot be copied
+     */
+    private static void copyTree( final File source,
+                                  final File target )
+        throws IOException
+    {
+        target.mkdirs();
+        final File[] files = source.listFiles();
+        if( files == null )
+        {
+            throw new IOException( "Cannot list " + source );
+        }
+        for( File file : files )
+        {
+            final File targetFile = new File( target, file.getName() );
+            if( file.isDirectory() )
+            {
+                copyTree( file, targetFile );
+            }
+            else
+            {
+                StreamUtils.copyStream( new FileInputStream( file ), new FileOutputStream( targetFile ), true );
+            }
+        }
+    }
+
+    /**
+     * Finds the files of a folder that refer to the working folder.
+     *
+     * @param folder folder to search
+     * @param path   path of the folder relative to the storage folder ("" for the storage folder itself)
+     * @param forms  path forms of the working folder
+     * @param found  relative paths of found files
+     *
+     * @throws IOException - If a file cannot be read
+     */
+    private static void findReferences( final File folder,
+                                        final String path,
+                                        final byte[][] forms,
+                                        final List<String> found )
+        throws IOException
+    {
+        final File[] files = folder.listFiles();
+        if( files == null )
+        {
+            throw new IOException( "Cannot list " + folder );
+        }
+        for( File file : files )
+        {
+            final String filePath = path + file.getName();
+            if( file.isDirectory() )
+            {
+                findReferences( file, filePath + "/", forms, found );
+            }
+            else
+            {
+                final byte[] content = read( file );
+                for( byte[] form : forms )
+                {
+                    if( indexOf( content, form, 0 ) >= 0 )
+                    {
+                        found.add( filePath );
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Rewrites a restored file to refer to the new working folder instead of the one the snapshot was captured in.
+     *
+     * @param file       restored file
+     * @param capturedIn working folder the snapshot was captured in
+     * @param restoredIn working folder the snapshot is restored in
+     *
+     * @throws IOException - If file cannot be rewritten
+     */
+    private static void relocate( final File file,
+                                  final File capturedIn,
+                                  final File restoredIn )
+        throws IOException
+    {
+        byte[] content = read( file );
+        final boolean binary = indexOf( content, new byte[]{ 0 }, 0 ) >= 0;
+        final byte[][] from = getPathForms( capturedIn );
+        final byte[][] to = getPathForms( restoredIn );
+        for( int i = 0; i < from.length; i++ )
+        {
+            if( binary && from[ i ].length != to[ i ].length && indexOf( content, from[ i ], 0 ) >= 0 )
+            {
+                // binary formats are usually length prefixed, so the content cannot be rewritten safely
+                throw new IOException( "Binary file " + file + " refers to the working folder by a path of another"
+                                       + " length than " + restoredIn
+                );
+            }
+            content = replace( content, from[ i ], to[ i ] );
+        }
+        // the restored file is a clone, so writing it does not change the snapshot
+        final OutputStream out = new FileOutputStream( file );
+        try
+        {
+            out.write( content );
+        }
+        finally
+        {
+            close( out );
+        }
+    }
+
+    /**
+     * Returns the forms a working folder is referred to in framework storage: as file path and as url path.
+     *
+     * @param workingFolder absolute working folder
+     *
+     * @return path forms, encoded as UTF-8 (the url path form only if it differs)
+     *
+     * @throws IOException - If UTF-8 is not supported
+     */
+    private static byte[][] getPathForms( final File workingFolder )
+        throws IOException
+    {
+        final String path = workingFolder.getAbsolutePath();
+        String urlPath = workingFolder.toURI().getRawPath();
+        if( urlPath.endsWith( "/" ) )
+        {
+            urlPath = urlPath.substring( 0, urlPath.length() - 1 );
+        }
+        if( path.equals( urlPath ) )
+        {
+            return new byte[][]{ path.getBytes( "UTF-8" ) };
+        }
+        return new byte[][]{ path.getBytes( "UTF-8" ), urlPath.getBytes( "UTF-8" ) };
+    }
+
+    /**
+     * Replaces all occurrences of a byte sequence.
+     *
+     * @param content     content to search
+     * @param target      sequence to be replaced
+     * @param replacement replacement sequence
+     *
+     * @return content with replaced sequences (same instance if there was no occurrence)
+     */
+    private static byte[] replace( final byte[] content,
+                                   final byte[] target,
+                                   final byte[] replacement )
+    {
+        int index = indexOf( content, target, 0 );
+        if( index < 0 )
+        {
+            return content;
+        }
+        final ByteArrayOutputStream replaced = new ByteArrayOutputStream( content.length );
+        int from = 0;
+        while( index >= 0 )
+        {
+            replaced.write( content, from, index - from );
+            replaced.write( replacement, 0, replacement.length );
+            from = index + target.length;
+            index = indexOf( content, target, from );
+        }
+        replaced.write( content, from, content.length - from );
+        return replaced.toByteArray();
+    }
+
+    /**
+     * Finds a byte sequence.
+     *
+     * @param content content to search
+     * @param target  sequence to find
+     * @param from    index to start searching from
+     *
+     * @return index of the first occurrence or -1 if not found
+     */
+    private static int indexOf( final byte[] content,
+                                final byte[] target,
+                                final int from )
+    {
+        outer:
+        for( int i = from; i <= content.length - target.length; i++ )
+        {
+            for( int j = 0; j < target.length; j++ )
+            {
+                if( content[ i + j ] != target[ j ] )
+                {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Reads a file.
+     *
+     * @param file file to read
+     *
+     * @return file content
+     *
+     * @throws IOException - If file cannot be read
+     */
+    private static byte[] read( final File file )
+        throws IOException
+    {
+        final ByteArrayOutputStream content = new ByteArrayOutputStream( (int) file.length() );
+        StreamUtils.copyStream( new FileInputStream( file ), content, true );
+        return content.toByteArray();
+    }
+
+    /**
+     * Returns the files, relative to the storage folder, that refer to the working folder.
+     *
+     * @param descriptor snapshot descriptor
+     *
+     * @return relative file paths
+     */
+    private static List<String> getFiles( final Properties descriptor )
+    {
+        final List<String> files = new ArrayList<String>();
+        String file;
+        while( ( file = descriptor.getProperty( FILE_PROPERTY_PREFIX + files.size() ) ) != null )
+        {
+            files.add( file );
+        }
+        return files;
+    }
+
+    /**
+     * Reads the snapshot descriptor.
+     *
+     * @return descriptor or null if it cannot be read
+     */
+    private Properties readDescriptor()
+    {
+        InputStream in = null;
+        try
+        {
+            in = new FileInputStream( new File( m_snapshotFolder, DESCRIPTOR_FILE ) );
+            final Properties descriptor = new Properties();
+            descriptor.load( in );
+            return descriptor;
+        }
+        catch( IOException e )
+        {
+            LOG.warn( "Cannot read framework snapshot descriptor of " + m_snapshotFolder + ": " + e.getMessage() );
+            return null;
+        }
+        finally
+        {
+            close( in );
+        }
+    }
+
+    /**
+     * Writes the snapshot descriptor: the working folder the snapshot was captured from and the files referring to it.
+     *
+     * @param snapshotFolder snapshot folder
+     * @param workingFolder  working folder
+     * @param files          files (relative to storage folder) that refer to the working folder
+     *
+     * @throws IOException - If descriptor cannot be written
+     */
+    private static void writeDescriptor( final File snapshotFolder,
+                                         final File workingFolder,
+                                         final List<String> files )
+        throws IOException
+    {
+        OutputStream out = null;
+        try
+        {
+            out = new FileOutputStream( new File( snapshotFolder, DESCRIPTOR_FILE ) );
+            final Properties descriptor = new Properties();
+            descriptor.setProperty( WORKING_FOLDER_PROPERTY, workingFolder.getAbsolutePath() );
+            for( int i = 0; i < files.size(); i++ )
+            {
+                descriptor.setProperty( FILE_PROPERTY_PREFIX + i, files.get( i ) );
+            }
+            descriptor.store( out, "Pax Exam framework snapshot" );
+        }
+        finally
+        {
+            close( out );
+        }
+    }
+
+    /**
+     * Closes a stream by ignoring exceptions.
+     *
+     * @param closeable stream to close (can be null)
+     */
+    private static void close( final Closeable closeable )
+    {
+        if( closeable != null )
+        {
+            try
+            {
+                closeable.close();
+            }
+            catch( IOException ignore )
+            {
+                // ignore
+            }
+        }
+    }
+
+    /**
+     * Output stream discarding everything written to it.
+     */
+    private static class NullOutputStream
+        extends OutputStream
+    {
+
+        @Override
+        public void write( final int b )
+        {
+            // discard
+        }
+
+        @Override
+        public void write( final byte[] b,
+                           final int off,
+                           final int len )
+        {
+            // discard
+        }
+    }
+
+}
@@ -0,0 +1,310 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.container.def.internal;
+
+import static org.ops4j.pax.exam.OptionUtils.expand;
+import static org.ops4j.pax.exam.OptionUtils.filter;
+import static org.ops4j.pax.exam.OptionUtils.remove;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.ops4j.pax.exam.Option;
+import org.ops4j.pax.exam.container.def.options.Scanner;
+import org.ops4j.pax.exam.options.ProvisionOption;
+import org.ops4j.pax.exam.options.SystemPropertyOption;
+
+/**
+ * Changes to be applied to a running test container in order to run with other options, without restarting it. Only
+ * bundles and system properties added on top of the options the test container was started with can be changed at
+ * runtime; any other difference (framework, vm options, boot delegation, bundles or system properties the test
+ * container was started with, ...) requires a restart.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+class OptionsDelta
+{
+
+    /**
+     * Urls of bundles to be uninstalled, in the order they were provisioned.
+     */
+    private final List<String> m_uninstall;
+    /**
+     * Bundles to be installed, in the order they should be provisioned.
+     */
+    private final List<ProvisionOption> m_install;
+    /**
+     * System properties to be set, by key. A null value means that the system property should be cleared.
+     */
+    private final Map<String, String> m_properties;
+
+    /**
+     * Constructor.
+     *
+     * @param uninstall  urls of bundles to be uninstalled
+     * @param install    bundles to be installed
+     * @param properties system properties to be set (null value = clear)
+     */
+    private OptionsDelta( final List<String> uninstall,
+                          final List<ProvisionOption> install,
+                          final Map<String, String> properties )
+    {
+        m_uninstall = Collections.unmodifiableList( uninstall );
+        m_install = Collections.unmodifiableList( install );
+        m_properties = Collections.unmodifiableMap( properties );
+    }
+
+    /**
+     * Computes the changes to be applied to a test container running with some options in order to run with other
+     * options.
+     *
+     * @param bootOptions    options the test container was started with
+     * @param runningOptions options the test container runs with (boot options plus changes applied since)
+     * @param options        options the test container should run with
+     *
+     * @return changes to be applied or null if the test container has to be restarted
+     */
+    static OptionsDelta of( final Option[] bootOptions,
+                            final Option[] runningOptions,
+                            final Option[] options )
+    {
+        return of( fingerprint( bootOptions ), bootOptions, runningOptions, options );
+    }
+
+    /**
+     * Computes the changes to be applied to a test container running with some options in order to run with other
+     * options, reusing the fingerprint of the options the test container was started with, as those do not change.
+     *
+     * @param bootFingerprint fingerprint of boot options (as returned by {@link #fingerprint(Option[])})
+     * @param bootOptions     options the test container was started with
+     * @param runningOptions  options the test container runs with (boot options plus changes applied since)
+     * @param options         options the test container should run with
+     *
+     * @return changes to be applied or null if the test container has to be restarted
+     */
+    static OptionsDelta of( final String bootFingerprint,
+                            final Option[] bootOptions,
+                            final Option[] runningOptions,
+                            final Option[] options )
+    {
+        final Option[] boot = expand( bootOptions );
+        final Option[] running = expand( runningOptions );
+        final Option[] wanted = expand( options );
+        if( !bootFingerprint.equals( fingerprint( wanted ) ) )
+        {
+            return null;
+        }
+        final Map<String, ProvisionOption> bootBundles = getBundles( boot );
+        final Map<String, ProvisionOption> wantedBundles = getBundles( wanted );
+        final Map<String, String> bootProperties = getProperties( boot );
+        final Map<String, String> wantedProperties = getProperties( wanted );
+        // what the test container was started with cannot be changed
+        for( Map.Entry<String, ProvisionOption> entry : bootBundles.entrySet() )
+        {
+            if( !isSame( entry.getValue(), wantedBundles.remove( entry.getKey() ) ) )
+            {
+                return null;
+            }
+        }
+        for( Map.Entry<String, String> entry : bootProperties.entrySet() )
+        {
+            if( !entry.getValue().equals( wantedProperties.remove( entry.getKey() ) ) )
+            {
+                return null;
+            }
+        }
+        for( ProvisionOption bundle : wantedBundles.values() )
+        {
+            if( bundle instanceof Scanner )
+            {
+                // scanners provision a set of bundles that is known only to Pax Runner
+                return null;
+            }
+        }
+        // so only the bundles and properties added at runtime change
+        final Map<String, ProvisionOption> runningBundles = getBundles( running );
+        final Map<String, String> runningProperties = getProperties( running );
+        runningBundles.keySet().removeAll( bootBundles.keySet() );
+        runningProperties.keySet().removeAll( bootProperties.keySet() );
+
+        final List<String> uninstall = new ArrayList<String>();
+        for( Map.Entry<String, ProvisionOption> entry : runningBundles.entrySet() )
+        {
+            if( !isSame( entry.getValue(), wantedBundles.get( entry.getKey() ) ) )
+            {
+                uninstall.add( entry.getKey() );
+            }
+        }
+        final List<ProvisionOption> install = new ArrayList<ProvisionOption>();
+        for( Map.Entry<String, ProvisionOption> entry : wantedBundles.entrySet() )
+        {
+            if( !isSame( entry.getValue(), runningBundles.get( entry.getKey() ) ) )
+            {
+                install.add( entry.getValue() );
+            }
+        }
+        final Map<String, String> properties = new LinkedHashMap<String, String>();
+        for( String key : runningProperties.keySet() )
+        {
+            if( !wantedProperties.containsKey( key ) )
+            {
+                properties.put( key, null );
+            }
+        }
+        for( Map.Entry<String, String> entry : wantedProperties.entrySet() )
+        {
+            if( !entry.getValue().equals( runningProperties.get( entry.getKey() ) ) )
+            {
+                properties.put( entry.getKey(), entry.getValue() );
+            }
+        }
+        return new OptionsDelta( uninstall, install, properties );
+    }
+
+    /**
+     * Computes the fingerprint of the options that cannot be changed at runtime. Test containers can only be
+     * reconfigured between options of the same fingerprint.
+     *
+     * @param options options
+     *
+     * @return fingerprint
+     */
+    static String fingerprint( final Option[] options )
+    {
+        return OptionsFingerprint.of( removeDynamic( expand( options ) ) );
+    }
+
+    /**
+     * Getter.
+     *
+     * @return urls of bundles to be uninstalled, in the order they were provisioned
+     */
+    List<String> getUninstall()
+    {
+        return m_uninstall;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return bundles to be installed, in the order they should be provisioned
+     */
+    List<ProvisionOption> getInstall()
+    {
+        return m_install;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return system properties to be set, by key (null value = clear the system property)
+     */
+    Map<String, String> getProperties()
+    {
+        return m_properties;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return true if there are no changes to be applied
+     */
+    boolean isEmpty()
+    {
+        return m_uninstall.isEmpty() && m_install.isEmpty() && m_properties.isEmpty();
+    }
+
+    /**
+     * Removes the options that can change at runtime.
+     *
+     * @param options expanded options
+     *
+     * @return options that can change only by restarting the test container
+     */
+    private static Option[] removeDynamic( final Option[] options )
+    {
+        return remove( SystemPropertyOption.class, remove( ProvisionOption.class, options ) );
+    }
+
+    /**
+     * Collects provisioned bundles by url. If the same url is provisioned more then once, the last one wins.
+     *
+     * @param options expanded options
+     *
+     * @return provisioned bundles by url, in the order they are provisioned
+     */
+    private static Map<String, ProvisionOption> getBundles( final Option[] options )
+    {
+        final Map<String, ProvisionOption> bundles = new LinkedHashMap<String, ProvisionOption>();
+        for( ProvisionOption bundle : filter( ProvisionOption.class, options ) )
+        {
+            bundles.put( bundle.getURL(), bundle );
+        }
+        return bundles;
+    }
+
+    /**
+     * Collects system properties by key. If the same key is set more then once, the last one wins.
+     *
+     * @param options expanded options
+     *
+     * @return system property values by key
+     */
+    private static Map<String, String> getProperties( final Option[] options )
+    {
+        final Map<String, String> properties = new LinkedHashMap<String, String>();
+        for( SystemPropertyOption property : filter( SystemPropertyOption.class, options ) )
+        {
+            properties.put( property.getKey(), property.getValue() );
+        }
+        return properties;
+    }
+
+    /**
+     * Checks if two provision options provision the same bundle the same way.
+     *
+     * @param bundle  provision option (cannot be null)
+     * @param another provision option to compare with (can be null)
+     *
+     * @return true if both provision the same url with same start flag and start level
+     */
+    private static boolean isSame( final ProvisionOption bundle,
+                                   final ProvisionOption another )
+    {
+        if( another == null
+            || !bundle.getURL().equals( another.getURL() )
+            || bundle.shouldStart() != another.shouldStart() )
+        {
+            return false;
+        }
+        return bundle.getStartLevel() == null
+               ? another.getStartLevel() == null
+               : bundle.getStartLevel().equals( another.getStartLevel() );
+    }
+
+    @Override
+    public String toString()
+    {
+        return "OptionsDelta{uninstall=" + m_uninstall + ", install=" + m_install
+               + ", properties=" + m_properties + "}";
+    }
+
+}
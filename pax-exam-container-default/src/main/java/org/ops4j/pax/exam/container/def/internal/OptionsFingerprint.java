@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.container.def.internal;
+
+import static org.ops4j.pax.exam.OptionUtils.expand;
+import static org.ops4j.pax.exam.OptionUtils.filter;
+import static org.ops4j.pax.exam.OptionUtils.remove;
+import static org.ops4j.pax.exam.spi.util.CacheUtils.newDigest;
+import static org.ops4j.pax.exam.spi.util.CacheUtils.toHex;
+import static org.ops4j.pax.exam.spi.util.CacheUtils.update;
+
+import java.security.MessageDigest;
+
+import org.ops4j.pax.exam.Customizer;
+import org.ops4j.pax.exam.Option;
+import org.ops4j.pax.exam.container.def.options.IsolatedWorkspaceOption;
+
+/**
+ * Computes a stable fingerprint of test container options. Two option sets have the same fingerprint if they result in
+ * the same Pax Runner arguments (as built by {@link ArgumentsBuilder}) and the same customizers, so test containers
+ * started out of them are interchangeable.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+class OptionsFingerprint
+{
+
+    /**
+     * Utility class. Ment to be used via the static factory methods.
+     */
+    private OptionsFingerprint()
+    {
+        // utility class
+    }
+
+    /**
+     * Computes the fingerprint of the provided options.
+     *
+     * @param options user options (can be null or empty)
+     *
+     * @return fingerprint as an hex string (never null)
+     */
+    static String of( final Option... options )
+    {
+        // isolated working directories are unique per test container so they should not be part of the fingerprint
+        final Option[] expanded = expand( options );
+        final ArgumentsBuilder arguments = new ArgumentsBuilder(
+            PaxRunnerTestContainer.wrap( remove( IsolatedWorkspaceOption.class, expanded ) )
+        );
+        final MessageDigest digest = newDigest();
+        for( IsolatedWorkspaceOption isolatedWorkspace : filter( IsolatedWorkspaceOption.class, expanded ) )
+        {
+            update( digest, isolatedWorkspace.toString() );
+        }
+        for( String argument : arguments.getArguments() )
+        {
+            update( digest, argument );
+        }
+        for( Customizer customizer : arguments.getCustomizers() )
+        {
+            update( digest, customizer.getClass().getName() );
+        }
+        return toHex( digest.digest() );
+    }
+
+}
@@ -29,17 +29,14 @@ import static org.ops4j.pax.exam.OptionUtils.filter;
 import static org.ops4j.pax.exam.OptionUtils.remove;
 import static org.ops4j.pax.exam.container.def.PaxRunnerOptions.scanBundle;
 
+import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.URL;
-import java.rmi.NoSuchObjectException;
-import java.rmi.registry.LocateRegistry;
-import java.rmi.registry.Registry;
-import java.rmi.server.UnicastRemoteObject;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -51,19 +48,23 @@ import org.ops4j.pax.exam.Option;
 import org.ops4j.pax.exam.container.def.options.BundleScannerProvisionOption;
 import org.ops4j.pax.exam.container.def.options.RBCLookupTimeoutOption;
 import org.ops4j.pax.exam.container.def.options.Scanner;
+import org.ops4j.pax.exam.container.def.options.SocketTransportOption;
 import org.ops4j.pax.exam.options.ProvisionOption;
+import org.ops4j.pax.exam.options.SystemPropertyOption;
 import org.ops4j.pax.exam.options.TestContainerStartTimeoutOption;
 import org.ops4j.pax.exam.rbc.Constants;
 import org.ops4j.pax.exam.rbc.client.RemoteBundleContextClient;
+import org.ops4j.pax.exam.rbc.internal.RemoteBundleContext;
+import org.ops4j.pax.exam.rbc.client.RemoteBundleContextSocket;
+import org.ops4j.pax.exam.rbc.internal.ClassLoaderLeaks;
+import org.ops4j.pax.exam.spi.container.AsyncService;
 import org.ops4j.pax.exam.spi.container.TestContainer;
 import org.ops4j.pax.exam.spi.container.TestContainerException;
+import org.ops4j.pax.exam.spi.container.TestContainerOperation;
 import org.ops4j.pax.exam.spi.container.TimeoutException;
 import org.ops4j.pax.runner.Run;
 import org.ops4j.pax.runner.handler.internal.URLUtils;
 import org.ops4j.pax.runner.platform.DefaultJavaRunner;
-import org.ops4j.store.Handle;
-import org.ops4j.store.Store;
-import org.ops4j.store.StoreFactory;
 import org.osgi.framework.Bundle;
 
 /**
@@ -87,19 +88,29 @@ class PaxRunnerTestContainer
     private static final Log LOG = LogFactory.getLog( PaxRunnerTestContainer.class );
 
     /**
-     * Number of ports to check for a free rmi communication port.
+     * System bundle id.
+     */
+    private static final int SYSTEM_BUNDLE = 0;
+    /**
+     * Lock guarding Pax Runner launch, as launching resets the JVM wide url stream handler factory. Test containers
+     * can be started in parallel (e.g. one per framework).
      */
-    private static final int AMOUNT_OF_PORTS_TO_CHECK = 100;
+    private static final Object LAUNCH_LOCK = new Object();
 
     /**
-     * System bundle id.
+     * Remote bundle context client. Null if not started.
      */
-    private static final int SYSTEM_BUNDLE = 0;
+    private RemoteBundleContextClient m_remoteBundleContextClient;
+
+    /**
+     * True if the remote bundle context is accessed via a socket instead of RMI.
+     */
+    private final boolean m_socketTransport;
 
     /**
-     * Remote bundle context client.
+     * Timeout for looking up the remote bundle context.
      */
-    private final RemoteBundleContextClient m_remoteBundleContextClient;
+    private final long m_rmiTimeout;
 
     /**
      * Java runner to be used to start up Pax Runner.
@@ -116,9 +127,10 @@ class PaxRunnerTestContainer
      */
     private final long m_startTimeout;
 
-    private final Store<InputStream> m_store;
-
-    private final Map<String, Handle> m_cache;
+    /**
+     * Cache of built and customized test probes.
+     */
+    private final ProbeCache m_probeCache;
 
     private final CompositeCustomizer m_customizers;
 
@@ -130,9 +142,64 @@ class PaxRunnerTestContainer
     private boolean m_started = false;
 
     /**
-     * RMI registry.
+     * Time (in millis) it took to stop the test container the last time it was stopped. -1 if never stopped.
+     */
+    private volatile long m_teardownTime = -1;
+
+    /**
+     * False once a reconfiguration failed halfway, as the framework may not match the options anymore.
+     */
+    private boolean m_reusable;
+
+    /**
+     * True while the shared RMI registry is used by this test container. False if socket transport is used.
+     */
+    private boolean m_registryAcquired;
+
+    /**
+     * Socket the remote bundle context connects to. Null if not started or if RMI transport is used.
+     */
+    private RemoteBundleContextSocket m_socket;
+
+    /**
+     * Framework storage snapshot. Null if framework cache is not enabled.
+     */
+    private final FrameworkSnapshot m_frameworkSnapshot;
+
+    /**
+     * Shared download cache. Null if test container does not run in an isolated working folder.
+     */
+    private final SharedDownloadCache m_downloadCache;
+
+    /**
+     * True if the framework storage should be captured as snapshot once the framework stopped.
+     */
+    private boolean m_capturePending;
+
+    /**
+     * True if the test container can be reset to the state it had after start, as pooled test containers are.
+     */
+    private final boolean m_resettable;
+
+    /**
+     * User options the test container was started with.
+     */
+    private final Option[] m_bootOptions;
+
+    /**
+     * Fingerprint of the boot options that cannot be changed at runtime, computed on start. Null before start.
+     */
+    private String m_bootFingerprint;
+
+    /**
+     * User options the test container runs with (boot options plus the ones applied via reconfiguration).
+     */
+    private Option[] m_options;
+
+    /**
+     * Ids of bundles installed via reconfiguration, by url.
      */
-    private Registry m_registry;
+    private final Map<String, Long> m_reconfiguredBundles;
 
     /**
      * Constructor.
@@ -141,17 +208,42 @@ class PaxRunnerTestContainer
      * @param options user startup options
      */
     PaxRunnerTestContainer( final DefaultJavaRunner javaRunner, final Option... options )
+    {
+        this( javaRunner, false, options );
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param javaRunner java runner to be used to start up Pax Runner
+     * @param resettable true if the test container should be resettable via {@link #reset()}
+     * @param options user startup options
+     */
+    PaxRunnerTestContainer( final DefaultJavaRunner javaRunner, final boolean resettable, final Option... options )
     {
         m_javaRunner = javaRunner;
+        m_resettable = resettable;
+        m_bootOptions = expand( options );
+        m_options = m_bootOptions;
+        m_reconfiguredBundles = new HashMap<String, Long>();
         m_startTimeout = getTestContainerStartTimeout( options );
-        int registryPort = createRegistry();
-        m_remoteBundleContextClient =
-            new RemoteBundleContextClient( registryPort, getRMITimeout( options ) );
+        m_socketTransport = filter( SocketTransportOption.class, expand( options ) ).length > 0;
+        m_rmiTimeout = getRMITimeout( options );
         m_arguments = new ArgumentsBuilder( wrap( expand( combine( options, localOptions() ) ) ) );
+        final String fingerprint = m_arguments.getFrameworkCache() == null && m_arguments.getDownloadCache() == null
+            ? null
+            : OptionsFingerprint.of( options );
+        m_frameworkSnapshot = m_arguments.getFrameworkCache() == null
+            ? null
+            : new FrameworkSnapshot( m_arguments.getFrameworkCache(), fingerprint );
+        m_downloadCache = m_arguments.getDownloadCache() == null
+            ? null
+            : new SharedDownloadCache(
+                m_arguments.getDownloadCache(), fingerprint, getProvisionedUrls( m_bootOptions )
+            );
 
         m_customizers = new CompositeCustomizer( m_arguments.getCustomizers() );
-        m_store = StoreFactory.sharedLocalStore();
-        m_cache = new HashMap<String, Handle>();
+        m_probeCache = new ProbeCache();
     }
 
     /**
@@ -160,7 +252,7 @@ class PaxRunnerTestContainer
     public <T> T getService( final Class<T> serviceType )
     {
         LOG.debug( "Lookup a [" + serviceType.getName() + "]" );
-        return m_remoteBundleContextClient.getService( serviceType );
+        return getRemoteBundleContextClient().getService( serviceType );
     }
 
     /**
@@ -169,20 +261,39 @@ class PaxRunnerTestContainer
     public <T> T getService( final Class<T> serviceType, final long timeoutInMillis )
     {
         LOG.debug( "Lookup a [" + serviceType.getName() + "]" );
-        return m_remoteBundleContextClient.getService( serviceType, timeoutInMillis );
+        return getRemoteBundleContextClient().getService( serviceType, timeoutInMillis );
+    }
+
+    /**
+     * {@inheritDoc} Delegates to {@link RemoteBundleContextClient}.
+     */
+    public <T> T getService( final Class<T> serviceType, final String filter, final long timeoutInMillis )
+    {
+        LOG.debug( "Lookup a [" + serviceType.getName() + "] matching " + filter );
+        return getRemoteBundleContextClient().getService( serviceType, filter, timeoutInMillis );
     }
 
     /**
      * {@inheritDoc} Delegates to {@link RemoteBundleContextClient}.
      */
+    public AsyncService getAsyncService( final Class<?> serviceType, final String filter, final long timeoutInMillis )
+    {
+        LOG.debug( "Asynchronous access to a [" + serviceType.getName() + "] matching " + filter );
+        return getRemoteBundleContextClient().getAsyncService( serviceType, filter, timeoutInMillis );
+    }
+
+    /**
+     * {@inheritDoc} The prepared bundle is streamed to the test container. Delegates to
+     * {@link RemoteBundleContextClient}.
+     */
     public long installBundle( final String bundleUrl )
     {
         LOG.debug( "Preparing and Installing bundle [" + bundleUrl + "] .." );
         long id = 0;
         try
         {
-            id =
-                m_remoteBundleContextClient.installBundle( m_store.getLocation( storeAndGetData( bundleUrl ) ).toASCIIString() );
+            final String location = prepareProbe( bundleUrl );
+            id = getRemoteBundleContextClient().installBundle( location, new URL( location ).openStream() );
         }
         catch ( IOException e )
         {
@@ -192,32 +303,19 @@ class PaxRunnerTestContainer
         return id;
     }
 
-    private Handle storeAndGetData( String bundleUrl )
+    /**
+     * Builds and customizes the bundle to be installed, unless already available in the probe cache.
+     *
+     * @param bundleUrl url of the bundle
+     *
+     * @return location of the built bundle
+     *
+     * @throws IOException - If bundle cannot be built
+     */
+    private String prepareProbe( final String bundleUrl )
+        throws IOException
     {
-        try
-        {
-            Handle handle = m_cache.get( bundleUrl );
-            if ( handle == null )
-            {
-                // new, so build, customize and store
-                URL url = new URL( bundleUrl );
-                InputStream in = url.openStream();
-
-                in = m_customizers.customizeTestProbe( in );
-
-                // store in and overwrite handle
-                handle = m_store.store( in );
-                m_cache.put( bundleUrl, handle );
-
-            }
-            return handle;
-
-        }
-        catch ( Exception e )
-        {
-            LOG.error( "problem in preparing probe. ", e );
-        }
-        return null;
+        return m_probeCache.get( bundleUrl, m_arguments.getCustomizers() ).toURI().toASCIIString();
     }
 
     /**
@@ -226,11 +324,38 @@ class PaxRunnerTestContainer
     public long installBundle( final String bundleLocation, final byte[] bundle )
     {
         LOG.debug( "Installing bundle [" + bundleLocation + "] .." );
-        final long id = m_remoteBundleContextClient.installBundle( bundleLocation, bundle );
+        final long id = getRemoteBundleContextClient().installBundle( bundleLocation, bundle );
         LOG.debug( "Installed bundle " + bundleLocation + " as ID: " + id );
         return id;
     }
 
+    /**
+     * {@inheritDoc} Bundles to be installed from an url are prepared and streamed the same way as by
+     * {@link #installBundle(String)}. Delegates to {@link RemoteBundleContextClient}.
+     */
+    public Object[] execute( final TestContainerOperation... operations )
+    {
+        final TestContainerOperation[] prepared = new TestContainerOperation[operations.length];
+        for ( int i = 0; i < operations.length; i++ )
+        {
+            prepared[i] = operations[i];
+            if ( operations[i].getType() == TestContainerOperation.Type.INSTALL_BUNDLE
+                && operations[i].getContent() == null )
+            {
+                try
+                {
+                    prepared[i] = operations[i].withLocation( prepareProbe( operations[i].getLocation() ) );
+                }
+                catch ( IOException e )
+                {
+                    throw new RuntimeException( e );
+                }
+            }
+        }
+        LOG.debug( "Executing batch of " + operations.length + " operations" );
+        return getRemoteBundleContextClient().execute( prepared );
+    }
+
     /**
      * {@inheritDoc} Delegates to {@link RemoteBundleContextClient}.
      */
@@ -238,17 +363,28 @@ class PaxRunnerTestContainer
         throws TestContainerException
     {
         LOG.debug( "Starting test bundle with ID " + bundleId );
-        m_remoteBundleContextClient.startBundle( bundleId );
+        getRemoteBundleContextClient().startBundle( bundleId );
         LOG.debug( "Started test bundle with ID " + bundleId );
     }
 
+    /**
+     * {@inheritDoc} Delegates to {@link RemoteBundleContextClient}.
+     */
+    public void uninstallBundle( final long bundleId )
+        throws TestContainerException
+    {
+        LOG.debug( "Uninstalling bundle with ID " + bundleId );
+        getRemoteBundleContextClient().uninstallBundle( bundleId );
+        LOG.debug( "Uninstalled bundle with ID " + bundleId );
+    }
+
     /**
      * {@inheritDoc} Delegates to {@link RemoteBundleContextClient}.
      */
     public void setBundleStartLevel( final long bundleId, final int startLevel )
         throws TestContainerException
     {
-        m_remoteBundleContextClient.setBundleStartLevel( bundleId, startLevel );
+        getRemoteBundleContextClient().setBundleStartLevel( bundleId, startLevel );
     }
 
     /**
@@ -257,26 +393,35 @@ class PaxRunnerTestContainer
     public void start()
     {
         LOG.info( "Starting up the test container (Pax Runner " + Info.getPaxRunnerVersion() + " )" );
-        /**
-         */
+        if ( m_arguments.getDownloadCache() != null
+             && !m_arguments.getWorkingFolder().mkdirs() && !m_arguments.getWorkingFolder().isDirectory() )
+        {
+            throw new TestContainerException( "Cannot create isolated working folder "
+                + m_arguments.getWorkingFolder().getAbsolutePath() );
+        }
         m_semaphore = new TestContainerSemaphore( m_arguments.getWorkingFolder() );
-        // this makes sure the system is ready to launch a new instance.
-        // this could fail, based on what acquire actually checks.
-        // this also creates some persistent mark that will be removed by m_semaphore.release()
-        if ( !m_semaphore.acquire() )
+        // this makes sure no other instance (from this or another JVM) runs in the same working folder.
+        // an isolated working folder is never contended, while the default one is waited for.
+        if ( !m_semaphore.acquire( m_startTimeout ) )
         {
-            // here we can react.
-            // Prompt user with the fact that there might be another instance running.
-            if ( !FileUtils.delete( m_arguments.getWorkingFolder() ) )
-            {
-                throw new RuntimeException( "There might be another instance of Pax Exam running. Have a look at "
-                    + m_semaphore.getLockFile().getAbsolutePath() );
-            }
+            throw new TestContainerException( "There is another instance of Pax Exam running in "
+                + m_arguments.getWorkingFolder().getAbsolutePath() + ". Use isolatedWorkspace() option to run "
+                + "test containers side by side." );
+        }
+        if ( m_downloadCache != null )
+        {
+            m_downloadCache.seed( m_arguments.getWorkingFolder() );
         }
+        final boolean restored = m_frameworkSnapshot != null
+                                 && m_frameworkSnapshot.restore( m_arguments.getWorkingFolder() );
+        final String[] arguments = m_arguments.getArguments( openTransport() );
 
         long startedAt = System.currentTimeMillis();
-        URLUtils.resetURLStreamHandlerFactory();
-        Run.start( m_javaRunner, m_arguments.getArguments() );
+        synchronized( LAUNCH_LOCK )
+        {
+            URLUtils.resetURLStreamHandlerFactory();
+            Run.start( m_javaRunner, arguments );
+        }
         LOG.info( "Test container (Pax Runner " + Info.getPaxRunnerVersion() + ") started in "
             + ( System.currentTimeMillis() - startedAt ) + " millis" );
 
@@ -291,9 +436,18 @@ class PaxRunnerTestContainer
             throw new TimeoutException( "Test container did not initialize in the expected time of " + m_startTimeout
                 + " millis" );
         }
+        // the snapshot is captured on stop, once the framework storage is not changing anymore
+        m_capturePending = m_frameworkSnapshot != null && !restored;
         m_customizers.customizeEnvironment( m_arguments.getWorkingFolder() );
+        // the baseline is only needed to reset the framework, so not captured for test containers used only once
+        if ( m_resettable || m_capturePending )
+        {
+            getRemoteBundleContextClient().captureBaseline();
+        }
+        m_bootFingerprint = OptionsDelta.fingerprint( m_bootOptions );
 
         m_started = true;
+        m_reusable = true;
     }
 
     /**
@@ -302,10 +456,13 @@ class PaxRunnerTestContainer
     public void stop()
     {
         LOG.info( "Shutting down the test container (Pax Runner)" );
+        final long startedAt = System.currentTimeMillis();
+        final boolean started = m_started;
         try
         {
             if ( m_started )
             {
+                final boolean capture = m_capturePending && resetForSnapshot();
                 if ( m_remoteBundleContextClient != null )
                 {
                     m_remoteBundleContextClient.stop();
@@ -314,35 +471,198 @@ class PaxRunnerTestContainer
                 {
                     m_javaRunner.waitForExit();
                 }
-
-                if ( m_registry != null )
+                if ( capture )
                 {
-                    try {
-                        UnicastRemoteObject.unexportObject( m_registry, true );
-                    } catch (NoSuchObjectException e) {
-                        LOG.error( "Problem in shutting down RMI registry. ", e );
-                    }
-                    // this is necessary, unfortunately.. RMI wouldn' stop otherwise
-                    System.gc();
-                    LOG.info( "RMI registry stopped" );
-                    m_registry = null;
+                    m_frameworkSnapshot.capture( m_arguments.getWorkingFolder() );
                 }
             }
         }
         finally
         {
-            m_semaphore.release();
+            if ( m_socket != null )
+            {
+                m_socket.close();
+                m_socket = null;
+            }
+            if ( m_registryAcquired )
+            {
+                SharedRegistry.release( m_remoteBundleContextClient.getRmiName() );
+                m_registryAcquired = false;
+            }
+            m_remoteBundleContextClient = null;
+            if ( m_semaphore != null )
+            {
+                m_semaphore.release();
+            }
             m_started = false;
+            m_reusable = false;
+            m_capturePending = false;
+            m_reconfiguredBundles.clear();
+            m_options = m_bootOptions;
+            if ( m_downloadCache != null && m_arguments.getWorkingFolder().exists() )
+            {
+                if ( started )
+                {
+                    m_downloadCache.publish( m_arguments.getWorkingFolder() );
+                }
+                if ( !FileUtils.delete( m_arguments.getWorkingFolder() ) )
+                {
+                    LOG.warn( "Cannot delete isolated working folder " + m_arguments.getWorkingFolder() );
+                }
+            }
+            if ( started )
+            {
+                m_teardownTime = System.currentTimeMillis() - startedAt;
+                LOG.info( "Test container stopped in " + m_teardownTime + " millis" );
+            }
         }
     }
 
+    /**
+     * Resets the framework to the state it had after start, so the framework storage captured as snapshot after stop
+     * does not contain anything installed by the tests.
+     * 
+     * @return true if the framework was reset and the snapshot can be captured
+     */
+    private boolean resetForSnapshot()
+    {
+        if ( m_options != m_bootOptions )
+        {
+            LOG.info( "Framework snapshot not captured as test container was reconfigured" );
+            return false;
+        }
+        try
+        {
+            for ( String leftover : reset() )
+            {
+                // bundles that could not be restored would be missing from or stale in the snapshot
+                if ( leftover.startsWith( "Bundle [" ) )
+                {
+                    LOG.info( "Framework snapshot not captured: " + leftover );
+                    return false;
+                }
+            }
+            return true;
+        }
+        catch ( RuntimeException e )
+        {
+            LOG.warn( "Framework snapshot not captured as framework cannot be reset: " + e.getMessage() );
+            return false;
+        }
+    }
+
+    /**
+     * {@inheritDoc} Bundles and system properties added on top of the options the test container was started with are
+     * applied via {@link RemoteBundleContextClient}: system properties are set, bundles that are not wanted anymore are
+     * uninstalled, new bundles are installed, packages are refreshed once (if bundles were uninstalled) and finally
+     * the new bundles are started.
+     */
+    public boolean reconfigure( final Option... options )
+    {
+        if ( !m_started || !m_reusable )
+        {
+            return false;
+        }
+        final OptionsDelta delta = OptionsDelta.of( m_bootFingerprint, m_bootOptions, m_options, options );
+        if ( delta == null )
+        {
+            LOG.debug( "Options cannot be applied without restarting the test container" );
+            return false;
+        }
+        LOG.info( "Reconfiguring test container: " + delta );
+        boolean reconfigured = false;
+        try
+        {
+            for ( Map.Entry<String, String> property : delta.getProperties().entrySet() )
+            {
+                getRemoteBundleContextClient().setSystemProperty( property.getKey(), property.getValue() );
+            }
+            for ( String url : delta.getUninstall() )
+            {
+                final Long bundleId = m_reconfiguredBundles.remove( url );
+                if ( bundleId == null )
+                {
+                    throw new TestContainerException( "Bundle [" + url + "] was not installed via reconfiguration" );
+                }
+                getRemoteBundleContextClient().uninstallBundle( bundleId );
+            }
+            final List<Long> toStart = new ArrayList<Long>();
+            for ( ProvisionOption bundle : delta.getInstall() )
+            {
+                final long bundleId;
+                try
+                {
+                    bundleId = getRemoteBundleContextClient().installBundle(
+                        bundle.getURL(), new URL( bundle.getURL() ).openStream()
+                    );
+                }
+                catch ( IOException e )
+                {
+                    throw new TestContainerException( "Bundle [" + bundle.getURL() + "] cannot be read", e );
+                }
+                m_reconfiguredBundles.put( bundle.getURL(), bundleId );
+                if ( bundle.getStartLevel() != null )
+                {
+                    getRemoteBundleContextClient().setBundleStartLevel( bundleId, bundle.getStartLevel() );
+                }
+                if ( bundle.shouldStart() )
+                {
+                    toStart.add( bundleId );
+                }
+            }
+            if ( !delta.getUninstall().isEmpty() )
+            {
+                getRemoteBundleContextClient().refreshPackages( m_startTimeout );
+            }
+            for ( Long bundleId : toStart )
+            {
+                getRemoteBundleContextClient().startBundle( bundleId );
+            }
+            m_options = expand( options );
+            if ( m_resettable )
+            {
+                getRemoteBundleContextClient().captureBaseline();
+            }
+            reconfigured = true;
+        }
+        finally
+        {
+            if ( !reconfigured )
+            {
+                LOG.warn( "Test container failed to reconfigure and cannot be reused" );
+                m_reusable = false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return true if started and no reconfiguration failed since, so the test container can be put back into a pool
+     */
+    boolean isReusable()
+    {
+        return m_reusable;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return time (in millis) it took to stop the test container the last time it was stopped or -1 if never stopped
+     */
+    public long getTeardownTime()
+    {
+        return m_teardownTime;
+    }
+
     /**
      * {@inheritDoc}
      */
     public void waitForState( final long bundleId, final int state, final long timeoutInMillis )
         throws TimeoutException
     {
-        m_remoteBundleContextClient.waitForState( bundleId, state, timeoutInMillis );
+        getRemoteBundleContextClient().waitForState( bundleId, state, timeoutInMillis );
     }
 
     /**
@@ -352,18 +672,69 @@ class PaxRunnerTestContainer
      */
     private Option[] localOptions()
     {
+        if ( m_socketTransport )
+        {
+            return new Option[] {
+                mavenBundle().groupId( "org.ops4j.pax.exam" ).artifactId( "pax-exam-container-rbc" ).version(
+                    Info.getPaxExamVersion() ).update( Info.isPaxExamSnapshotVersion() ).startLevel(
+                    START_LEVEL_SYSTEM_BUNDLES ),
+                // socket transport
+                systemProperty( Constants.TRANSPORT_PROPERTY ).value( Constants.TRANSPORT_SOCKET ),
+                bootDelegationPackage( "sun.*" ) };
+        }
         return new Option[] {
         // remote bundle context bundle
             mavenBundle().groupId( "org.ops4j.pax.exam" ).artifactId( "pax-exam-container-rbc" ).version(
                                                                                                           Info.getPaxExamVersion() ).update(
                                                                                                                                              Info.isPaxExamSnapshotVersion() ).startLevel(
                                                                                                                                                                                            START_LEVEL_SYSTEM_BUNDLES ),
-            // rmi communication port
-            systemProperty( Constants.RMI_PORT_PROPERTY ).value( m_remoteBundleContextClient.getRmiPort().toString() ),
             // boot delegation for sun.*. This seems only necessary in Knopflerfish version > 2.0.0
             bootDelegationPackage( "sun.*" ) };
     }
 
+    /**
+     * Opens the transport the remote bundle context is accessed over (a socket or the shared RMI registry) and creates
+     * the remote bundle context client. Released on stop.
+     * 
+     * @return system properties telling the remote bundle context where to connect to (socket port) or to bind under
+     *         (rmi port and name)
+     */
+    private SystemPropertyOption[] openTransport()
+    {
+        if ( m_socketTransport )
+        {
+            m_socket = new RemoteBundleContextSocket();
+            m_remoteBundleContextClient = new RemoteBundleContextClient( m_socket, m_rmiTimeout );
+            return new SystemPropertyOption[] {
+                systemProperty( Constants.SOCKET_PORT_PROPERTY ).value( String.valueOf( m_socket.getPort() ) ) };
+        }
+        final int registryPort = SharedRegistry.acquire();
+        m_registryAcquired = true;
+        m_remoteBundleContextClient = new RemoteBundleContextClient(
+            registryPort, RemoteBundleContext.class.getName() + "/" + UUID.randomUUID(), m_rmiTimeout
+        );
+        return new SystemPropertyOption[] {
+            // rmi communication port and name to bind the remote bundle context under
+            systemProperty( Constants.RMI_PORT_PROPERTY ).value( String.valueOf( registryPort ) ),
+            systemProperty( Constants.RMI_NAME_PROPERTY ).value( m_remoteBundleContextClient.getRmiName() ) };
+    }
+
+    /**
+     * Returns the remote bundle context client.
+     * 
+     * @return remote bundle context client
+     * 
+     * @throws TestContainerException - If test container was not started
+     */
+    private RemoteBundleContextClient getRemoteBundleContextClient()
+    {
+        if ( m_remoteBundleContextClient == null )
+        {
+            throw new TestContainerException( "Test container not started" );
+        }
+        return m_remoteBundleContextClient;
+    }
+
     /**
      * Wrap provision options that are not already scanner provision bundles with a {@link BundleScannerProvisionOption}
      * in order to force update.
@@ -371,7 +742,7 @@ class PaxRunnerTestContainer
      * @param options options to be wrapped (can be null or an empty array)
      * @return eventual wrapped bundles
      */
-    private Option[] wrap( final Option... options )
+    static Option[] wrap( final Option... options )
     {
         if ( options != null && options.length > 0 )
         {
@@ -403,6 +774,23 @@ class PaxRunnerTestContainer
         return options;
     }
 
+    /**
+     * Collects the urls of provisioned bundles.
+     * 
+     * @param options user options
+     * @return urls of provisioned bundles
+     */
+    private static String[] getProvisionedUrls( final Option... options )
+    {
+        final ProvisionOption[] bundles = filter( ProvisionOption.class, options );
+        final String[] urls = new String[bundles.length];
+        for ( int i = 0; i < bundles.length; i++ )
+        {
+            urls[ i ] = bundles[ i ].getURL();
+        }
+        return urls;
+    }
+
     /**
      * Determine the rmi lookup timeout.<br/>
      * Timeout is dermined by first looking for a {@link RBCLookupTimeoutOption} in the user options. If not specified a
@@ -440,31 +828,62 @@ class PaxRunnerTestContainer
         return CoreOptions.waitForFrameworkStartup().getTimeout();
     }
 
-    @Override
-    public String toString()
+    /**
+     * Resets the framework to the state it had after start (or after the last reconfiguration): bundles installed since
+     * are uninstalled, states and start levels of the other bundles are restored and packages are refreshed once.
+     *
+     * @return descriptions of services and threads left over by tests (never null)
+     *
+     * @throws TestContainerException - If framework cannot be reset or the test container is not resettable
+     */
+    String[] reset()
     {
-        return "PaxRunnerTestContainer{}";
+        if ( !m_resettable && !m_capturePending )
+        {
+            throw new TestContainerException( "Test container is not resettable" );
+        }
+        return getRemoteBundleContextClient().resetToBaseline( m_startTimeout );
     }
 
     /**
-     * Creates an RMI registry on the first free port found.
+     * Returns the counts of class loaders of uninstalled bundles that were tracked and that were still retained at the
+     * last leak check.
+     *
+     * @return class loader leak counts
      *
-     * @return RMI registry
+     * @throws TestContainerException - If counts cannot be retrieved
      */
-    protected int createRegistry()
+    ClassLoaderLeaks getClassLoaderLeaks()
     {
-        for( int port = Registry.REGISTRY_PORT; port <= Registry.REGISTRY_PORT + AMOUNT_OF_PORTS_TO_CHECK; port++ )
-        {
-            try {
-                m_registry = LocateRegistry.createRegistry( port );
-                LOG.info( "RMI registry started on port [" + port + "]" );
-                return port;
-            } catch (Exception e) {
-                // ignore and try next port number
-            }
-        }
+        return getRemoteBundleContextClient().getClassLoaderLeaks( false );
+    }
 
-        throw new RuntimeException( "No free port in range " + Registry.REGISTRY_PORT + ":" + Registry.REGISTRY_PORT + AMOUNT_OF_PORTS_TO_CHECK );
+    /**
+     * Checks if the test container can be reconfigured to run with other options, without restarting it.
+     *
+     * @param options options the test container should run with
+     *
+     * @return true if {@link #reconfigure(Option...)} will not require a restart
+     */
+    boolean canReconfigure( final Option... options )
+    {
+        return m_started && OptionsDelta.of( m_bootFingerprint, m_bootOptions, m_options, options ) != null;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return working folder used by Pax Runner
+     */
+    File getWorkingFolder()
+    {
+        return m_arguments.getWorkingFolder();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "PaxRunnerTestContainer{}";
     }
 
 }
@@ -17,13 +17,22 @@
  */
 package org.ops4j.pax.exam.container.def.internal;
 
+import static org.ops4j.pax.exam.OptionUtils.filter;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.ops4j.pax.exam.Option;
+import org.ops4j.pax.exam.container.def.options.ContainerPoolOption;
+import org.ops4j.pax.exam.container.def.options.IsolatedWorkspaceOption;
 import org.ops4j.pax.exam.spi.container.TestContainer;
 import org.ops4j.pax.exam.spi.container.TestContainerFactory;
 import org.ops4j.pax.runner.platform.DefaultJavaRunner;
 
 /**
  * Factory for {@link PaxRunnerTestContainer}.
+ * If the options contain a {@link ContainerPoolOption} the created test containers are leased from a JVM wide pool of
+ * started test containers. If the pool option enables prefetching, test containers are started in background when
+ * prefetched.
  *
  * @author Alin Dreghiciu (adreghiciu@gmail.com)
  * @since 0.3.0, December 09, 2008
@@ -32,12 +41,47 @@ public class PaxRunnerTestContainerFactory
     implements TestContainerFactory
 {
 
+    /**
+     * JCL logger.
+     */
+    private static final Log LOG = LogFactory.getLog( PaxRunnerTestContainerFactory.class );
+
+    /**
+     * JVM wide pool of started test containers.
+     */
+    private static final TestContainerPool POOL = new TestContainerPool();
+
     /**
      * {@inheritDoc}
      */
     public TestContainer newInstance( final Option... options )
     {
+        final ContainerPoolOption[] poolOptions = filter( ContainerPoolOption.class, options );
+        if( poolOptions.length > 0 )
+        {
+            return new PooledTestContainer( POOL, poolOptions[ 0 ], options );
+        }
         return new PaxRunnerTestContainer( new DefaultJavaRunner( false ), options );
     }
 
+    /**
+     * {@inheritDoc}
+     * Test containers are prefetched only if the options contain a {@link ContainerPoolOption} that enables
+     * prefetching and an {@link IsolatedWorkspaceOption}.
+     */
+    public void prefetch( final Option... options )
+    {
+        final ContainerPoolOption[] poolOptions = filter( ContainerPoolOption.class, options );
+        if( poolOptions.length == 0 || poolOptions[ 0 ].getPrefetch() == 0 )
+        {
+            return;
+        }
+        if( filter( IsolatedWorkspaceOption.class, options ).length == 0 )
+        {
+            LOG.debug( "Test container not prefetched as it does not use an isolated workspace" );
+            return;
+        }
+        POOL.prefetch( OptionsFingerprint.of( options ), poolOptions[ 0 ], options );
+    }
+
 }
@@ -0,0 +1,327 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.container.def.internal;
+
+import static org.ops4j.pax.exam.Constants.NO_WAIT;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.ops4j.pax.exam.Option;
+import org.ops4j.pax.exam.container.def.options.ContainerPoolOption;
+import org.ops4j.pax.exam.spi.container.AsyncService;
+import org.ops4j.pax.exam.spi.container.TestContainer;
+import org.ops4j.pax.exam.spi.container.TestContainerException;
+import org.ops4j.pax.exam.spi.container.TestContainerOperation;
+import org.ops4j.pax.exam.spi.container.TimeoutException;
+import org.ops4j.pax.runner.platform.DefaultJavaRunner;
+import org.osgi.framework.Bundle;
+
+/**
+ * {@link TestContainer} leased from a {@link TestContainerPool}. On start an idle test container with the same options
+ * fingerprint is taken out of the pool. If there is none, an idle test container that can be reconfigured to run with
+ * the options is taken out of the pool and reconfigured; otherwise a new {@link PaxRunnerTestContainer} is started.
+ * On stop the framework is reset to the state it had after start (bundles installed during the lease are uninstalled,
+ * bundle states and start levels are restored) and the test container is put back into the pool, unless a
+ * reconfiguration failed halfway or it retains too many class loaders of uninstalled bundles.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+class PooledTestContainer
+    implements TestContainer
+{
+
+    /**
+     * JCL logger.
+     */
+    private static final Log LOG = LogFactory.getLog( PooledTestContainer.class );
+
+    /**
+     * Pool from where the test container is leased.
+     */
+    private final TestContainerPool m_pool;
+    /**
+     * Pool settings.
+     */
+    private final ContainerPoolOption m_poolOption;
+    /**
+     * User options.
+     */
+    private Option[] m_options;
+    /**
+     * Fingerprint of user options.
+     */
+    private String m_fingerprint;
+    /**
+     * Leased test container. Null if not started.
+     */
+    private PaxRunnerTestContainer m_container;
+
+    /**
+     * Constructor.
+     *
+     * @param pool       pool from where the test container is leased
+     * @param poolOption pool settings
+     * @param options    user startup options
+     */
+    PooledTestContainer( final TestContainerPool pool,
+                         final ContainerPoolOption poolOption,
+                         final Option... options )
+    {
+        m_pool = pool;
+        m_poolOption = poolOption;
+        m_options = options;
+        m_fingerprint = OptionsFingerprint.of( options );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public <T> T getService( final Class<T> serviceType )
+    {
+        return getContainer().getService( serviceType );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public <T> T getService( final Class<T> serviceType,
+                             final long timeoutInMillis )
+    {
+        return getContainer().getService( serviceType, timeoutInMillis );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public <T> T getService( final Class<T> serviceType,
+                             final String filter,
+                             final long timeoutInMillis )
+    {
+        return getContainer().getService( serviceType, filter, timeoutInMillis );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public AsyncService getAsyncService( final Class<?> serviceType,
+                                         final String filter,
+                                         final long timeoutInMillis )
+    {
+        return getContainer().getAsyncService( serviceType, filter, timeoutInMillis );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long installBundle( final String bundleUrl )
+    {
+        return getContainer().installBundle( bundleUrl );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long installBundle( final String bundleLocation,
+                               final byte[] bundle )
+    {
+        return getContainer().installBundle( bundleLocation, bundle );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void startBundle( final long bundleId )
+    {
+        getContainer().startBundle( bundleId );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void uninstallBundle( final long bundleId )
+    {
+        getContainer().uninstallBundle( bundleId );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void setBundleStartLevel( final long bundleId,
+                                     final int startLevel )
+    {
+        getContainer().setBundleStartLevel( bundleId, startLevel );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void waitForState( final long bundleId,
+                              final int state,
+                              final long timeoutInMillis )
+        throws TimeoutException
+    {
+        getContainer().waitForState( bundleId, state, timeoutInMillis );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Object[] execute( final TestContainerOperation... operations )
+    {
+        return getContainer().execute( operations );
+    }
+
+    /**
+     * {@inheritDoc}
+     * Leases an idle test container from the pool (reconfiguring it if necessary) or starts a new one.
+     */
+    public void start()
+    {
+        m_container = m_pool.lease( m_fingerprint );
+        if( m_container == null )
+        {
+            m_container = leaseReconfigured();
+        }
+        if( m_container == null )
+        {
+            final PaxRunnerTestContainer container =
+                new PaxRunnerTestContainer( new DefaultJavaRunner( false ), true, m_options );
+            m_pool.evict( container.getWorkingFolder() );
+            try
+            {
+                container.start();
+            }
+            catch( RuntimeException e )
+            {
+                container.stop();
+                throw e;
+            }
+            m_container = container;
+        }
+    }
+
+    /**
+     * Leases an idle test container that can be reconfigured to run with the user options and reconfigures it.
+     *
+     * @return reconfigured test container or null if there is no idle test container that could be reconfigured
+     */
+    private PaxRunnerTestContainer leaseReconfigured()
+    {
+        final PaxRunnerTestContainer container = m_pool.leaseReconfigurable( m_options );
+        if( container == null )
+        {
+            return null;
+        }
+        try
+        {
+            if( container.reconfigure( m_options ) )
+            {
+                return container;
+            }
+        }
+        catch( RuntimeException e )
+        {
+            LOG.warn( "Pooled test container cannot be reconfigured and will be stopped: " + e.getMessage() );
+        }
+        container.stop();
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The leased test container is reconfigured, so on stop it is put back into the pool with the new options.
+     */
+    public boolean reconfigure( final Option... options )
+    {
+        if( !getContainer().reconfigure( options ) )
+        {
+            return false;
+        }
+        m_options = options;
+        m_fingerprint = OptionsFingerprint.of( options );
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Uninstalls the bundles installed during the lease and puts back the test container into the pool. If the test
+     * container is not anymore usable it is stopped.
+     */
+    public void stop()
+    {
+        if( m_container == null )
+        {
+            return;
+        }
+        final PaxRunnerTestContainer container = m_container;
+        m_container = null;
+        if( !container.isReusable() )
+        {
+            LOG.warn( "Test container failed to reconfigure and will be stopped instead of being reused" );
+            container.stop();
+            return;
+        }
+        try
+        {
+            for( String leftover : container.reset() )
+            {
+                LOG.warn( "Left over by test in pooled test container [" + m_fingerprint + "]: " + leftover );
+            }
+            container.waitForState( 0, Bundle.ACTIVE, NO_WAIT );
+            final int retained = container.getClassLoaderLeaks().getRetained();
+            if( retained > m_poolOption.getMaxRetainedClassLoaders() )
+            {
+                LOG.warn( "Test container retains class loaders of " + retained + " uninstalled bundles and will be"
+                          + " stopped instead of being reused"
+                );
+                container.stop();
+                return;
+            }
+        }
+        catch( RuntimeException e )
+        {
+            LOG.warn( "Test container cannot be reused and will be stopped: " + e.getMessage() );
+            container.stop();
+            return;
+        }
+        m_pool.release( m_fingerprint, container, m_poolOption );
+    }
+
+    /**
+     * Returns the leased test container.
+     *
+     * @return leased test container
+     *
+     * @throws TestContainerException - If test container was not started
+     */
+    private PaxRunnerTestContainer getContainer()
+    {
+        if( m_container == null )
+        {
+            throw new TestContainerException( "Test container not started" );
+        }
+        return m_container;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "PooledTestContainer{" + m_fingerprint + "}";
+    }
+
+}
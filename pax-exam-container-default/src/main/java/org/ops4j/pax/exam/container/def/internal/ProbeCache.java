@@ -0,0 +1,463 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.container.def.internal;
+
+import static org.ops4j.pax.exam.spi.util.CacheUtils.*;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.ops4j.pax.exam.CompositeCustomizer;
+import org.ops4j.pax.exam.Customizer;
+
+/**
+ * Persistent cache of built test probes. A test probe is built out of its url (a file: url of a prebuilt probe or a
+ * dir: url that packs the test output directory) and then customized by the customizers. Uncustomized probes built out
+ * of file: and dir: urls are cached in a cache folder under a key made out of the url and the content hash of the file
+ * or of all files of the packed directory, so an unchanged probe is built only once, also across runs. Customized
+ * probes and probes built out of other urls are only reused within the JVM, for the same customizer instances, as
+ * neither the content nor what a customizer does can be tracked.
+ * Cached probes that were not used for some time are removed, once per JVM.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+class ProbeCache
+{
+
+    /**
+     * JCL logger.
+     */
+    private static final Log LOG = LogFactory.getLog( ProbeCache.class );
+
+    /**
+     * Directory url protocol prefix.
+     */
+    private static final String DIR_PREFIX = "dir:";
+
+    /**
+     * File url protocol prefix.
+     */
+    private static final String FILE_PREFIX = "file:";
+
+    /**
+     * Directory url parameter specifying a file that identifies the packed directory.
+     */
+    private static final String TAIL_PARAMETER = "tail=";
+
+    /**
+     * Probes built or found in this JVM, by url and customizers.
+     */
+    private static final Map<ProbeKey, File> PROBES = new ConcurrentHashMap<ProbeKey, File>();
+
+    /**
+     * Content hashes of packed directories, computed once per JVM as they do not change during a run.
+     */
+    private static final Map<File, String> CONTENT_HASHES = new ConcurrentHashMap<File, String>();
+
+    /**
+     * Packed directories found so far, checked first when looking for the directory of a tail.
+     */
+    private static final List<File> ROOTS = new CopyOnWriteArrayList<File>();
+
+    /**
+     * True if old probes were already removed in this JVM.
+     */
+    private static final AtomicBoolean PURGED = new AtomicBoolean();
+
+    /**
+     * Cache folder.
+     */
+    private final File m_cacheFolder;
+
+    /**
+     * Constructor. Uses ${java.io.tmpdir}/paxexam_probes_${user.name} as cache folder.
+     */
+    ProbeCache()
+    {
+        this(
+            new File( System.getProperty( "java.io.tmpdir" ), "paxexam_probes_" + System.getProperty( "user.name" ) )
+        );
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param cacheFolder cache folder
+     */
+    ProbeCache( final File cacheFolder )
+    {
+        m_cacheFolder = cacheFolder;
+    }
+
+    /**
+     * Returns the built and customized probe, building it only if not yet cached.
+     *
+     * @param probeUrl    url of the probe
+     * @param customizers customizers to be applied to the probe
+     *
+     * @return built probe file
+     *
+     * @throws IOException - If the probe cannot be built
+     */
+    File get( final String probeUrl,
+              final Customizer[] customizers )
+        throws IOException
+    {
+        final ProbeKey key = new ProbeKey( probeUrl, customizers );
+        File probe = PROBES.get( key );
+        if( probe != null && probe.isFile() )
+        {
+            return probe;
+        }
+        m_cacheFolder.mkdirs();
+        // a customizer can do anything with the probe, so customized probes are never persisted
+        final String contentHash = key.isCustomized() ? null : getContentHash( probeUrl );
+        if( contentHash != null )
+        {
+            probe = new File( m_cacheFolder, digest( contentHash, probeUrl ) + ".jar" );
+            if( probe.isFile() )
+            {
+                LOG.debug( "Reusing cached probe " + probe + " for " + probeUrl );
+                probe.setLastModified( System.currentTimeMillis() );
+            }
+            else
+            {
+                build( probeUrl, customizers, probe );
+            }
+        }
+        else
+        {
+            probe = File.createTempFile( "probe_", ".jar", m_cacheFolder );
+            probe.deleteOnExit();
+            build( probeUrl, customizers, probe );
+        }
+        PROBES.put( key, probe );
+        if( PURGED.compareAndSet( false, true ) && purge( m_cacheFolder ) > 0 )
+        {
+            LOG.debug( "Cannot remove some old probes from " + m_cacheFolder );
+        }
+        return probe;
+    }
+
+    /**
+     * Builds and customizes the probe. The probe is built under a temporary name and renamed afterwards so no partial
+     * probes are ever visible.
+     *
+     * @param probeUrl    url of the probe
+     * @param customizers customizers to be applied to the probe
+     * @param probe       file to build the probe into
+     *
+     * @throws IOException - If the probe cannot be built
+     */
+    private void build( final String probeUrl,
+                        final Customizer[] customizers,
+                        final File probe )
+        throws IOException
+    {
+        LOG.debug( "Building probe " + probeUrl );
+        final File tempFile = File.createTempFile( "probe_", ".tmp", m_cacheFolder );
+        try
+        {
+            final InputStream in;
+            try
+            {
+                in = new CompositeCustomizer( customizers ).customizeTestProbe( new URL( probeUrl ).openStream() );
+            }
+            catch( IOException e )
+            {
+                throw e;
+            }
+            catch( Exception e )
+            {
+                final IOException ioException = new IOException( "Cannot customize probe " + probeUrl );
+                ioException.initCause( e );
+                throw ioException;
+            }
+            copy( in, tempFile );
+            // if the rename fails as the probe exists, another JVM built the same probe in the mean time
+            if( !tempFile.renameTo( probe ) && !( probe.delete() && tempFile.renameTo( probe ) ) && !probe.isFile() )
+            {
+                throw new IOException( "Cannot store probe " + probe );
+            }
+        }
+        finally
+        {
+            tempFile.delete();
+        }
+    }
+
+    /**
+     * Computes the content hash of the file of a file: url or of the directory packed by a dir: url.
+     *
+     * @param probeUrl url of the probe
+     *
+     * @return content hash or null if the url is not a file: or dir: url or the file / directory cannot be found
+     *
+     * @throws IOException - If a file cannot be read
+     */
+    private static String getContentHash( final String probeUrl )
+        throws IOException
+    {
+        if( probeUrl.startsWith( FILE_PREFIX ) )
+        {
+            final File file;
+            try
+            {
+                file = new File( new URL( probeUrl ).toURI() );
+            }
+            catch( Exception e )
+            {
+                return null;
+            }
+            if( !file.isFile() )
+            {
+                return null;
+            }
+            final MessageDigest digest = newDigest();
+            update( digest, file );
+            return toHex( digest.digest() );
+        }
+        if( !probeUrl.startsWith( DIR_PREFIX ) )
+        {
+            return null;
+        }
+        final int parameters = probeUrl.indexOf( '$' );
+        final File base = new File( probeUrl.substring( DIR_PREFIX.length(), parameters < 0 ? probeUrl.length()
+                                                                                            : parameters ) );
+        String tail = null;
+        if( parameters >= 0 )
+        {
+            for( String parameter : probeUrl.substring( parameters + 1 ).split( "&" ) )
+            {
+                if( parameter.startsWith( TAIL_PARAMETER ) )
+                {
+                    tail = parameter.substring( TAIL_PARAMETER.length() );
+                }
+            }
+        }
+        final File root = tail == null ? base : findRoot( base, tail );
+        if( root == null )
+        {
+            return null;
+        }
+        String contentHash = CONTENT_HASHES.get( root );
+        if( contentHash == null )
+        {
+            final MessageDigest digest = newDigest();
+            hash( digest, root, "" );
+            contentHash = toHex( digest.digest() );
+            CONTENT_HASHES.put( root, contentHash );
+        }
+        return contentHash;
+    }
+
+    /**
+     * Finds the directory that contains the tail, the same way the dir: url handler does (breadth first).
+     *
+     * @param base base directory
+     * @param tail relative path of a file identifying the packed directory
+     *
+     * @return packed directory or null if not found
+     */
+    private static File findRoot( final File base,
+                                  final String tail )
+    {
+        for( File root : ROOTS )
+        {
+            if( new File( root, tail ).isFile() && root.getAbsolutePath().startsWith( base.getAbsolutePath() ) )
+            {
+                return root;
+            }
+        }
+        final List<File> queue = new ArrayList<File>();
+        queue.add( base );
+        for( int i = 0; i < queue.size(); i++ )
+        {
+            final File folder = queue.get( i );
+            if( new File( folder, tail ).isFile() )
+            {
+                ROOTS.add( folder );
+                return folder;
+            }
+            final File[] children = folder.listFiles();
+            if( children != null )
+            {
+                for( File child : children )
+                {
+                    if( child.isDirectory() )
+                    {
+                        queue.add( child );
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Adds the relative paths and content of all files of a directory to the digest, in a stable order.
+     *
+     * @param digest message digest
+     * @param folder directory to hash
+     * @param path   relative path of directory
+     *
+     * @throws IOException - If a file cannot be read
+     */
+    private static void hash( final MessageDigest digest,
+                              final File folder,
+                              final String path )
+        throws IOException
+    {
+        final File[] files = folder.listFiles();
+        if( files == null )
+        {
+            return;
+        }
+        Arrays.sort( files );
+        for( File file : files )
+        {
+            final String filePath = path + "/" + file.getName();
+            if( file.isDirectory() )
+            {
+                hash( digest, file, filePath );
+            }
+            else
+            {
+                update( digest, filePath );
+                update( digest, file );
+            }
+        }
+    }
+
+    /**
+     * Copies a stream into a file and closes the stream.
+     *
+     * @param in   stream to copy
+     * @param file target file
+     *
+     * @throws IOException - If stream cannot be copied
+     */
+    private static void copy( final InputStream in,
+                              final File file )
+        throws IOException
+    {
+        final FileOutputStream out = new FileOutputStream( file );
+        try
+        {
+            final byte[] buffer = new byte[8192];
+            int read;
+            while( ( read = in.read( buffer ) ) > 0 )
+            {
+                out.write( buffer, 0, read );
+            }
+        }
+        finally
+        {
+            in.close();
+            out.close();
+        }
+    }
+
+    /**
+     * Key of probes cached in the JVM. Customizers are compared by identity, as a customizer is free to customize the
+     * probe in any way (also depending on its state), so only the same customizer instance is known to do the same.
+     */
+    private static class ProbeKey
+    {
+
+        /**
+         * Url of the probe.
+         */
+        private final String m_probeUrl;
+        /**
+         * Customizers to be applied to the probe (never null).
+         */
+        private final Customizer[] m_customizers;
+
+        /**
+         * Constructor.
+         *
+         * @param probeUrl    url of the probe
+         * @param customizers customizers to be applied to the probe (can be null)
+         */
+        ProbeKey( final String probeUrl,
+                  final Customizer[] customizers )
+        {
+            m_probeUrl = probeUrl;
+            m_customizers = customizers == null ? new Customizer[0] : customizers.clone();
+        }
+
+        /**
+         * Returns true if the probe gets customized.
+         *
+         * @return true if there are customizers
+         */
+        boolean isCustomized()
+        {
+            return m_customizers.length > 0;
+        }
+
+        @Override
+        public boolean equals( final Object object )
+        {
+            if( !( object instanceof ProbeKey ) )
+            {
+                return false;
+            }
+            final ProbeKey other = (ProbeKey) object;
+            if( !m_probeUrl.equals( other.m_probeUrl ) || m_customizers.length != other.m_customizers.length )
+            {
+                return false;
+            }
+            for( int i = 0; i < m_customizers.length; i++ )
+            {
+                if( m_customizers[ i ] != other.m_customizers[ i ] )
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            int hashCode = m_probeUrl.hashCode();
+            for( Customizer customizer : m_customizers )
+            {
+                hashCode = 31 * hashCode + System.identityHashCode( customizer );
+            }
+            return hashCode;
+        }
+
+    }
+
+}
@@ -0,0 +1,360 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.container.def.internal;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileLock;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Properties;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.ops4j.io.StreamUtils;
+
+/**
+ * Cache of bundles downloaded by Pax Runner, shared between test containers running in isolated working folders.
+ * Test containers never write into the cache folder: before a test container is started only the cached bundles it
+ * resolves to are copied into its working folder and bundles downloaded by the test container are published into the
+ * cache after the test container is stopped. The bundles a test container resolves to (including the framework and
+ * profile bundles Pax Runner adds on its own) are recorded on publish under the fingerprint of its options; until then
+ * only the bundles provisioned by the options are seeded. Access to the cache folder is guarded by a {@link FileLock},
+ * so the cache can be shared between JVMs.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+class SharedDownloadCache
+{
+
+    /**
+     * JCL logger.
+     */
+    private static final Log LOG = LogFactory.getLog( SharedDownloadCache.class );
+
+    /**
+     * Name of the folder (relative to working folder) where Pax Runner keeps downloaded bundles.
+     */
+    private static final String BUNDLES_FOLDER = "bundles";
+
+    /**
+     * Name of the file (relative to bundles folder) where Pax Runner keeps the file names of downloaded bundles, by
+     * url.
+     */
+    private static final String DOWNLOADED_BUNDLES = "downloaded_bundles.properties";
+
+    /**
+     * Name of the folder (relative to cache folder) where the bundles resolved by test containers are recorded, by
+     * fingerprint of their options.
+     */
+    private static final String RESOLVED_FOLDER = "resolved";
+
+    /**
+     * Name of the cache lock file.
+     */
+    private static final String LOCK_FILE = "paxexam-cache.lock";
+
+    /**
+     * Lock serializing access from within this JVM, as file locks are held on behalf of the whole JVM.
+     */
+    private static final Object JVM_LOCK = new Object();
+
+    /**
+     * Shared cache folder.
+     */
+    private final File m_cacheFolder;
+
+    /**
+     * Fingerprint of the test container options.
+     */
+    private final String m_fingerprint;
+
+    /**
+     * Urls of bundles provisioned by the test container options.
+     */
+    private final Collection<String> m_urls;
+
+    /**
+     * Constructor.
+     *
+     * @param cacheFolder shared cache folder
+     * @param fingerprint fingerprint of the test container options
+     * @param urls        urls of bundles provisioned by the test container options
+     */
+    SharedDownloadCache( final File cacheFolder,
+                         final String fingerprint,
+                         final String... urls )
+    {
+        m_cacheFolder = cacheFolder;
+        m_fingerprint = fingerprint;
+        m_urls = Arrays.asList( urls );
+    }
+
+    /**
+     * Copies the cached bundles the test container resolves to into the working folder, so Pax Runner does not
+     * download them again.
+     *
+     * @param workingFolder working folder of the test container about to be started
+     */
+    void seed( final File workingFolder )
+    {
+        final File target = new File( workingFolder, BUNDLES_FOLDER );
+        final int copied = locked( "seed", new CacheAction()
+        {
+            public int run()
+                throws IOException
+            {
+                final File source = new File( m_cacheFolder, BUNDLES_FOLDER );
+                final Properties cached = load( new File( source, DOWNLOADED_BUNDLES ) );
+                final Properties resolved = load( getResolvedFile() );
+                final Collection<?> urls = resolved.isEmpty() ? m_urls : resolved.keySet();
+                final Properties seeded = new Properties();
+                int copied = 0;
+                for( Object url : urls )
+                {
+                    final String name = cached.getProperty( (String) url );
+                    if( name != null && copy( new File( source, name ), new File( target, name ) ) )
+                    {
+                        seeded.setProperty( (String) url, name );
+                        copied++;
+                    }
+                }
+                if( !seeded.isEmpty() )
+                {
+                    store( seeded, new File( target, DOWNLOADED_BUNDLES ) );
+                }
+                return copied;
+            }
+        }
+        );
+        LOG.debug( "Seeded " + copied + " cached bundles into " + workingFolder );
+    }
+
+    /**
+     * Publishes bundles downloaded by a test container into the shared cache and records the bundles it resolved to.
+     *
+     * @param workingFolder working folder of the stopped test container
+     */
+    void publish( final File workingFolder )
+    {
+        final File source = new File( workingFolder, BUNDLES_FOLDER );
+        final int copied = locked( "publish", new CacheAction()
+        {
+            public int run()
+                throws IOException
+            {
+                final Properties downloaded = load( new File( source, DOWNLOADED_BUNDLES ) );
+                if( downloaded.isEmpty() )
+                {
+                    return 0;
+                }
+                final File target = new File( m_cacheFolder, BUNDLES_FOLDER );
+                final Properties cached = load( new File( target, DOWNLOADED_BUNDLES ) );
+                int copied = 0;
+                for( Object url : downloaded.keySet() )
+                {
+                    final String name = downloaded.getProperty( (String) url );
+                    if( copy( new File( source, name ), new File( target, name ) ) )
+                    {
+                        copied++;
+                    }
+                    if( new File( target, name ).isFile() )
+                    {
+                        cached.setProperty( (String) url, name );
+                    }
+                }
+                store( cached, new File( target, DOWNLOADED_BUNDLES ) );
+                store( downloaded, getResolvedFile() );
+                return copied;
+            }
+        }
+        );
+        LOG.debug( "Published " + copied + " downloaded bundles into " + m_cacheFolder );
+    }
+
+    /**
+     * Returns the file recording the bundles resolved by test containers with the same options.
+     *
+     * @return resolved bundles file
+     */
+    private File getResolvedFile()
+    {
+        return new File( new File( m_cacheFolder, RESOLVED_FOLDER ), m_fingerprint + ".properties" );
+    }
+
+    /**
+     * Runs an action on the cache while holding the cache lock. Failures are logged and do not stop the test container
+     * from running, as the cache is only an optimization.
+     *
+     * @param description description of action
+     * @param action      action to run
+     *
+     * @return number of copied files
+     */
+    private int locked( final String description,
+                        final CacheAction action )
+    {
+        synchronized( JVM_LOCK )
+        {
+            RandomAccessFile lockFile = null;
+            FileLock lock = null;
+            try
+            {
+                m_cacheFolder.mkdirs();
+                lockFile = new RandomAccessFile( new File( m_cacheFolder, LOCK_FILE ), "rw" );
+                lock = lockFile.getChannel().lock();
+                return action.run();
+            }
+            catch( IOException e )
+            {
+                LOG.warn( "Cannot " + description + " cached bundles of " + m_cacheFolder + ": " + e.getMessage() );
+                return 0;
+            }
+            finally
+            {
+                if( lock != null )
+                {
+                    try
+                    {
+                        lock.release();
+                    }
+                    catch( IOException ignore )
+                    {
+                        // ignore, closing the file releases the lock anyhow
+                    }
+                }
+                if( lockFile != null )
+                {
+                    try
+                    {
+                        lockFile.close();
+                    }
+                    catch( IOException ignore )
+                    {
+                        // ignore
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies a file if it does not exist in the target. The file is copied under a temporary name and renamed
+     * afterwards so no partial files are ever visible.
+     *
+     * @param source source file
+     * @param target target file
+     *
+     * @return true if the file was copied
+     *
+     * @throws IOException - If file cannot be copied
+     */
+    private static boolean copy( final File source,
+                                 final File target )
+        throws IOException
+    {
+        if( !source.isFile() || target.exists() )
+        {
+            return false;
+        }
+        target.getParentFile().mkdirs();
+        final File tempFile = new File( target.getParentFile(), target.getName() + ".tmp" );
+        StreamUtils.copyStream( new FileInputStream( source ), new FileOutputStream( tempFile ), true );
+        if( !tempFile.renameTo( target ) )
+        {
+            tempFile.delete();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Loads a properties file.
+     *
+     * @param file properties file
+     *
+     * @return loaded properties (empty if the file does not exist)
+     *
+     * @throws IOException - If the file cannot be read
+     */
+    private static Properties load( final File file )
+        throws IOException
+    {
+        final Properties properties = new Properties();
+        if( file.isFile() )
+        {
+            final InputStream in = new FileInputStream( file );
+            try
+            {
+                properties.load( in );
+            }
+            finally
+            {
+                in.close();
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Stores a properties file.
+     *
+     * @param properties properties to store
+     * @param file       properties file
+     *
+     * @throws IOException - If the file cannot be written
+     */
+    private static void store( final Properties properties,
+                               final File file )
+        throws IOException
+    {
+        file.getParentFile().mkdirs();
+        final OutputStream out = new FileOutputStream( file );
+        try
+        {
+            properties.store( out, null );
+        }
+        finally
+        {
+            out.close();
+        }
+    }
+
+    /**
+     * Action run on the cache while holding the cache lock.
+     */
+    private static interface CacheAction
+    {
+
+        /**
+         * Runs the action.
+         *
+         * @return number of copied files
+         *
+         * @throws IOException - If cache cannot be accessed
+         */
+        int run()
+            throws IOException;
+
+    }
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.container.def.internal;
+
+import java.rmi.NoSuchObjectException;
+import java.rmi.NotBoundException;
+import java.rmi.RemoteException;
+import java.rmi.registry.LocateRegistry;
+import java.rmi.registry.Registry;
+import java.rmi.server.UnicastRemoteObject;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * JVM wide RMI registry shared by all test containers. Each test container binds its remote bundle context under an
+ * unique name. The registry is created when first needed and shut down when the last test container that uses it
+ * releases it.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+class SharedRegistry
+{
+
+    /**
+     * JCL logger.
+     */
+    private static final Log LOG = LogFactory.getLog( SharedRegistry.class );
+
+    /**
+     * Number of ports to check for a free rmi communication port.
+     */
+    private static final int AMOUNT_OF_PORTS_TO_CHECK = 100;
+
+    /**
+     * Shared registry. Null if not created.
+     */
+    private static Registry s_registry;
+    /**
+     * Port of shared registry.
+     */
+    private static int s_port;
+    /**
+     * Number of test containers using the shared registry.
+     */
+    private static int s_references;
+
+    /**
+     * Utility class. Ment to be used via the static methods.
+     */
+    private SharedRegistry()
+    {
+        // utility class
+    }
+
+    /**
+     * Acquires the shared registry, creating it on the first free port if not already created.
+     *
+     * @return port of the shared registry
+     *
+     * @throws RuntimeException - If there is no free port to create the registry on
+     */
+    static synchronized int acquire()
+    {
+        if( s_registry == null )
+        {
+            for( int port = Registry.REGISTRY_PORT; port <= Registry.REGISTRY_PORT + AMOUNT_OF_PORTS_TO_CHECK; port++ )
+            {
+                try
+                {
+                    s_registry = LocateRegistry.createRegistry( port );
+                    s_port = port;
+                    LOG.info( "RMI registry started on port [" + port + "]" );
+                    break;
+                }
+                catch( Exception e )
+                {
+                    // ignore and try next port number
+                }
+            }
+            if( s_registry == null )
+            {
+                throw new RuntimeException( "No free port in range " + Registry.REGISTRY_PORT + ":"
+                                            + ( Registry.REGISTRY_PORT + AMOUNT_OF_PORTS_TO_CHECK ) );
+            }
+        }
+        s_references++;
+        return s_port;
+    }
+
+    /**
+     * Releases the shared registry. When there are no more users the registry is shut down.
+     *
+     * @param name name the test container bound its remote bundle context under. Unbound if still bound (e.g. the
+     *             framework did not stop cleanly).
+     */
+    static synchronized void release( final String name )
+    {
+        if( s_references == 0 )
+        {
+            return;
+        }
+        try
+        {
+            s_registry.unbind( name );
+        }
+        catch( NotBoundException ignore )
+        {
+            // already unbound by the remote bundle context
+        }
+        catch( RemoteException e )
+        {
+            LOG.warn( "Cannot unbind [" + name + "] from RMI registry: " + e.getMessage() );
+        }
+        s_references--;
+        if( s_references == 0 && s_registry != null )
+        {
+            // forcefully unexporting closes the registry listening socket, so there is no need to wait for garbage
+            // collection
+            try
+            {
+                UnicastRemoteObject.unexportObject( s_registry, true );
+            }
+            catch( NoSuchObjectException e )
+            {
+                LOG.error( "Problem in shutting down RMI registry. ", e );
+            }
+            LOG.info( "RMI registry stopped" );
+            s_registry = null;
+        }
+    }
+
+}
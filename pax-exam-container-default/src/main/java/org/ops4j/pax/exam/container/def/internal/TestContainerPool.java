@@ -0,0 +1,587 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.container.def.internal;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.ops4j.pax.exam.Option;
+import org.ops4j.pax.exam.container.def.options.ContainerPoolOption;
+import org.ops4j.pax.exam.spi.container.TestContainerException;
+import org.ops4j.pax.runner.platform.DefaultJavaRunner;
+
+/**
+ * JVM wide pool of started, idle {@link PaxRunnerTestContainer}s, keyed by the {@link OptionsFingerprint} of the
+ * options they were started with.
+ * Idle test containers are shut down when their idle timeout passes, when the pool grows over its maximum size (least
+ * recently used first), when another test container that uses the same working folder has to be started or when the
+ * JVM exits.
+ * Test containers can also be prefetched: they are started in background and handed out to the first lease with a
+ * matching fingerprint. The number of prefetched test containers that were not yet leased is bounded; further prefetch
+ * requests are queued and started, in the order they were requested, as prefetched test containers are leased.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+class TestContainerPool
+{
+
+    /**
+     * JCL logger.
+     */
+    private static final Log LOG = LogFactory.getLog( TestContainerPool.class );
+
+    /**
+     * Maximum time (in millis) shutdown waits for prefetched test containers to start and for background stops.
+     */
+    private static final long SHUTDOWN_TIMEOUT = 60 * 1000;
+
+    /**
+     * Idle test containers in the order they were released (least recently used first).
+     */
+    private final Map<PaxRunnerTestContainer, IdleEntry> m_idle;
+    /**
+     * Prefetched test containers (started or being started) that were not yet leased, per fingerprint.
+     */
+    private final Map<String, LinkedList<FutureTask<PaxRunnerTestContainer>>> m_prefetched;
+    /**
+     * Prefetch requests waiting for a free prefetch slot, in the order they were requested, per fingerprint.
+     */
+    private final Map<String, PrefetchRequest> m_queued;
+    /**
+     * Number of prefetched test containers that were not yet leased.
+     */
+    private int m_prefetchCount;
+
+    /**
+     * Number of test containers stopped by this pool.
+     */
+    private final AtomicLong m_teardownCount;
+    /**
+     * Total time (in millis) spent in stopping test containers by this pool.
+     */
+    private final AtomicLong m_teardownTime;
+
+    /**
+     * Executor used to start prefetched test containers. Lazy created.
+     */
+    private ExecutorService m_executor;
+    /**
+     * Timer used to shut down test containers after the idle timeout. Lazy created.
+     */
+    private Timer m_timer;
+
+    /**
+     * Constructor. Registers a shutdown hook to stop all idle and prefetched test containers when the JVM exits and
+     * then log how much time was spent in stopping them.
+     */
+    TestContainerPool()
+    {
+        m_idle = new LinkedHashMap<PaxRunnerTestContainer, IdleEntry>();
+        m_prefetched = new HashMap<String, LinkedList<FutureTask<PaxRunnerTestContainer>>>();
+        m_queued = new LinkedHashMap<String, PrefetchRequest>();
+        m_teardownCount = new AtomicLong();
+        m_teardownTime = new AtomicLong();
+        Runtime.getRuntime().addShutdownHook( new Thread( "Pax Exam container pool shutdown" )
+        {
+            @Override
+            public void run()
+            {
+                shutdown();
+                final long count = m_teardownCount.get();
+                if( count > 0 )
+                {
+                    LOG.info( count + " pooled test containers stopped in " + m_teardownTime.get() + " millis" );
+                }
+            }
+        }
+        );
+    }
+
+    /**
+     * Leases an idle test container started with options of the given fingerprint. If there is no such idle test
+     * container but one is being prefetched, waits for it to be started.
+     *
+     * @param fingerprint options fingerprint
+     *
+     * @return started test container or null if there is no matching idle or prefetched test container
+     *
+     * @throws TestContainerException - If interrupted while waiting for a prefetched test container
+     */
+    PaxRunnerTestContainer lease( final String fingerprint )
+    {
+        final FutureTask<PaxRunnerTestContainer> prefetched;
+        synchronized( this )
+        {
+            PaxRunnerTestContainer found = null;
+            // take the most recently used one
+            for( IdleEntry entry : m_idle.values() )
+            {
+                if( entry.fingerprint.equals( fingerprint ) )
+                {
+                    found = entry.container;
+                }
+            }
+            if( found != null )
+            {
+                m_idle.remove( found );
+                LOG.info( "Reusing pooled test container [" + fingerprint + "]" );
+                return found;
+            }
+            // the test container will be started by the caller so there is no need to prefetch it anymore
+            m_queued.remove( fingerprint );
+            final LinkedList<FutureTask<PaxRunnerTestContainer>> tasks = m_prefetched.get( fingerprint );
+            if( tasks == null )
+            {
+                return null;
+            }
+            prefetched = tasks.removeFirst();
+            if( tasks.isEmpty() )
+            {
+                m_prefetched.remove( fingerprint );
+            }
+            m_prefetchCount--;
+            startQueued();
+        }
+        try
+        {
+            final PaxRunnerTestContainer container = prefetched.get();
+            LOG.info( "Using prefetched test container [" + fingerprint + "]" );
+            return container;
+        }
+        catch( ExecutionException e )
+        {
+            LOG.warn( "Prefetched test container [" + fingerprint + "] failed to start: " + e.getCause().getMessage() );
+            return null;
+        }
+        catch( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            stopWhenStarted( prefetched );
+            throw new TestContainerException( "Interrupted while waiting for prefetched test container", e );
+        }
+    }
+
+    /**
+     * Leases an idle test container that can be reconfigured to run with the given options without restarting it. The
+     * caller is in charge of reconfiguring the test container.
+     *
+     * @param options user options
+     *
+     * @return started test container or null if there is no idle test container that can be reconfigured
+     */
+    synchronized PaxRunnerTestContainer leaseReconfigurable( final Option... options )
+    {
+        IdleEntry found = null;
+        // take the most recently used one
+        for( IdleEntry entry : m_idle.values() )
+        {
+            if( entry.container.canReconfigure( options ) )
+            {
+                found = entry;
+            }
+        }
+        if( found == null )
+        {
+            return null;
+        }
+        m_idle.remove( found.container );
+        LOG.info( "Reusing pooled test container [" + found.fingerprint + "] by reconfiguring it" );
+        return found.container;
+    }
+
+    /**
+     * Requests a test container started with the given options to be prefetched. The request is ignored if there is
+     * already a matching idle, prefetched or queued test container.
+     *
+     * @param fingerprint options fingerprint
+     * @param poolOption  pool settings
+     * @param options     user options
+     */
+    synchronized void prefetch( final String fingerprint,
+                                final ContainerPoolOption poolOption,
+                                final Option... options )
+    {
+        if( m_prefetched.containsKey( fingerprint ) || m_queued.containsKey( fingerprint ) )
+        {
+            return;
+        }
+        for( IdleEntry entry : m_idle.values() )
+        {
+            if( entry.fingerprint.equals( fingerprint ) )
+            {
+                return;
+            }
+        }
+        m_queued.put( fingerprint, new PrefetchRequest( fingerprint, poolOption, options ) );
+        startQueued();
+    }
+
+    /**
+     * Starts queued prefetch requests while there are free prefetch slots. Must be called while holding the lock.
+     */
+    private void startQueued()
+    {
+        final Iterator<PrefetchRequest> iterator = m_queued.values().iterator();
+        while( iterator.hasNext() )
+        {
+            final PrefetchRequest request = iterator.next();
+            if( m_prefetchCount >= request.poolOption.getPrefetch() )
+            {
+                // keep the order of requests
+                return;
+            }
+            iterator.remove();
+            final FutureTask<PaxRunnerTestContainer> task = new FutureTask<PaxRunnerTestContainer>(
+                new Callable<PaxRunnerTestContainer>()
+                {
+                    public PaxRunnerTestContainer call()
+                    {
+                        LOG.info( "Prefetching test container [" + request.fingerprint + "]" );
+                        final PaxRunnerTestContainer container =
+                            new PaxRunnerTestContainer( new DefaultJavaRunner( false ), true, request.options );
+                        try
+                        {
+                            container.start();
+                        }
+                        catch( RuntimeException e )
+                        {
+                            container.stop();
+                            throw e;
+                        }
+                        return container;
+                    }
+                }
+            );
+            LinkedList<FutureTask<PaxRunnerTestContainer>> tasks = m_prefetched.get( request.fingerprint );
+            if( tasks == null )
+            {
+                tasks = new LinkedList<FutureTask<PaxRunnerTestContainer>>();
+                m_prefetched.put( request.fingerprint, tasks );
+            }
+            tasks.add( task );
+            m_prefetchCount++;
+            getExecutor().execute( task );
+        }
+    }
+
+    /**
+     * Stops a prefetched test container once started, without waiting for it.
+     *
+     * @param task prefetch task
+     */
+    private synchronized void stopWhenStarted( final FutureTask<PaxRunnerTestContainer> task )
+    {
+        getExecutor().execute( new Runnable()
+        {
+            public void run()
+            {
+                try
+                {
+                    stop( task.get() );
+                }
+                catch( ExecutionException ignore )
+                {
+                    // failed to start, so nothing to stop
+                }
+                catch( InterruptedException e )
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        );
+    }
+
+    /**
+     * Puts back a started test container into the pool. If the pool grows over the maximum number of idle test
+     * containers, the least recently used test containers are shut down.
+     *
+     * @param fingerprint options fingerprint of the test container
+     * @param container   started test container
+     * @param poolOption  pool settings
+     */
+    void release( final String fingerprint,
+                  final PaxRunnerTestContainer container,
+                  final ContainerPoolOption poolOption )
+    {
+        final List<PaxRunnerTestContainer> evicted = new ArrayList<PaxRunnerTestContainer>();
+        synchronized( this )
+        {
+            final IdleEntry entry = new IdleEntry( fingerprint, container );
+            m_idle.put( container, entry );
+            LOG.info( "Pooled test container [" + fingerprint + "]" );
+            final Iterator<PaxRunnerTestContainer> iterator = m_idle.keySet().iterator();
+            while( m_idle.size() - evicted.size() > poolOption.getMaxIdle() && iterator.hasNext() )
+            {
+                evicted.add( iterator.next() );
+            }
+            for( PaxRunnerTestContainer evict : evicted )
+            {
+                m_idle.remove( evict );
+            }
+            getTimer().schedule( new TimerTask()
+            {
+                @Override
+                public void run()
+                {
+                    expire( entry );
+                }
+            }, poolOption.getIdleTimeout()
+            );
+        }
+        stop( evicted );
+    }
+
+    /**
+     * Shuts down idle test containers that use the given working folder, as two test containers cannot run at the same
+     * time in the same working folder.
+     *
+     * @param workingFolder working folder of the test container about to be started
+     */
+    void evict( final File workingFolder )
+    {
+        final List<PaxRunnerTestContainer> evicted = new ArrayList<PaxRunnerTestContainer>();
+        synchronized( this )
+        {
+            for( Iterator<PaxRunnerTestContainer> iterator = m_idle.keySet().iterator(); iterator.hasNext(); )
+            {
+                final PaxRunnerTestContainer container = iterator.next();
+                if( workingFolder.equals( container.getWorkingFolder() ) )
+                {
+                    iterator.remove();
+                    evicted.add( container );
+                }
+            }
+        }
+        stop( evicted );
+    }
+
+    /**
+     * Shuts down all idle and prefetched test containers. Runs when the JVM exits, so it waits (for a bounded time)
+     * for prefetched test containers to be started and stops them on the calling thread, as well as for test containers
+     * being stopped in background, so no framework JVM is left behind.
+     */
+    void shutdown()
+    {
+        final List<PaxRunnerTestContainer> evicted;
+        final List<FutureTask<PaxRunnerTestContainer>> prefetched = new ArrayList<FutureTask<PaxRunnerTestContainer>>();
+        final ExecutorService executor;
+        synchronized( this )
+        {
+            evicted = new ArrayList<PaxRunnerTestContainer>( m_idle.keySet() );
+            m_idle.clear();
+            m_queued.clear();
+            for( List<FutureTask<PaxRunnerTestContainer>> tasks : m_prefetched.values() )
+            {
+                prefetched.addAll( tasks );
+            }
+            m_prefetched.clear();
+            m_prefetchCount = 0;
+            executor = m_executor;
+            m_executor = null;
+            if( executor != null )
+            {
+                // already submitted tasks are still executed
+                executor.shutdown();
+            }
+            if( m_timer != null )
+            {
+                m_timer.cancel();
+                m_timer = null;
+            }
+        }
+        stop( evicted );
+        final long deadline = System.currentTimeMillis() + SHUTDOWN_TIMEOUT;
+        try
+        {
+            for( FutureTask<PaxRunnerTestContainer> task : prefetched )
+            {
+                try
+                {
+                    stop( task.get( Math.max( 0, deadline - System.currentTimeMillis() ), TimeUnit.MILLISECONDS ) );
+                }
+                catch( ExecutionException ignore )
+                {
+                    // failed to start, so nothing to stop
+                }
+                catch( TimeoutException e )
+                {
+                    LOG.warn( "Prefetched test container did not start in time to be stopped" );
+                }
+            }
+            if( executor != null
+                && !executor.awaitTermination( Math.max( 0, deadline - System.currentTimeMillis() ),
+                                               TimeUnit.MILLISECONDS ) )
+            {
+                LOG.warn( "Test containers still being started or stopped at shutdown" );
+            }
+        }
+        catch( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            LOG.warn( "Interrupted while waiting for prefetched test containers to be stopped" );
+        }
+    }
+
+    /**
+     * Shuts down an idle test container if still idle since the entry was created.
+     *
+     * @param entry idle entry
+     */
+    private void expire( final IdleEntry entry )
+    {
+        synchronized( this )
+        {
+            if( m_idle.get( entry.container ) != entry )
+            {
+                return;
+            }
+            m_idle.remove( entry.container );
+        }
+        LOG.info( "Pooled test container [" + entry.fingerprint + "] idle timeout passed" );
+        stop( entry.container );
+    }
+
+    /**
+     * Lazy creates the timer.
+     *
+     * @return timer (never null)
+     */
+    private Timer getTimer()
+    {
+        if( m_timer == null )
+        {
+            m_timer = new Timer( "Pax Exam container pool", true );
+        }
+        return m_timer;
+    }
+
+    /**
+     * Lazy creates the executor used to start prefetched test containers.
+     *
+     * @return executor (never null)
+     */
+    private ExecutorService getExecutor()
+    {
+        if( m_executor == null )
+        {
+            m_executor = Executors.newCachedThreadPool( new ThreadFactory()
+            {
+                public Thread newThread( final Runnable runnable )
+                {
+                    final Thread thread = new Thread( runnable, "Pax Exam container prefetch" );
+                    thread.setDaemon( true );
+                    return thread;
+                }
+            }
+            );
+        }
+        return m_executor;
+    }
+
+    /**
+     * Stops test containers by logging eventual exceptions.
+     *
+     * @param containers test containers to be stopped
+     */
+    private void stop( final List<PaxRunnerTestContainer> containers )
+    {
+        for( PaxRunnerTestContainer container : containers )
+        {
+            stop( container );
+        }
+    }
+
+    /**
+     * Stops a test container by logging eventual exceptions and adds the time it took to the pool totals.
+     *
+     * @param container test container to be stopped
+     */
+    private void stop( final PaxRunnerTestContainer container )
+    {
+        try
+        {
+            container.stop();
+            if( container.getTeardownTime() >= 0 )
+            {
+                m_teardownCount.incrementAndGet();
+                m_teardownTime.addAndGet( container.getTeardownTime() );
+            }
+        }
+        catch( RuntimeException e )
+        {
+            LOG.error( "Cannot stop pooled test container: " + e.getMessage() );
+        }
+    }
+
+    /**
+     * Idle test container holder.
+     */
+    private static class IdleEntry
+    {
+
+        final String fingerprint;
+        final PaxRunnerTestContainer container;
+
+        IdleEntry( final String fingerprint,
+                   final PaxRunnerTestContainer container )
+        {
+            this.fingerprint = fingerprint;
+            this.container = container;
+        }
+    }
+
+    /**
+     * Prefetch request holder.
+     */
+    private static class PrefetchRequest
+    {
+
+        final String fingerprint;
+        final ContainerPoolOption poolOption;
+        final Option[] options;
+
+        PrefetchRequest( final String fingerprint,
+                         final ContainerPoolOption poolOption,
+                         final Option[] options )
+        {
+            this.fingerprint = fingerprint;
+            this.poolOption = poolOption;
+            this.options = options;
+        }
+    }
+
+}
@@ -18,16 +18,21 @@
 package org.ops4j.pax.exam.container.def.internal;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 /**
- * Simple file system lock.
- * Will check for existing lock file in given folder (constructor) and report on acquire()
- * On release it will remove the lock.
+ * File system lock, backed by a {@link FileLock} on a lock file in given folder (constructor).
+ * As the lock is held by the operating system, it is released even if the JVM holding it crashes, so a left over lock
+ * file does not block a new instance. The lock file is never removed, as another instance could otherwise lock a new
+ * file at the same path while the removed one is still locked.
  *
  * Any failing acquire is "logged" into the lock file.
  *
@@ -40,70 +45,173 @@ public class TestContainerSemaphore
      */
     private static final Log LOG = LogFactory.getLog( PaxRunnerTestContainer.class );
 
+    /**
+     * Time (in millis) to wait between two attempts to acquire the lock.
+     */
+    private static final long RETRY_INTERVAL = 500;
+
+    /**
+     * Lock files currently locked by instances in this JVM.
+     */
+    private static final Set<String> LOCKED_IN_JVM = new HashSet<String>();
+
     private File m_workingFolder;
 
+    /**
+     * Lock file channel. Null if lock not acquired.
+     */
+    private RandomAccessFile m_lockFile;
+
+    /**
+     * Acquired lock. Null if lock not acquired.
+     */
+    private FileLock m_lock;
+
     public TestContainerSemaphore( File workingFolder )
     {
         m_workingFolder = workingFolder;
     }
 
-    public boolean acquire()
+    /**
+     * Tries to acquire the lock, without waiting.
+     *
+     * @return true if lock was acquired, false if the lock is held by another instance
+     */
+    public synchronized boolean acquire()
     {
-        if( lockExists() )
+        if( m_lock != null )
         {
-            // blame !
-            LOG.error( "Blame ! Acquire lock for new Pax Runner instance failed at " + getLockFile().getAbsolutePath() );
-
-            appendToFile( "! Tried to acquire this on " + new Date().toString() );
-            return false;
+            return true;
         }
-        else
+        final String lockPath = getLockFile().getAbsolutePath();
+        synchronized( LOCKED_IN_JVM )
         {
-            // create
-            LOG.info( "Acquire lock for new Pax Runner instance on " + getLockFile().getAbsolutePath() );
-
-            appendToFile( "Created on " + new Date().toString() );
-            return true;
+            // closing a channel may release all locks this JVM holds on the file, so do not even open the file if
+            // the lock is held by another instance in this JVM
+            if( LOCKED_IN_JVM.contains( lockPath ) )
+            {
+                LOG.error( "Blame ! Acquire lock for new Pax Runner instance failed at " + lockPath
+                           + " (held by another instance in this JVM)" );
+                return false;
+            }
+            RandomAccessFile lockFile = null;
+            try
+            {
+                m_workingFolder.mkdirs();
+                lockFile = new RandomAccessFile( getLockFile(), "rw" );
+                final FileChannel channel = lockFile.getChannel();
+                final FileLock lock = channel.tryLock();
+                if( lock == null )
+                {
+                    // blame !
+                    LOG.error( "Blame ! Acquire lock for new Pax Runner instance failed at " + lockPath );
+                    close( lockFile );
+                    appendToFile( "! Tried to acquire this on " + new Date().toString() );
+                    return false;
+                }
+                // create
+                LOG.info( "Acquire lock for new Pax Runner instance on " + lockPath );
+                channel.truncate( 0 );
+                lockFile.writeBytes( "Created on " + new Date().toString() );
+                m_lockFile = lockFile;
+                m_lock = lock;
+                LOCKED_IN_JVM.add( lockPath );
+                return true;
+            }
+            catch( IOException e )
+            {
+                close( lockFile );
+                throw new IllegalStateException( "Cannot acquire lock " + lockPath, e );
+            }
         }
     }
 
-    public void release()
+    /**
+     * Acquires the lock, waiting for another instance to release it.
+     *
+     * @param timeoutInMillis maximum time to wait for the lock
+     *
+     * @return true if lock was acquired, false if the lock was not released by another instance in time
+     */
+    public boolean acquire( final long timeoutInMillis )
     {
-        // delete file
-        getLockFile().delete();
+        final long startedAt = System.currentTimeMillis();
+        while( !acquire() )
+        {
+            if( System.currentTimeMillis() - startedAt >= timeoutInMillis )
+            {
+                return false;
+            }
+            try
+            {
+                Thread.sleep( RETRY_INTERVAL );
+            }
+            catch( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
     }
 
-    public File getLockFile()
+    public synchronized void release()
     {
-        return new File( m_workingFolder, "paxexam.lock" );
+        if( m_lock == null )
+        {
+            return;
+        }
+        final String lockPath = getLockFile().getAbsolutePath();
+        synchronized( LOCKED_IN_JVM )
+        {
+            try
+            {
+                m_lock.release();
+            }
+            catch( IOException e )
+            {
+                LOG.warn( "Cannot release lock " + lockPath + ": " + e.getMessage() );
+            }
+            close( m_lockFile );
+            m_lock = null;
+            m_lockFile = null;
+            LOCKED_IN_JVM.remove( lockPath );
+        }
     }
 
-    private boolean lockExists()
+    public File getLockFile()
     {
-        return getLockFile().exists();
+        return new File( m_workingFolder, "paxexam.lock" );
     }
 
     private void appendToFile( String s )
     {
-        FileWriter fw = null;
+        RandomAccessFile file = null;
         try
         {
-            fw = new FileWriter( getLockFile(), true );
-            fw.write( s );
+            file = new RandomAccessFile( getLockFile(), "rw" );
+            file.seek( file.length() );
+            file.writeBytes( s );
         } catch( IOException e )
         {
-            e.printStackTrace();
+            LOG.warn( "Cannot write to lock file " + getLockFile() + ": " + e.getMessage() );
         } finally
+        {
+            close( file );
+        }
+    }
+
+    private static void close( final RandomAccessFile file )
+    {
+        if( file != null )
         {
             try
             {
-                fw.close();
+                file.close();
             } catch( IOException e )
             {
-                e.printStackTrace();
+                LOG.warn( "Cannot close lock file: " + e.getMessage() );
             }
         }
-
-
     }
 }
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.container.def.options;
+
+import org.ops4j.pax.exam.Option;
+
+/**
+ * Option specifying that a stopped test container should be kept running in a JVM wide pool, to be handed out to the
+ * next test that is configured with the same options (regardless of the test class), instead of being shut down.
+ * If there is no such test container, an idle test container whose options differ only by additional provisioned
+ * bundles or system properties is reconfigured at runtime, instead of starting a new one.
+ * Idle test containers are shut down after an idle timeout or when the pool exceeds its maximum size (least recently
+ * used first).
+ * Optionally test containers can be prefetched: test containers for the upcoming tests are started in background while
+ * earlier tests run, so they are ready to be leased by the time they are needed. Prefetching requires an
+ * {@link IsolatedWorkspaceOption} as test containers sharing a working folder cannot run at the same time.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+public class ContainerPoolOption
+    implements Option
+{
+
+    /**
+     * Default maximum number of idle test containers kept in the pool.
+     */
+    public static final int DEFAULT_MAX_IDLE = 4;
+    /**
+     * Default time (in millis) an idle test container is kept in the pool.
+     */
+    public static final long DEFAULT_IDLE_TIMEOUT = 60 * 1000;
+    /**
+     * Default maximum number of test containers started in advance (prefetching disabled).
+     */
+    public static final int DEFAULT_PREFETCH = 0;
+    /**
+     * Default maximum number of retained class loaders of uninstalled bundles a test container can have to be reused
+     * (no limit: retained class loaders are only reported).
+     */
+    public static final int DEFAULT_MAX_RETAINED_CLASS_LOADERS = Integer.MAX_VALUE;
+
+    /**
+     * Maximum number of idle test containers kept in the pool.
+     */
+    private int m_maxIdle;
+    /**
+     * Time (in millis) an idle test container is kept in the pool.
+     */
+    private long m_idleTimeout;
+    /**
+     * Maximum number of test containers started in advance, that were not yet leased.
+     */
+    private int m_prefetch;
+    /**
+     * Maximum number of retained class loaders of uninstalled bundles a test container can have to be reused.
+     */
+    private int m_maxRetainedClassLoaders;
+
+    /**
+     * Constructor.
+     */
+    public ContainerPoolOption()
+    {
+        m_maxIdle = DEFAULT_MAX_IDLE;
+        m_idleTimeout = DEFAULT_IDLE_TIMEOUT;
+        m_prefetch = DEFAULT_PREFETCH;
+        m_maxRetainedClassLoaders = DEFAULT_MAX_RETAINED_CLASS_LOADERS;
+    }
+
+    /**
+     * Sets the maximum number of idle test containers kept in the pool.
+     *
+     * @param maxIdle maximum number of idle test containers (must be positive)
+     *
+     * @return itself, for fluent api usage
+     *
+     * @throws IllegalArgumentException - If maximum is not positive
+     */
+    public ContainerPoolOption maxIdle( final int maxIdle )
+    {
+        if( maxIdle <= 0 )
+        {
+            throw new IllegalArgumentException( "Maximum number of idle containers must be positive" );
+        }
+        m_maxIdle = maxIdle;
+        return this;
+    }
+
+    /**
+     * Sets the time an idle test container is kept in the pool.
+     *
+     * @param idleTimeoutInMillis idle timeout (in millis) (must be positive)
+     *
+     * @return itself, for fluent api usage
+     *
+     * @throws IllegalArgumentException - If timeout is not positive
+     */
+    public ContainerPoolOption idleTimeout( final long idleTimeoutInMillis )
+    {
+        if( idleTimeoutInMillis <= 0 )
+        {
+            throw new IllegalArgumentException( "Idle timeout must be positive" );
+        }
+        m_idleTimeout = idleTimeoutInMillis;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of test containers started in background, in advance of the tests that will use them.
+     *
+     * @param prefetch maximum number of test containers started in advance (0 = prefetching disabled)
+     *
+     * @return itself, for fluent api usage
+     *
+     * @throws IllegalArgumentException - If maximum is negative
+     */
+    public ContainerPoolOption prefetch( final int prefetch )
+    {
+        if( prefetch < 0 )
+        {
+            throw new IllegalArgumentException( "Maximum number of prefetched containers must not be negative" );
+        }
+        m_prefetch = prefetch;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of class loaders of uninstalled bundles (such as test probes) a test container can retain
+     * and still be put back into the pool. Class loaders are checked for leaks by the test container after every few
+     * uninstalled bundles. By default there is no limit and retained class loaders are only reported.
+     *
+     * @param maxRetained maximum number of retained class loaders (must not be negative)
+     *
+     * @return itself, for fluent api usage
+     *
+     * @throws IllegalArgumentException - If maximum is negative
+     */
+    public ContainerPoolOption maxRetainedClassLoaders( final int maxRetained )
+    {
+        if( maxRetained < 0 )
+        {
+            throw new IllegalArgumentException( "Maximum number of retained class loaders must not be negative" );
+        }
+        m_maxRetainedClassLoaders = maxRetained;
+        return this;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return maximum number of idle test containers kept in the pool
+     */
+    public int getMaxIdle()
+    {
+        return m_maxIdle;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return time (in millis) an idle test container is kept in the pool
+     */
+    public long getIdleTimeout()
+    {
+        return m_idleTimeout;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return maximum number of test containers started in advance (0 = prefetching disabled)
+     */
+    public int getPrefetch()
+    {
+        return m_prefetch;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return maximum number of retained class loaders of uninstalled bundles a test container can have to be reused
+     */
+    public int getMaxRetainedClassLoaders()
+    {
+        return m_maxRetainedClassLoaders;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString()
+    {
+        final StringBuilder sb = new StringBuilder();
+        sb.append( "ContainerPoolOption" );
+        sb.append( "{maxIdle=" ).append( m_maxIdle );
+        sb.append( ", idleTimeout=" ).append( m_idleTimeout );
+        sb.append( ", prefetch=" ).append( m_prefetch );
+        sb.append( ", maxRetainedClassLoaders=" ).append( m_maxRetainedClassLoaders );
+        sb.append( '}' );
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.container.def.options;
+
+import static org.ops4j.lang.NullArgumentException.*;
+import org.ops4j.pax.exam.Option;
+
+/**
+ * Option specifying that the framework storage (installed and resolved bundles) of a freshly started test container
+ * should be captured as a snapshot, keyed by the options fingerprint, and that later test containers started with the
+ * same options should start out of a clone of that snapshot instead of installing all bundles again. Where the file
+ * system supports it the snapshot is cloned copy-on-write, otherwise it is copied.
+ * The framework storage refers to bundles by their absolute location so a snapshot is only used by test containers
+ * running in the same working directory as the one that captured it.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+public class FrameworkCacheOption
+    implements Option
+{
+
+    /**
+     * Folder where snapshots are kept.
+     */
+    private String m_cacheFolder;
+
+    /**
+     * Constructor. Uses ${java.io.tmpdir}/paxexam_runner_${user.name}_frameworks as snapshots folder.
+     */
+    public FrameworkCacheOption()
+    {
+        m_cacheFolder = System.getProperty( "java.io.tmpdir" )
+                        + "/paxexam_runner_"
+                        + System.getProperty( "user.name" )
+                        + "_frameworks";
+    }
+
+    /**
+     * Sets the folder where framework storage snapshots are kept.
+     *
+     * @param cacheFolder snapshots folder (cannot be null or empty)
+     *
+     * @return itself, for fluent api usage
+     *
+     * @throws IllegalArgumentException - If cache folder is null or empty
+     */
+    public FrameworkCacheOption cacheFolder( final String cacheFolder )
+    {
+        validateNotEmpty( cacheFolder, true, "Cache folder" );
+        m_cacheFolder = cacheFolder;
+        return this;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return snapshots folder
+     */
+    public String getCacheFolder()
+    {
+        return m_cacheFolder;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString()
+    {
+        final StringBuilder sb = new StringBuilder();
+        sb.append( "FrameworkCacheOption" );
+        sb.append( "{cacheFolder='" ).append( m_cacheFolder ).append( '\'' );
+        sb.append( '}' );
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.container.def.options;
+
+import static org.ops4j.lang.NullArgumentException.*;
+import org.ops4j.pax.exam.Option;
+
+/**
+ * Option specifying that each test container should run in its own, unique working directory instead of the default
+ * one shared by all test containers of the same user. Such test containers can run side by side (e.g. parallel
+ * Surefire forks or parallel Maven modules). Bundles downloaded by Pax Runner are kept in a cache folder shared by all
+ * isolated test containers, which is copied into each working directory before start up and updated with newly
+ * downloaded bundles after shut down.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+public class IsolatedWorkspaceOption
+    implements Option
+{
+
+    /**
+     * Shared download cache folder.
+     */
+    private String m_cacheFolder;
+
+    /**
+     * Constructor. Uses ${java.io.tmpdir}/paxexam_runner_${user.name}_cache as shared download cache folder.
+     */
+    public IsolatedWorkspaceOption()
+    {
+        m_cacheFolder = System.getProperty( "java.io.tmpdir" )
+                        + "/paxexam_runner_"
+                        + System.getProperty( "user.name" )
+                        + "_cache";
+    }
+
+    /**
+     * Sets the folder of the download cache shared between isolated test containers.
+     *
+     * @param cacheFolder shared download cache folder (cannot be null or empty)
+     *
+     * @return itself, for fluent api usage
+     *
+     * @throws IllegalArgumentException - If cache folder is null or empty
+     */
+    public IsolatedWorkspaceOption cacheFolder( final String cacheFolder )
+    {
+        validateNotEmpty( cacheFolder, true, "Cache folder" );
+        m_cacheFolder = cacheFolder;
+        return this;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return shared download cache folder
+     */
+    public String getCacheFolder()
+    {
+        return m_cacheFolder;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString()
+    {
+        final StringBuilder sb = new StringBuilder();
+        sb.append( "IsolatedWorkspaceOption" );
+        sb.append( "{cacheFolder='" ).append( m_cacheFolder ).append( '\'' );
+        sb.append( '}' );
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.container.def.options;
+
+import org.ops4j.pax.exam.Option;
+
+/**
+ * Option specifying that the test container should talk to the remote bundle context over a plain socket using a
+ * compact binary protocol instead of RMI. No RMI registry is created, so there is no registry port to look up and
+ * nothing to garbage collect on shut down.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+public class SocketTransportOption
+    implements Option
+{
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString()
+    {
+        return "SocketTransportOption{}";
+    }
+
+}
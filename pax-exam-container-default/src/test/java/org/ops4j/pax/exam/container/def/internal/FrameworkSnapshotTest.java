@@ -0,0 +1,186 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.container.def.internal;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ops4j.io.FileUtils;
+
+/**
+ * Unit Tests for {@link FrameworkSnapshot}.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+public class FrameworkSnapshotTest
+{
+
+    private File m_root;
+    private File m_workingFolder;
+    private FrameworkSnapshot m_snapshot;
+
+    @Before
+    public void setUp()
+        throws IOException
+    {
+        m_root = File.createTempFile( "paxexam", "snapshot" );
+        m_root.delete();
+        m_workingFolder = new File( m_root, "working" );
+        m_snapshot = new FrameworkSnapshot( new File( m_root, "cache" ), "fingerprint" );
+        write( new File( m_workingFolder, "felix/cache/bundle1/bundle.location" ) );
+        write( new File( m_workingFolder, "bundles/bundle.jar" ) );
+    }
+
+    @After
+    public void tearDown()
+    {
+        FileUtils.delete( m_root );
+    }
+
+    /**
+     * Restoring a captured snapshot replaces the framework storage but keeps downloaded bundles.
+     */
+    @Test
+    public void restoreCaptured()
+        throws IOException
+    {
+        m_snapshot.capture( m_workingFolder );
+        write( new File( m_workingFolder, "felix/cache/bundle2/bundle.location" ) );
+
+        assertTrue( "Restored", m_snapshot.restore( m_workingFolder ) );
+        assertTrue( "Captured bundle", new File( m_workingFolder, "felix/cache/bundle1/bundle.location" ).exists() );
+        assertFalse( "Later bundle", new File( m_workingFolder, "felix/cache/bundle2" ).exists() );
+        assertTrue( "Downloaded bundle", new File( m_workingFolder, "bundles/bundle.jar" ).exists() );
+    }
+
+    /**
+     * Without snapshot the framework storage is removed so the framework starts clean.
+     */
+    @Test
+    public void restoreWithoutSnapshot()
+    {
+        assertFalse( "Restored", m_snapshot.restore( m_workingFolder ) );
+        assertFalse( "Framework storage", new File( m_workingFolder, "felix" ).exists() );
+        assertTrue( "Downloaded bundle", new File( m_workingFolder, "bundles/bundle.jar" ).exists() );
+    }
+
+    /**
+     * A snapshot restored in another working folder refers to the new working folder instead of the captured one.
+     */
+    @Test
+    public void restoreInAnotherWorkingFolder()
+        throws IOException
+    {
+        write( new File( m_workingFolder, "felix/cache/bundle1/bundle.location" ), location( m_workingFolder ) );
+        m_snapshot.capture( m_workingFolder );
+
+        final File otherFolder = new File( m_root, "other-working" );
+        assertTrue( "Restored", m_snapshot.restore( otherFolder ) );
+        assertEquals(
+            "Relocated bundle location",
+            location( otherFolder ),
+            read( new File( otherFolder, "felix/cache/bundle1/bundle.location" ) )
+        );
+        assertEquals(
+            "Snapshot unchanged",
+            location( m_workingFolder ),
+            read( new File( m_root, "cache/fingerprint/storage/felix/cache/bundle1/bundle.location" ) )
+        );
+    }
+
+    /**
+     * A binary file referring to the working folder cannot be relocated to a working folder path of another length.
+     */
+    @Test
+    public void binaryFileNotRelocatedToPathOfAnotherLength()
+        throws IOException
+    {
+        write( new File( m_workingFolder, "felix/cache/bundle1/bundle.state" ), "\0" + location( m_workingFolder ) );
+        m_snapshot.capture( m_workingFolder );
+
+        final File otherFolder = new File( m_root, "other-working" );
+        assertFalse( "Restored", m_snapshot.restore( otherFolder ) );
+        assertFalse( "Framework storage", new File( otherFolder, "felix" ).exists() );
+    }
+
+    /**
+     * A binary file referring to the working folder is relocated to a working folder path of the same length.
+     */
+    @Test
+    public void binaryFileRelocatedToPathOfSameLength()
+        throws IOException
+    {
+        write( new File( m_workingFolder, "felix/cache/bundle1/bundle.state" ), "\0" + location( m_workingFolder ) );
+        m_snapshot.capture( m_workingFolder );
+
+        final File otherFolder = new File( m_root, "workong" );
+        assertTrue( "Restored", m_snapshot.restore( otherFolder ) );
+        assertEquals(
+            "Relocated bundle state",
+            "\0" + location( otherFolder ),
+            read( new File( otherFolder, "felix/cache/bundle1/bundle.state" ) )
+        );
+    }
+
+    private static String location( final File workingFolder )
+    {
+        return "file:" + workingFolder.getAbsolutePath() + "/bundles/bundle.jar";
+    }
+
+    private static String read( final File file )
+        throws IOException
+    {
+        final StringBuilder content = new StringBuilder();
+        final FileReader reader = new FileReader( file );
+        try
+        {
+            int c;
+            while( ( c = reader.read() ) >= 0 )
+            {
+                content.append( (char) c );
+            }
+        }
+        finally
+        {
+            reader.close();
+        }
+        return content.toString();
+    }
+
+    private static void write( final File file )
+        throws IOException
+    {
+        write( file, file.getName() );
+    }
+
+    private static void write( final File file,
+                               final String content )
+        throws IOException
+    {
+        file.getParentFile().mkdirs();
+        final FileWriter writer = new FileWriter( file );
+        writer.write( content );
+        writer.close();
+    }
+
+}
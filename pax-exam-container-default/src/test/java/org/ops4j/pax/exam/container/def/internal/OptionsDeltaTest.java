@@ -0,0 +1,153 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.container.def.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import org.junit.Test;
+import static org.ops4j.pax.exam.CoreOptions.*;
+import static org.ops4j.pax.exam.OptionUtils.*;
+import static org.ops4j.pax.exam.container.def.PaxRunnerOptions.*;
+import org.ops4j.pax.exam.Option;
+
+/**
+ * Unit Tests for {@link OptionsDelta}.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+public class OptionsDeltaTest
+{
+
+    /**
+     * Same options require no changes.
+     */
+    @Test
+    public void sameOptions()
+    {
+        assertThat( "Empty", OptionsDelta.of( bootOptions(), bootOptions(), bootOptions() ).isEmpty(), is( true ) );
+    }
+
+    /**
+     * Bundles added on top of boot options are installed and, when not needed anymore, uninstalled.
+     */
+    @Test
+    public void addedBundle()
+    {
+        final Option[] options = bootOptions( mavenBundle( "foo", "baz", "1.0" ) );
+        final OptionsDelta install = OptionsDelta.of( bootOptions(), bootOptions(), options );
+        assertThat( "Installed", install.getInstall().size(), is( equalTo( 1 ) ) );
+        assertThat( "Installed", install.getInstall().get( 0 ).getURL(), is( equalTo( "mvn:foo/baz/1.0" ) ) );
+        assertThat( "Uninstalled", install.getUninstall().isEmpty(), is( true ) );
+
+        final OptionsDelta uninstall = OptionsDelta.of( bootOptions(), options, bootOptions() );
+        assertThat( "Installed", uninstall.getInstall().isEmpty(), is( true ) );
+        assertThat( "Uninstalled", uninstall.getUninstall().get( 0 ), is( equalTo( "mvn:foo/baz/1.0" ) ) );
+    }
+
+    /**
+     * Bundles provisioned differently are reinstalled.
+     */
+    @Test
+    public void changedBundle()
+    {
+        final OptionsDelta delta = OptionsDelta.of(
+            bootOptions(),
+            bootOptions( mavenBundle( "foo", "baz", "1.0" ) ),
+            bootOptions( mavenBundle( "foo", "baz", "1.0" ).startLevel( 10 ) )
+        );
+        assertThat( "Installed", delta.getInstall().size(), is( equalTo( 1 ) ) );
+        assertThat( "Uninstalled", delta.getUninstall().size(), is( equalTo( 1 ) ) );
+    }
+
+    /**
+     * System properties added on top of boot options are set and, when not needed anymore, cleared.
+     */
+    @Test
+    public void addedSystemProperty()
+    {
+        final Option[] options = bootOptions( systemProperty( "baz" ).value( "qux" ) );
+        assertThat(
+            "Set",
+            OptionsDelta.of( bootOptions(), bootOptions(), options ).getProperties().get( "baz" ),
+            is( equalTo( "qux" ) )
+        );
+        final OptionsDelta clear = OptionsDelta.of( bootOptions(), options, bootOptions() );
+        assertThat( "Cleared", clear.getProperties().containsKey( "baz" ), is( true ) );
+        assertThat( "Cleared", clear.getProperties().get( "baz" ), is( nullValue() ) );
+    }
+
+    /**
+     * Bundles and system properties the test container was started with cannot change at runtime.
+     */
+    @Test
+    public void bootOptionsChanged()
+    {
+        assertThat(
+            "Delta",
+            OptionsDelta.of(
+                bootOptions(),
+                bootOptions(),
+                options( felix().version( "1.4.0" ), systemProperty( "foo" ).value( "bar" ) )
+            ),
+            is( nullValue() )
+        );
+        assertThat(
+            "Delta",
+            OptionsDelta.of(
+                bootOptions(), bootOptions(), options( felix().version( "1.4.0" ), mavenBundle( "foo", "bar", "1.0" ) )
+            ),
+            is( nullValue() )
+        );
+    }
+
+    /**
+     * Options other then bundles and system properties cannot change at runtime.
+     */
+    @Test
+    public void frameworkChanged()
+    {
+        assertThat(
+            "Delta",
+            OptionsDelta.of( bootOptions(), bootOptions(), replaceFramework( equinox() ) ),
+            is( nullValue() )
+        );
+        assertThat(
+            "Delta",
+            OptionsDelta.of( bootOptions(), bootOptions(), bootOptions( vmOptions( "-Xmx512m" ) ) ),
+            is( nullValue() )
+        );
+    }
+
+    private static Option[] replaceFramework( final Option framework )
+    {
+        return options( framework, mavenBundle( "foo", "bar", "1.0" ), systemProperty( "foo" ).value( "bar" ) );
+    }
+
+    private static Option[] bootOptions( final Option... extra )
+    {
+        return combine(
+            options(
+                felix().version( "1.4.0" ),
+                mavenBundle( "foo", "bar", "1.0" ),
+                systemProperty( "foo" ).value( "bar" )
+            ),
+            extra
+        );
+    }
+
+}
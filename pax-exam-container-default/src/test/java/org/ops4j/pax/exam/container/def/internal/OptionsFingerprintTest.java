@@ -0,0 +1,105 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.container.def.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import org.junit.Test;
+import static org.ops4j.pax.exam.CoreOptions.*;
+import static org.ops4j.pax.exam.OptionUtils.*;
+import static org.ops4j.pax.exam.container.def.PaxRunnerOptions.*;
+import org.ops4j.pax.exam.Option;
+
+/**
+ * Unit Tests for {@link OptionsFingerprint}.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+public class OptionsFingerprintTest
+{
+
+    /**
+     * Options created twice the same way have the same fingerprint.
+     */
+    @Test
+    public void sameOptions()
+    {
+        assertThat(
+            "Fingerprint",
+            OptionsFingerprint.of( defaultOptions() ),
+            is( equalTo( OptionsFingerprint.of( defaultOptions() ) ) )
+        );
+    }
+
+    /**
+     * Options that do not end up as Pax Runner arguments do not change the fingerprint.
+     */
+    @Test
+    public void nonArgumentOptionsIgnored()
+    {
+        assertThat(
+            "Fingerprint",
+            OptionsFingerprint.of( defaultOptions( containerPool(), waitForFrameworkStartupFor( 1000 ) ) ),
+            is( equalTo( OptionsFingerprint.of( defaultOptions() ) ) )
+        );
+    }
+
+    /**
+     * Different provisioned bundles result in different fingerprints.
+     */
+    @Test
+    public void differentBundles()
+    {
+        assertThat(
+            "Fingerprint",
+            OptionsFingerprint.of( defaultOptions( mavenBundle( "foo", "baz", "1.0" ) ) ),
+            is( not( equalTo( OptionsFingerprint.of( defaultOptions() ) ) ) )
+        );
+    }
+
+    /**
+     * Isolated workspaces have unique working directories, which do not change the fingerprint.
+     */
+    @Test
+    public void isolatedWorkspaceIgnoresWorkingDirectory()
+    {
+        assertThat(
+            "Fingerprint",
+            OptionsFingerprint.of( defaultOptions( isolatedWorkspace() ) ),
+            is( equalTo( OptionsFingerprint.of( defaultOptions( isolatedWorkspace() ) ) ) )
+        );
+        assertThat(
+            "Fingerprint",
+            OptionsFingerprint.of( defaultOptions( isolatedWorkspace() ) ),
+            is( not( equalTo( OptionsFingerprint.of( defaultOptions() ) ) ) )
+        );
+    }
+
+    private static Option[] defaultOptions( final Option... extra )
+    {
+        return combine(
+            options(
+                felix().version( "1.4.0" ),
+                mavenBundle( "foo", "bar", "1.0" ),
+                systemProperty( "foo" ).value( "bar" )
+            ),
+            extra
+        );
+    }
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.container.def.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ops4j.io.FileUtils;
+import org.ops4j.pax.exam.Customizer;
+
+/**
+ * Unit Tests for {@link ProbeCache}.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+public class ProbeCacheTest
+{
+
+    private File m_root;
+    private File m_bundle;
+    private ProbeCache m_cache;
+
+    @Before
+    public void setUp()
+        throws IOException
+    {
+        m_root = File.createTempFile( "paxexam", "probes" );
+        m_root.delete();
+        m_root.mkdirs();
+        m_bundle = new File( m_root, "bundle.jar" );
+        final FileWriter writer = new FileWriter( m_bundle );
+        writer.write( "bundle" );
+        writer.close();
+        m_cache = new ProbeCache( new File( m_root, "cache" ) );
+    }
+
+    @After
+    public void tearDown()
+    {
+        FileUtils.delete( m_root );
+    }
+
+    /**
+     * A probe is built only once for the same url and customizers.
+     */
+    @Test
+    public void builtOnce()
+        throws IOException
+    {
+        final String url = m_bundle.toURI().toASCIIString();
+        final File probe = m_cache.get( url, new Customizer[0] );
+        m_bundle.delete();
+
+        assertTrue( "Probe built", probe.isFile() );
+        assertEquals( "Cached probe", probe, m_cache.get( url, new Customizer[0] ) );
+    }
+
+    /**
+     * Customizers are part of the cache key and applied to the built probe.
+     */
+    @Test
+    public void customized()
+        throws IOException
+    {
+        final String url = m_bundle.toURI().toASCIIString();
+        final File probe = m_cache.get( url, new Customizer[0] );
+        final File customized = m_cache.get( url, new Customizer[]{ new ReplacingCustomizer() } );
+
+        assertFalse( "Distinct probes", probe.equals( customized ) );
+        assertEquals( "Customized probe size", 10, customized.length() );
+    }
+
+    /**
+     * Customizers of the same class can customize differently, so a probe is only reused for the same instances.
+     */
+    @Test
+    public void customizersComparedByIdentity()
+        throws IOException
+    {
+        final String url = m_bundle.toURI().toASCIIString();
+        final Customizer[] customizers = new Customizer[]{ new ReplacingCustomizer( "first" ) };
+        final File first = m_cache.get( url, customizers );
+        final File second = m_cache.get( url, new Customizer[]{ new ReplacingCustomizer( "second" ) } );
+
+        assertEquals( "Same customizers", first, m_cache.get( url, customizers ) );
+        assertFalse( "Distinct probes", first.equals( second ) );
+        assertEquals( "Second customized probe size", 6, second.length() );
+    }
+
+    /**
+     * Customizer replacing the probe content.
+     */
+    private static class ReplacingCustomizer
+        extends Customizer
+    {
+
+        private final String m_content;
+
+        ReplacingCustomizer()
+        {
+            this( "customized" );
+        }
+
+        ReplacingCustomizer( final String content )
+        {
+            m_content = content;
+        }
+
+        @Override
+        public InputStream customizeTestProbe( final InputStream testProbe )
+            throws IOException
+        {
+            testProbe.close();
+            return new ByteArrayInputStream( m_content.getBytes() );
+        }
+    }
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.container.def.internal;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ops4j.io.FileUtils;
+
+/**
+ * Unit Tests for {@link SharedDownloadCache}.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+public class SharedDownloadCacheTest
+{
+
+    private File m_root;
+    private File m_cacheFolder;
+
+    @Before
+    public void setUp()
+        throws IOException
+    {
+        m_root = File.createTempFile( "paxexam", "downloads" );
+        m_root.delete();
+        m_root.mkdirs();
+        m_cacheFolder = new File( m_root, "cache" );
+        // a first test container downloaded a provisioned bundle and a framework bundle added by Pax Runner
+        final File working = new File( m_root, "first" );
+        download( working, "mvn:org.example/bundle", "1.jar" );
+        download( working, "mvn:org.example/framework", "2.jar" );
+        new SharedDownloadCache( m_cacheFolder, "first", "mvn:org.example/bundle" ).publish( working );
+        // and a second one an other bundle
+        final File other = new File( m_root, "other" );
+        download( other, "mvn:org.example/other", "3.jar" );
+        new SharedDownloadCache( m_cacheFolder, "other", "mvn:org.example/other" ).publish( other );
+    }
+
+    @After
+    public void tearDown()
+    {
+        FileUtils.delete( m_root );
+    }
+
+    /**
+     * Test containers with recorded options get exactly the bundles they resolved to.
+     */
+    @Test
+    public void seedResolvedBundles()
+        throws IOException
+    {
+        final File working = new File( m_root, "again" );
+        new SharedDownloadCache( m_cacheFolder, "first", "mvn:org.example/bundle" ).seed( working );
+
+        assertTrue( "Provisioned bundle", new File( working, "bundles/1.jar" ).isFile() );
+        assertTrue( "Framework bundle", new File( working, "bundles/2.jar" ).isFile() );
+        assertFalse( "Bundle of other options", new File( working, "bundles/3.jar" ).exists() );
+        assertEquals( "Downloaded bundles", 2, load( working ).size() );
+    }
+
+    /**
+     * Test containers with new options get only the cached bundles they provision.
+     */
+    @Test
+    public void seedProvisionedBundles()
+        throws IOException
+    {
+        final File working = new File( m_root, "new" );
+        new SharedDownloadCache( m_cacheFolder, "new", "mvn:org.example/other", "mvn:org.example/missing" )
+            .seed( working );
+
+        assertTrue( "Provisioned bundle", new File( working, "bundles/3.jar" ).isFile() );
+        assertFalse( "Framework bundle", new File( working, "bundles/2.jar" ).exists() );
+        assertEquals( "Downloaded bundles", "3.jar", load( working ).getProperty( "mvn:org.example/other" ) );
+        assertEquals( "Downloaded bundles", 1, load( working ).size() );
+    }
+
+    private static void download( final File workingFolder,
+                                  final String url,
+                                  final String name )
+        throws IOException
+    {
+        final File bundles = new File( workingFolder, "bundles" );
+        bundles.mkdirs();
+        final FileWriter writer = new FileWriter( new File( bundles, name ) );
+        writer.write( url );
+        writer.close();
+        final Properties downloaded = load( workingFolder );
+        downloaded.setProperty( url, name );
+        final OutputStream out = new FileOutputStream( new File( bundles, "downloaded_bundles.properties" ) );
+        downloaded.store( out, null );
+        out.close();
+    }
+
+    private static Properties load( final File workingFolder )
+        throws IOException
+    {
+        final Properties properties = new Properties();
+        final File file = new File( workingFolder, "bundles/downloaded_bundles.properties" );
+        if( file.isFile() )
+        {
+            final InputStream in = new FileInputStream( file );
+            properties.load( in );
+            in.close();
+        }
+        return properties;
+    }
+
+}
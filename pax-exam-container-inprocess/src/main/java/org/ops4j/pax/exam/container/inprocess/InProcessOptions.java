@@ -0,0 +1,63 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.container.inprocess;
+
+import org.ops4j.pax.exam.container.inprocess.internal.InProcessTestContainerFactory;
+import org.ops4j.pax.exam.container.inprocess.options.FrameworkJarOption;
+import org.ops4j.pax.exam.options.TestContainerFactoryOption;
+
+/**
+ * Factory methods for in-process test container options.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+public class InProcessOptions
+{
+
+    /**
+     * Utility class. Ment to be used via the static factory methods.
+     */
+    private InProcessOptions()
+    {
+        // utility class
+    }
+
+    /**
+     * Creates a {@link TestContainerFactoryOption} that selects the in-process test container, regardless of the test
+     * container factory discovered on the classpath.
+     *
+     * @return test container factory option
+     */
+    public static TestContainerFactoryOption inProcess()
+    {
+        return new TestContainerFactoryOption( InProcessTestContainerFactory.class.getName() );
+    }
+
+    /**
+     * Creates a {@link FrameworkJarOption}.
+     *
+     * @param url url of framework jar
+     *
+     * @return framework jar option
+     */
+    public static FrameworkJarOption frameworkJar( final String url )
+    {
+        return new FrameworkJarOption( url );
+    }
+
+}
@@ -0,0 +1,306 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.container.inprocess.internal;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.HashMap;
+import java.util.Map;
+import org.ops4j.pax.exam.spi.container.TestContainerException;
+
+/**
+ * Access to an OSGi framework loaded by an isolated class loader. As the OSGi api classes of the framework are not
+ * the ones visible to the test, the framework is accessed reflectively, via the OSGi interfaces loaded by the isolated
+ * class loader. The framework is created via the OSGi framework launching api.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+class FrameworkApi
+{
+
+    /**
+     * Name of OSGi bundle interface.
+     */
+    static final String BUNDLE = "org.osgi.framework.Bundle";
+    /**
+     * Name of OSGi bundle context interface.
+     */
+    static final String BUNDLE_CONTEXT = "org.osgi.framework.BundleContext";
+    /**
+     * Name of OSGi framework launching api framework interface.
+     */
+    static final String FRAMEWORK = "org.osgi.framework.launch.Framework";
+    /**
+     * Name of OSGi bundle listener interface.
+     */
+    static final String BUNDLE_LISTENER = "org.osgi.framework.BundleListener";
+    /**
+     * Name of OSGi service listener interface.
+     */
+    static final String SERVICE_LISTENER = "org.osgi.framework.ServiceListener";
+    /**
+     * Name of OSGi start level service interface.
+     */
+    static final String START_LEVEL = "org.osgi.service.startlevel.StartLevel";
+
+    /**
+     * Service file naming the framework factory implementation.
+     */
+    private static final String FRAMEWORK_FACTORY_SERVICE =
+        "META-INF/services/org.osgi.framework.launch.FrameworkFactory";
+
+    /**
+     * Isolated class loader of the framework. Its parent is the bootstrap class loader.
+     */
+    private final ClassLoader m_classLoader;
+
+    /**
+     * Looked up methods, by interface, name and number of parameters.
+     */
+    private final Map<String, Method> m_methods;
+
+    /**
+     * Constructor.
+     *
+     * @param frameworkJar url of framework jar
+     */
+    FrameworkApi( final URL frameworkJar )
+    {
+        m_classLoader = new URLClassLoader( new URL[]{ frameworkJar }, null );
+        m_methods = new HashMap<String, Method>();
+    }
+
+    /**
+     * Creates a new framework via the framework factory of the framework jar.
+     *
+     * @param configuration framework configuration
+     *
+     * @return created framework (not yet initialized)
+     *
+     * @throws TestContainerException - If framework jar does not implement the framework launching api
+     */
+    Object newFramework( final Map<String, String> configuration )
+    {
+        final URL service = m_classLoader.getResource( FRAMEWORK_FACTORY_SERVICE );
+        if( service == null )
+        {
+            throw new TestContainerException( "Framework does not support the OSGi framework launching api" );
+        }
+        final String factoryClassName = readFactoryClassName( service );
+        final Object factory;
+        try
+        {
+            factory = m_classLoader.loadClass( factoryClassName ).newInstance();
+        }
+        catch( Exception e )
+        {
+            throw new TestContainerException( "Cannot create framework factory " + factoryClassName, e );
+        }
+        return call( factory, "org.osgi.framework.launch.FrameworkFactory", "newFramework", configuration );
+    }
+
+    /**
+     * Calls a method of an OSGi interface on an object created by the framework. Methods are selected by name and
+     * number of arguments, which is enough to tell apart the overloaded OSGi methods used by the test container.
+     *
+     * @param target        object to call the method on
+     * @param interfaceName name of OSGi interface declaring the method
+     * @param methodName    method name
+     * @param args          method arguments
+     *
+     * @return method result
+     *
+     * @throws TestContainerException - If method cannot be called or throws a checked exception
+     */
+    Object call( final Object target,
+                 final String interfaceName,
+                 final String methodName,
+                 final Object... args )
+    {
+        final Method method = getMethod( interfaceName, methodName, args.length );
+        try
+        {
+            return method.invoke( target, args );
+        }
+        catch( InvocationTargetException e )
+        {
+            final Throwable cause = e.getCause();
+            if( cause instanceof RuntimeException )
+            {
+                throw (RuntimeException) cause;
+            }
+            if( cause instanceof Error )
+            {
+                throw (Error) cause;
+            }
+            throw new TestContainerException( cause.getMessage(), cause );
+        }
+        catch( IllegalAccessException e )
+        {
+            throw new TestContainerException( "Cannot call " + interfaceName + "." + methodName, e );
+        }
+    }
+
+    /**
+     * Creates a listener implementing an OSGi listener interface, that runs a callback on every event.
+     *
+     * @param interfaceName name of OSGi listener interface
+     * @param callback      callback to run on events
+     *
+     * @return listener, to be registered with the framework
+     *
+     * @throws TestContainerException - If interface cannot be found
+     */
+    Object newListener( final String interfaceName,
+                        final Runnable callback )
+    {
+        final Class<?> listenerInterface;
+        try
+        {
+            listenerInterface = m_classLoader.loadClass( interfaceName );
+        }
+        catch( ClassNotFoundException e )
+        {
+            throw new TestContainerException( "Framework does not provide " + interfaceName, e );
+        }
+        return Proxy.newProxyInstance( m_classLoader, new Class<?>[]{ listenerInterface }, new InvocationHandler()
+        {
+            public Object invoke( final Object proxy,
+                                  final Method method,
+                                  final Object[] args )
+            {
+                // listeners are kept by the framework in collections, so they must behave as plain objects
+                if( "equals".equals( method.getName() ) && args != null && args.length == 1 )
+                {
+                    return proxy == args[ 0 ];
+                }
+                if( "hashCode".equals( method.getName() ) && args == null )
+                {
+                    return System.identityHashCode( proxy );
+                }
+                if( "toString".equals( method.getName() ) && args == null )
+                {
+                    return "Pax Exam " + interfaceName;
+                }
+                callback.run();
+                return null;
+            }
+        }
+        );
+    }
+
+    /**
+     * Looks up a method of an OSGi interface.
+     *
+     * @param interfaceName name of OSGi interface
+     * @param methodName    method name
+     * @param arguments     number of parameters
+     *
+     * @return found method
+     *
+     * @throws TestContainerException - If interface or method cannot be found
+     */
+    private synchronized Method getMethod( final String interfaceName,
+                                           final String methodName,
+                                           final int arguments )
+    {
+        final String key = interfaceName + "#" + methodName + "/" + arguments;
+        Method method = m_methods.get( key );
+        if( method == null )
+        {
+            try
+            {
+                for( Method candidate : m_classLoader.loadClass( interfaceName ).getMethods() )
+                {
+                    if( candidate.getName().equals( methodName ) && candidate.getParameterTypes().length == arguments )
+                    {
+                        method = candidate;
+                        break;
+                    }
+                }
+            }
+            catch( ClassNotFoundException e )
+            {
+                throw new TestContainerException( "Framework does not provide " + interfaceName, e );
+            }
+            if( method == null )
+            {
+                throw new TestContainerException( "Framework does not provide " + key );
+            }
+            m_methods.put( key, method );
+        }
+        return method;
+    }
+
+    /**
+     * Reads the framework factory class name out of the service file.
+     *
+     * @param service service file url
+     *
+     * @return framework factory class name
+     *
+     * @throws TestContainerException - If service file cannot be read or does not name a class
+     */
+    private static String readFactoryClassName( final URL service )
+    {
+        BufferedReader reader = null;
+        try
+        {
+            final InputStream in = service.openStream();
+            reader = new BufferedReader( new InputStreamReader( in, "UTF-8" ) );
+            String line;
+            while( ( line = reader.readLine() ) != null )
+            {
+                final int comment = line.indexOf( '#' );
+                final String className = ( comment >= 0 ? line.substring( 0, comment ) : line ).trim();
+                if( className.length() > 0 )
+                {
+                    return className;
+                }
+            }
+            throw new TestContainerException( "No framework factory declared in " + service );
+        }
+        catch( IOException e )
+        {
+            throw new TestContainerException( "Cannot read " + service, e );
+        }
+        finally
+        {
+            if( reader != null )
+            {
+                try
+                {
+                    reader.close();
+                }
+                catch( IOException ignore )
+                {
+                    // ignore
+                }
+            }
+        }
+    }
+
+}
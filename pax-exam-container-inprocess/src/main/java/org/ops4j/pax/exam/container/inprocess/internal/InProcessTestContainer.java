@@ -0,0 +1,1012 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.container.inprocess.internal;
+
+import static org.ops4j.pax.exam.Constants.*;
+import static org.ops4j.pax.exam.OptionUtils.*;
+import static org.ops4j.pax.exam.container.inprocess.internal.FrameworkApi.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.ops4j.pax.exam.CompositeCustomizer;
+import org.ops4j.pax.exam.CoreOptions;
+import org.ops4j.pax.exam.Customizer;
+import org.ops4j.pax.exam.Option;
+import org.ops4j.pax.exam.container.inprocess.options.FrameworkJarOption;
+import org.ops4j.pax.exam.options.BootClasspathLibraryOption;
+import org.ops4j.pax.exam.options.BootDelegationOption;
+import org.ops4j.pax.exam.options.BundleStartLevelOption;
+import org.ops4j.pax.exam.options.CustomFrameworkOption;
+import org.ops4j.pax.exam.options.EquinoxFrameworkOption;
+import org.ops4j.pax.exam.options.FrameworkOption;
+import org.ops4j.pax.exam.options.FrameworkStartLevelOption;
+import org.ops4j.pax.exam.options.KnopflerfishFrameworkOption;
+import org.ops4j.pax.exam.options.ProvisionOption;
+import org.ops4j.pax.exam.options.SystemPackageOption;
+import org.ops4j.pax.exam.options.SystemPropertyOption;
+import org.ops4j.pax.exam.options.TestContainerStartTimeoutOption;
+import org.ops4j.pax.exam.spi.container.AsyncService;
+import org.ops4j.pax.exam.spi.container.BatchExecutionException;
+import org.ops4j.pax.exam.spi.container.TestContainer;
+import org.ops4j.pax.exam.spi.container.TestContainerException;
+import org.ops4j.pax.exam.spi.container.TestContainerOperation;
+import org.ops4j.pax.exam.spi.container.TimeoutException;
+import org.osgi.framework.Bundle;
+
+/**
+ * {@link TestContainer} that launches the OSGi framework inside the test JVM, via the OSGi framework launching api,
+ * instead of forking a new JVM via Pax Runner. The framework is loaded by an isolated class loader so its classes
+ * (including the OSGi api) do not clash with the ones of the test. Services are handed out to the test as proxies
+ * that call the service methods reflectively.
+ * Bundles are provisioned out of urls the JVM can open or out of mvn: urls resolved against the local Maven
+ * repository. Options that need a separate JVM (e.g. boot classpath libraries) are not supported.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+class InProcessTestContainer
+    implements TestContainer
+{
+
+    /**
+     * JCL logger.
+     */
+    private static final Log LOG = LogFactory.getLog( InProcessTestContainer.class );
+
+    /**
+     * System bundle id.
+     */
+    private static final int SYSTEM_BUNDLE = 0;
+
+    /**
+     * Framework jar used if the options do not specify one.
+     */
+    private static final String DEFAULT_FRAMEWORK_JAR = "mvn:org.apache.felix/org.apache.felix.framework/2.0.1";
+
+    /**
+     * Framework start level used if options do not specify one (same as Pax Runner).
+     */
+    private static final int DEFAULT_START_LEVEL = 6;
+
+    /**
+     * Bundle start level used if options do not specify one (same as Pax Runner).
+     */
+    private static final int DEFAULT_BUNDLE_START_LEVEL = 5;
+
+    /**
+     * User options (expanded).
+     */
+    private final Option[] m_options;
+
+    /**
+     * Test container start timeout.
+     */
+    private final long m_startTimeout;
+
+    /**
+     * Customizers out of options.
+     */
+    private final CompositeCustomizer m_customizers;
+
+    /**
+     * Resolver of bundle urls.
+     */
+    private final UrlResolver m_urlResolver;
+
+    /**
+     * Framework storage folder. Null if not started.
+     */
+    private File m_storage;
+
+    /**
+     * Access to framework. Null if not started.
+     */
+    private FrameworkApi m_api;
+
+    /**
+     * Launched framework. Null if not started.
+     */
+    private Object m_framework;
+
+    /**
+     * Bundle context of system bundle. Null if not started.
+     */
+    private Object m_bundleContext;
+
+    /**
+     * Executor running asynchronous service calls. Null if not yet needed.
+     */
+    private ExecutorService m_asyncExecutor;
+
+    /**
+     * Constructor.
+     *
+     * @param options user startup options
+     */
+    InProcessTestContainer( final Option... options )
+    {
+        m_options = expand( options );
+        m_startTimeout = getTestContainerStartTimeout( m_options );
+        m_customizers = new CompositeCustomizer( filter( Customizer.class, m_options ) );
+        m_urlResolver = new UrlResolver();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public <T> T getService( final Class<T> serviceType )
+    {
+        return getService( serviceType, m_startTimeout );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public <T> T getService( final Class<T> serviceType,
+                             final long timeoutInMillis )
+    {
+        return getService( serviceType, null, timeoutInMillis );
+    }
+
+    /**
+     * {@inheritDoc}
+     * If the service is not available, waits for it to be registered (woken up by service events) until the timeout
+     * passes.
+     */
+    public <T> T getService( final Class<T> serviceType,
+                             final String filter,
+                             final long timeoutInMillis )
+    {
+        LOG.debug( "Lookup a [" + serviceType.getName() + "]" + ( filter == null ? "" : " matching " + filter ) );
+        Object reference = getServiceReference( serviceType, filter );
+        if( reference == null )
+        {
+            final long deadline = deadline( timeoutInMillis );
+            final Object monitor = new Object();
+            final Object listener = newListener( SERVICE_LISTENER, monitor );
+            final String objectClass = "(objectClass=" + serviceType.getName() + ")";
+            call(
+                getBundleContext(), BUNDLE_CONTEXT, "addServiceListener",
+                listener, filter == null ? objectClass : "(&" + objectClass + filter + ")"
+            );
+            try
+            {
+                synchronized( monitor )
+                {
+                    // checked again after the listener was added, so no registration in between is missed
+                    reference = getServiceReference( serviceType, filter );
+                    while( reference == null )
+                    {
+                        if( !await( monitor, deadline ) )
+                        {
+                            throw new TestContainerException( "Service [" + serviceType.getName() + "] not available" );
+                        }
+                        reference = getServiceReference( serviceType, filter );
+                    }
+                }
+            }
+            finally
+            {
+                call( getBundleContext(), BUNDLE_CONTEXT, "removeServiceListener", listener );
+            }
+        }
+        final Object service = call( getBundleContext(), BUNDLE_CONTEXT, "getService", reference );
+        if( serviceType.isInstance( service ) )
+        {
+            // service type is visible to both sides (e.g. a JDK interface)
+            return serviceType.cast( service );
+        }
+        return serviceType.cast( Proxy.newProxyInstance(
+            serviceType.getClassLoader(), new Class<?>[]{ serviceType }, new ServiceInvocationHandler( service )
+        )
+        );
+    }
+
+    /**
+     * {@inheritDoc}
+     * As there is no connection to pipeline calls on, each call runs on its own thread.
+     */
+    public AsyncService getAsyncService( final Class<?> serviceType,
+                                         final String filter,
+                                         final long timeoutInMillis )
+    {
+        return new AsyncService()
+        {
+            public Future<Object> invoke( final String methodName,
+                                          final Class<?>[] parameterTypes,
+                                          final Object... args )
+            {
+                final Method method;
+                try
+                {
+                    method = serviceType.getMethod( methodName, parameterTypes );
+                }
+                catch( NoSuchMethodException e )
+                {
+                    throw new TestContainerException( "Service [" + serviceType.getName() + "] has no such method", e );
+                }
+                return getAsyncExecutor().submit( new Callable<Object>()
+                {
+                    public Object call()
+                        throws Exception
+                    {
+                        final Object service = getService( serviceType, filter, timeoutInMillis );
+                        try
+                        {
+                            return method.invoke( service, args );
+                        }
+                        catch( InvocationTargetException e )
+                        {
+                            if( e.getCause() instanceof Exception )
+                            {
+                                throw (Exception) e.getCause();
+                            }
+                            throw e;
+                        }
+                    }
+                }
+                );
+            }
+        };
+    }
+
+    /**
+     * Returns the executor running asynchronous service calls, creating it if needed.
+     *
+     * @return executor
+     */
+    private synchronized ExecutorService getAsyncExecutor()
+    {
+        if( m_asyncExecutor == null )
+        {
+            m_asyncExecutor = Executors.newCachedThreadPool( new ThreadFactory()
+            {
+                public Thread newThread( final Runnable runnable )
+                {
+                    final Thread thread = new Thread( runnable, "Pax Exam async service call" );
+                    thread.setDaemon( true );
+                    return thread;
+                }
+            }
+            );
+        }
+        return m_asyncExecutor;
+    }
+
+    /**
+     * Looks up a service reference.
+     *
+     * @param serviceType service type
+     * @param filter      filter the service properties must match (can be null = no filtering)
+     *
+     * @return service reference or null if there is no such service
+     */
+    private Object getServiceReference( final Class<?> serviceType,
+                                        final String filter )
+    {
+        if( filter == null )
+        {
+            return call( getBundleContext(), BUNDLE_CONTEXT, "getServiceReference", serviceType.getName() );
+        }
+        final Object[] references = (Object[]) call(
+            getBundleContext(), BUNDLE_CONTEXT, "getServiceReferences", serviceType.getName(), filter
+        );
+        return references == null || references.length == 0 ? null : references[ 0 ];
+    }
+
+    /**
+     * {@inheritDoc}
+     * The bundle is customized by the customizers, as a test probe.
+     */
+    public long installBundle( final String bundleUrl )
+    {
+        LOG.debug( "Installing bundle [" + bundleUrl + "] .." );
+        try
+        {
+            final InputStream in = m_customizers.customizeTestProbe( m_urlResolver.resolve( bundleUrl ).openStream() );
+            final long id = install( bundleUrl, in );
+            LOG.debug( "Installed bundle " + bundleUrl + " as ID: " + id );
+            return id;
+        }
+        catch( TestContainerException e )
+        {
+            throw e;
+        }
+        catch( Exception e )
+        {
+            throw new TestContainerException( "Cannot install bundle " + bundleUrl, e );
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long installBundle( final String bundleLocation,
+                               final byte[] bundle )
+    {
+        LOG.debug( "Installing bundle [" + bundleLocation + "] .." );
+        final long id = install( bundleLocation, new ByteArrayInputStream( bundle ) );
+        LOG.debug( "Installed bundle " + bundleLocation + " as ID: " + id );
+        return id;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void startBundle( final long bundleId )
+    {
+        call( getBundle( bundleId ), BUNDLE, "start" );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void uninstallBundle( final long bundleId )
+    {
+        call( getBundle( bundleId ), BUNDLE, "uninstall" );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void setBundleStartLevel( final long bundleId,
+                                     final int startLevel )
+    {
+        call( getStartLevelService(), START_LEVEL, "setBundleStartLevel", getBundle( bundleId ), startLevel );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void waitForState( final long bundleId,
+                              final int state,
+                              final long timeoutInMillis )
+        throws TimeoutException
+    {
+        final Object bundle = getBundle( bundleId );
+        if( ( (Integer) call( bundle, BUNDLE, "getState" ) ) >= state )
+        {
+            return;
+        }
+        final long deadline = deadline( timeoutInMillis );
+        final Object monitor = new Object();
+        final Object listener = newListener( BUNDLE_LISTENER, monitor );
+        call( getBundleContext(), BUNDLE_CONTEXT, "addBundleListener", listener );
+        try
+        {
+            synchronized( monitor )
+            {
+                // same as the remote bundle context: states are ordered, so a bundle past the state also qualifies
+                while( ( (Integer) call( bundle, BUNDLE, "getState" ) ) < state )
+                {
+                    if( !await( monitor, deadline ) )
+                    {
+                        throw new TimeoutException( "Bundle [" + bundleId + "] did not reach state " + state );
+                    }
+                }
+            }
+        }
+        finally
+        {
+            call( getBundleContext(), BUNDLE_CONTEXT, "removeBundleListener", listener );
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Object[] execute( final TestContainerOperation... operations )
+    {
+        final Object[] results = new Object[operations.length];
+        long lastInstalled = TestContainerOperation.LAST_INSTALLED_BUNDLE;
+        for( int i = 0; i < operations.length; i++ )
+        {
+            final TestContainerOperation operation = operations[ i ];
+            final long bundleId = operation.getBundleId() == TestContainerOperation.LAST_INSTALLED_BUNDLE
+                                  ? lastInstalled
+                                  : operation.getBundleId();
+            try
+            {
+                switch( operation.getType() )
+                {
+                    case INSTALL_BUNDLE:
+                        lastInstalled = operation.getContent() == null
+                                        ? installBundle( operation.getLocation() )
+                                        : installBundle( operation.getLocation(), operation.getContent() );
+                        results[ i ] = lastInstalled;
+                        break;
+                    case START_BUNDLE:
+                        startBundle( bundleId );
+                        break;
+                    case UNINSTALL_BUNDLE:
+                        uninstallBundle( bundleId );
+                        break;
+                    case SET_BUNDLE_START_LEVEL:
+                        setBundleStartLevel( bundleId, operation.getStartLevel() );
+                        break;
+                    case WAIT_FOR_STATE:
+                        waitForState( bundleId, operation.getState(), operation.getTimeout() );
+                        break;
+                }
+            }
+            catch( RuntimeException e )
+            {
+                throw new BatchExecutionException( i, results, e );
+            }
+        }
+        return results;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Launches the framework and installs the provisioned bundles.
+     */
+    public void start()
+    {
+        LOG.info( "Starting up the in-process test container" );
+        final long startedAt = System.currentTimeMillis();
+        try
+        {
+            m_storage = createStorage();
+            m_customizers.customizeEnvironment( m_storage );
+            m_api = new FrameworkApi( m_urlResolver.resolve( getFrameworkJar() ) );
+            m_framework = m_api.newFramework( getConfiguration() );
+            call( m_framework, FRAMEWORK, "init" );
+            m_bundleContext = call( m_framework, BUNDLE, "getBundleContext" );
+            provision();
+            call( m_framework, BUNDLE, "start" );
+            waitForState( SYSTEM_BUNDLE, Bundle.ACTIVE, m_startTimeout );
+        }
+        catch( RuntimeException e )
+        {
+            stop();
+            throw e;
+        }
+        LOG.info( "In-process test container started in " + ( System.currentTimeMillis() - startedAt ) + " millis" );
+    }
+
+    /**
+     * {@inheritDoc}
+     * Not supported, as provisioned bundles and system properties are applied when the framework is created.
+     */
+    public boolean reconfigure( final Option... options )
+    {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Stops the framework and deletes its storage.
+     */
+    public void stop()
+    {
+        LOG.info( "Shutting down the in-process test container" );
+        try
+        {
+            if( m_framework != null )
+            {
+                call( m_framework, BUNDLE, "stop" );
+                call( m_framework, FRAMEWORK, "waitForStop", m_startTimeout == WAIT_FOREVER ? 0L : m_startTimeout );
+            }
+        }
+        catch( RuntimeException e )
+        {
+            LOG.warn( "Cannot stop framework: " + e.getMessage() );
+        }
+        finally
+        {
+            synchronized( this )
+            {
+                if( m_asyncExecutor != null )
+                {
+                    m_asyncExecutor.shutdownNow();
+                    m_asyncExecutor = null;
+                }
+            }
+            m_framework = null;
+            m_bundleContext = null;
+            m_api = null;
+            if( m_storage != null )
+            {
+                delete( m_storage );
+                m_storage = null;
+            }
+        }
+    }
+
+    /**
+     * Installs and marks for start the provisioned bundles, at their start levels.
+     */
+    private void provision()
+    {
+        final Object startLevel = getStartLevelService();
+        final BundleStartLevelOption[] bundleStartLevels = filter( BundleStartLevelOption.class, m_options );
+        final int defaultBundleStartLevel = bundleStartLevels.length > 0
+                                            ? bundleStartLevels[ 0 ].getStartLevel()
+                                            : DEFAULT_BUNDLE_START_LEVEL;
+        call( startLevel, START_LEVEL, "setInitialBundleStartLevel", defaultBundleStartLevel );
+        final List<Object> toStart = new ArrayList<Object>();
+        for( ProvisionOption<?> provision : filter( ProvisionOption.class, m_options ) )
+        {
+            final Object bundle;
+            try
+            {
+                bundle = call(
+                    getBundleContext(), BUNDLE_CONTEXT, "installBundle",
+                    provision.getURL(), m_urlResolver.resolve( provision.getURL() ).openStream()
+                );
+            }
+            catch( IOException e )
+            {
+                throw new TestContainerException( "Cannot provision bundle " + provision.getURL(), e );
+            }
+            if( provision.getStartLevel() != null )
+            {
+                call( startLevel, START_LEVEL, "setBundleStartLevel", bundle, provision.getStartLevel() );
+            }
+            if( provision.shouldStart() )
+            {
+                toStart.add( bundle );
+            }
+        }
+        // bundles get started by the framework once their start level is reached
+        for( Object bundle : toStart )
+        {
+            call( bundle, BUNDLE, "start" );
+        }
+    }
+
+    /**
+     * Creates the framework configuration out of options.
+     *
+     * @return framework configuration
+     *
+     * @throws TestContainerException - If options contain options that cannot be supported in-process
+     */
+    private Map<String, String> getConfiguration()
+    {
+        if( filter( BootClasspathLibraryOption.class, m_options ).length > 0 )
+        {
+            throw new TestContainerException( "Boot classpath libraries are not supported by in-process containers" );
+        }
+        final Map<String, String> configuration = new HashMap<String, String>();
+        configuration.put( "org.osgi.framework.storage", m_storage.getAbsolutePath() );
+        configuration.put( "org.osgi.framework.storage.clean", "onFirstInit" );
+        // do not install url handlers JVM wide, as more then one framework can run in this JVM
+        configuration.put( "felix.service.urlhandlers", "false" );
+        final FrameworkStartLevelOption[] startLevels = filter( FrameworkStartLevelOption.class, m_options );
+        configuration.put(
+            "org.osgi.framework.startlevel.beginning",
+            String.valueOf( startLevels.length > 0 ? startLevels[ 0 ].getStartLevel() : DEFAULT_START_LEVEL )
+        );
+        final StringBuilder bootDelegation = new StringBuilder( "sun.*" );
+        for( BootDelegationOption option : filter( BootDelegationOption.class, m_options ) )
+        {
+            bootDelegation.append( "," ).append( option.getPackage() );
+        }
+        configuration.put( "org.osgi.framework.bootdelegation", bootDelegation.toString() );
+        final StringBuilder systemPackages = new StringBuilder();
+        for( SystemPackageOption option : filter( SystemPackageOption.class, m_options ) )
+        {
+            if( systemPackages.length() > 0 )
+            {
+                systemPackages.append( "," );
+            }
+            systemPackages.append( option.getPackage() );
+        }
+        if( systemPackages.length() > 0 )
+        {
+            configuration.put( "org.osgi.framework.system.packages.extra", systemPackages.toString() );
+        }
+        // system properties are not set JVM wide, but are visible to bundles via the bundle context
+        for( SystemPropertyOption option : filter( SystemPropertyOption.class, m_options ) )
+        {
+            configuration.put( option.getKey(), option.getValue() );
+        }
+        return configuration;
+    }
+
+    /**
+     * Determines the url of the framework jar, out of a {@link FrameworkJarOption} or of the framework option.
+     *
+     * @return framework jar url
+     *
+     * @throws TestContainerException - If the framework option cannot be mapped to a framework jar
+     */
+    private String getFrameworkJar()
+    {
+        final FrameworkJarOption[] frameworkJars = filter( FrameworkJarOption.class, m_options );
+        if( frameworkJars.length > 0 )
+        {
+            return frameworkJars[ 0 ].getURL();
+        }
+        final FrameworkOption[] frameworks = filter( FrameworkOption.class, m_options );
+        if( frameworks.length == 0 || frameworks[ 0 ].getVersion() == null )
+        {
+            if( frameworks.length > 0 && !"felix".equals( frameworks[ 0 ].getName() ) )
+            {
+                throw new TestContainerException( "Framework version must be specified for in-process containers" );
+            }
+            return DEFAULT_FRAMEWORK_JAR;
+        }
+        final FrameworkOption framework = frameworks[ 0 ];
+        if( framework instanceof CustomFrameworkOption )
+        {
+            throw new TestContainerException( "Custom frameworks are not supported by in-process containers, "
+                                              + "use frameworkJar() option instead"
+            );
+        }
+        if( framework instanceof EquinoxFrameworkOption )
+        {
+            return "mvn:org.eclipse/osgi/" + framework.getVersion();
+        }
+        if( framework instanceof KnopflerfishFrameworkOption )
+        {
+            return "mvn:org.knopflerfish/framework/" + framework.getVersion();
+        }
+        return "mvn:org.apache.felix/org.apache.felix.framework/" + framework.getVersion();
+    }
+
+    /**
+     * Installs a bundle.
+     *
+     * @param location bundle location
+     * @param in       bundle content
+     *
+     * @return bundle id
+     */
+    private long install( final String location,
+                          final InputStream in )
+    {
+        final Object bundle = call( getBundleContext(), BUNDLE_CONTEXT, "installBundle", location, in );
+        return (Long) call( bundle, BUNDLE, "getBundleId" );
+    }
+
+    /**
+     * Looks up the start level service.
+     *
+     * @return start level service
+     *
+     * @throws TestContainerException - If framework does not provide a start level service
+     */
+    private Object getStartLevelService()
+    {
+        final Object reference = call( getBundleContext(), BUNDLE_CONTEXT, "getServiceReference", START_LEVEL );
+        if( reference == null )
+        {
+            throw new TestContainerException( "Start level service not available" );
+        }
+        return call( getBundleContext(), BUNDLE_CONTEXT, "getService", reference );
+    }
+
+    /**
+     * Looks up a bundle.
+     *
+     * @param bundleId bundle id
+     *
+     * @return bundle
+     *
+     * @throws TestContainerException - If there is no such bundle
+     */
+    private Object getBundle( final long bundleId )
+    {
+        final Object bundle = call( getBundleContext(), BUNDLE_CONTEXT, "getBundle", bundleId );
+        if( bundle == null )
+        {
+            throw new TestContainerException( "Bundle [" + bundleId + "] not installed" );
+        }
+        return bundle;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return bundle context of system bundle
+     *
+     * @throws TestContainerException - If test container was not started
+     */
+    private Object getBundleContext()
+    {
+        if( m_bundleContext == null )
+        {
+            throw new TestContainerException( "Test container not started" );
+        }
+        return m_bundleContext;
+    }
+
+    /**
+     * Calls an OSGi method on the framework.
+     *
+     * @param target        object to call the method on
+     * @param interfaceName OSGi interface declaring the method
+     * @param methodName    method name
+     * @param args          method arguments
+     *
+     * @return method result
+     */
+    private Object call( final Object target,
+                         final String interfaceName,
+                         final String methodName,
+                         final Object... args )
+    {
+        if( m_api == null )
+        {
+            throw new TestContainerException( "Test container not started" );
+        }
+        return m_api.call( target, interfaceName, methodName, args );
+    }
+
+    /**
+     * Creates an OSGi listener that wakes up the threads waiting on a monitor on every event.
+     *
+     * @param interfaceName OSGi listener interface
+     * @param monitor       monitor to notify
+     *
+     * @return listener
+     */
+    private Object newListener( final String interfaceName,
+                                final Object monitor )
+    {
+        if( m_api == null )
+        {
+            throw new TestContainerException( "Test container not started" );
+        }
+        return m_api.newListener( interfaceName, new Runnable()
+        {
+            public void run()
+            {
+                synchronized( monitor )
+                {
+                    monitor.notifyAll();
+                }
+            }
+        }
+        );
+    }
+
+    /**
+     * Creates an unique framework storage folder.
+     *
+     * @return created folder
+     *
+     * @throws TestContainerException - If folder cannot be created
+     */
+    private static File createStorage()
+    {
+        try
+        {
+            final File storage = File.createTempFile( "paxexam_inprocess_", "" );
+            if( !storage.delete() || !storage.mkdirs() )
+            {
+                throw new TestContainerException( "Cannot create framework storage " + storage );
+            }
+            return storage;
+        }
+        catch( IOException e )
+        {
+            throw new TestContainerException( "Cannot create framework storage", e );
+        }
+    }
+
+    /**
+     * Deletes a file or folder recursively.
+     *
+     * @param file file to delete
+     */
+    private static void delete( final File file )
+    {
+        final File[] children = file.listFiles();
+        if( children != null )
+        {
+            for( File child : children )
+            {
+                delete( child );
+            }
+        }
+        if( !file.delete() )
+        {
+            LOG.debug( "Cannot delete " + file );
+        }
+    }
+
+    /**
+     * Computes the deadline of a timeout.
+     *
+     * @param timeoutInMillis timeout (in millis)
+     *
+     * @return deadline (in millis)
+     */
+    private static long deadline( final long timeoutInMillis )
+    {
+        final long now = System.currentTimeMillis();
+        return timeoutInMillis == WAIT_FOREVER || now + timeoutInMillis < now ? Long.MAX_VALUE : now + timeoutInMillis;
+    }
+
+    /**
+     * Waits on a monitor (that must be held by the current thread) until notified or the deadline passes.
+     *
+     * @param monitor  monitor to wait on
+     * @param deadline time (in millis) to wait until
+     *
+     * @return false if the deadline passed
+     *
+     * @throws TestContainerException - If interrupted
+     */
+    private static boolean await( final Object monitor,
+                                  final long deadline )
+    {
+        final long remaining = deadline - System.currentTimeMillis();
+        if( remaining <= 0 )
+        {
+            return false;
+        }
+        try
+        {
+            monitor.wait( remaining );
+        }
+        catch( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new TestContainerException( "Interrupted while waiting", e );
+        }
+        return true;
+    }
+
+    /**
+     * Determines the test container start timeout out of a {@link TestContainerStartTimeoutOption} or the default.
+     *
+     * @param options user options
+     *
+     * @return start timeout (in millis)
+     */
+    private static long getTestContainerStartTimeout( final Option... options )
+    {
+        final TestContainerStartTimeoutOption[] timeoutOptions =
+            filter( TestContainerStartTimeoutOption.class, options );
+        if( timeoutOptions.length > 0 )
+        {
+            return timeoutOptions[ 0 ].getTimeout();
+        }
+        return CoreOptions.waitForFrameworkStartup().getTimeout();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "InProcessTestContainer{" + m_storage + "}";
+    }
+
+    /**
+     * Calls methods of a service loaded by the framework class loader, by matching method name and parameter types
+     * by name.
+     */
+    private static class ServiceInvocationHandler
+        implements InvocationHandler
+    {
+
+        /**
+         * Service object.
+         */
+        private final Object m_service;
+
+        /**
+         * Matching service methods, by method of the proxied interface.
+         */
+        private final Map<Method, Method> m_methods;
+
+        ServiceInvocationHandler( final Object service )
+        {
+            m_service = service;
+            m_methods = new HashMap<Method, Method>();
+        }
+
+        public Object invoke( final Object proxy,
+                              final Method method,
+                              final Object[] args )
+            throws Throwable
+        {
+            try
+            {
+                return getServiceMethod( method ).invoke( m_service, args );
+            }
+            catch( InvocationTargetException e )
+            {
+                throw e.getCause();
+            }
+        }
+
+        /**
+         * Finds the service method matching a method of the proxied interface.
+         *
+         * @param method method of the proxied interface
+         *
+         * @return matching service method
+         *
+         * @throws NoSuchMethodException - If the service has no such method
+         */
+        private synchronized Method getServiceMethod( final Method method )
+            throws NoSuchMethodException
+        {
+            Method serviceMethod = m_methods.get( method );
+            if( serviceMethod == null )
+            {
+                for( Class<?> type = m_service.getClass(); type != null && serviceMethod == null;
+                     type = type.getSuperclass() )
+                {
+                    for( Method candidate : type.getDeclaredMethods() )
+                    {
+                        if( matches( method, candidate ) )
+                        {
+                            serviceMethod = candidate;
+                            break;
+                        }
+                    }
+                }
+                if( serviceMethod == null )
+                {
+                    throw new NoSuchMethodException( method.toString() );
+                }
+                // service class is not necessarily public
+                serviceMethod.setAccessible( true );
+                m_methods.put( method, serviceMethod );
+            }
+            return serviceMethod;
+        }
+
+        private static boolean matches( final Method method,
+                                        final Method candidate )
+        {
+            if( !method.getName().equals( candidate.getName() ) )
+            {
+                return false;
+            }
+            final Class<?>[] types = method.getParameterTypes();
+            final Class<?>[] candidateTypes = candidate.getParameterTypes();
+            if( types.length != candidateTypes.length )
+            {
+                return false;
+            }
+            for( int i = 0; i < types.length; i++ )
+            {
+                if( !types[ i ].getName().equals( candidateTypes[ i ].getName() ) )
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.container.inprocess.internal;
+
+import org.ops4j.pax.exam.Option;
+import org.ops4j.pax.exam.spi.container.TestContainer;
+import org.ops4j.pax.exam.spi.container.TestContainerFactory;
+
+/**
+ * Factory for {@link InProcessTestContainer}.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+public class InProcessTestContainerFactory
+    implements TestContainerFactory
+{
+
+    /**
+     * {@inheritDoc}
+     */
+    public TestContainer newInstance( final Option... options )
+    {
+        return new InProcessTestContainer( options );
+    }
+
+    /**
+     * {@inheritDoc}
+     * In-process test containers start fast enough, so they are not prefetched.
+     */
+    public void prefetch( final Option... options )
+    {
+        // not supported
+    }
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.container.inprocess.internal;
+
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import org.ops4j.pax.exam.spi.container.TestContainerException;
+
+/**
+ * Resolves urls of bundles and framework jars. Maven urls (mvn:groupId/artifactId/version[/type[/classifier]]) are
+ * resolved against the local Maven repository, as the in-process test container does not download artifacts. Other
+ * urls are used as they are.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+class UrlResolver
+{
+
+    /**
+     * Maven url protocol prefix.
+     */
+    private static final String MVN_PREFIX = "mvn:";
+
+    /**
+     * Local Maven repository.
+     */
+    private final File m_localRepository;
+
+    /**
+     * Constructor. Uses the local repository set via org.ops4j.pax.url.mvn.localRepository system property or, if not
+     * set, ${user.home}/.m2/repository.
+     */
+    UrlResolver()
+    {
+        final String localRepository = System.getProperty( "org.ops4j.pax.url.mvn.localRepository" );
+        m_localRepository = localRepository != null
+                            ? new File( localRepository )
+                            : new File( System.getProperty( "user.home" ), ".m2/repository" );
+    }
+
+    /**
+     * Resolves an url.
+     *
+     * @param url url to resolve
+     *
+     * @return resolved url
+     *
+     * @throws TestContainerException - If url is malformed or maven artifact is not available in local repository
+     */
+    URL resolve( final String url )
+    {
+        try
+        {
+            if( !url.startsWith( MVN_PREFIX ) )
+            {
+                return new URL( url );
+            }
+            final File artifact = resolveArtifact( url );
+            if( !artifact.isFile() )
+            {
+                throw new TestContainerException(
+                    "Artifact " + url + " not found in local repository as " + artifact.getAbsolutePath()
+                );
+            }
+            return artifact.toURI().toURL();
+        }
+        catch( MalformedURLException e )
+        {
+            throw new TestContainerException( "Malformed url " + url, e );
+        }
+    }
+
+    /**
+     * Maps a maven url to the artifact file in local repository.
+     *
+     * @param url maven url
+     *
+     * @return artifact file (may not exist)
+     *
+     * @throws TestContainerException - If url is not a valid maven url
+     */
+    File resolveArtifact( final String url )
+    {
+        String coordinates = url.substring( MVN_PREFIX.length() );
+        // remote repository is not used
+        final int repositorySeparator = coordinates.indexOf( '!' );
+        if( repositorySeparator >= 0 )
+        {
+            coordinates = coordinates.substring( repositorySeparator + 1 );
+        }
+        final String[] segments = coordinates.split( "/" );
+        if( segments.length < 3 || segments[ 2 ].length() == 0 || "LATEST".equals( segments[ 2 ] ) )
+        {
+            throw new TestContainerException( "Maven url " + url + " must specify group, artifact and version" );
+        }
+        final String groupId = segments[ 0 ];
+        final String artifactId = segments[ 1 ];
+        final String version = segments[ 2 ];
+        final String type = segments.length > 3 && segments[ 3 ].length() > 0 ? segments[ 3 ] : "jar";
+        final String classifier = segments.length > 4 && segments[ 4 ].length() > 0 ? "-" + segments[ 4 ] : "";
+        return new File(
+            m_localRepository,
+            groupId.replace( '.', '/' ) + "/" + artifactId + "/" + version + "/"
+            + artifactId + "-" + version + classifier + "." + type
+        );
+    }
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.container.inprocess.options;
+
+import static org.ops4j.lang.NullArgumentException.*;
+import org.ops4j.pax.exam.Option;
+
+/**
+ * Option specifying the url of the OSGi framework jar to be launched by the in-process test container. The framework
+ * must implement the OSGi framework launching api. The url can be a mvn: url, resolved against the local Maven
+ * repository, or any url supported by the JVM.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+public class FrameworkJarOption
+    implements Option
+{
+
+    /**
+     * Url of framework jar.
+     */
+    private final String m_url;
+
+    /**
+     * Constructor.
+     *
+     * @param url url of framework jar (cannot be null or empty)
+     *
+     * @throws IllegalArgumentException - If url is null or empty
+     */
+    public FrameworkJarOption( final String url )
+    {
+        validateNotEmpty( url, true, "Framework jar url" );
+        m_url = url;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return url of framework jar
+     */
+    public String getURL()
+    {
+        return m_url;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString()
+    {
+        final StringBuilder sb = new StringBuilder();
+        sb.append( "FrameworkJarOption" );
+        sb.append( "{url='" ).append( m_url ).append( '\'' );
+        sb.append( '}' );
+        return sb.toString();
+    }
+
+}
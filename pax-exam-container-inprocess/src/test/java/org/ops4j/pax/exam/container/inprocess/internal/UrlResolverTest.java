@@ -0,0 +1,71 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.container.inprocess.internal;
+
+import java.io.File;
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import org.junit.Test;
+import org.ops4j.pax.exam.spi.container.TestContainerException;
+
+/**
+ * Unit Tests for {@link UrlResolver}.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+public class UrlResolverTest
+{
+
+    private static final File LOCAL_REPOSITORY = new File( System.getProperty( "user.home" ), ".m2/repository" );
+
+    /**
+     * Maven url with group, artifact and version.
+     */
+    @Test
+    public void artifact()
+    {
+        assertThat(
+            "Artifact",
+            new UrlResolver().resolveArtifact( "mvn:org.ops4j.pax.exam/pax-exam/1.0.0" ),
+            is( equalTo( new File( LOCAL_REPOSITORY, "org/ops4j/pax/exam/pax-exam/1.0.0/pax-exam-1.0.0.jar" ) ) )
+        );
+    }
+
+    /**
+     * Maven url with repository, type and classifier.
+     */
+    @Test
+    public void artifactWithRepositoryTypeAndClassifier()
+    {
+        assertThat(
+            "Artifact",
+            new UrlResolver().resolveArtifact( "mvn:http://repo1.maven.org/maven2!org.ops4j/base/1.0/zip/sources" ),
+            is( equalTo( new File( LOCAL_REPOSITORY, "org/ops4j/base/1.0/base-1.0-sources.zip" ) ) )
+        );
+    }
+
+    /**
+     * Maven url without version cannot be resolved against the local repository.
+     */
+    @Test( expected = TestContainerException.class )
+    public void artifactWithoutVersion()
+    {
+        new UrlResolver().resolveArtifact( "mvn:org.ops4j.pax.exam/pax-exam" );
+    }
+
+}
@@ -17,22 +17,37 @@
  */
 package org.ops4j.pax.exam.rbc.client;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.net.URL;
 import java.rmi.ConnectException;
 import java.rmi.NotBoundException;
 import java.rmi.RemoteException;
 import java.rmi.registry.LocateRegistry;
 import java.rmi.registry.Registry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.osgi.framework.BundleException;
 import org.ops4j.pax.exam.Constants;
+import org.ops4j.pax.exam.Option;
+import org.ops4j.pax.exam.rbc.internal.ClassLoaderLeaks;
+import org.ops4j.pax.exam.rbc.internal.RemoteBatchException;
 import org.ops4j.pax.exam.rbc.internal.RemoteBundleContext;
+import org.ops4j.pax.exam.rbc.internal.RemoteBundleOperation;
+import org.ops4j.pax.exam.spi.container.AsyncService;
+import org.ops4j.pax.exam.spi.container.BatchExecutionException;
 import org.ops4j.pax.exam.spi.container.TestContainer;
 import org.ops4j.pax.exam.spi.container.TestContainerException;
+import org.ops4j.pax.exam.spi.container.TestContainerOperation;
 import org.ops4j.pax.exam.spi.container.TimeoutException;
 
 /**
@@ -49,11 +64,49 @@ public class RemoteBundleContextClient
      * JCL logger.
      */
     private static final Log LOG = LogFactory.getLog( RemoteBundleContextClient.class );
+    /**
+     * Initial pause (in millis) between two remote bundle context lookups. Doubled after each failed lookup.
+     */
+    private static final long LOOKUP_INITIAL_BACKOFF = 10;
+    /**
+     * Maximum pause (in millis) between two remote bundle context lookups.
+     */
+    private static final long LOOKUP_MAX_BACKOFF = 250;
+    /**
+     * Size (in bytes) of the chunks bundle content is streamed in.
+     */
+    private static final int CHUNK_SIZE = 64 * 1024;
+    /**
+     * Remote bundle context method used for asynchronous service calls.
+     */
+    private static final Method REMOTE_CALL;
+
+    static
+    {
+        try
+        {
+            REMOTE_CALL = RemoteBundleContext.class.getMethod(
+                "remoteCall", Class.class, String.class, String.class, Class[].class, long.class, Object[].class
+            );
+        }
+        catch( NoSuchMethodException e )
+        {
+            throw new IllegalStateException( "Remote bundle context does not support remote calls", e );
+        }
+    }
 
     /**
      * RMI communication port.
      */
     private final Integer m_rmiPort;
+    /**
+     * Name the remote bundle context is bound under in the RMI registry.
+     */
+    private final String m_rmiName;
+    /**
+     * Socket the remote bundle context connects to. Null if RMI is used.
+     */
+    private final RemoteBundleContextSocket m_socket;
     /**
      * Timeout for looking up the remote bundle context via RMI.
      */
@@ -62,18 +115,59 @@ public class RemoteBundleContextClient
      * Remote bundle context instance.
      */
     private RemoteBundleContext m_remoteBundleContext;
+    /**
+     * Time (in millis) it took to find the remote bundle context. -1 if not yet found.
+     */
+    private long m_rendezvousTime;
+    /**
+     * Executor running asynchronous service calls over RMI. Null if not yet needed or if the socket is used.
+     */
+    private ExecutorService m_asyncExecutor;
+
+    /**
+     * Constructor.
+     *
+     * @param rmiPort          RMI communication port (cannot be null)
+     * @param rmiLookupTimeout timeout for looking up the remote bundle context via RMI (cannot be null)
+     */
+    public RemoteBundleContextClient( final Integer rmiPort,
+                                      final long rmiLookupTimeout )
+    {
+        this( rmiPort, RemoteBundleContext.class.getName(), rmiLookupTimeout );
+    }
 
     /**
      * Constructor.
      *
      * @param rmiPort          RMI communication port (cannot be null)
+     * @param rmiName          name the remote bundle context is bound under in the RMI registry (cannot be null)
      * @param rmiLookupTimeout timeout for looking up the remote bundle context via RMI (cannot be null)
      */
     public RemoteBundleContextClient( final Integer rmiPort,
+                                      final String rmiName,
                                       final long rmiLookupTimeout )
     {
         m_rmiPort = rmiPort;
+        m_rmiName = rmiName;
+        m_socket = null;
         m_rmiLookupTimeout = rmiLookupTimeout;
+        m_rendezvousTime = -1;
+    }
+
+    /**
+     * Constructor for using a socket instead of RMI.
+     *
+     * @param socket        socket the remote bundle context connects to (cannot be null)
+     * @param lookupTimeout timeout for waiting the remote bundle context to connect
+     */
+    public RemoteBundleContextClient( final RemoteBundleContextSocket socket,
+                                      final long lookupTimeout )
+    {
+        m_rmiPort = null;
+        m_rmiName = null;
+        m_socket = socket;
+        m_rmiLookupTimeout = lookupTimeout;
+        m_rendezvousTime = -1;
     }
 
     /**
@@ -88,8 +182,20 @@ public class RemoteBundleContextClient
      * {@inheritDoc}
      * Returns a dynamic proxy in place of the actual service, forwarding the calls via the remote bundle context.
      */
+    public <T> T getService( final Class<T> serviceType,
+                             final long timeoutInMillis )
+    {
+        return getService( serviceType, null, timeoutInMillis );
+    }
+
+    /**
+     * {@inheritDoc}
+     * Returns a dynamic proxy in place of the actual service, forwarding the calls via the remote bundle context. The
+     * service is looked up on each call, so the filter is evaluated remotely.
+     */
     @SuppressWarnings( "unchecked" )
     public <T> T getService( final Class<T> serviceType,
+                             final String filter,
                              final long timeoutInMillis )
     {
         return (T) Proxy.newProxyInstance(
@@ -110,6 +216,7 @@ public class RemoteBundleContextClient
                     {
                         return getRemoteBundleContext().remoteCall(
                             method.getDeclaringClass(),
+                            filter,
                             method.getName(),
                             method.getParameterTypes(),
                             timeoutInMillis,
@@ -133,6 +240,79 @@ public class RemoteBundleContextClient
         );
     }
 
+    /**
+     * {@inheritDoc}
+     * Over the socket the calls are pipelined on the connection and their responses matched by correlation id. Over
+     * RMI, that does not support pipelining, each call is sent on its own thread as RMI allows concurrent calls.
+     */
+    public AsyncService getAsyncService( final Class<?> serviceType,
+                                         final String filter,
+                                         final long timeoutInMillis )
+    {
+        final RemoteBundleContext remoteBundleContext = getRemoteBundleContext();
+        return new AsyncService()
+        {
+            public Future<Object> invoke( final String methodName,
+                                          final Class<?>[] parameterTypes,
+                                          final Object... args )
+            {
+                final Class<?>[] types = parameterTypes == null ? new Class<?>[0] : parameterTypes;
+                if( m_socket != null )
+                {
+                    try
+                    {
+                        return new RemoteServiceCallFuture( m_socket.callAsync(
+                            REMOTE_CALL,
+                            new Object[]{ serviceType, filter, methodName, types, timeoutInMillis, args }
+                        )
+                        );
+                    }
+                    catch( RemoteException e )
+                    {
+                        throw new TestContainerException( "Remote exception", e );
+                    }
+                }
+                return new RemoteServiceCallFuture( getAsyncExecutor().submit( new Callable<Object>()
+                {
+                    public Object call()
+                        throws Exception
+                    {
+                        return remoteBundleContext.remoteCall(
+                            serviceType, filter, methodName, types, timeoutInMillis, args
+                        );
+                    }
+                }
+                )
+                );
+            }
+        };
+    }
+
+    /**
+     * Returns the executor running asynchronous service calls over RMI, creating it if needed.
+     *
+     * @return executor
+     */
+    private synchronized ExecutorService getAsyncExecutor()
+    {
+        if( m_asyncExecutor == null )
+        {
+            m_asyncExecutor = Executors.newCachedThreadPool( new ThreadFactory()
+            {
+                public Thread newThread( final Runnable runnable )
+                {
+                    final Thread thread = new Thread( runnable, "Pax Exam RBC async call" );
+                    thread.setDaemon( true );
+                    // needed for RMI class loading
+                    thread.setContextClassLoader( RemoteBundleContextClient.class.getClassLoader() );
+                    return thread;
+                }
+            }
+            );
+        }
+        return m_asyncExecutor;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -173,6 +353,126 @@ public class RemoteBundleContextClient
         }
     }
 
+    /**
+     * Installs a bundle by streaming its content to the remote bundle context, in chunks, so the content is never fully
+     * buffered on either side.
+     *
+     * @param bundleLocation bundle location
+     * @param bundle         bundle content (closed when done)
+     *
+     * @return bundle id of the installed bundle
+     *
+     * @throws TestContainerException - If bundle cannot be installed
+     */
+    public long installBundle( final String bundleLocation,
+                               final InputStream bundle )
+        throws TestContainerException
+    {
+        try
+        {
+            return getRemoteBundleContext().endInstallBundle( transfer( bundleLocation, bundle ) );
+        }
+        catch( RemoteException e )
+        {
+            throw new TestContainerException( "Remote exception", e );
+        }
+        catch( BundleException e )
+        {
+            throw new TestContainerException( "Bundle cannot be installed", e );
+        }
+    }
+
+    /**
+     * Transfers the content of a bundle to be installed, chunk by chunk. The installation must be finished by the
+     * caller.
+     *
+     * @param bundleLocation bundle location
+     * @param bundle         bundle content (closed when done)
+     *
+     * @return transfer id
+     *
+     * @throws TestContainerException - If bundle content cannot be read or transferred
+     */
+    private long transfer( final String bundleLocation,
+                           final InputStream bundle )
+        throws TestContainerException
+    {
+        final RemoteBundleContext remoteBundleContext = getRemoteBundleContext();
+        long transferId = -1;
+        try
+        {
+            transferId = remoteBundleContext.beginInstallBundle( bundleLocation );
+            final byte[] buffer = new byte[CHUNK_SIZE];
+            int read;
+            while( ( read = fill( bundle, buffer ) ) > 0 )
+            {
+                final byte[] chunk = new byte[read];
+                System.arraycopy( buffer, 0, chunk, 0, read );
+                remoteBundleContext.writeBundleChunk( transferId, chunk );
+            }
+            return transferId;
+        }
+        catch( Exception e )
+        {
+            if( transferId != -1 )
+            {
+                abort( transferId );
+            }
+            throw new TestContainerException( "Cannot transfer bundle " + bundleLocation, e );
+        }
+        finally
+        {
+            try
+            {
+                bundle.close();
+            }
+            catch( IOException ignore )
+            {
+                // ignore
+            }
+        }
+    }
+
+    /**
+     * Aborts a bundle transfer by logging eventual exceptions.
+     *
+     * @param transferId transfer id
+     */
+    private void abort( final long transferId )
+    {
+        try
+        {
+            getRemoteBundleContext().abortInstallBundle( transferId );
+        }
+        catch( RemoteException e )
+        {
+            LOG.warn( "Cannot abort bundle transfer: " + e.getMessage() );
+        }
+    }
+
+    /**
+     * Reads from a stream till the buffer is full or the stream ends.
+     *
+     * @param in     stream to read from
+     * @param buffer buffer to fill
+     *
+     * @return number of bytes read (0 if stream ended)
+     *
+     * @throws IOException - If stream cannot be read
+     */
+    private static int fill( final InputStream in,
+                             final byte[] buffer )
+        throws IOException
+    {
+        int filled = 0;
+        int read;
+        while( filled < buffer.length && ( read = in.read( buffer, filled, buffer.length - filled ) ) >= 0 )
+        {
+            filled += read;
+        }
+        return filled;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -193,6 +493,26 @@ public class RemoteBundleContextClient
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public void uninstallBundle( final long bundleId )
+        throws TestContainerException
+    {
+        try
+        {
+            getRemoteBundleContext().uninstallBundle( bundleId );
+        }
+        catch( RemoteException e )
+        {
+            throw new TestContainerException( "Remote exception", e );
+        }
+        catch( BundleException e )
+        {
+            throw new TestContainerException( "Bundle cannot be uninstalled", e );
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -233,6 +553,15 @@ public class RemoteBundleContextClient
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * Not supported, as the options of the remote framework are not known to the remote bundle context.
+     */
+    public boolean reconfigure( final Option... options )
+    {
+        return false;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -250,6 +579,23 @@ public class RemoteBundleContextClient
         {
             throw new TestContainerException( "System bundle cannot be stopped", e );
         }
+        finally
+        {
+            // drop the reference to the remote object, so no remote resources are held for a stopped container
+            m_remoteBundleContext = null;
+            if( m_socket != null )
+            {
+                m_socket.close();
+            }
+            synchronized( this )
+            {
+                if( m_asyncExecutor != null )
+                {
+                    m_asyncExecutor.shutdownNow();
+                    m_asyncExecutor = null;
+                }
+            }
+        }
     }
 
     /**
@@ -279,7 +625,242 @@ public class RemoteBundleContextClient
     }
 
     /**
-     * Looks up the {@link RemoteBundleContext} via RMI. The lookup will timeout in the specified number of millis.
+     * Waits for a set of bundles to be in a certain state, in one remote call.
+     *
+     * @param bundleIds       bundle ids
+     * @param state           expected state
+     * @param timeoutInMillis max time to wait for all bundles to reach the state
+     *
+     * @throws TimeoutException - if timeout occured and expected state has not being reached by all bundles
+     */
+    public void waitForState( final long[] bundleIds,
+                              final int state,
+                              final long timeoutInMillis )
+        throws TimeoutException
+    {
+        try
+        {
+            getRemoteBundleContext().waitForState( bundleIds, state, timeoutInMillis );
+        }
+        catch( org.ops4j.pax.exam.rbc.internal.TimeoutException e )
+        {
+            throw new TimeoutException( e.getMessage() );
+        }
+        catch( RemoteException e )
+        {
+            throw new TestContainerException( "Remote exception", e );
+        }
+        catch( BundleException e )
+        {
+            throw new TestContainerException( "Bundle cannot be found", e );
+        }
+    }
+
+    /**
+     * Sets a system property of the JVM running the framework.
+     *
+     * @param key   system property key
+     * @param value system property value (null = clear the system property)
+     *
+     * @throws TestContainerException - If system property cannot be set
+     */
+    public void setSystemProperty( final String key,
+                                   final String value )
+    {
+        try
+        {
+            getRemoteBundleContext().setSystemProperty( key, value );
+        }
+        catch( RemoteException e )
+        {
+            throw new TestContainerException( "Remote exception", e );
+        }
+    }
+
+    /**
+     * Refreshes the packages of bundles that were updated or uninstalled and waits for the refresh to finish.
+     *
+     * @param timeoutInMillis max time to wait for the refresh to finish
+     *
+     * @throws TimeoutException       - If refresh did not finish in time
+     * @throws TestContainerException - If packages cannot be refreshed
+     */
+    public void refreshPackages( final long timeoutInMillis )
+    {
+        try
+        {
+            getRemoteBundleContext().refreshPackages( timeoutInMillis );
+        }
+        catch( org.ops4j.pax.exam.rbc.internal.TimeoutException e )
+        {
+            throw new TimeoutException( e.getMessage() );
+        }
+        catch( RemoteException e )
+        {
+            throw new TestContainerException( "Remote exception", e );
+        }
+        catch( BundleException e )
+        {
+            throw new TestContainerException( "Packages cannot be refreshed", e );
+        }
+    }
+
+    /**
+     * Captures the current framework state as the baseline to be restored by {@link #resetToBaseline(long)}.
+     *
+     * @throws TestContainerException - If baseline cannot be captured
+     */
+    public void captureBaseline()
+    {
+        try
+        {
+            getRemoteBundleContext().captureBaseline();
+        }
+        catch( RemoteException e )
+        {
+            throw new TestContainerException( "Remote exception", e );
+        }
+    }
+
+    /**
+     * Resets the framework to the captured baseline.
+     *
+     * @param timeoutInMillis max time to wait for the packages refresh to finish
+     *
+     * @return descriptions of services and threads left over (never null)
+     *
+     * @throws TimeoutException       - If packages refresh did not finish in time
+     * @throws TestContainerException - If framework cannot be reset
+     */
+    public String[] resetToBaseline( final long timeoutInMillis )
+    {
+        try
+        {
+            return getRemoteBundleContext().resetToBaseline( timeoutInMillis );
+        }
+        catch( org.ops4j.pax.exam.rbc.internal.TimeoutException e )
+        {
+            throw new TimeoutException( e.getMessage() );
+        }
+        catch( RemoteException e )
+        {
+            throw new TestContainerException( "Remote exception", e );
+        }
+        catch( BundleException e )
+        {
+            throw new TestContainerException( "Framework cannot be reset", e );
+        }
+    }
+
+    /**
+     * Returns the counts of class loaders of uninstalled bundles that were tracked and that are still retained.
+     *
+     * @param check true if a leak check (that forces garbage collection) should be done first, false to return the
+     *              counts as found by the last check
+     *
+     * @return class loader leak counts
+     *
+     * @throws TestContainerException - If counts cannot be retrieved
+     */
+    public ClassLoaderLeaks getClassLoaderLeaks( final boolean check )
+    {
+        try
+        {
+            return getRemoteBundleContext().getClassLoaderLeaks( check );
+        }
+        catch( RemoteException e )
+        {
+            throw new TestContainerException( "Remote exception", e );
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Executes all operations in one remote call. Bundles to be installed from local files are streamed in advance, so
+     * the remote call only finishes their installation.
+     */
+    public Object[] execute( final TestContainerOperation... operations )
+        throws BatchExecutionException
+    {
+        final RemoteBundleOperation[] remoteOperations = new RemoteBundleOperation[operations.length];
+        for( int i = 0; i < operations.length; i++ )
+        {
+            final TestContainerOperation operation = operations[ i ];
+            if( isStreamed( operation ) )
+            {
+                try
+                {
+                    remoteOperations[ i ] = new RemoteBundleOperation(
+                        RemoteBundleOperation.Type.INSTALL_STREAMED_BUNDLE,
+                        transfer( operation.getLocation(), new URL( operation.getLocation() ).openStream() ),
+                        operation.getLocation(),
+                        null,
+                        0,
+                        0
+                    );
+                }
+                catch( Exception e )
+                {
+                    for( int j = 0; j < i; j++ )
+                    {
+                        if( remoteOperations[ j ].getType() == RemoteBundleOperation.Type.INSTALL_STREAMED_BUNDLE )
+                        {
+                            abort( remoteOperations[ j ].getBundleId() );
+                        }
+                    }
+                    throw new BatchExecutionException( i, new Object[operations.length], e );
+                }
+                continue;
+            }
+            remoteOperations[ i ] = new RemoteBundleOperation(
+                RemoteBundleOperation.Type.valueOf( operation.getType().name() ),
+                operation.getBundleId(),
+                operation.getLocation(),
+                operation.getContent(),
+                operation.getType() == TestContainerOperation.Type.WAIT_FOR_STATE
+                ? operation.getState()
+                : operation.getStartLevel(),
+                operation.getTimeout()
+            );
+        }
+        try
+        {
+            return getRemoteBundleContext().execute( remoteOperations );
+        }
+        catch( RemoteBatchException e )
+        {
+            Throwable cause = e.getCause();
+            if( cause instanceof org.ops4j.pax.exam.rbc.internal.TimeoutException )
+            {
+                cause = new TimeoutException( cause.getMessage() );
+            }
+            throw new BatchExecutionException( e.getFailedOperation(), e.getResults(), cause );
+        }
+        catch( RemoteException e )
+        {
+            throw new TestContainerException( "Remote exception", e );
+        }
+    }
+
+    /**
+     * Checks if the bundle of an operation should be streamed. Bundles to be installed from local files are streamed,
+     * the rest are installed by the remote bundle context from their url.
+     *
+     * @param operation operation to check
+     *
+     * @return true if the operation installs a bundle from a local file
+     */
+    private static boolean isStreamed( final TestContainerOperation operation )
+    {
+        return operation.getType() == TestContainerOperation.Type.INSTALL_BUNDLE
+               && operation.getContent() == null
+               && operation.getLocation() != null
+               && operation.getLocation().startsWith( "file:" );
+    }
+
+    /**
+     * Looks up the {@link RemoteBundleContext} via RMI or waits for it to connect to the socket, if a socket is used.
+     * The lookup will timeout in the specified number of millis.
      *
      * @return remote bundle context
      */
@@ -294,28 +875,21 @@ public class RemoteBundleContextClient
             Throwable reason = null;
             try
             {
-                final Registry registry = LocateRegistry.getRegistry( m_rmiPort );
-                do
+                if( m_socket != null )
                 {
-                    try
-                    {
-                        m_remoteBundleContext =
-                            (RemoteBundleContext) registry.lookup( RemoteBundleContext.class.getName() );
-                    }
-                    catch( ConnectException e )
-                    {
-                        reason = e;
-                    }
-                    catch( NotBoundException e )
-                    {
-                        reason = e;
-                    }
+                    m_remoteBundleContext = m_socket.connect( m_rmiLookupTimeout );
                 }
-                while( m_remoteBundleContext == null
-                       && ( m_rmiLookupTimeout == Constants.WAIT_FOREVER
-                            || System.currentTimeMillis() < startedTrying + m_rmiLookupTimeout ) );
+                else
+                {
+                    m_remoteBundleContext = lookupRemoteBundleContext( startedTrying );
+                }
+            }
+            catch( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                reason = e;
             }
-            catch( RemoteException e )
+            catch( Exception e )
             {
                 reason = e;
             }
@@ -323,13 +897,67 @@ public class RemoteBundleContextClient
             {
                 throw new TestContainerException( "Cannot get the remote bundle context", reason );
             }
-            LOG.info(
-                "Remote bundle context found after " + ( System.currentTimeMillis() - startedTrying ) + " millis"
-            );
+            m_rendezvousTime = System.currentTimeMillis() - startedTrying;
+            LOG.info( "Remote bundle context found after " + m_rendezvousTime + " millis" );
         }
         return m_remoteBundleContext;
     }
 
+    /**
+     * Looks up the {@link RemoteBundleContext} via RMI. Failed lookups are retried with an exponential backoff, so the
+     * waiting does not steal cpu from the starting framework.
+     *
+     * @param startedTrying time when lookup started
+     *
+     * @return remote bundle context
+     *
+     * @throws Exception - Reason of last failed lookup, if the remote bundle context was not found in time
+     */
+    private RemoteBundleContext lookupRemoteBundleContext( final long startedTrying )
+        throws Exception
+    {
+        final Registry registry = LocateRegistry.getRegistry( m_rmiPort );
+        long backoff = LOOKUP_INITIAL_BACKOFF;
+        while( true )
+        {
+            Exception reason;
+            try
+            {
+                return (RemoteBundleContext) registry.lookup( m_rmiName );
+            }
+            catch( ConnectException e )
+            {
+                reason = e;
+            }
+            catch( NotBoundException e )
+            {
+                reason = e;
+            }
+            long pause = backoff;
+            if( m_rmiLookupTimeout != Constants.WAIT_FOREVER )
+            {
+                final long remaining = startedTrying + m_rmiLookupTimeout - System.currentTimeMillis();
+                if( remaining <= 0 )
+                {
+                    throw reason;
+                }
+                pause = Math.min( pause, remaining );
+            }
+            Thread.sleep( pause );
+            backoff = Math.min( backoff * 2, LOOKUP_MAX_BACKOFF );
+        }
+    }
+
+    /**
+     * Getter.
+     *
+     * @return time (in millis) it took to find the remote bundle context or -1 if not yet found
+     */
+    public long getRendezvousTime()
+    {
+        return m_rendezvousTime;
+    }
+
     /**
      * Getter.
      *
@@ -340,4 +968,14 @@ public class RemoteBundleContextClient
         return m_rmiPort;
     }
 
+    /**
+     * Getter.
+     *
+     * @return name the remote bundle context is bound under in the RMI registry
+     */
+    public String getRmiName()
+    {
+        return m_rmiName;
+    }
+
 }
@@ -0,0 +1,467 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.rbc.client;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.rmi.RemoteException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.ops4j.pax.exam.Constants;
+import org.ops4j.pax.exam.rbc.internal.RemoteBundleContext;
+import org.ops4j.pax.exam.rbc.internal.SocketProtocol;
+import org.ops4j.pax.exam.spi.container.TestContainerException;
+
+/**
+ * Socket based alternative to RMI for accessing the {@link RemoteBundleContext}. A server socket is opened on the
+ * loopback interface and the remote bundle context connects to it as soon as it is started. Calls are then sent over
+ * the connection using the {@link SocketProtocol}. Calls are pipelined: each one is tagged with a correlation id and
+ * sent without waiting for the responses of the calls in flight, while a reader thread matches the responses back to
+ * their calls.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+public class RemoteBundleContextSocket
+{
+
+    /**
+     * JCL logger.
+     */
+    private static final Log LOG = LogFactory.getLog( RemoteBundleContextSocket.class );
+
+    /**
+     * Server socket the remote bundle context connects to.
+     */
+    private final ServerSocket m_serverSocket;
+    /**
+     * Connection to remote bundle context. Null if not yet connected.
+     */
+    private Socket m_socket;
+    private DataOutputStream m_out;
+    /**
+     * Lock held while writing a request.
+     */
+    private final Object m_writeLock;
+    /**
+     * Source of correlation ids.
+     */
+    private final AtomicInteger m_correlationIds;
+    /**
+     * Calls waiting for a response, by correlation id.
+     */
+    private final ConcurrentMap<Integer, PendingCall> m_pendingCalls;
+    /**
+     * Reason the connection failed. Null as long as the connection is usable.
+     */
+    private volatile RemoteException m_failure;
+
+    /**
+     * Constructor. Opens the server socket on a free port.
+     *
+     * @throws TestContainerException - If server socket cannot be opened
+     */
+    public RemoteBundleContextSocket()
+    {
+        try
+        {
+            m_serverSocket = new ServerSocket( 0, 1, InetAddress.getByName( null ) );
+        }
+        catch( IOException e )
+        {
+            throw new TestContainerException( "Cannot open socket for remote bundle context", e );
+        }
+        m_writeLock = new Object();
+        m_correlationIds = new AtomicInteger();
+        m_pendingCalls = new ConcurrentHashMap<Integer, PendingCall>();
+        LOG.info( "Remote bundle context socket opened on port [" + getPort() + "]" );
+    }
+
+    /**
+     * Getter.
+     *
+     * @return port the remote bundle context should connect to
+     */
+    public int getPort()
+    {
+        return m_serverSocket.getLocalPort();
+    }
+
+    /**
+     * Waits for the remote bundle context to connect.
+     *
+     * @param timeoutInMillis max time to wait for the connection
+     *
+     * @return remote bundle context, forwarding calls over the connection
+     *
+     * @throws RemoteException - If the remote bundle context did not connect in time
+     */
+    public synchronized RemoteBundleContext connect( final long timeoutInMillis )
+        throws RemoteException
+    {
+        if( m_socket == null )
+        {
+            try
+            {
+                m_serverSocket.setSoTimeout(
+                    timeoutInMillis == Constants.WAIT_FOREVER || timeoutInMillis > Integer.MAX_VALUE
+                    ? 0
+                    : (int) Math.max( 1, timeoutInMillis )
+                );
+                final Socket socket = m_serverSocket.accept();
+                socket.setTcpNoDelay( true );
+                final DataInputStream in = new DataInputStream( new BufferedInputStream( socket.getInputStream() ) );
+                synchronized( m_writeLock )
+                {
+                    m_out = new DataOutputStream( new BufferedOutputStream( socket.getOutputStream() ) );
+                }
+                m_socket = socket;
+                final Thread reader = new Thread( new Runnable()
+                {
+                    public void run()
+                    {
+                        readResponses( in );
+                    }
+                }, "Pax Exam RBC socket reader"
+                );
+                reader.setDaemon( true );
+                reader.start();
+            }
+            catch( SocketTimeoutException e )
+            {
+                throw new RemoteException( "Remote bundle context did not connect in " + timeoutInMillis + " millis" );
+            }
+            catch( IOException e )
+            {
+                throw new RemoteException( "Cannot accept remote bundle context connection", e );
+            }
+        }
+        return (RemoteBundleContext) Proxy.newProxyInstance(
+            getClass().getClassLoader(),
+            new Class<?>[]{ RemoteBundleContext.class },
+            new InvocationHandler()
+            {
+                public Object invoke( final Object proxy,
+                                      final Method method,
+                                      final Object[] args )
+                    throws Throwable
+                {
+                    if( method.getDeclaringClass() == Object.class )
+                    {
+                        return method.invoke( this, args );
+                    }
+                    return call( method, args );
+                }
+            }
+        );
+    }
+
+    /**
+     * Closes the server socket and the connection to remote bundle context, if any.
+     */
+    public synchronized void close()
+    {
+        try
+        {
+            if( m_socket != null )
+            {
+                m_socket.close();
+            }
+            m_serverSocket.close();
+        }
+        catch( IOException e )
+        {
+            LOG.warn( "Cannot close remote bundle context socket: " + e.getMessage() );
+        }
+    }
+
+    /**
+     * Sends a call to the remote bundle context and waits for the response.
+     *
+     * @param method called method
+     * @param args   method arguments (can be null)
+     *
+     * @return returned value
+     *
+     * @throws Throwable - Exception thrown by remote method or a {@link RemoteException} if communication failed
+     */
+    private Object call( final Method method,
+                         final Object[] args )
+        throws Throwable
+    {
+        try
+        {
+            return callAsync( method, args ).get();
+        }
+        catch( ExecutionException e )
+        {
+            throw e.getCause();
+        }
+        catch( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new RemoteException( "Interrupted while waiting for remote bundle context", e );
+        }
+    }
+
+    /**
+     * Sends a call to the remote bundle context without waiting for the response. The returned value is deserialized
+     * using the context class loader of the calling thread.
+     *
+     * @param method called method (must be a {@link RemoteBundleContext} method)
+     * @param args   method arguments (can be null)
+     *
+     * @return future of returned value, failing with the exception thrown by the remote method or a
+     *         {@link RemoteException} if communication failed (cannot be cancelled)
+     *
+     * @throws RemoteException - If the call cannot be sent
+     */
+    public Future<Object> callAsync( final Method method,
+                                     final Object[] args )
+        throws RemoteException
+    {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if( classLoader == null )
+        {
+            classLoader = getClass().getClassLoader();
+        }
+        final int correlationId = m_correlationIds.incrementAndGet();
+        final PendingCall call = new PendingCall( classLoader );
+        m_pendingCalls.put( correlationId, call );
+        try
+        {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final DataOutputStream request = new DataOutputStream( bytes );
+            request.writeInt( correlationId );
+            request.writeShort( SocketProtocol.indexOf( method ) );
+            if( args != null )
+            {
+                for( Object arg : args )
+                {
+                    SocketProtocol.writeValue( request, arg );
+                }
+            }
+            request.flush();
+            synchronized( m_writeLock )
+            {
+                if( m_out == null )
+                {
+                    throw new IOException( "Remote bundle context not connected" );
+                }
+                SocketProtocol.writeFrame( m_out, bytes.toByteArray() );
+            }
+        }
+        catch( IOException e )
+        {
+            m_pendingCalls.remove( correlationId );
+            throw new RemoteException( "Remote bundle context call failed", e );
+        }
+        // the connection could have failed before the call was registered, so it would never be completed otherwise
+        final RemoteException failure = m_failure;
+        if( failure != null && m_pendingCalls.remove( correlationId ) != null )
+        {
+            call.fail( failure );
+        }
+        return call;
+    }
+
+    /**
+     * Reads responses and completes the matching calls until the connection gets closed. Then fails all calls still
+     * waiting for a response.
+     *
+     * @param in stream to read from
+     */
+    private void readResponses( final DataInputStream in )
+    {
+        try
+        {
+            while( true )
+            {
+                final byte[] frame = SocketProtocol.readFrame( in );
+                final int correlationId = new DataInputStream( new ByteArrayInputStream( frame ) ).readInt();
+                final PendingCall call = m_pendingCalls.remove( correlationId );
+                if( call == null )
+                {
+                    LOG.warn( "Response to an unknown call [" + correlationId + "] ignored" );
+                }
+                else
+                {
+                    call.complete( frame );
+                }
+            }
+        }
+        catch( IOException e )
+        {
+            m_failure = new RemoteException( "Remote bundle context connection closed", e );
+            for( Integer correlationId : m_pendingCalls.keySet() )
+            {
+                final PendingCall call = m_pendingCalls.remove( correlationId );
+                if( call != null )
+                {
+                    call.fail( m_failure );
+                }
+            }
+        }
+    }
+
+    /**
+     * Call waiting for its response. The response is decoded by the first thread asking for the result.
+     */
+    private static class PendingCall
+        implements Future<Object>
+    {
+
+        /**
+         * Class loader used to deserialize the response.
+         */
+        private final ClassLoader m_classLoader;
+        /**
+         * Released when the response arrives or the call fails.
+         */
+        private final CountDownLatch m_done;
+        /**
+         * Response frame. Null until response arrives.
+         */
+        private byte[] m_response;
+        /**
+         * Decoded returned value.
+         */
+        private Object m_value;
+        /**
+         * Decoded thrown exception or communication failure.
+         */
+        private Throwable m_exception;
+
+        PendingCall( final ClassLoader classLoader )
+        {
+            m_classLoader = classLoader;
+            m_done = new CountDownLatch( 1 );
+        }
+
+        synchronized void complete( final byte[] response )
+        {
+            m_response = response;
+            m_done.countDown();
+        }
+
+        synchronized void fail( final Throwable exception )
+        {
+            m_exception = exception;
+            m_done.countDown();
+        }
+
+        /**
+         * Remote calls cannot be cancelled.
+         *
+         * @return false
+         */
+        public boolean cancel( final boolean mayInterruptIfRunning )
+        {
+            return false;
+        }
+
+        public boolean isCancelled()
+        {
+            return false;
+        }
+
+        public boolean isDone()
+        {
+            return m_done.getCount() == 0;
+        }
+
+        public Object get()
+            throws InterruptedException, ExecutionException
+        {
+            m_done.await();
+            return result();
+        }
+
+        public Object get( final long timeout,
+                           final TimeUnit unit )
+            throws InterruptedException, ExecutionException, TimeoutException
+        {
+            if( !m_done.await( timeout, unit ) )
+            {
+                throw new TimeoutException( "No response from remote bundle context in " + timeout + " " + unit );
+            }
+            return result();
+        }
+
+        /**
+         * Decodes the response, if not yet done, and returns the result.
+         *
+         * @return returned value
+         *
+         * @throws ExecutionException - Wrapping the thrown exception or the communication failure
+         */
+        private synchronized Object result()
+            throws ExecutionException
+        {
+            if( m_response != null )
+            {
+                try
+                {
+                    final DataInputStream response = new DataInputStream( new ByteArrayInputStream( m_response ) );
+                    response.readInt();
+                    final byte status = response.readByte();
+                    final Object value = SocketProtocol.readValue( response, m_classLoader );
+                    if( status == SocketProtocol.STATUS_EXCEPTION )
+                    {
+                        m_exception = (Throwable) value;
+                    }
+                    else
+                    {
+                        m_value = value;
+                    }
+                }
+                catch( IOException e )
+                {
+                    m_exception = new RemoteException( "Remote bundle context call failed", e );
+                }
+                m_response = null;
+            }
+            if( m_exception != null )
+            {
+                throw new ExecutionException( m_exception );
+            }
+            return m_value;
+        }
+
+    }
+
+}
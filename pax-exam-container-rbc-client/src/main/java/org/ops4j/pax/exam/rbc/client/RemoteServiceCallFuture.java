@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.rbc.client;
+
+import java.lang.reflect.InvocationTargetException;
+import java.rmi.RemoteException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.ops4j.pax.exam.rbc.internal.RemoteBundleContext;
+import org.ops4j.pax.exam.spi.container.TestContainerException;
+
+/**
+ * Future of a service call sent via {@link RemoteBundleContext#remoteCall}. Translates the failures the same way as the
+ * service proxies do: exceptions thrown by the service method are reported as such, anything else as a
+ * {@link TestContainerException}.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+class RemoteServiceCallFuture
+    implements Future<Object>
+{
+
+    /**
+     * Future of the remote call.
+     */
+    private final Future<Object> m_remoteCall;
+
+    /**
+     * Constructor.
+     *
+     * @param remoteCall future of the remote call
+     */
+    RemoteServiceCallFuture( final Future<Object> remoteCall )
+    {
+        m_remoteCall = remoteCall;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean cancel( final boolean mayInterruptIfRunning )
+    {
+        return m_remoteCall.cancel( mayInterruptIfRunning );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean isCancelled()
+    {
+        return m_remoteCall.isCancelled();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean isDone()
+    {
+        return m_remoteCall.isDone();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Object get()
+        throws InterruptedException, ExecutionException
+    {
+        try
+        {
+            return m_remoteCall.get();
+        }
+        catch( ExecutionException e )
+        {
+            throw translate( e );
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Object get( final long timeout,
+                       final TimeUnit unit )
+        throws InterruptedException, ExecutionException, TimeoutException
+    {
+        try
+        {
+            return m_remoteCall.get( timeout, unit );
+        }
+        catch( ExecutionException e )
+        {
+            throw translate( e );
+        }
+    }
+
+    /**
+     * Translates the failure of the remote call.
+     *
+     * @param e remote call failure
+     *
+     * @return service call failure
+     */
+    private static ExecutionException translate( final ExecutionException e )
+    {
+        final Throwable cause = e.getCause();
+        if( cause instanceof InvocationTargetException )
+        {
+            return new ExecutionException( cause.getCause() );
+        }
+        if( cause instanceof RemoteException )
+        {
+            return new ExecutionException( new TestContainerException( "Remote exception", cause ) );
+        }
+        return new ExecutionException( new TestContainerException( "Invocation exception", cause ) );
+    }
+
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.rbc.internal;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.rmi.RemoteException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ops4j.pax.exam.rbc.client.RemoteBundleContextClient;
+import org.ops4j.pax.exam.rbc.client.RemoteBundleContextSocket;
+import org.osgi.framework.BundleException;
+
+/**
+ * Unit Tests for {@link RemoteBundleContextSocket} talking to a {@link SocketRequestDispatcher} over a loopback
+ * connection.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+public class SocketLoopbackTest
+{
+
+    private static final long TIMEOUT = 5000;
+
+    private CountDownLatch m_slowCall;
+    private RemoteBundleContextSocket m_socket;
+    private SocketRequestDispatcher m_dispatcher;
+    private RemoteBundleContext m_remoteBundleContext;
+
+    @Before
+    public void setUp()
+        throws Exception
+    {
+        m_slowCall = new CountDownLatch( 1 );
+        m_socket = new RemoteBundleContextSocket();
+        m_dispatcher = new SocketRequestDispatcher( fakeRemoteBundleContext(), m_socket.getPort() );
+        m_dispatcher.start();
+        m_remoteBundleContext = m_socket.connect( TIMEOUT );
+    }
+
+    @After
+    public void tearDown()
+    {
+        m_slowCall.countDown();
+        m_dispatcher.stop();
+        m_socket.close();
+    }
+
+    /**
+     * A fast call sent after a slow one gets its response first, and both responses reach the right call.
+     */
+    @Test
+    public void outOfOrderResponses()
+        throws Exception
+    {
+        final Future<Object> slow = m_socket.callAsync( method( "startBundle", long.class ), new Object[]{ 1L } );
+        final Future<Object> fast = m_socket.callAsync(
+            method( "installBundle", String.class ), new Object[]{ "file:fast.jar" }
+        );
+
+        assertThat( "Fast call result", fast.get( TIMEOUT, TimeUnit.MILLISECONDS ), is( equalTo( (Object) 42L ) ) );
+        assertThat( "Slow call still pending", slow.isDone(), is( false ) );
+        m_slowCall.countDown();
+        assertThat( "Slow call result", slow.get( TIMEOUT, TimeUnit.MILLISECONDS ), is( nullValue() ) );
+    }
+
+    /**
+     * Calls on the same bundle transfer are served in the order they were sent, while calls on other transfers are not
+     * held back.
+     */
+    @Test
+    public void transferCallsInOrder()
+        throws Exception
+    {
+        final Future<Object> slowChunk = m_socket.callAsync(
+            method( "writeBundleChunk", long.class, byte[].class ), new Object[]{ 5L, new byte[]{ 1 } }
+        );
+        final Future<Object> end = m_socket.callAsync( method( "endInstallBundle", long.class ), new Object[]{ 5L } );
+        final Future<Object> otherEnd = m_socket.callAsync(
+            method( "endInstallBundle", long.class ), new Object[]{ 6L }
+        );
+
+        assertThat( "Other transfer result", otherEnd.get( TIMEOUT, TimeUnit.MILLISECONDS ),
+                    is( equalTo( (Object) 6L ) )
+        );
+        assertThat( "Chunk still pending", slowChunk.isDone(), is( false ) );
+        assertThat( "End still pending", end.isDone(), is( false ) );
+        m_slowCall.countDown();
+        assertThat( "Chunk result", slowChunk.get( TIMEOUT, TimeUnit.MILLISECONDS ), is( nullValue() ) );
+        assertThat( "End result", end.get( TIMEOUT, TimeUnit.MILLISECONDS ), is( equalTo( (Object) 5L ) ) );
+    }
+
+    /**
+     * An exception thrown by the remote bundle context is thrown to the caller.
+     */
+    @Test
+    public void exceptionReply()
+        throws Exception
+    {
+        try
+        {
+            m_remoteBundleContext.uninstallBundle( 7L );
+            fail( "Expected a BundleException" );
+        }
+        catch( BundleException e )
+        {
+            assertThat( "Message", e.getMessage(), is( equalTo( "Bundle 7 cannot be uninstalled" ) ) );
+        }
+        // the connection is still usable afterwards
+        assertThat( "Next call result", m_remoteBundleContext.installBundle( "file:next.jar" ), is( equalTo( 42L ) ) );
+    }
+
+    /**
+     * Calls waiting for a response fail once the connection fails, as do calls sent afterwards.
+     */
+    @Test
+    public void connectionFailureWhilePending()
+        throws Exception
+    {
+        final Future<Object> pending = m_socket.callAsync( method( "startBundle", long.class ), new Object[]{ 1L } );
+        m_dispatcher.stop();
+
+        assertFailed( "Pending call", pending );
+        try
+        {
+            assertFailed(
+                "Later call",
+                m_socket.callAsync( method( "installBundle", String.class ), new Object[]{ "file:late.jar" } )
+            );
+        }
+        catch( RemoteException ignore )
+        {
+            // sending the call failed right away, which is fine as well
+        }
+    }
+
+    /**
+     * The client reports the time it took to find the remote bundle context once it connected.
+     */
+    @Test
+    public void clientRendezvousTime()
+        throws Exception
+    {
+        final RemoteBundleContextSocket socket = new RemoteBundleContextSocket();
+        final SocketRequestDispatcher dispatcher = new SocketRequestDispatcher(
+            fakeRemoteBundleContext(), socket.getPort()
+        );
+        try
+        {
+            final RemoteBundleContextClient client = new RemoteBundleContextClient( socket, TIMEOUT );
+            assertThat( "Rendezvous time before connecting", client.getRendezvousTime(), is( equalTo( -1L ) ) );
+
+            dispatcher.start();
+            assertThat( "Install result", client.installBundle( "file:first.jar" ), is( equalTo( 42L ) ) );
+            final long rendezvousTime = client.getRendezvousTime();
+            assertThat( "Rendezvous time measured", rendezvousTime >= 0 && rendezvousTime <= TIMEOUT, is( true ) );
+
+            client.installBundle( "file:second.jar" );
+            assertThat( "Rendezvous time kept", client.getRendezvousTime(), is( equalTo( rendezvousTime ) ) );
+        }
+        finally
+        {
+            dispatcher.stop();
+            socket.close();
+        }
+    }
+
+    private static void assertFailed( final String description,
+                                      final Future<Object> call )
+        throws Exception
+    {
+        try
+        {
+            call.get( TIMEOUT, TimeUnit.MILLISECONDS );
+            fail( description + " expected to fail" );
+        }
+        catch( ExecutionException e )
+        {
+            assertThat( description + " failure", e.getCause(), is( instanceOf( RemoteException.class ) ) );
+        }
+    }
+
+    private static Method method( final String name,
+                                  final Class<?>... parameterTypes )
+        throws NoSuchMethodException
+    {
+        return RemoteBundleContext.class.getMethod( name, parameterTypes );
+    }
+
+    /**
+     * Remote bundle context where starting bundle 1 and writing a chunk of transfer 5 block until released, installing
+     * any bundle returns 42, ending a transfer returns the transfer id and uninstalling any bundle fails.
+     */
+    private RemoteBundleContext fakeRemoteBundleContext()
+    {
+        return (RemoteBundleContext) Proxy.newProxyInstance(
+            getClass().getClassLoader(),
+            new Class<?>[]{ RemoteBundleContext.class },
+            new InvocationHandler()
+            {
+                public Object invoke( final Object proxy,
+                                      final Method method,
+                                      final Object[] args )
+                    throws Throwable
+                {
+                    if( "startBundle".equals( method.getName() )
+                        || ( "writeBundleChunk".equals( method.getName() ) && args[ 0 ].equals( 5L ) ) )
+                    {
+                        m_slowCall.await( TIMEOUT, TimeUnit.MILLISECONDS );
+                        return null;
+                    }
+                    if( "installBundle".equals( method.getName() ) )
+                    {
+                        return 42L;
+                    }
+                    if( "endInstallBundle".equals( method.getName() ) )
+                    {
+                        return args[ 0 ];
+                    }
+                    if( "uninstallBundle".equals( method.getName() ) )
+                    {
+                        throw new BundleException( "Bundle " + args[ 0 ] + " cannot be uninstalled" );
+                    }
+                    throw new UnsupportedOperationException( method.getName() );
+                }
+            }
+        );
+    }
+
+}
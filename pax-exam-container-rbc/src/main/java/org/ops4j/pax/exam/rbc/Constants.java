@@ -31,4 +31,42 @@ public interface Constants
      */
     String RMI_PORT_PROPERTY = "org.ops4j.pax.exam.rbc.rmi.port";
 
+    /**
+     * Name of the system (framework) property that specifies the name the remote bundle context is bound under in the
+     * RMI registry. If not set the remote bundle context is bound under its interface name.
+     */
+    String RMI_NAME_PROPERTY = "org.ops4j.pax.exam.rbc.rmi.name";
+
+    /**
+     * Name of the system (framework) property that specifies the transport used to access the remote bundle context.
+     * One of {@link #TRANSPORT_RMI} (default) or {@link #TRANSPORT_SOCKET}.
+     */
+    String TRANSPORT_PROPERTY = "org.ops4j.pax.exam.rbc.transport";
+
+    /**
+     * Remote bundle context is bound into an RMI registry.
+     */
+    String TRANSPORT_RMI = "rmi";
+
+    /**
+     * Remote bundle context connects to a socket opened by the test container and serves requests over it.
+     */
+    String TRANSPORT_SOCKET = "socket";
+
+    /**
+     * Name of the system (framework) property that specifies the port the remote bundle context should connect to when
+     * using the socket transport.
+     */
+    String SOCKET_PORT_PROPERTY = "org.ops4j.pax.exam.rbc.socket.port";
+    /**
+     * Name of the system (framework) property that specifies after how many uninstalled bundles the remote bundle
+     * context checks that their class loaders got garbage collected. If not set {@link #DEFAULT_LEAK_CHECK_INTERVAL}
+     * is used.
+     */
+    String LEAK_CHECK_INTERVAL_PROPERTY = "org.ops4j.pax.exam.rbc.leakCheckInterval";
+    /**
+     * Default number of uninstalled bundles after which class loaders of uninstalled bundles are checked for leaks.
+     */
+    int DEFAULT_LEAK_CHECK_INTERVAL = 10;
+
 }
\ No newline at end of file
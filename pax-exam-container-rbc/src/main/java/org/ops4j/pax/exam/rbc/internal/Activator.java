@@ -50,12 +50,20 @@ public class Activator
      * RMI registry.
      */
     private Registry m_registry;
+    /**
+     * Name the remote bundle context is bound under in the RMI registry.
+     */
+    private String m_name;
     /**
      * Strong reference to {@link RemoteBundleContext}.
      * !Note: this must be here otherwise JVM will garbage collect it and this will result in an
      * java.rmi.NoSuchObjectException: no such object in table
      */
-    private RemoteBundleContext m_remoteBundleContext;
+    private RemoteBundleContextImpl m_remoteBundleContext;
+    /**
+     * Socket request dispatcher. Null if RMI transport is used.
+     */
+    private SocketRequestDispatcher m_socketDispatcher;
 
     /**
      * {@inheritDoc}
@@ -63,6 +71,23 @@ public class Activator
     public void start( final BundleContext bundleContext )
         throws Exception
     {
+        if( Constants.TRANSPORT_SOCKET.equals( System.getProperty( Constants.TRANSPORT_PROPERTY ) ) )
+        {
+            try
+            {
+                m_remoteBundleContext = new RemoteBundleContextImpl( bundleContext );
+                m_socketDispatcher = new SocketRequestDispatcher(
+                    m_remoteBundleContext, getPort( Constants.SOCKET_PORT_PROPERTY )
+                );
+                m_socketDispatcher.start();
+                LOG.info( "Remote Bundle Context started (socket transport)" );
+            }
+            catch( Exception e )
+            {
+                throw new BundleException( "Cannot connect RBC to test container socket", e );
+            }
+            return;
+        }
         //!! Absolutely necessary for RMIClassLoading to work
         ContextClassLoaderUtils.doWithClassLoader(
             null, // getClass().getClassLoader()
@@ -74,11 +99,13 @@ public class Activator
                     try
                     {
                         // try to find port from property
-                        int port = getPort();
+                        int port = getPort( Constants.RMI_PORT_PROPERTY );
                         m_registry = LocateRegistry.getRegistry( port );
-                        LOG.debug( "Binding " + RemoteBundleContext.class.getSimpleName() + " to RMI registry" );
+                        m_name = System.getProperty( Constants.RMI_NAME_PROPERTY, RemoteBundleContext.class.getName() );
+                        LOG.debug( "Binding " + RemoteBundleContext.class.getSimpleName() + " to RMI registry as ["
+                                   + m_name + "]" );
                         m_registry.bind(
-                            RemoteBundleContext.class.getName(),
+                            m_name,
                             UnicastRemoteObject.exportObject(
                                 m_remoteBundleContext = new RemoteBundleContextImpl( bundleContext ),
                                 0
@@ -102,32 +129,45 @@ public class Activator
     public void stop( BundleContext bundleContext )
         throws Exception
     {
+        if( m_socketDispatcher != null )
+        {
+            m_socketDispatcher.stop();
+            m_socketDispatcher = null;
+            m_remoteBundleContext.close();
+            m_remoteBundleContext = null;
+            LOG.info( "Remote Bundle Context stopped" );
+            return;
+        }
         LOG.debug( "Unbinding " + RemoteBundleContext.class.getSimpleName() );
-        m_registry.unbind( RemoteBundleContext.class.getName() );
+        m_registry.unbind( m_name );
         UnicastRemoteObject.unexportObject( m_remoteBundleContext, true );
+        m_remoteBundleContext.close();
         m_registry = null;
         m_remoteBundleContext = null;
         LOG.info( "Remote Bundle Context stopped" );
     }
 
     /**
-     * @return the port where {@link RemoteBundleContext} is being exposed as an RMI service.
+     * @param property name of the system property holding the port
+     *
+     * @return the port where {@link RemoteBundleContext} is being exposed as an RMI service or the port of the socket
+     *         to connect to.
      *
      * @throws BundleException - If communication port cannot be determined
      */
-    private int getPort()
+    private int getPort( final String property )
         throws BundleException
     {
         // The port is usually given by starting client (owner of this process).
         try
         {
-            return Integer.parseInt( System.getProperty( Constants.RMI_PORT_PROPERTY ) );
+            return Integer.parseInt( System.getProperty( property ) );
         }
         catch( NumberFormatException e )
         {
             throw new BundleException(
-                "Cannot determine rmi registry port. Ensure that property "
-                + Constants.RMI_PORT_PROPERTY
+                "Cannot determine communication port. Ensure that property "
+                + property
                 + " is set to a valid Integer."
             );
         }
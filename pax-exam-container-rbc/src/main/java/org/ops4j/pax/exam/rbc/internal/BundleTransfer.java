@@ -0,0 +1,287 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.rbc.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleException;
+
+/**
+ * A bundle installation fed by chunks of bundle content, as they arrive. The bundle is installed in background from a
+ * stream that reads the chunks, so at most a few chunks are buffered at any time, regardless of the bundle size.
+ * Writing a chunk blocks while the installation did not yet consume the earlier chunks. If no chunk arrives for longer
+ * than the idle timeout (e.g. as the client died mid-transfer) the installation fails, so the installing thread never
+ * waits forever.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+class BundleTransfer
+{
+
+    /**
+     * Maximum number of chunks written but not yet consumed.
+     */
+    private static final int MAX_PENDING_CHUNKS = 4;
+
+    /**
+     * Time (in millis) the installation waits for the next chunk before the transfer is considered abandoned.
+     */
+    static final long IDLE_TIMEOUT = 60 * 1000;
+
+    /**
+     * Chunk marking the end of the bundle content.
+     */
+    private static final byte[] END = new byte[0];
+
+    /**
+     * Chunk marking an aborted transfer.
+     */
+    private static final byte[] ABORT = new byte[0];
+
+    /**
+     * Chunks written but not yet consumed.
+     */
+    private final BlockingQueue<byte[]> m_chunks;
+
+    /**
+     * Background installation.
+     */
+    private final FutureTask<Long> m_installation;
+
+    /**
+     * Time (in millis) of last write, end or abort of the transfer.
+     */
+    private volatile long m_lastActivity;
+
+    /**
+     * Constructor. Starts the installation.
+     *
+     * @param bundleContext  bundle context used to install the bundle
+     * @param bundleLocation bundle location
+     */
+    BundleTransfer( final BundleContext bundleContext,
+                    final String bundleLocation )
+    {
+        m_chunks = new ArrayBlockingQueue<byte[]>( MAX_PENDING_CHUNKS );
+        m_lastActivity = System.currentTimeMillis();
+        m_installation = new FutureTask<Long>( new Callable<Long>()
+        {
+            public Long call()
+                throws Exception
+            {
+                final InputStream in = new ChunksInputStream();
+                try
+                {
+                    return bundleContext.installBundle( bundleLocation, in ).getBundleId();
+                }
+                finally
+                {
+                    in.close();
+                }
+            }
+        }
+        );
+        final Thread thread = new Thread( m_installation, "Pax Exam bundle transfer " + bundleLocation );
+        thread.setDaemon( true );
+        thread.start();
+    }
+
+    /**
+     * Writes a chunk of bundle content.
+     *
+     * @param chunk chunk of bundle content (cannot be empty)
+     *
+     * @throws BundleException - If the installation already failed or the writing thread is interrupted
+     */
+    void write( final byte[] chunk )
+        throws BundleException
+    {
+        if( chunk.length > 0 )
+        {
+            put( chunk );
+        }
+    }
+
+    /**
+     * Marks the end of the bundle content and waits for the installation to finish.
+     *
+     * @return id of installed bundle
+     *
+     * @throws BundleException - If the bundle cannot be installed
+     */
+    long end()
+        throws BundleException
+    {
+        put( END );
+        try
+        {
+            return m_installation.get();
+        }
+        catch( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new BundleException( "Interrupted while installing bundle", e );
+        }
+        catch( ExecutionException e )
+        {
+            if( e.getCause() instanceof BundleException )
+            {
+                throw (BundleException) e.getCause();
+            }
+            throw new BundleException( "Cannot install bundle", e.getCause() );
+        }
+    }
+
+    /**
+     * Aborts the transfer. The installation fails, as the content ends abruptly.
+     */
+    void abort()
+    {
+        m_lastActivity = System.currentTimeMillis();
+        m_chunks.clear();
+        m_chunks.offer( ABORT );
+    }
+
+    /**
+     * Returns true if the transfer was abandoned: the installation finished (most probably failed as the transfer was
+     * idle for too long) but nobody ended or aborted the transfer since longer than the idle timeout.
+     *
+     * @return true if abandoned
+     */
+    boolean isAbandoned()
+    {
+        return m_installation.isDone() && System.currentTimeMillis() - m_lastActivity > IDLE_TIMEOUT;
+    }
+
+    /**
+     * Puts a chunk in the queue, waiting for space as long as the installation is running.
+     *
+     * @param chunk chunk to put
+     *
+     * @throws BundleException - If the installation already finished or the writing thread is interrupted
+     */
+    private void put( final byte[] chunk )
+        throws BundleException
+    {
+        m_lastActivity = System.currentTimeMillis();
+        try
+        {
+            while( !m_chunks.offer( chunk, 100, TimeUnit.MILLISECONDS ) )
+            {
+                if( m_installation.isDone() )
+                {
+                    if( chunk == END )
+                    {
+                        return;
+                    }
+                    throw new BundleException( "Bundle installation ended before the bundle content" );
+                }
+            }
+        }
+        catch( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new BundleException( "Interrupted while transferring bundle", e );
+        }
+    }
+
+    /**
+     * Stream reading the chunks, in order.
+     */
+    private class ChunksInputStream
+        extends InputStream
+    {
+
+        /**
+         * Chunk being read. Null if no chunk read yet or last chunk fully read.
+         */
+        private byte[] m_chunk;
+        /**
+         * Position in chunk being read.
+         */
+        private int m_position;
+
+        @Override
+        public int read()
+            throws IOException
+        {
+            final byte[] single = new byte[1];
+            return read( single, 0, 1 ) < 0 ? -1 : single[ 0 ] & 0xFF;
+        }
+
+        @Override
+        public int read( final byte[] buffer,
+                         final int offset,
+                         final int length )
+            throws IOException
+        {
+            if( length == 0 )
+            {
+                return 0;
+            }
+            if( m_chunk == END )
+            {
+                return -1;
+            }
+            if( m_chunk == ABORT )
+            {
+                throw new IOException( "Bundle transfer aborted" );
+            }
+            if( m_chunk == null || m_position == m_chunk.length )
+            {
+                try
+                {
+                    m_chunk = m_chunks.poll( IDLE_TIMEOUT, TimeUnit.MILLISECONDS );
+                }
+                catch( InterruptedException e )
+                {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException( "Interrupted while waiting for bundle content" );
+                }
+                m_position = 0;
+                if( m_chunk == null )
+                {
+                    m_chunk = ABORT;
+                    throw new IOException( "No bundle content received for " + IDLE_TIMEOUT + " millis" );
+                }
+                if( m_chunk == ABORT )
+                {
+                    throw new IOException( "Bundle transfer aborted" );
+                }
+                if( m_chunk == END )
+                {
+                    return -1;
+                }
+            }
+            final int read = Math.min( length, m_chunk.length - m_position );
+            System.arraycopy( m_chunk, m_position, buffer, offset, read );
+            m_position += read;
+            return read;
+        }
+
+    }
+
+}
@@ -0,0 +1,351 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.rbc.internal;
+
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
+import org.osgi.framework.Constants;
+import org.osgi.framework.ServiceReference;
+import org.osgi.framework.SynchronousBundleListener;
+import org.osgi.service.packageadmin.PackageAdmin;
+
+/**
+ * Tracks class loaders of uninstalled bundles (such as test probes) via weak references, in order to detect class
+ * loaders that never get garbage collected and would make a long lived test container run out of memory.
+ * The class loader of a bundle is captured once the bundle gets resolved, started or is stopping (as classes cannot be
+ * loaded anymore once uninstalled) and tracked once the bundle gets uninstalled, whether it was ever started or not. As class loaders are released only after packages are
+ * refreshed, leaks are checked on request, after a number of tracked bundles, by forcing garbage collection.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+class ClassLoaderLeakTracker
+    implements SynchronousBundleListener
+{
+
+    /**
+     * JCL Logger.
+     */
+    private static final Log LOG = LogFactory.getLog( ClassLoaderLeakTracker.class );
+    /**
+     * Max number of garbage collections forced during a check.
+     */
+    private static final int MAX_GC_RUNS = 3;
+    /**
+     * Max number of classes tried to be loaded in order to find the class loader of a bundle.
+     */
+    private static final int MAX_CANDIDATE_CLASSES = 8;
+    /**
+     * Manifest header of the activation policy (not available as constant in OSGi R4.0).
+     */
+    private static final String BUNDLE_ACTIVATIONPOLICY = "Bundle-ActivationPolicy";
+
+    /**
+     * Bundle context used to find the package admin service.
+     */
+    private final BundleContext m_bundleContext;
+    /**
+     * Number of tracked bundles after which a check is due.
+     */
+    private final int m_checkInterval;
+    /**
+     * Class loaders of installed bundles, by bundle id.
+     */
+    private final Map<Long, WeakReference<ClassLoader>> m_classLoaders;
+    /**
+     * Class loaders of uninstalled bundles not yet garbage collected.
+     */
+    private final List<Tracked> m_tracked;
+    /**
+     * Number of uninstalled bundles tracked so far.
+     */
+    private long m_trackedCount;
+    /**
+     * Number of uninstalled bundles tracked since last check.
+     */
+    private int m_sinceCheck;
+    /**
+     * Bundles whose class loaders were retained at last check.
+     */
+    private String[] m_retained;
+
+    /**
+     * Constructor.
+     *
+     * @param bundleContext bundle context used to find the package admin service
+     * @param checkInterval number of tracked bundles after which a check is due
+     */
+    ClassLoaderLeakTracker( final BundleContext bundleContext,
+                            final int checkInterval )
+    {
+        m_bundleContext = bundleContext;
+        m_checkInterval = checkInterval;
+        m_classLoaders = new ConcurrentHashMap<Long, WeakReference<ClassLoader>>();
+        m_tracked = new ArrayList<Tracked>();
+        m_retained = new String[0];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void bundleChanged( final BundleEvent event )
+    {
+        final Bundle bundle = event.getBundle();
+        switch( event.getType() )
+        {
+            case BundleEvent.RESOLVED:
+                // loading a class of a lazy bundle would activate it, so wait for it to be started
+                if( !isLazy( bundle ) )
+                {
+                    capture( bundle );
+                }
+                break;
+            case BundleEvent.STARTED:
+            case BundleEvent.STOPPING:
+                capture( bundle );
+                break;
+            case BundleEvent.UNINSTALLED:
+                final WeakReference<ClassLoader> reference = m_classLoaders.remove( bundle.getBundleId() );
+                if( reference != null )
+                {
+                    track( new Tracked( "[" + bundle.getBundleId() + "] " + bundle.getLocation(), reference ) );
+                }
+                break;
+        }
+    }
+
+    /**
+     * Captures the class loader of a bundle, unless already captured.
+     *
+     * @param bundle bundle
+     */
+    private void capture( final Bundle bundle )
+    {
+        final WeakReference<ClassLoader> captured = m_classLoaders.get( bundle.getBundleId() );
+        if( captured != null && captured.get() != null )
+        {
+            return;
+        }
+        final ClassLoader classLoader = getClassLoader( bundle );
+        if( classLoader != null )
+        {
+            m_classLoaders.put( bundle.getBundleId(), new WeakReference<ClassLoader>( classLoader ) );
+        }
+    }
+
+    /**
+     * Starts tracking the class loader of an uninstalled bundle.
+     *
+     * @param tracked tracked class loader
+     */
+    private synchronized void track( final Tracked tracked )
+    {
+        m_tracked.add( tracked );
+        m_trackedCount++;
+        m_sinceCheck++;
+    }
+
+    /**
+     * Checks for leaks if enough bundles were tracked since the last check. To be called once the class loaders of
+     * uninstalled bundles should be released (e.g. after packages got refreshed).
+     *
+     * @return current counts
+     */
+    ClassLoaderLeaks checkIfDue()
+    {
+        synchronized( this )
+        {
+            if( m_sinceCheck < m_checkInterval )
+            {
+                return getLeaks();
+            }
+        }
+        return check();
+    }
+
+    /**
+     * Forces garbage collection and finds the class loaders of uninstalled bundles that are still retained.
+     *
+     * @return current counts
+     */
+    ClassLoaderLeaks check()
+    {
+        int retainedCount = removeCollected();
+        for( int run = 0; run < MAX_GC_RUNS && retainedCount > 0; run++ )
+        {
+            System.gc();
+            System.runFinalization();
+            retainedCount = removeCollected();
+        }
+        synchronized( this )
+        {
+            final List<String> retained = new ArrayList<String>();
+            for( Tracked tracked : m_tracked )
+            {
+                retained.add( tracked.bundle );
+            }
+            m_retained = retained.toArray( new String[retained.size()] );
+            m_sinceCheck = 0;
+            if( m_retained.length > 0 )
+            {
+                LOG.warn(
+                    "Class loaders of " + m_retained.length + " uninstalled bundles are still retained: " + retained
+                );
+            }
+            return getLeaks();
+        }
+    }
+
+    /**
+     * Stops tracking class loaders that were garbage collected.
+     *
+     * @return number of class loaders still retained
+     */
+    private synchronized int removeCollected()
+    {
+        for( Iterator<Tracked> iterator = m_tracked.iterator(); iterator.hasNext(); )
+        {
+            if( iterator.next().classLoader.get() == null )
+            {
+                iterator.remove();
+            }
+        }
+        return m_tracked.size();
+    }
+
+    /**
+     * Getter.
+     *
+     * @return counts as found by last check
+     */
+    synchronized ClassLoaderLeaks getLeaks()
+    {
+        return new ClassLoaderLeaks( m_trackedCount, m_retained );
+    }
+
+    /**
+     * Finds the class loader of a bundle by loading one of its classes: the bundle activator or else one of the first
+     * classes found in the bundle. As a class found in the bundle can be loaded from another bundle (e.g. if its package
+     * is imported), only classes the package admin service reports as loaded by the bundle itself are used.
+     *
+     * @param bundle bundle
+     *
+     * @return class loader or null if the bundle has no classes of its own (or is a fragment)
+     */
+    private ClassLoader getClassLoader( final Bundle bundle )
+    {
+        if( bundle.getHeaders().get( Constants.FRAGMENT_HOST ) != null )
+        {
+            return null;
+        }
+        final List<String> classNames = new ArrayList<String>();
+        final String activator = (String) bundle.getHeaders().get( Constants.BUNDLE_ACTIVATOR );
+        if( activator != null )
+        {
+            classNames.add( activator.trim() );
+        }
+        final Enumeration entries = bundle.findEntries( "/", "*.class", true );
+        while( entries != null && entries.hasMoreElements() && classNames.size() < MAX_CANDIDATE_CLASSES )
+        {
+            final String path = ( (URL) entries.nextElement() ).getPath();
+            classNames.add(
+                path.substring( path.startsWith( "/" ) ? 1 : 0, path.length() - ".class".length() ).replace( '/', '.' )
+            );
+        }
+        final ServiceReference reference = m_bundleContext.getServiceReference( PackageAdmin.class.getName() );
+        final PackageAdmin packageAdmin = reference == null
+                                          ? null
+                                          : (PackageAdmin) m_bundleContext.getService( reference );
+        try
+        {
+            for( String className : classNames )
+            {
+                try
+                {
+                    final Class<?> clazz = bundle.loadClass( className );
+                    if( packageAdmin == null || bundle.equals( packageAdmin.getBundle( clazz ) ) )
+                    {
+                        return clazz.getClassLoader();
+                    }
+                }
+                catch( Exception e )
+                {
+                    LOG.debug( "Cannot load class " + className + " of bundle [" + bundle.getBundleId() + "]: "
+                               + e.getMessage()
+                    );
+                }
+                catch( LinkageError e )
+                {
+                    LOG.debug( "Cannot load class " + className + " of bundle [" + bundle.getBundleId() + "]: "
+                               + e.getMessage()
+                    );
+                }
+            }
+            LOG.debug( "Cannot find class loader of bundle [" + bundle.getBundleId() + "]" );
+            return null;
+        }
+        finally
+        {
+            if( packageAdmin != null )
+            {
+                m_bundleContext.ungetService( reference );
+            }
+        }
+    }
+
+    /**
+     * Checks if a bundle uses the lazy activation policy.
+     *
+     * @param bundle bundle
+     *
+     * @return true if the bundle is activated on first class load
+     */
+    private static boolean isLazy( final Bundle bundle )
+    {
+        final String policy = (String) bundle.getHeaders().get( BUNDLE_ACTIVATIONPOLICY );
+        return policy != null && policy.trim().startsWith( "lazy" );
+    }
+
+    /**
+     * Tracked class loader holder.
+     */
+    private static class Tracked
+    {
+
+        final String bundle;
+        final WeakReference<ClassLoader> classLoader;
+
+        Tracked( final String bundle,
+                 final WeakReference<ClassLoader> classLoader )
+        {
+            this.bundle = bundle;
+            this.classLoader = classLoader;
+        }
+    }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.rbc.internal;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Counts of class loaders of uninstalled bundles, as found by the last leak check of a {@link ClassLoaderLeakTracker}.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+public class ClassLoaderLeaks
+    implements Serializable
+{
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Number of uninstalled bundles whose class loaders were tracked.
+     */
+    private final long m_tracked;
+    /**
+     * Number of class loaders of uninstalled bundles still retained at last check.
+     */
+    private final int m_retained;
+    /**
+     * Descriptions (id and location) of bundles whose class loaders were retained at last check.
+     */
+    private final String[] m_retainedBundles;
+
+    /**
+     * Constructor.
+     *
+     * @param tracked         number of uninstalled bundles whose class loaders were tracked
+     * @param retainedBundles descriptions of bundles whose class loaders were retained at last check
+     */
+    ClassLoaderLeaks( final long tracked,
+                      final String[] retainedBundles )
+    {
+        m_tracked = tracked;
+        m_retained = retainedBundles.length;
+        m_retainedBundles = retainedBundles;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return number of uninstalled bundles whose class loaders were tracked
+     */
+    public long getTracked()
+    {
+        return m_tracked;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return number of class loaders of uninstalled bundles still retained at last check
+     */
+    public int getRetained()
+    {
+        return m_retained;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return descriptions (id and location) of bundles whose class loaders were retained at last check
+     */
+    public String[] getRetainedBundles()
+    {
+        return m_retainedBundles;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ClassLoaderLeaks{tracked=" + m_tracked + ", retained=" + Arrays.toString( m_retainedBundles ) + "}";
+    }
+
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.rbc.internal;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Constants;
+import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.framework.ServiceReference;
+import org.osgi.service.startlevel.StartLevel;
+
+/**
+ * Snapshot of the framework state a test container should be reset to after each test: installed bundles with their
+ * states and start levels, registered services and running threads.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+class FrameworkBaseline
+{
+
+    /**
+     * States of installed bundles, by bundle id.
+     */
+    private final Map<Long, Integer> m_states;
+    /**
+     * Start levels of installed bundles, by bundle id. Empty if there is no start level service.
+     */
+    private final Map<Long, Integer> m_startLevels;
+    /**
+     * Ids of registered services.
+     */
+    private final Set<Long> m_serviceIds;
+    /**
+     * Ids of running threads.
+     */
+    private final Set<Long> m_threadIds;
+
+    /**
+     * Captures the current state of the framework.
+     *
+     * @param bundleContext bundle context (cannot be null)
+     * @param startLevel    start level service (can be null = start levels are not captured)
+     */
+    FrameworkBaseline( final BundleContext bundleContext,
+                       final StartLevel startLevel )
+    {
+        m_states = new HashMap<Long, Integer>();
+        m_startLevels = new HashMap<Long, Integer>();
+        for( Bundle bundle : bundleContext.getBundles() )
+        {
+            m_states.put( bundle.getBundleId(), bundle.getState() );
+            if( startLevel != null )
+            {
+                m_startLevels.put( bundle.getBundleId(), startLevel.getBundleStartLevel( bundle ) );
+            }
+        }
+        m_serviceIds = new HashSet<Long>();
+        for( ServiceReference reference : getServiceReferences( bundleContext ) )
+        {
+            m_serviceIds.add( (Long) reference.getProperty( Constants.SERVICE_ID ) );
+        }
+        m_threadIds = new HashSet<Long>();
+        for( Thread thread : Thread.getAllStackTraces().keySet() )
+        {
+            m_threadIds.add( thread.getId() );
+        }
+    }
+
+    /**
+     * Checks if a bundle was installed when the baseline was captured.
+     *
+     * @param bundle bundle to check
+     *
+     * @return true if bundle is part of the baseline
+     */
+    boolean contains( final Bundle bundle )
+    {
+        return m_states.containsKey( bundle.getBundleId() );
+    }
+
+    /**
+     * Getter.
+     *
+     * @return ids of bundles installed when the baseline was captured
+     */
+    Set<Long> getBundleIds()
+    {
+        return m_states.keySet();
+    }
+
+    /**
+     * Checks if a bundle was active (or starting) when the baseline was captured.
+     *
+     * @param bundle bundle to check
+     *
+     * @return true if bundle was active
+     */
+    boolean wasActive( final Bundle bundle )
+    {
+        final Integer state = m_states.get( bundle.getBundleId() );
+        return state != null && ( state == Bundle.ACTIVE || state == Bundle.STARTING );
+    }
+
+    /**
+     * Returns the start level a bundle had when the baseline was captured.
+     *
+     * @param bundle bundle
+     *
+     * @return start level or null if not known
+     */
+    Integer getStartLevel( final Bundle bundle )
+    {
+        return m_startLevels.get( bundle.getBundleId() );
+    }
+
+    /**
+     * Checks if a service was registered when the baseline was captured.
+     *
+     * @param reference service reference
+     *
+     * @return true if service is part of the baseline
+     */
+    boolean contains( final ServiceReference reference )
+    {
+        return m_serviceIds.contains( (Long) reference.getProperty( Constants.SERVICE_ID ) );
+    }
+
+    /**
+     * Checks if a thread was running when the baseline was captured.
+     *
+     * @param thread thread
+     *
+     * @return true if thread is part of the baseline
+     */
+    boolean contains( final Thread thread )
+    {
+        return m_threadIds.contains( thread.getId() );
+    }
+
+    /**
+     * Returns references to all registered services.
+     *
+     * @param bundleContext bundle context
+     *
+     * @return service references (never null)
+     */
+    static ServiceReference[] getServiceReferences( final BundleContext bundleContext )
+    {
+        try
+        {
+            final ServiceReference[] references = bundleContext.getAllServiceReferences( null, null );
+            return references == null ? new ServiceReference[0] : references;
+        }
+        catch( InvalidSyntaxException e )
+        {
+            // cannot happen as there is no filter
+            throw new IllegalStateException( e );
+        }
+    }
+
+}
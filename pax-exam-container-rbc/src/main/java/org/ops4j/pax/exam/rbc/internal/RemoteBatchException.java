@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.rbc.internal;
+
+/**
+ * Thrown when an operation of a batch fails. The cause is the failure of the operation.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+public class RemoteBatchException
+    extends Exception
+{
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Index of the failed operation.
+     */
+    private final int m_failedOperation;
+    /**
+     * Results of the operations executed before the failed one.
+     */
+    private final Object[] m_results;
+
+    /**
+     * Constructor.
+     *
+     * @param failedOperation index of the failed operation
+     * @param results         results of all operations (entries starting with the failed operation are null)
+     * @param cause           failure of the operation
+     */
+    public RemoteBatchException( final int failedOperation,
+                                 final Object[] results,
+                                 final Throwable cause )
+    {
+        super( "Operation " + failedOperation + " of batch failed: " + cause.getMessage(), cause );
+        m_failedOperation = failedOperation;
+        m_results = results;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return index of the failed operation
+     */
+    public int getFailedOperation()
+    {
+        return m_failedOperation;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return results of all operations (entries starting with the failed operation are null)
+     */
+    public Object[] getResults()
+    {
+        return m_results;
+    }
+
+}
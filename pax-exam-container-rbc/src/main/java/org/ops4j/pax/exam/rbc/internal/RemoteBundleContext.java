@@ -70,6 +70,37 @@ public interface RemoteBundleContext
         IllegalAccessException,
         InvocationTargetException;
 
+    /**
+     * Makes a remote call on a service that matches a filter.
+     *
+     * @param serviceType      service class of the remote service
+     * @param filter           filter the service properties must match (can be null = no filtering)
+     * @param methodName       method name
+     * @param methodParamTypes method parameters types
+     * @param timeoutInMillis  timeout for looking up the service
+     * @param actualParams     actual parameters (must match the given method params)
+     *
+     * @return remote call rsult
+     *
+     * @throws NoSuchServiceException    - If a service of the specified type matching the filter cannot be located
+     * @throws NoSuchMethodException     - If the given method cannot be found
+     * @throws IllegalAccessException    - Specified method cannot be accessed
+     * @throws InvocationTargetException - Wraps an eventual exception occured during method invocation
+     * @throws RemoteException           - Remote communication related exception (mandatory by RMI)
+     */
+    Object remoteCall( Class<?> serviceType,
+                       String filter,
+                       String methodName,
+                       Class<?>[] methodParamTypes,
+                       long timeoutInMillis,
+                       Object... actualParams )
+        throws
+        RemoteException,
+        NoSuchServiceException,
+        NoSuchMethodException,
+        IllegalAccessException,
+        InvocationTargetException;
+
     /**
      * Installs a bundle remotly.
      *
@@ -97,6 +128,56 @@ public interface RemoteBundleContext
     long installBundle( String bundleLocation, byte[] bundle )
         throws RemoteException, BundleException;
 
+    /**
+     * Starts installing a bundle whose content is transferred in chunks, via
+     * {@link #writeBundleChunk(long, byte[])}. The installation is finished by {@link #endInstallBundle(long)} or,
+     * as part of a batch, by an {@link RemoteBundleOperation.Type#INSTALL_STREAMED_BUNDLE} operation.
+     *
+     * @param bundleLocation bundle location
+     *
+     * @return transfer id
+     *
+     * @throws RemoteException - Remote communication related exception (mandatory by RMI)
+     */
+    long beginInstallBundle( String bundleLocation )
+        throws RemoteException;
+
+    /**
+     * Transfers the next chunk of the content of a bundle being installed. Blocks while the earlier chunks were not
+     * yet consumed by the installation.
+     *
+     * @param transferId transfer id, as returned by {@link #beginInstallBundle(String)}
+     * @param chunk      chunk of bundle content
+     *
+     * @throws RemoteException - Remote communication related exception (mandatory by RMI)
+     * @throws BundleException - If there is no such transfer or the installation already failed
+     */
+    void writeBundleChunk( long transferId, byte[] chunk )
+        throws RemoteException, BundleException;
+
+    /**
+     * Marks the end of the content of a bundle being installed and waits for the installation to finish.
+     *
+     * @param transferId transfer id, as returned by {@link #beginInstallBundle(String)}
+     *
+     * @return bundle id of the installed bundle
+     *
+     * @throws RemoteException - Remote communication related exception (mandatory by RMI)
+     * @throws BundleException - If there is no such transfer or the bundle cannot be installed
+     */
+    long endInstallBundle( long transferId )
+        throws RemoteException, BundleException;
+
+    /**
+     * Aborts the installation of a bundle whose content is being transferred.
+     *
+     * @param transferId transfer id, as returned by {@link #beginInstallBundle(String)}
+     *
+     * @throws RemoteException - Remote communication related exception (mandatory by RMI)
+     */
+    void abortInstallBundle( long transferId )
+        throws RemoteException;
+
     /**
      * Starts a bundle.
      *
@@ -119,6 +200,17 @@ public interface RemoteBundleContext
     void stopBundle( long bundleId )
         throws RemoteException, BundleException;
 
+    /**
+     * Uninstalls a bundle.
+     *
+     * @param bundleId id of the bundle to be uninstalled
+     *
+     * @throws RemoteException - Remote communication related exception (mandatory by RMI)
+     * @throws BundleException - Re-thrown from uninstalling the bundle
+     */
+    void uninstallBundle( long bundleId )
+        throws RemoteException, BundleException;
+
     /**
      * Sets bundle start level.
      *
@@ -145,4 +237,94 @@ public interface RemoteBundleContext
     void waitForState( long bundleId, int state, long timeoutInMillis )
         throws RemoteException, BundleException, TimeoutException;
 
+    /**
+     * Waits for a set of bundles to be in a certain state and returns. Same as waiting for each bundle, but in one
+     * remote call.
+     *
+     * @param bundleIds       bundle ids
+     * @param state           expected state
+     * @param timeoutInMillis max time to wait for all bundles to reach the state
+     *
+     * @throws RemoteException  - Remote communication related exception (mandatory by RMI)
+     * @throws BundleException  - If one of the bundles cannot be found
+     * @throws TimeoutException - if timeout occured and expected state has not being reached by all bundles
+     */
+    void waitForState( long[] bundleIds, int state, long timeoutInMillis )
+        throws RemoteException, BundleException, TimeoutException;
+
+    /**
+     * Sets a system property of the JVM running the framework.
+     *
+     * @param key   system property key
+     * @param value system property value (null = clear the system property)
+     *
+     * @throws RemoteException - Remote communication related exception (mandatory by RMI)
+     */
+    void setSystemProperty( String key, String value )
+        throws RemoteException;
+
+    /**
+     * Refreshes the packages of bundles that were updated or uninstalled and waits for the refresh to finish.
+     *
+     * @param timeoutInMillis max time to wait for the refresh to finish
+     *
+     * @throws RemoteException  - Remote communication related exception (mandatory by RMI)
+     * @throws BundleException  - If package admin service is not available
+     * @throws TimeoutException - if timeout occured and refresh did not finish
+     */
+    void refreshPackages( long timeoutInMillis )
+        throws RemoteException, BundleException, TimeoutException;
+
+    /**
+     * Captures the current framework state (installed bundles with their states and start levels, registered services
+     * and running threads) as the baseline to be restored by {@link #resetToBaseline(long)}.
+     *
+     * @throws RemoteException - Remote communication related exception (mandatory by RMI)
+     */
+    void captureBaseline()
+        throws RemoteException;
+
+    /**
+     * Resets the framework to the captured baseline: bundles installed since are uninstalled, start levels and states
+     * of baseline bundles are restored and packages are refreshed once. Services registered and threads started since
+     * the baseline that are still around are reported back.
+     *
+     * @param timeoutInMillis max time to wait for the packages refresh to finish
+     *
+     * @return descriptions of services and threads left over (never null)
+     *
+     * @throws RemoteException  - Remote communication related exception (mandatory by RMI)
+     * @throws BundleException  - If there is no baseline or a bundle cannot be uninstalled or restored
+     * @throws TimeoutException - if timeout occured and packages refresh did not finish
+     */
+    String[] resetToBaseline( long timeoutInMillis )
+        throws RemoteException, BundleException, TimeoutException;
+
+    /**
+     * Returns the counts of class loaders of uninstalled bundles that were tracked and that are still retained (not
+     * garbage collected), so a test container that leaks class loaders can be retired.
+     *
+     * @param check true if a leak check (that forces garbage collection) should be done first, false to return the
+     *              counts as found by the last check
+     *
+     * @return class loader leak counts
+     *
+     * @throws RemoteException - Remote communication related exception (mandatory by RMI)
+     */
+    ClassLoaderLeaks getClassLoaderLeaks( boolean check )
+        throws RemoteException;
+
+    /**
+     * Executes an ordered list of operations in one remote call. Execution stops at the first failing operation.
+     *
+     * @param operations operations to execute
+     *
+     * @return results of operations, in order (bundle id for install operations, null for the rest)
+     *
+     * @throws RemoteException      - Remote communication related exception (mandatory by RMI)
+     * @throws RemoteBatchException - If an operation fails
+     */
+    Object[] execute( RemoteBundleOperation... operations )
+        throws RemoteException, RemoteBatchException;
+
 }
@@ -21,15 +21,33 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.Serializable;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Dictionary;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleEvent;
 import org.osgi.framework.BundleException;
+import org.osgi.framework.BundleListener;
 import org.osgi.framework.Constants;
+import org.osgi.framework.FrameworkEvent;
+import org.osgi.framework.FrameworkListener;
+import org.osgi.framework.InvalidSyntaxException;
 import org.osgi.framework.ServiceReference;
+import org.osgi.framework.SynchronousBundleListener;
+import org.osgi.service.packageadmin.PackageAdmin;
 import org.osgi.service.startlevel.StartLevel;
 import static org.ops4j.lang.NullArgumentException.*;
 
@@ -52,6 +70,32 @@ public class RemoteBundleContextImpl
      * Bundle context (cannot be null).
      */
     private final transient BundleContext m_bundleContext;
+    /**
+     * Methods called remotely, keyed by service type, method name and parameter types. Cleared as soon as a bundle gets
+     * unresolved, so classes of uninstalled bundles are not kept around.
+     */
+    private final transient Map<List<Object>, Method> m_methods;
+    /**
+     * Services looked up so far, keyed by service type name. Tracked services are kept up to date by listening to
+     * service events and are released on {@link #close()}.
+     */
+    private final transient ConcurrentMap<String, TrackedService> m_trackedServices;
+    /**
+     * Bundle installations whose content is being transferred, by transfer id.
+     */
+    private final transient Map<Long, BundleTransfer> m_transfers;
+    /**
+     * Last used transfer id.
+     */
+    private final transient AtomicLong m_lastTransferId;
+    /**
+     * Framework state to be restored after each test. Null if not captured.
+     */
+    private transient volatile FrameworkBaseline m_baseline;
+    /**
+     * Tracker of class loaders of uninstalled bundles.
+     */
+    private final transient ClassLoaderLeakTracker m_leakTracker;
 
     /**
      * Constructor.
@@ -64,6 +108,29 @@ public class RemoteBundleContextImpl
     {
         validateNotNull( bundleContext, "Bundle context" );
         m_bundleContext = bundleContext;
+        m_methods = new ConcurrentHashMap<List<Object>, Method>();
+        m_trackedServices = new ConcurrentHashMap<String, TrackedService>();
+        m_transfers = new ConcurrentHashMap<Long, BundleTransfer>();
+        m_lastTransferId = new AtomicLong();
+        m_leakTracker = new ClassLoaderLeakTracker(
+            bundleContext,
+            Integer.getInteger(
+                org.ops4j.pax.exam.rbc.Constants.LEAK_CHECK_INTERVAL_PROPERTY,
+                org.ops4j.pax.exam.rbc.Constants.DEFAULT_LEAK_CHECK_INTERVAL
+            )
+        );
+        m_bundleContext.addBundleListener( m_leakTracker );
+        m_bundleContext.addBundleListener( new BundleListener()
+        {
+            public void bundleChanged( final BundleEvent event )
+            {
+                if( event.getType() == BundleEvent.UNRESOLVED )
+                {
+                    m_methods.clear();
+                }
+            }
+        }
+        );
     }
 
     /**
@@ -76,11 +143,79 @@ public class RemoteBundleContextImpl
                               final Object... actualParams )
         throws NoSuchServiceException, NoSuchMethodException, IllegalAccessException, InvocationTargetException
     {
-        LOG.info( "Remote call of [" + serviceType.getName() + "." + methodName + "]" );
-        return serviceType.getMethod( methodName, methodParams ).invoke(
-            getService( serviceType, timeoutInMillis ),
-            actualParams
-        );
+        return remoteCall( serviceType, null, methodName, methodParams, timeoutInMillis, actualParams );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Object remoteCall( final Class<?> serviceType,
+                              final String filter,
+                              final String methodName,
+                              final Class<?>[] methodParams,
+                              final long timeoutInMillis,
+                              final Object... actualParams )
+        throws NoSuchServiceException, NoSuchMethodException, IllegalAccessException, InvocationTargetException
+    {
+        if( LOG.isDebugEnabled() )
+        {
+            LOG.debug( "Remote call of [" + serviceType.getName() + "." + methodName + "]"
+                       + ( filter == null ? "" : " on service matching " + filter ) );
+        }
+        final Method method = getMethod( serviceType, methodName, methodParams );
+        if( filter == null )
+        {
+            return method.invoke( getService( serviceType, timeoutInMillis ), actualParams );
+        }
+        // filtered services are not tracked, so they are released as soon as the call completes
+        for( ServiceReference reference : getServiceReferences( serviceType, filter ) )
+        {
+            final Object service = m_bundleContext.getService( reference );
+            if( service != null )
+            {
+                try
+                {
+                    return method.invoke( service, actualParams );
+                }
+                finally
+                {
+                    m_bundleContext.ungetService( reference );
+                }
+            }
+        }
+        throw new NoSuchServiceException( serviceType );
+    }
+
+    /**
+     * Returns a public method of a service type. Found methods are cached.
+     *
+     * @param serviceType  service class
+     * @param methodName   method name
+     * @param methodParams method parameters types
+     *
+     * @return found method
+     *
+     * @throws NoSuchMethodException - If the given method cannot be found
+     */
+    private Method getMethod( final Class<?> serviceType,
+                              final String methodName,
+                              final Class<?>[] methodParams )
+        throws NoSuchMethodException
+    {
+        final List<Object> key = new ArrayList<Object>();
+        key.add( serviceType );
+        key.add( methodName );
+        if( methodParams != null )
+        {
+            key.addAll( Arrays.asList( methodParams ) );
+        }
+        Method method = m_methods.get( key );
+        if( method == null )
+        {
+            method = serviceType.getMethod( methodName, methodParams );
+            m_methods.put( key, method );
+        }
+        return method;
     }
 
     /**
@@ -119,6 +254,84 @@ public class RemoteBundleContextImpl
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public long beginInstallBundle( final String bundleLocation )
+    {
+        LOG.info( "Install bundle [" + bundleLocation + "] from stream" );
+        // transfers of clients that died mid-transfer are never ended, so they are dropped once abandoned
+        for( Map.Entry<Long, BundleTransfer> entry : m_transfers.entrySet() )
+        {
+            if( entry.getValue().isAbandoned() )
+            {
+                m_transfers.remove( entry.getKey() );
+            }
+        }
+        final long transferId = m_lastTransferId.incrementAndGet();
+        m_transfers.put( transferId, new BundleTransfer( m_bundleContext, bundleLocation ) );
+        return transferId;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void writeBundleChunk( final long transferId,
+                                  final byte[] chunk )
+        throws BundleException
+    {
+        getTransfer( transferId ).write( chunk );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long endInstallBundle( final long transferId )
+        throws BundleException
+    {
+        final BundleTransfer transfer = getTransfer( transferId );
+        try
+        {
+            return transfer.end();
+        }
+        finally
+        {
+            m_transfers.remove( transferId );
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void abortInstallBundle( final long transferId )
+    {
+        final BundleTransfer transfer = m_transfers.remove( transferId );
+        if( transfer != null )
+        {
+            transfer.abort();
+        }
+    }
+
+    /**
+     * Returns an ongoing bundle transfer.
+     *
+     * @param transferId transfer id
+     *
+     * @return bundle transfer
+     *
+     * @throws BundleException - If there is no such transfer
+     */
+    private BundleTransfer getTransfer( final long transferId )
+        throws BundleException
+    {
+        final BundleTransfer transfer = m_transfers.get( transferId );
+        if( transfer == null )
+        {
+            throw new BundleException( "No bundle transfer with id " + transferId );
+        }
+        return transfer;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -137,6 +350,21 @@ public class RemoteBundleContextImpl
         m_bundleContext.getBundle( bundleId ).stop();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public void uninstallBundle( long bundleId )
+        throws BundleException
+    {
+        final Bundle bundle = m_bundleContext.getBundle( bundleId );
+        if( bundle == null )
+        {
+            throw new BundleException( "Bundle with id [" + bundleId + "] cannot be found" );
+        }
+        LOG.info( "Uninstall bundle [" + bundleId + "]" );
+        bundle.uninstall();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -160,47 +388,434 @@ public class RemoteBundleContextImpl
     public void waitForState( final long bundleId,
                               final int state,
                               final long timeoutInMillis )
-        throws TimeoutException
+        throws BundleException, TimeoutException
     {
-        final Bundle bundle = m_bundleContext.getBundle( bundleId );
-        if( timeoutInMillis == NO_WAIT && bundle.getState() < state )
+        waitForState( new long[]{ bundleId }, state, timeoutInMillis );
+    }
+
+    /**
+     * {@inheritDoc}
+     * Bundle and framework events are listened to, so the waiting ends as soon as the last bundle reaches the expected
+     * state.
+     */
+    public void waitForState( final long[] bundleIds,
+                              final int state,
+                              final long timeoutInMillis )
+        throws BundleException, TimeoutException
+    {
+        final Bundle[] bundles = new Bundle[bundleIds.length];
+        for( int i = 0; i < bundleIds.length; i++ )
+        {
+            bundles[ i ] = m_bundleContext.getBundle( bundleIds[ i ] );
+            if( bundles[ i ] == null )
+            {
+                throw new BundleException( "Bundle with id [" + bundleIds[ i ] + "] cannot be found" );
+            }
+        }
+        Bundle notReached = findNotInState( bundles, state );
+        if( notReached == null )
+        {
+            return;
+        }
+        if( timeoutInMillis == NO_WAIT )
         {
             throw new TimeoutException(
-                "There is no waiting timeout set and bundle has state '" + bundleStateToString( bundle.getState() )
+                "There is no waiting timeout set and bundle has state '" + bundleStateToString( notReached.getState() )
                 + "' not '" + bundleStateToString( state ) + "' as expected"
             );
         }
-        long startedTrying = System.currentTimeMillis();
-        do
+        final CountDownLatch reached = new CountDownLatch( 1 );
+        final StateListener listener = new StateListener()
         {
-           try
-           {
-              Thread.sleep(50);
-           }
-           catch (InterruptedException e)
-           {
-              Thread.currentThread().interrupt();
-              break;
-           }
+            public void bundleChanged( final BundleEvent event )
+            {
+                check();
+            }
+
+            public void frameworkEvent( final FrameworkEvent event )
+            {
+                check();
+            }
+
+            private void check()
+            {
+                if( findNotInState( bundles, state ) == null )
+                {
+                    reached.countDown();
+                }
+            }
+        };
+        m_bundleContext.addBundleListener( listener );
+        m_bundleContext.addFrameworkListener( listener );
+        try
+        {
+            // state could have changed before the listener was registered
+            notReached = findNotInState( bundles, state );
+            if( notReached == null )
+            {
+                return;
+            }
+            try
+            {
+                if( timeoutInMillis == WAIT_FOREVER )
+                {
+                    reached.await();
+                }
+                else
+                {
+                    reached.await( timeoutInMillis, TimeUnit.MILLISECONDS );
+                }
+            }
+            catch( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+        finally
+        {
+            m_bundleContext.removeFrameworkListener( listener );
+            m_bundleContext.removeBundleListener( listener );
         }
-        while( bundle.getState() < state
-               && ( timeoutInMillis == WAIT_FOREVER
-                    || System.currentTimeMillis() < startedTrying + timeoutInMillis ) );
-        if( bundle.getState() < state )
+        notReached = findNotInState( bundles, state );
+        if( notReached != null )
         {
             throw new TimeoutException(
-                "Timeout passed and bundle has state '" + bundleStateToString( bundle.getState() )
-                + "' not '" + bundleStateToString( state ) + "' as expected"
+                "Timeout passed and bundle " + notReached.getBundleId() + " has state '"
+                + bundleStateToString( notReached.getState() ) + "' not '" + bundleStateToString( state )
+                + "' as expected"
             );
         }
     }
 
     /**
-     * Lookup a service in the service registry.
+     * {@inheritDoc}
+     */
+    public void setSystemProperty( final String key,
+                                   final String value )
+    {
+        LOG.info( "Set system property [" + key + "] to [" + value + "]" );
+        if( value == null )
+        {
+            System.clearProperty( key );
+        }
+        else
+        {
+            System.setProperty( key, value );
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void refreshPackages( final long timeoutInMillis )
+        throws BundleException, TimeoutException
+    {
+        final PackageAdmin packageAdmin;
+        try
+        {
+            packageAdmin = getService( PackageAdmin.class, 0 );
+        }
+        catch( NoSuchServiceException e )
+        {
+            throw new BundleException( "Cannot get the package admin service to refresh packages" );
+        }
+        final CountDownLatch refreshed = new CountDownLatch( 1 );
+        final FrameworkListener listener = new FrameworkListener()
+        {
+            public void frameworkEvent( final FrameworkEvent event )
+            {
+                if( event.getType() == FrameworkEvent.PACKAGES_REFRESHED )
+                {
+                    refreshed.countDown();
+                }
+            }
+        };
+        m_bundleContext.addFrameworkListener( listener );
+        try
+        {
+            LOG.info( "Refresh packages" );
+            packageAdmin.refreshPackages( null );
+            if( timeoutInMillis == NO_WAIT )
+            {
+                return;
+            }
+            try
+            {
+                if( timeoutInMillis == WAIT_FOREVER )
+                {
+                    refreshed.await();
+                }
+                else if( !refreshed.await( timeoutInMillis, TimeUnit.MILLISECONDS ) )
+                {
+                    throw new TimeoutException( "Timeout passed and packages refresh did not finish" );
+                }
+            }
+            catch( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+        finally
+        {
+            m_bundleContext.removeFrameworkListener( listener );
+        }
+    }
+
+    /**
+     * Stops tracking services and releases the tracked ones and aborts the ongoing bundle transfers. To be called when
+     * the remote bundle context is stopped.
+     */
+    void close()
+    {
+        for( Long transferId : m_transfers.keySet() )
+        {
+            abortInstallBundle( transferId );
+        }
+        for( TrackedService trackedService : m_trackedServices.values() )
+        {
+            trackedService.close();
+        }
+        m_trackedServices.clear();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public void captureBaseline()
+    {
+        m_baseline = new FrameworkBaseline( m_bundleContext, getStartLevelService() );
+        LOG.info( "Captured framework baseline" );
+    }
+
+    /**
+     * {@inheritDoc}
+     * Bundles that were part of the baseline but got uninstalled cannot be restored and are reported as well. Once
+     * packages are refreshed, class loaders of uninstalled bundles are checked for leaks (if a check is due) and the
+     * retained ones are reported too.
+     */
+    public String[] resetToBaseline( final long timeoutInMillis )
+        throws BundleException, TimeoutException
+    {
+        final FrameworkBaseline baseline = m_baseline;
+        if( baseline == null )
+        {
+            throw new BundleException( "There is no framework baseline to reset to" );
+        }
+        final List<String> leftovers = new ArrayList<String>();
+        boolean uninstalled = false;
+        for( Bundle bundle : m_bundleContext.getBundles() )
+        {
+            if( !baseline.contains( bundle ) )
+            {
+                LOG.info( "Uninstall bundle [" + bundle.getBundleId() + "] installed after baseline" );
+                bundle.uninstall();
+                uninstalled = true;
+            }
+        }
+        for( Long bundleId : baseline.getBundleIds() )
+        {
+            if( m_bundleContext.getBundle( bundleId ) == null )
+            {
+                leftovers.add( "Bundle [" + bundleId + "] uninstalled" );
+            }
+        }
+        final StartLevel startLevel = getStartLevelService();
+        final List<Bundle> toStart = new ArrayList<Bundle>();
+        for( Bundle bundle : m_bundleContext.getBundles() )
+        {
+            if( bundle.getBundleId() == 0 )
+            {
+                continue;
+            }
+            final Integer level = baseline.getStartLevel( bundle );
+            if( startLevel != null && level != null && level != startLevel.getBundleStartLevel( bundle ) )
+            {
+                startLevel.setBundleStartLevel( bundle, level );
+            }
+            final boolean active = bundle.getState() == Bundle.ACTIVE || bundle.getState() == Bundle.STARTING;
+            if( baseline.wasActive( bundle ) && !active )
+            {
+                toStart.add( bundle );
+            }
+            else if( !baseline.wasActive( bundle ) && active )
+            {
+                LOG.info( "Stop bundle [" + bundle.getBundleId() + "] started after baseline" );
+                bundle.stop();
+            }
+        }
+        if( uninstalled )
+        {
+            refreshPackages( timeoutInMillis );
+        }
+        for( Bundle bundle : toStart )
+        {
+            LOG.info( "Start bundle [" + bundle.getBundleId() + "] stopped after baseline" );
+            startBundle( bundle );
+        }
+        if( uninstalled )
+        {
+            for( String retained : m_leakTracker.checkIfDue().getRetainedBundles() )
+            {
+                leftovers.add( "Class loader of uninstalled bundle " + retained );
+            }
+        }
+        for( ServiceReference reference : FrameworkBaseline.getServiceReferences( m_bundleContext ) )
+        {
+            final Bundle bundle = reference.getBundle();
+            if( bundle != null && !baseline.contains( reference ) )
+            {
+                leftovers.add(
+                    "Service " + Arrays.toString( (String[]) reference.getProperty( Constants.OBJECTCLASS ) )
+                    + " registered by bundle [" + bundle.getBundleId() + "]"
+                );
+            }
+        }
+        for( Thread thread : Thread.getAllStackTraces().keySet() )
+        {
+            if( thread.isAlive() && !baseline.contains( thread ) && !isInfrastructureThread( thread ) )
+            {
+                leftovers.add( "Thread [" + thread.getName() + "]" );
+            }
+        }
+        return leftovers.toArray( new String[leftovers.size()] );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public ClassLoaderLeaks getClassLoaderLeaks( final boolean check )
+    {
+        return check ? m_leakTracker.check() : m_leakTracker.getLeaks();
+    }
+
+    /**
+     * Checks if a thread belongs to the JVM or to the remote bundle context itself, as such threads come and go
+     * regardless of tests (e.g. RMI connection threads).
+     *
+     * @param thread thread to check
+     *
+     * @return true if the thread should not be reported as left over
+     */
+    private static boolean isInfrastructureThread( final Thread thread )
+    {
+        final ThreadGroup group = thread.getThreadGroup();
+        return thread.getName().startsWith( "RMI " )
+               || thread.getName().startsWith( "Pax Exam " )
+               || ( group != null && "system".equals( group.getName() ) );
+    }
+
+    /**
+     * Returns the start level service, if available.
+     *
+     * @return start level service or null if there is no start level service
+     */
+    private StartLevel getStartLevelService()
+    {
+        try
+        {
+            return getService( StartLevel.class, 0 );
+        }
+        catch( NoSuchServiceException e )
+        {
+            return null;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public Object[] execute( final RemoteBundleOperation... operations )
+        throws RemoteBatchException
+    {
+        final Object[] results = new Object[operations.length];
+        long lastInstalled = RemoteBundleOperation.LAST_INSTALLED_BUNDLE;
+        for( int i = 0; i < operations.length; i++ )
+        {
+            final RemoteBundleOperation operation = operations[ i ];
+            try
+            {
+                long bundleId = operation.getBundleId();
+                if( bundleId == RemoteBundleOperation.LAST_INSTALLED_BUNDLE
+                    && operation.getType() != RemoteBundleOperation.Type.INSTALL_BUNDLE
+                    && operation.getType() != RemoteBundleOperation.Type.INSTALL_STREAMED_BUNDLE )
+                {
+                    if( lastInstalled == RemoteBundleOperation.LAST_INSTALLED_BUNDLE )
+                    {
+                        throw new BundleException( "There is no bundle installed before this operation" );
+                    }
+                    bundleId = lastInstalled;
+                }
+                switch( operation.getType() )
+                {
+                    case INSTALL_BUNDLE:
+                        lastInstalled = operation.getContent() == null
+                                        ? installBundle( operation.getLocation() )
+                                        : installBundle( operation.getLocation(), operation.getContent() );
+                        results[ i ] = lastInstalled;
+                        break;
+                    case INSTALL_STREAMED_BUNDLE:
+                        lastInstalled = endInstallBundle( operation.getBundleId() );
+                        results[ i ] = lastInstalled;
+                        break;
+                    case START_BUNDLE:
+                        startBundle( bundleId );
+                        break;
+                    case UNINSTALL_BUNDLE:
+                        uninstallBundle( bundleId );
+                        break;
+                    case SET_BUNDLE_START_LEVEL:
+                        setBundleStartLevel( bundleId, operation.getValue() );
+                        break;
+                    case WAIT_FOR_STATE:
+                        waitForState( bundleId, operation.getValue(), operation.getTimeout() );
+                        break;
+                    default:
+                        throw new BundleException( "Unsupported operation " + operation.getType() );
+                }
+            }
+            catch( Exception e )
+            {
+                // streamed bundles of operations not reached are already being installed, so abort them
+                for( int j = i + 1; j < operations.length; j++ )
+                {
+                    if( operations[ j ].getType() == RemoteBundleOperation.Type.INSTALL_STREAMED_BUNDLE )
+                    {
+                        abortInstallBundle( operations[ j ].getBundleId() );
+                    }
+                }
+                throw new RemoteBatchException( i, results, e );
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Finds the first bundle that is not yet in the expected state.
+     *
+     * @param bundles bundles to check
+     * @param state   expected state
+     *
+     * @return first bundle not in expected state or null if all bundles are in expected state
+     */
+    private static Bundle findNotInState( final Bundle[] bundles,
+                                          final int state )
+    {
+        for( Bundle bundle : bundles )
+        {
+            if( bundle.getState() < state )
+            {
+                return bundle;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Lookup a service in the service registry, waiting for one to be registered if there is none. Services are
+     * tracked per service type, so repeated lookups do not hit the service registry.
      *
      * @param serviceType     service class
      * @param timeoutInMillis number of milliseconds to wait for service before failing
-     *                        TODO timeout is not used!
      *
      * @return a service published under the required service type
      *
@@ -210,21 +825,75 @@ public class RemoteBundleContextImpl
                               final long timeoutInMillis )
         throws NoSuchServiceException
     {
-        LOG.info( "Look up service [" + serviceType.getName() + "], timeout in " + timeoutInMillis + " millis" );
-        final ServiceReference ref = m_bundleContext.getServiceReference( serviceType.getName() );
-        if( ref != null )
+        if( LOG.isDebugEnabled() )
+        {
+            LOG.debug( "Look up service [" + serviceType.getName() + "], timeout in " + timeoutInMillis + " millis" );
+        }
+        TrackedService trackedService = m_trackedServices.get( serviceType.getName() );
+        if( trackedService == null )
         {
-            final Object service = m_bundleContext.getService( ref );
-            if( service == null )
+            trackedService = new TrackedService(
+                m_bundleContext, serviceType.getName(), new ServiceRankingComparator()
+            );
+            final TrackedService existing = m_trackedServices.putIfAbsent( serviceType.getName(), trackedService );
+            if( existing != null )
             {
-                throw new NoSuchServiceException( serviceType );
+                trackedService.close();
+                trackedService = existing;
             }
-            return (T) service;
         }
-        else
+        final Object service;
+        try
+        {
+            service = trackedService.waitForService( timeoutInMillis );
+        }
+        catch( InterruptedException e )
         {
+            Thread.currentThread().interrupt();
             throw new NoSuchServiceException( serviceType );
         }
+        if( service == null )
+        {
+            throw new NoSuchServiceException( serviceType );
+        }
+        return (T) service;
+    }
+
+    /**
+     * Lookup the references of services that match a filter in the service registry, highest ranking first. Filtered
+     * lookups are not cached.
+     *
+     * @param serviceType service class
+     * @param filter      filter the service properties must match
+     *
+     * @return references of services published under the required service type and matching the filter (not empty)
+     *
+     * @throws NoSuchServiceException - If service cannot be found in the service registry or filter is invalid
+     */
+    private ServiceReference[] getServiceReferences( final Class<?> serviceType,
+                                                     final String filter )
+        throws NoSuchServiceException
+    {
+        if( LOG.isDebugEnabled() )
+        {
+            LOG.debug( "Look up service [" + serviceType.getName() + "] matching " + filter );
+        }
+        final ServiceReference[] refs;
+        try
+        {
+            refs = m_bundleContext.getServiceReferences( serviceType.getName(), filter );
+        }
+        catch( InvalidSyntaxException e )
+        {
+            LOG.error( "Invalid service filter " + filter, e );
+            throw new NoSuchServiceException( serviceType );
+        }
+        if( refs == null )
+        {
+            throw new NoSuchServiceException( serviceType );
+        }
+        Arrays.sort( refs, new ServiceRankingComparator() );
+        return refs;
     }
 
     /**
@@ -266,6 +935,16 @@ public class RemoteBundleContextImpl
         }
     }
 
+    /**
+     * Listener of bundle and framework events, used while waiting for bundle states. Bundle events are delivered
+     * synchronously so state changes are observed as they happen.
+     */
+    private static interface StateListener
+        extends SynchronousBundleListener, FrameworkListener
+    {
+
+    }
+
     /**
      * Coverts a bundle state to its string form.
      *
@@ -294,5 +973,34 @@ public class RemoteBundleContextImpl
         }
     }
 
+    /**
+     * Orders service references by descending service ranking and, for equal ranking, by ascending service id, so the
+     * first one is the one the framework would have returned.
+     */
+    private static class ServiceRankingComparator
+        implements Comparator<ServiceReference>
+    {
+
+        public int compare( final ServiceReference ref1,
+                            final ServiceReference ref2 )
+        {
+            final int ranking1 = getRanking( ref1 );
+            final int ranking2 = getRanking( ref2 );
+            if( ranking1 != ranking2 )
+            {
+                return ranking1 > ranking2 ? -1 : 1;
+            }
+            final long id1 = (Long) ref1.getProperty( Constants.SERVICE_ID );
+            final long id2 = (Long) ref2.getProperty( Constants.SERVICE_ID );
+            return id1 < id2 ? -1 : ( id1 == id2 ? 0 : 1 );
+        }
+
+        private static int getRanking( final ServiceReference ref )
+        {
+            final Object ranking = ref.getProperty( Constants.SERVICE_RANKING );
+            return ranking instanceof Integer ? (Integer) ranking : 0;
+        }
+
+    }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.rbc.internal;
+
+import java.io.Serializable;
+
+/**
+ * An operation on the remote bundle context, to be executed as part of a batch via
+ * {@link RemoteBundleContext#execute(RemoteBundleOperation[])}.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+public class RemoteBundleOperation
+    implements Serializable
+{
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Bundle id referring to the bundle installed by the closest preceding install operation of the same batch.
+     */
+    public static final long LAST_INSTALLED_BUNDLE = -1;
+
+    /**
+     * Operation types. {@link #INSTALL_STREAMED_BUNDLE} finishes the installation of a bundle whose content was
+     * transferred in chunks, in which case the bundle id of the operation is the transfer id.
+     */
+    public static enum Type
+    {
+
+        INSTALL_BUNDLE, START_BUNDLE, UNINSTALL_BUNDLE, SET_BUNDLE_START_LEVEL, WAIT_FOR_STATE, INSTALL_STREAMED_BUNDLE
+
+    }
+
+    /**
+     * Operation type.
+     */
+    private final Type m_type;
+    /**
+     * Bundle id the operation acts on or {@link #LAST_INSTALLED_BUNDLE}.
+     */
+    private final long m_bundleId;
+    /**
+     * Bundle url or location of the bundle to be installed.
+     */
+    private final String m_location;
+    /**
+     * Content of the bundle to be installed. Null if bundle should be installed from location.
+     */
+    private final byte[] m_content;
+    /**
+     * Start level or expected bundle state.
+     */
+    private final int m_value;
+    /**
+     * Max time (in millis) to wait for the bundle state.
+     */
+    private final long m_timeout;
+
+    /**
+     * Constructor.
+     *
+     * @param type     operation type
+     * @param bundleId bundle id the operation acts on or {@link #LAST_INSTALLED_BUNDLE}
+     * @param location bundle url or location of the bundle to be installed (can be null if not an install operation)
+     * @param content  content of the bundle to be installed (can be null)
+     * @param value    start level or expected bundle state
+     * @param timeout  max time (in millis) to wait for the bundle state
+     */
+    public RemoteBundleOperation( final Type type,
+                                  final long bundleId,
+                                  final String location,
+                                  final byte[] content,
+                                  final int value,
+                                  final long timeout )
+    {
+        m_type = type;
+        m_bundleId = bundleId;
+        m_location = location;
+        m_content = content;
+        m_value = value;
+        m_timeout = timeout;
+    }
+
+    public Type getType()
+    {
+        return m_type;
+    }
+
+    public long getBundleId()
+    {
+        return m_bundleId;
+    }
+
+    public String getLocation()
+    {
+        return m_location;
+    }
+
+    public byte[] getContent()
+    {
+        return m_content;
+    }
+
+    public int getValue()
+    {
+        return m_value;
+    }
+
+    public long getTimeout()
+    {
+        return m_timeout;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "RemoteBundleOperation{type=" + m_type + ", bundleId=" + m_bundleId + ", location=" + m_location + "}";
+    }
+
+}
@@ -0,0 +1,499 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.rbc.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Binary protocol used to access the {@link RemoteBundleContext} over a plain socket, as an alternative to RMI.
+ * Each message is a frame made out of its length (int) followed by the message bytes.
+ * A request holds a correlation id (int), the index of the called {@link RemoteBundleContext} method (short) and the
+ * arguments. A response holds the correlation id of its request, a status (byte, {@link #STATUS_OK} or
+ * {@link #STATUS_EXCEPTION}) and the returned value or the thrown exception. Several requests can be in flight on the
+ * same connection and responses may come back in any order, so they are matched to requests by correlation id.
+ * Values are tagged: nulls, longs, integers, booleans, strings, byte arrays, string arrays, classes (by name), class
+ * arrays, object arrays (element by element) and {@link RemoteBundleOperation}s (field by field) are written natively,
+ * anything else via java serialization.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+public class SocketProtocol
+{
+
+    /**
+     * Response status of a method that returned normally.
+     */
+    public static final byte STATUS_OK = 0;
+    /**
+     * Response status of a method that thrown an exception.
+     */
+    public static final byte STATUS_EXCEPTION = 1;
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_LONG = 1;
+    private static final byte TAG_INT = 2;
+    private static final byte TAG_STRING = 3;
+    private static final byte TAG_BYTES = 4;
+    private static final byte TAG_SERIALIZED = 5;
+    private static final byte TAG_BOOLEAN = 6;
+    private static final byte TAG_STRINGS = 7;
+    private static final byte TAG_CLASS = 8;
+    private static final byte TAG_CLASSES = 9;
+    private static final byte TAG_OBJECTS = 10;
+    private static final byte TAG_OPERATION = 11;
+    private static final byte TAG_OPERATIONS = 12;
+
+    /**
+     * Primitive types by name, as they cannot be loaded via a class loader.
+     */
+    private static final Map<String, Class<?>> PRIMITIVES = new HashMap<String, Class<?>>();
+
+    /**
+     * Remote bundle context methods, in a stable order, so both sides agree on method indexes.
+     */
+    private static final Method[] METHODS;
+
+    static
+    {
+        for( Class<?> primitive : new Class<?>[]{
+            boolean.class, byte.class, char.class, short.class, int.class, long.class, float.class, double.class,
+            void.class
+        } )
+        {
+            PRIMITIVES.put( primitive.getName(), primitive );
+        }
+        METHODS = RemoteBundleContext.class.getMethods();
+        Arrays.sort( METHODS, new Comparator<Method>()
+        {
+            public int compare( final Method m1,
+                                final Method m2 )
+            {
+                return m1.toString().compareTo( m2.toString() );
+            }
+        }
+        );
+    }
+
+    /**
+     * Utility class. Ment to be used via the static methods.
+     */
+    private SocketProtocol()
+    {
+        // utility class
+    }
+
+    /**
+     * Returns the index of a remote bundle context method.
+     *
+     * @param method remote bundle context method
+     *
+     * @return method index
+     *
+     * @throws IllegalArgumentException - If method is not a remote bundle context method
+     */
+    public static short indexOf( final Method method )
+    {
+        for( short i = 0; i < METHODS.length; i++ )
+        {
+            if( METHODS[ i ].equals( method ) )
+            {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException( "Not a remote bundle context method: " + method );
+    }
+
+    /**
+     * Returns a remote bundle context method by index.
+     *
+     * @param index method index
+     *
+     * @return remote bundle context method
+     *
+     * @throws IOException - If there is no method with such an index
+     */
+    public static Method methodAt( final int index )
+        throws IOException
+    {
+        if( index < 0 || index >= METHODS.length )
+        {
+            throw new IOException( "Unknown remote bundle context method index " + index );
+        }
+        return METHODS[ index ];
+    }
+
+    /**
+     * Writes a frame.
+     *
+     * @param out   stream to write to
+     * @param frame frame content
+     *
+     * @throws IOException - Re-thrown
+     */
+    public static void writeFrame( final DataOutputStream out,
+                                   final byte[] frame )
+        throws IOException
+    {
+        out.writeInt( frame.length );
+        out.write( frame );
+        out.flush();
+    }
+
+    /**
+     * Reads a frame.
+     *
+     * @param in stream to read from
+     *
+     * @return frame content
+     *
+     * @throws IOException - Re-thrown, including end of stream
+     */
+    public static byte[] readFrame( final DataInputStream in )
+        throws IOException
+    {
+        final byte[] frame = new byte[in.readInt()];
+        in.readFully( frame );
+        return frame;
+    }
+
+    /**
+     * Writes a tagged value.
+     *
+     * @param out   data output
+     * @param value value to be written (can be null)
+     *
+     * @throws IOException - Re-thrown, including values that cannot be serialized
+     */
+    public static void writeValue( final DataOutputStream out,
+                                   final Object value )
+        throws IOException
+    {
+        if( value == null )
+        {
+            out.writeByte( TAG_NULL );
+        }
+        else if( value instanceof Long )
+        {
+            out.writeByte( TAG_LONG );
+            out.writeLong( (Long) value );
+        }
+        else if( value instanceof Integer )
+        {
+            out.writeByte( TAG_INT );
+            out.writeInt( (Integer) value );
+        }
+        else if( value instanceof String )
+        {
+            out.writeByte( TAG_STRING );
+            writeBytes( out, ( (String) value ).getBytes( "UTF-8" ) );
+        }
+        else if( value instanceof byte[] )
+        {
+            out.writeByte( TAG_BYTES );
+            writeBytes( out, (byte[]) value );
+        }
+        else if( value instanceof Boolean )
+        {
+            out.writeByte( TAG_BOOLEAN );
+            out.writeBoolean( (Boolean) value );
+        }
+        else if( value.getClass() == String[].class )
+        {
+            final String[] strings = (String[]) value;
+            out.writeByte( TAG_STRINGS );
+            out.writeInt( strings.length );
+            for( String string : strings )
+            {
+                writeValue( out, string );
+            }
+        }
+        else if( value instanceof Class )
+        {
+            out.writeByte( TAG_CLASS );
+            out.writeUTF( ( (Class<?>) value ).getName() );
+        }
+        else if( value.getClass() == Class[].class )
+        {
+            final Class<?>[] classes = (Class<?>[]) value;
+            out.writeByte( TAG_CLASSES );
+            out.writeInt( classes.length );
+            for( Class<?> clazz : classes )
+            {
+                out.writeUTF( clazz.getName() );
+            }
+        }
+        else if( value.getClass() == Object[].class )
+        {
+            final Object[] objects = (Object[]) value;
+            out.writeByte( TAG_OBJECTS );
+            out.writeInt( objects.length );
+            for( Object object : objects )
+            {
+                writeValue( out, object );
+            }
+        }
+        else if( value.getClass() == RemoteBundleOperation.class )
+        {
+            out.writeByte( TAG_OPERATION );
+            writeOperation( out, (RemoteBundleOperation) value );
+        }
+        else if( value.getClass() == RemoteBundleOperation[].class )
+        {
+            final RemoteBundleOperation[] operations = (RemoteBundleOperation[]) value;
+            out.writeByte( TAG_OPERATIONS );
+            out.writeInt( operations.length );
+            for( RemoteBundleOperation operation : operations )
+            {
+                writeOperation( out, operation );
+            }
+        }
+        else
+        {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final ObjectOutputStream oos = new ObjectOutputStream( bytes );
+            oos.writeObject( value );
+            oos.close();
+            out.writeByte( TAG_SERIALIZED );
+            writeBytes( out, bytes.toByteArray() );
+        }
+    }
+
+    /**
+     * Reads a tagged value.
+     *
+     * @param in          data input
+     * @param classLoader class loader used to resolve classes of serialized values (can be null)
+     *
+     * @return read value
+     *
+     * @throws IOException - Re-thrown, including values that cannot be deserialized
+     */
+    public static Object readValue( final DataInputStream in,
+                                    final ClassLoader classLoader )
+        throws IOException
+    {
+        final byte tag = in.readByte();
+        switch( tag )
+        {
+            case TAG_NULL:
+                return null;
+            case TAG_LONG:
+                return in.readLong();
+            case TAG_INT:
+                return in.readInt();
+            case TAG_STRING:
+                return new String( readBytes( in ), "UTF-8" );
+            case TAG_BYTES:
+                return readBytes( in );
+            case TAG_BOOLEAN:
+                return in.readBoolean();
+            case TAG_STRINGS:
+                final String[] strings = new String[in.readInt()];
+                for( int i = 0; i < strings.length; i++ )
+                {
+                    strings[ i ] = (String) readValue( in, classLoader );
+                }
+                return strings;
+            case TAG_CLASS:
+                return loadClass( in.readUTF(), classLoader );
+            case TAG_CLASSES:
+                final Class<?>[] classes = new Class<?>[in.readInt()];
+                for( int i = 0; i < classes.length; i++ )
+                {
+                    classes[ i ] = loadClass( in.readUTF(), classLoader );
+                }
+                return classes;
+            case TAG_OBJECTS:
+                final Object[] objects = new Object[in.readInt()];
+                for( int i = 0; i < objects.length; i++ )
+                {
+                    objects[ i ] = readValue( in, classLoader );
+                }
+                return objects;
+            case TAG_OPERATION:
+                return readOperation( in );
+            case TAG_OPERATIONS:
+                final RemoteBundleOperation[] operations = new RemoteBundleOperation[in.readInt()];
+                for( int i = 0; i < operations.length; i++ )
+                {
+                    operations[ i ] = readOperation( in );
+                }
+                return operations;
+            case TAG_SERIALIZED:
+                final ObjectInputStream ois = new ClassLoaderObjectInputStream(
+                    new ByteArrayInputStream( readBytes( in ) ), classLoader
+                );
+                try
+                {
+                    return ois.readObject();
+                }
+                catch( ClassNotFoundException e )
+                {
+                    final IOException ioe = new IOException( "Cannot deserialize value: " + e.getMessage() );
+                    ioe.initCause( e );
+                    throw ioe;
+                }
+                finally
+                {
+                    ois.close();
+                }
+            default:
+                throw new IOException( "Unknown value tag " + tag );
+        }
+    }
+
+    private static void writeOperation( final DataOutputStream out,
+                                        final RemoteBundleOperation operation )
+        throws IOException
+    {
+        out.writeByte( operation.getType().ordinal() );
+        out.writeLong( operation.getBundleId() );
+        writeValue( out, operation.getLocation() );
+        writeValue( out, operation.getContent() );
+        out.writeInt( operation.getValue() );
+        out.writeLong( operation.getTimeout() );
+    }
+
+    private static RemoteBundleOperation readOperation( final DataInputStream in )
+        throws IOException
+    {
+        final int type = in.readByte();
+        final RemoteBundleOperation.Type[] types = RemoteBundleOperation.Type.values();
+        if( type < 0 || type >= types.length )
+        {
+            throw new IOException( "Unknown remote bundle operation type " + type );
+        }
+        return new RemoteBundleOperation(
+            types[ type ],
+            in.readLong(),
+            (String) readValue( in, null ),
+            (byte[]) readValue( in, null ),
+            in.readInt(),
+            in.readLong()
+        );
+    }
+
+    /**
+     * Loads a class by name, via the given class loader first and then via the class loader of this class.
+     *
+     * @param name        class name
+     * @param classLoader class loader used to load the class (can be null)
+     *
+     * @return loaded class
+     *
+     * @throws IOException - If the class cannot be loaded
+     */
+    private static Class<?> loadClass( final String name,
+                                       final ClassLoader classLoader )
+        throws IOException
+    {
+        final Class<?> primitive = PRIMITIVES.get( name );
+        if( primitive != null )
+        {
+            return primitive;
+        }
+        if( classLoader != null )
+        {
+            try
+            {
+                return Class.forName( name, false, classLoader );
+            }
+            catch( ClassNotFoundException ignore )
+            {
+                // fall back to class loader of this class
+            }
+        }
+        try
+        {
+            return Class.forName( name, false, SocketProtocol.class.getClassLoader() );
+        }
+        catch( ClassNotFoundException e )
+        {
+            final IOException ioe = new IOException( "Cannot load class: " + e.getMessage() );
+            ioe.initCause( e );
+            throw ioe;
+        }
+    }
+
+    private static void writeBytes( final DataOutputStream out,
+                                    final byte[] bytes )
+        throws IOException
+    {
+        out.writeInt( bytes.length );
+        out.write( bytes );
+    }
+
+    private static byte[] readBytes( final DataInputStream in )
+        throws IOException
+    {
+        final byte[] bytes = new byte[in.readInt()];
+        in.readFully( bytes );
+        return bytes;
+    }
+
+    /**
+     * Object input stream that resolves classes via a given class loader, falling back to default resolution.
+     */
+    private static class ClassLoaderObjectInputStream
+        extends ObjectInputStream
+    {
+
+        private final ClassLoader m_classLoader;
+
+        ClassLoaderObjectInputStream( final InputStream in,
+                                      final ClassLoader classLoader )
+            throws IOException
+        {
+            super( in );
+            m_classLoader = classLoader;
+        }
+
+        @Override
+        protected Class<?> resolveClass( final ObjectStreamClass desc )
+            throws IOException, ClassNotFoundException
+        {
+            if( m_classLoader != null )
+            {
+                try
+                {
+                    return Class.forName( desc.getName(), false, m_classLoader );
+                }
+                catch( ClassNotFoundException ignore )
+                {
+                    // fall back to default resolution
+                }
+            }
+            return super.resolveClass( desc );
+        }
+
+    }
+
+}
@@ -0,0 +1,348 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.rbc.internal;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.rmi.RemoteException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Connects to the socket opened by the test container and dispatches the requests read from it to a
+ * {@link RemoteBundleContext}, using the {@link SocketProtocol}. Requests are read on a daemon thread, until the socket
+ * gets closed, and served concurrently by worker threads, so a slow call does not hold back the calls sent after it.
+ * Calls on the same bundle transfer are the exception: they are served one after another, in the order they were
+ * read, so chunks are written in order and the transfer is not ended before its last chunk is written.
+ * Responses are written back as soon as they are ready, tagged with the correlation id of their request.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+class SocketRequestDispatcher
+    implements Runnable
+{
+
+    /**
+     * JCL logger.
+     */
+    private static final Log LOG = LogFactory.getLog( SocketRequestDispatcher.class );
+    /**
+     * Names of the methods operating on a bundle transfer, whose first argument is the transfer id.
+     */
+    private static final Collection<String> TRANSFER_METHODS = new HashSet<String>( Arrays.asList(
+        "writeBundleChunk", "endInstallBundle", "abortInstallBundle"
+    )
+    );
+
+    /**
+     * Remote bundle context requests are dispatched to.
+     */
+    private final RemoteBundleContext m_remoteBundleContext;
+    /**
+     * Connected socket.
+     */
+    private final Socket m_socket;
+    /**
+     * Executor serving the requests.
+     */
+    private final ExecutorService m_workers;
+    /**
+     * Lanes serving the calls on a bundle transfer one after another, by transfer id. A lane is removed once it has
+     * no more calls to serve. Guarded by itself.
+     */
+    private final Map<Long, Lane> m_lanes;
+
+    /**
+     * Constructor. Connects to the test container socket.
+     *
+     * @param remoteBundleContext remote bundle context requests are dispatched to
+     * @param port                port of the socket opened by the test container (on loopback interface)
+     *
+     * @throws IOException - If connection to test container cannot be established
+     */
+    SocketRequestDispatcher( final RemoteBundleContext remoteBundleContext,
+                             final int port )
+        throws IOException
+    {
+        m_remoteBundleContext = remoteBundleContext;
+        m_socket = new Socket( InetAddress.getByName( null ), port );
+        m_socket.setTcpNoDelay( true );
+        m_lanes = new HashMap<Long, Lane>();
+        m_workers = Executors.newCachedThreadPool( new ThreadFactory()
+        {
+            public Thread newThread( final Runnable runnable )
+            {
+                final Thread thread = new Thread( runnable, "Pax Exam RBC socket worker" );
+                thread.setDaemon( true );
+                return thread;
+            }
+        }
+        );
+    }
+
+    /**
+     * Starts dispatching on a daemon thread.
+     */
+    void start()
+    {
+        final Thread thread = new Thread( this, "Pax Exam RBC socket dispatcher" );
+        thread.setDaemon( true );
+        thread.start();
+    }
+
+    /**
+     * Stops dispatching by closing the socket. Requests in progress are not waited for.
+     */
+    void stop()
+    {
+        m_workers.shutdown();
+        try
+        {
+            m_socket.close();
+        }
+        catch( IOException e )
+        {
+            LOG.warn( "Cannot close socket: " + e.getMessage() );
+        }
+    }
+
+    /**
+     * Reads requests and hands them over to workers until the socket gets closed.
+     */
+    public void run()
+    {
+        try
+        {
+            final DataInputStream in = new DataInputStream( new BufferedInputStream( m_socket.getInputStream() ) );
+            final DataOutputStream out = new DataOutputStream( new BufferedOutputStream( m_socket.getOutputStream() ) );
+            final ClassLoader classLoader = getClass().getClassLoader();
+            while( true )
+            {
+                final DataInputStream request = new DataInputStream(
+                    new ByteArrayInputStream( SocketProtocol.readFrame( in ) )
+                );
+                final int correlationId = request.readInt();
+                final Method method = SocketProtocol.methodAt( request.readShort() );
+                final Object[] args = new Object[method.getParameterTypes().length];
+                for( int i = 0; i < args.length; i++ )
+                {
+                    args[ i ] = SocketProtocol.readValue( request, classLoader );
+                }
+                final Runnable call = new Runnable()
+                {
+                    public void run()
+                    {
+                        respond( out, correlationId, method, args );
+                    }
+                };
+                if( TRANSFER_METHODS.contains( method.getName() ) )
+                {
+                    serve( (Long) args[ 0 ], call );
+                }
+                else
+                {
+                    m_workers.execute( call );
+                }
+            }
+        }
+        catch( EOFException e )
+        {
+            LOG.debug( "Socket closed by test container" );
+        }
+        catch( IOException e )
+        {
+            if( !m_socket.isClosed() )
+            {
+                LOG.error( "Socket dispatching failed", e );
+            }
+        }
+        finally
+        {
+            stop();
+        }
+    }
+
+    /**
+     * Serves a call on a bundle transfer after the calls on the same transfer read before it.
+     *
+     * @param transferId transfer id
+     * @param call       call to serve
+     */
+    private void serve( final Long transferId,
+                        final Runnable call )
+    {
+        synchronized( m_lanes )
+        {
+            Lane lane = m_lanes.get( transferId );
+            if( lane != null )
+            {
+                lane.calls.add( call );
+                return;
+            }
+            lane = new Lane( transferId );
+            lane.calls.add( call );
+            m_lanes.put( transferId, lane );
+            m_workers.execute( lane );
+        }
+    }
+
+    /**
+     * Serves one request and writes back the response. Responses of concurrent requests are written one at a time.
+     *
+     * @param out           stream to write the response to
+     * @param correlationId correlation id of the request
+     * @param method        method to invoke
+     * @param args          method arguments
+     */
+    private void respond( final DataOutputStream out,
+                          final int correlationId,
+                          final Method method,
+                          final Object[] args )
+    {
+        try
+        {
+            final byte[] response = dispatch( correlationId, method, args );
+            synchronized( out )
+            {
+                SocketProtocol.writeFrame( out, response );
+            }
+        }
+        catch( IOException e )
+        {
+            if( !m_socket.isClosed() )
+            {
+                LOG.error( "Cannot write response of [" + method.getName() + "]", e );
+                stop();
+            }
+        }
+    }
+
+    /**
+     * Invokes a method on remote bundle context and encodes the response.
+     *
+     * @param correlationId correlation id of the request
+     * @param method        method to invoke
+     * @param args          method arguments
+     *
+     * @return encoded response
+     *
+     * @throws IOException - Re-thrown
+     */
+    private byte[] dispatch( final int correlationId,
+                             final Method method,
+                             final Object[] args )
+        throws IOException
+    {
+        byte status;
+        Object result;
+        try
+        {
+            result = method.invoke( m_remoteBundleContext, args );
+            status = SocketProtocol.STATUS_OK;
+        }
+        catch( InvocationTargetException e )
+        {
+            result = e.getTargetException();
+            status = SocketProtocol.STATUS_EXCEPTION;
+        }
+        catch( Exception e )
+        {
+            result = new RemoteException( "Cannot dispatch call of [" + method.getName() + "]", e );
+            status = SocketProtocol.STATUS_EXCEPTION;
+        }
+        try
+        {
+            return encode( correlationId, status, result );
+        }
+        catch( IOException e )
+        {
+            // value or exception cannot be serialized, so report it as a remote exception with same message
+            final String message = result instanceof Throwable ? ( (Throwable) result ).getMessage() : e.getMessage();
+            return encode( correlationId, SocketProtocol.STATUS_EXCEPTION, new RemoteException( message ) );
+        }
+    }
+
+    private static byte[] encode( final int correlationId,
+                                  final byte status,
+                                  final Object value )
+        throws IOException
+    {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream response = new DataOutputStream( bytes );
+        response.writeInt( correlationId );
+        response.writeByte( status );
+        SocketProtocol.writeValue( response, value );
+        response.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Calls on one bundle transfer, served one after another by a single worker.
+     */
+    private class Lane
+        implements Runnable
+    {
+
+        final Long transferId;
+        final LinkedList<Runnable> calls;
+
+        Lane( final Long transferId )
+        {
+            this.transferId = transferId;
+            this.calls = new LinkedList<Runnable>();
+        }
+
+        public void run()
+        {
+            while( true )
+            {
+                final Runnable call;
+                synchronized( m_lanes )
+                {
+                    if( calls.isEmpty() )
+                    {
+                        m_lanes.remove( transferId );
+                        return;
+                    }
+                    call = calls.removeFirst();
+                }
+                call.run();
+            }
+        }
+    }
+
+}
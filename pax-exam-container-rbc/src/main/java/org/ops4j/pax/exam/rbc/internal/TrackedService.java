@@ -0,0 +1,237 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.rbc.internal;
+
+import static org.ops4j.pax.exam.rbc.internal.RemoteBundleContext.*;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Constants;
+import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.framework.ServiceEvent;
+import org.osgi.framework.ServiceListener;
+import org.osgi.framework.ServiceReference;
+
+/**
+ * Tracks the best (highest ranked) service of a type, similar to a service tracker: the service is looked up once and
+ * then kept up to date by listening to service events, so lookups do not hit the service registry and waiting for a
+ * service ends as soon as one gets registered. The tracked service is released when another one replaces it, when it
+ * gets unregistered or when tracking is closed.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+class TrackedService
+    implements ServiceListener
+{
+
+    /**
+     * JCL Logger.
+     */
+    private static final Log LOG = LogFactory.getLog( TrackedService.class );
+
+    /**
+     * Bundle context used to look up the service.
+     */
+    private final BundleContext m_bundleContext;
+    /**
+     * Tracked service type name.
+     */
+    private final String m_serviceType;
+    /**
+     * Comparator ordering service references by ranking (best first).
+     */
+    private final Comparator<ServiceReference> m_comparator;
+    /**
+     * Reference of tracked service. Null if there is no service.
+     */
+    private ServiceReference m_reference;
+    /**
+     * Tracked service. Null if there is no service.
+     */
+    private Object m_service;
+    /**
+     * True after tracking was closed.
+     */
+    private boolean m_closed;
+
+    /**
+     * Constructor. Starts tracking.
+     *
+     * @param bundleContext bundle context used to look up the service
+     * @param serviceType   service type name
+     * @param comparator    comparator ordering service references by ranking (best first)
+     */
+    TrackedService( final BundleContext bundleContext,
+                    final String serviceType,
+                    final Comparator<ServiceReference> comparator )
+    {
+        m_bundleContext = bundleContext;
+        m_serviceType = serviceType;
+        m_comparator = comparator;
+        try
+        {
+            m_bundleContext.addServiceListener( this, "(" + Constants.OBJECTCLASS + "=" + serviceType + ")" );
+        }
+        catch( InvalidSyntaxException e )
+        {
+            throw new IllegalArgumentException( "Invalid service type " + serviceType );
+        }
+        synchronized( this )
+        {
+            // a service could have been registered (and selected) since the listener was added
+            if( m_reference == null )
+            {
+                select( null );
+            }
+        }
+    }
+
+    /**
+     * Returns the tracked service, waiting for one to be registered if there is none.
+     *
+     * @param timeoutInMillis max time to wait for a service
+     *
+     * @return service or null if there is no service after the timeout passed (or if tracking was closed)
+     *
+     * @throws InterruptedException - If interrupted while waiting
+     */
+    synchronized Object waitForService( final long timeoutInMillis )
+        throws InterruptedException
+    {
+        final long deadline = System.currentTimeMillis() + timeoutInMillis;
+        while( m_service == null && !m_closed && timeoutInMillis != NO_WAIT )
+        {
+            if( timeoutInMillis == WAIT_FOREVER )
+            {
+                wait();
+            }
+            else
+            {
+                final long remaining = deadline - System.currentTimeMillis();
+                if( remaining <= 0 )
+                {
+                    break;
+                }
+                wait( remaining );
+            }
+        }
+        return m_service;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Switches to a better ranked service on registration or modification and to the next best service when the
+     * tracked one gets unregistered.
+     */
+    public synchronized void serviceChanged( final ServiceEvent event )
+    {
+        if( m_closed )
+        {
+            return;
+        }
+        final ServiceReference reference = event.getServiceReference();
+        if( event.getType() == ServiceEvent.UNREGISTERING )
+        {
+            if( reference.equals( m_reference ) )
+            {
+                release();
+                // the unregistering service is still registered until all listeners are notified
+                select( reference );
+            }
+        }
+        else if( m_reference == null || m_comparator.compare( reference, m_reference ) < 0 )
+        {
+            release();
+            select( null );
+        }
+        notifyAll();
+    }
+
+    /**
+     * Stops tracking and releases the tracked service.
+     */
+    synchronized void close()
+    {
+        if( m_closed )
+        {
+            return;
+        }
+        m_closed = true;
+        m_bundleContext.removeServiceListener( this );
+        release();
+        notifyAll();
+    }
+
+    /**
+     * Looks up the best ranked service. Must be called while holding the lock.
+     *
+     * @param excluded service reference to be skipped (can be null)
+     */
+    private void select( final ServiceReference excluded )
+    {
+        final ServiceReference[] references;
+        try
+        {
+            references = m_bundleContext.getServiceReferences( m_serviceType, null );
+        }
+        catch( InvalidSyntaxException e )
+        {
+            // cannot happen as there is no filter
+            throw new IllegalStateException( e );
+        }
+        if( references == null )
+        {
+            return;
+        }
+        Arrays.sort( references, m_comparator );
+        for( ServiceReference reference : references )
+        {
+            if( reference.equals( excluded ) )
+            {
+                continue;
+            }
+            final Object service = m_bundleContext.getService( reference );
+            if( service != null )
+            {
+                LOG.debug(
+                    "Tracking service [" + m_serviceType + "] " + reference.getProperty( Constants.SERVICE_ID )
+                );
+                m_reference = reference;
+                m_service = service;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Releases the tracked service. Must be called while holding the lock.
+     */
+    private void release()
+    {
+        if( m_reference != null )
+        {
+            m_bundleContext.ungetService( m_reference );
+            m_reference = null;
+            m_service = null;
+        }
+    }
+
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.rbc.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Date;
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Unit Tests for {@link SocketProtocol}.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+public class SocketProtocolTest
+{
+
+    /**
+     * Simple values are written natively and read back as such.
+     */
+    @Test
+    public void simpleValues()
+        throws IOException
+    {
+        assertThat( "Null", roundTrip( null ), is( nullValue() ) );
+        assertThat( "Long", roundTrip( 42L ), is( equalTo( (Object) 42L ) ) );
+        assertThat( "Integer", roundTrip( 42 ), is( equalTo( (Object) 42 ) ) );
+        assertThat( "Boolean", roundTrip( true ), is( equalTo( (Object) true ) ) );
+        assertThat( "String", roundTrip( "\u00e9t\u00e9" ), is( equalTo( (Object) "\u00e9t\u00e9" ) ) );
+        assertArrayEquals( "Bytes", new byte[]{ 1, 2, 3 }, (byte[]) roundTrip( new byte[]{ 1, 2, 3 } ) );
+        assertArrayEquals(
+            "Strings", new String[]{ "a", null }, (String[]) roundTrip( new String[]{ "a", null } )
+        );
+    }
+
+    /**
+     * Classes, including primitive and array types, are written by name and loaded back.
+     */
+    @Test
+    public void classes()
+        throws IOException
+    {
+        assertThat( "Class", roundTrip( Runnable.class ), is( equalTo( (Object) Runnable.class ) ) );
+        assertArrayEquals(
+            "Classes",
+            new Class<?>[]{ int.class, String[].class, Class.class },
+            (Class<?>[]) roundTrip( new Class<?>[]{ int.class, String[].class, Class.class } )
+        );
+    }
+
+    /**
+     * Object arrays are written element by element, falling back to serialization only for elements that need it.
+     */
+    @Test
+    public void objects()
+        throws IOException
+    {
+        final Date date = new Date();
+        final Object[] objects = (Object[]) roundTrip( new Object[]{ 1L, "a", date, new Object[]{ null } } );
+        assertThat( "Length", objects.length, is( equalTo( 4 ) ) );
+        assertThat( "Long", objects[ 0 ], is( equalTo( (Object) 1L ) ) );
+        assertThat( "String", objects[ 1 ], is( equalTo( (Object) "a" ) ) );
+        assertThat( "Serialized", objects[ 2 ], is( equalTo( (Object) date ) ) );
+        assertArrayEquals( "Nested", new Object[]{ null }, (Object[]) objects[ 3 ] );
+    }
+
+    /**
+     * Remote bundle operations are written field by field.
+     */
+    @Test
+    public void operations()
+        throws IOException
+    {
+        final RemoteBundleOperation[] operations = (RemoteBundleOperation[]) roundTrip(
+            new RemoteBundleOperation[]{
+                new RemoteBundleOperation( RemoteBundleOperation.Type.INSTALL_BUNDLE, 0, "file:a.jar", null, 0, 0 ),
+                new RemoteBundleOperation( RemoteBundleOperation.Type.WAIT_FOR_STATE, 7, null, new byte[]{ 1 }, 32, 5 )
+            }
+        );
+        assertThat( "Length", operations.length, is( equalTo( 2 ) ) );
+        assertThat( "Type", operations[ 0 ].getType(), is( equalTo( RemoteBundleOperation.Type.INSTALL_BUNDLE ) ) );
+        assertThat( "Location", operations[ 0 ].getLocation(), is( equalTo( "file:a.jar" ) ) );
+        assertThat( "Content", operations[ 0 ].getContent(), is( nullValue() ) );
+        assertThat( "Type", operations[ 1 ].getType(), is( equalTo( RemoteBundleOperation.Type.WAIT_FOR_STATE ) ) );
+        assertThat( "Bundle id", operations[ 1 ].getBundleId(), is( equalTo( 7L ) ) );
+        assertArrayEquals( "Content", new byte[]{ 1 }, operations[ 1 ].getContent() );
+        assertThat( "Value", operations[ 1 ].getValue(), is( equalTo( 32 ) ) );
+        assertThat( "Timeout", operations[ 1 ].getTimeout(), is( equalTo( 5L ) ) );
+    }
+
+    /**
+     * Common remote call arguments do not fall back to serialization.
+     */
+    @Test
+    public void remoteCallArgumentsAreNotSerialized()
+        throws IOException
+    {
+        final byte[] encoded = encode(
+            new Object[]{ Runnable.class, null, "run", new Class<?>[]{ String.class }, 1000L, new Object[]{ "a" } }
+        );
+        for( int i = 0; i < encoded.length - 1; i++ )
+        {
+            // java serialization stream magic
+            assertFalse( "Serialized", encoded[ i ] == (byte) 0xAC && encoded[ i + 1 ] == (byte) 0xED );
+        }
+    }
+
+    /**
+     * Reading a class that cannot be loaded fails.
+     */
+    @Test( expected = IOException.class )
+    public void unknownClass()
+        throws IOException
+    {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream( bytes );
+        SocketProtocol.writeValue( out, Runnable.class );
+        out.flush();
+        final byte[] encoded = bytes.toByteArray();
+        // change the class name into one that does not exist
+        encoded[ encoded.length - 1 ] = 'X';
+        SocketProtocol.readValue( new DataInputStream( new ByteArrayInputStream( encoded ) ), null );
+    }
+
+    private static byte[] encode( final Object value )
+        throws IOException
+    {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream( bytes );
+        SocketProtocol.writeValue( out, value );
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static Object roundTrip( final Object value )
+        throws IOException
+    {
+        final DataInputStream in = new DataInputStream( new ByteArrayInputStream( encode( value ) ) );
+        return SocketProtocol.readValue( in, SocketProtocolTest.class.getClassLoader() );
+    }
+
+}
@@ -18,23 +18,18 @@
  */
 package org.ops4j.pax.exam.junit.extender.impl.internal;
 
-import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.junit.After;
-import org.junit.Before;
 import org.osgi.framework.BundleContext;
 
 import static org.ops4j.lang.NullArgumentException.*;
 
-import org.ops4j.pax.exam.Inject;
 import org.ops4j.pax.exam.junit.extender.CallableTestMethod;
 
 /**
@@ -57,6 +52,10 @@ class CallableTestMethodImpl
      * Bundle context of the bundle containing the test class (cannot be null).
      */
     private BundleContext m_bundleContext;
+    /**
+     * Cache of test class metadata, shared by all test methods of the test probe (cannot be null).
+     */
+    private final TestClassMetadataCache m_metadataCache;
     /**
      * Test class name (cannot be null or empty).
      */
@@ -70,22 +69,27 @@ class CallableTestMethodImpl
      * Constructor.
      *
      * @param bundleContext  bundle context of the bundle containing the test class (cannot be null)
+     * @param metadataCache  cache of test class metadata of the test probe (cannot be null)
      * @param testClassName  test class name (cannot be null  or empty)
      * @param testMethodName test method name (cannot be null or empty)
      *
      * @throws IllegalArgumentException - If bundle context is null
+     *                                  - If metadata cache is null
      *                                  - If test class name is null or empty
      *                                  - If test method name is null or empty
      */
     CallableTestMethodImpl( final BundleContext bundleContext,
+                            final TestClassMetadataCache metadataCache,
                             final String testClassName,
                             final String testMethodName )
     {
         validateNotNull( bundleContext, "Bundle context" );
+        validateNotNull( metadataCache, "Metadata cache" );
         validateNotEmpty( testClassName, true, "Test class name" );
         validateNotEmpty( testMethodName, true, "Test method name" );
 
         m_bundleContext = bundleContext;
+        m_metadataCache = metadataCache;
         m_testClassName = testClassName;
         m_testMethodName = testMethodName;
     }
@@ -96,54 +100,47 @@ class CallableTestMethodImpl
     public void call()
         throws ClassNotFoundException, InstantiationException, IllegalAccessException, InvocationTargetException
     {
-        final Class testClass = m_bundleContext.getBundle().loadClass( m_testClassName );
-        int encountered = 0;
-        for( final Method testMethod : testClass.getMethods() )
+        final TestClassMetadata metadata = m_metadataCache.get( m_testClassName );
+        final Class<?> testClass = metadata.getTestClass();
+        final List<Method> testMethods = metadata.getMethods( m_testMethodName );
+        if( testMethods.isEmpty() )
         {
-            if( testMethod.getName().equals( m_testMethodName ) )
-            {
-                injectContextAndInvoke( testClass.newInstance(), testMethod );
-                encountered++;
-            }
+            throw new RuntimeException( " test " + m_testMethodName + " not found in test class " + testClass.getName() );
         }
-        if( encountered == 0 )
+        for( final Method testMethod : testMethods )
         {
-            throw new RuntimeException( " test " + m_testMethodName + " not found in test class " + testClass.getName() );
+            injectContextAndInvoke( metadata, testClass.newInstance(), testMethod );
         }
     }
 
     /**
      * Invokes the bundle context (if possible and required) and executes the test method.
      *
+     * @param metadata     test class metadata
      * @param testInstance an instance of the test class
      * @param testMethod   test method
      *
      * @throws IllegalAccessException    - Re-thrown from reflection invokation
      * @throws InvocationTargetException - Re-thrown from reflection invokation
      */
-    private void injectContextAndInvoke( final Object testInstance,
+    private void injectContextAndInvoke( final TestClassMetadata metadata,
+                                         final Object testInstance,
                                          final Method testMethod )
         throws IllegalAccessException, InvocationTargetException
     {
-        final Class<?>[] paramTypes = testMethod.getParameterTypes();
-        injectFieldInstances( testInstance.getClass(), testInstance );
+        for( Field field : metadata.getInjectionFields() )
+        {
+            field.set( testInstance, m_bundleContext );
+        }
         boolean cleanup = false;
         try
         {
-            runBefores( testInstance );
+            invoke( metadata.getBefores(), testInstance );
             // if there is only one param and is of type BundleContext we inject it, otherwise just call
             // this means that if there are actual params the call will fail, but that is okay as it will be reported back
-            if( paramTypes.length == 1
-                && paramTypes[ 0 ].isAssignableFrom( BundleContext.class ) )
-            {
-                testMethod.invoke( testInstance, m_bundleContext );
-            }
-            else
-            {
-                testMethod.invoke( testInstance );
-            }
+            invoke( testMethod, testInstance );
             cleanup = true;
-            runAfters( testInstance );
+            invoke( metadata.getAfters(), testInstance );
         }
         finally
         {
@@ -151,7 +148,7 @@ class CallableTestMethodImpl
             {
                 try
                 {
-                    runAfters( testInstance );
+                    invoke( metadata.getAfters(), testInstance );
                 } catch( Throwable throwable )
                 {
                     LOG.warn( "Got the exception when calling the runAfters. [Exception]: " + throwable );
@@ -161,179 +158,47 @@ class CallableTestMethodImpl
     }
 
     /**
-     * Run all methods annotated with {@link Before}.
+     * Runs methods in order, such as the ones annotated with {@link org.junit.Before} or {@link org.junit.After}.
      *
+     * @param methods      methods to run
      * @param testInstance an instance of the test class (cannot be null)
      *
      * @throws IllegalAccessException    - Re-thrown from reflection invokation
      * @throws InvocationTargetException - Re-thrown from reflection invokation
      */
-    private void runBefores( final Object testInstance )
+    private void invoke( final List<Method> methods,
+                         final Object testInstance )
         throws IllegalAccessException, InvocationTargetException
     {
-        for( final Method beforeMethod : getAnnotatedMethods( testInstance.getClass(), Before.class ) )
+        for( final Method method : methods )
         {
-            final Class<?>[] paramTypes = beforeMethod.getParameterTypes();
-            if( paramTypes.length == 1
-                && paramTypes[ 0 ].isAssignableFrom( BundleContext.class ) )
-            {
-                beforeMethod.invoke( testInstance, m_bundleContext );
-            }
-            else
-            {
-                beforeMethod.invoke( testInstance );
-            }
+            invoke( method, testInstance );
         }
     }
 
     /**
-     * Run all methods annotated with {@link After}.
+     * Runs a method, passing the bundle context if the method has one parameter of type {@link BundleContext}.
      *
+     * @param method       method to run
      * @param testInstance an instance of the test class (cannot be null)
      *
      * @throws IllegalAccessException    - Re-thrown from reflection invokation
      * @throws InvocationTargetException - Re-thrown from reflection invokation
      */
-    private void runAfters( final Object testInstance )
+    private void invoke( final Method method,
+                         final Object testInstance )
         throws IllegalAccessException, InvocationTargetException
     {
-        for( final Method afterMethod : getAnnotatedMethods( testInstance.getClass(), After.class ) )
-        {
-            final Class<?>[] paramTypes = afterMethod.getParameterTypes();
-            if( paramTypes.length == 1
-                && paramTypes[ 0 ].isAssignableFrom( BundleContext.class ) )
-            {
-                afterMethod.invoke( testInstance, m_bundleContext );
-            }
-            else
-            {
-                afterMethod.invoke( testInstance );
-            }
-        }
-    }
-
-    /**
-     * Injects instances into fields found in testInstance and its superclases.
-     *
-     * @param clazz
-     * @param inst
-     */
-    private void injectFieldInstances( Class clazz, Object inst )
-        throws IllegalAccessException
-    {
-        if( clazz.getSuperclass() != null )
-        {
-            injectFieldInstances( clazz.getSuperclass(), inst );
-        }
-        for( Field field : clazz.getDeclaredFields() )
-        {
-            setIfMatching( inst, field, m_bundleContext );
-        }
-    }
-
-    /**
-     * @param testInstance object instance where you found field
-     * @param field        field that is going to be set
-     * @param o            target value of field
-     */
-    private void setIfMatching( Object testInstance, Field field, Object o )
-        throws IllegalAccessException
-    {
-        if( isInjectionField( field ) && isMatchingType( field, o.getClass() ) )
+        final Class<?>[] paramTypes = method.getParameterTypes();
+        if( paramTypes.length == 1
+            && paramTypes[ 0 ].isAssignableFrom( BundleContext.class ) )
         {
-            field.setAccessible( true );
-            field.set( testInstance, o );
-        }
-    }
-
-    /**
-     * Just checks if type of field is a assignable from clazz.
-     *
-     * @param field
-     * @param clazz
-     */
-    private boolean isMatchingType( Field field, Class clazz )
-    {
-        boolean result =  field.getType().isAssignableFrom( clazz );
-        LOG.debug( "Trying to match " + field.getType() + " with injection " + clazz.getName()  + ": " + result);
-        return result;
-    }
-
-    /**
-     * Tests if the given field has the {@link @Inject} annotation.
-     * Due to some osgi quirks, currently direct getAnnotation( Inject.class ) does not work..:(
-     *
-     * @param field field to be tested
-     *
-     * @return trze if it has the Inject annotation. Otherwise false.
-     */
-    public boolean isInjectionField( Field field )
-    {
-        // Usually, this should be enough.
-        if( field.getAnnotation( Inject.class ) != null )
-        {
-            return true;
+            method.invoke( testInstance, m_bundleContext );
         }
         else
         {
-            // the above one fails in some cases currently (returns null) while annotation is there.
-            // So this is a fallback:
-            for( Annotation annot : field.getAnnotations() )
-            {
-                if( annot.annotationType().getName().equals( Inject.class.getName() ) )
-                {
-                    return true;
-                }
-            }
-        }
-
-        return false;
-    }
-
-    /**
-     * Find all methods marked with a specific annotation.
-     *
-     * @param testClass       class to be inspected
-     * @param annotationClass annotation class to be found
-     *
-     * @return list of annotated methods (cannot be null)
-     */
-    public List<Method> getAnnotatedMethods( final Class testClass,
-                                             final Class<? extends Annotation> annotationClass )
-    {
-        final List<Method> results = new ArrayList<Method>();
-        for( final Class<?> clazz : getSuperClasses( testClass ) )
-        {
-            final Method[] methods = clazz.getDeclaredMethods();
-            for( final Method method : methods )
-            {
-                final Annotation annotation = method.getAnnotation( annotationClass );
-                if( annotation != null )
-                {
-                    results.add( method );
-                }
-            }
-        }
-        return results;
-    }
-
-    /**
-     * Finds all superclasses of a certain class including itself.
-     *
-     * @param testClass class whom superclasses should be found
-     *
-     * @return list of superclasses (cannot be null)
-     */
-    private List<Class<?>> getSuperClasses( final Class<?> testClass )
-    {
-        final ArrayList<Class<?>> results = new ArrayList<Class<?>>();
-        Class<?> current = testClass;
-        while( current != null )
-        {
-            results.add( current );
-            current = current.getSuperclass();
+            method.invoke( testInstance );
         }
-        return results;
     }
 
 }
@@ -17,11 +17,12 @@
  */
 package org.ops4j.pax.exam.junit.extender.impl.internal;
 
+import java.util.ArrayList;
 import java.util.Dictionary;
-import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.osgi.framework.Bundle;
@@ -48,7 +49,7 @@ class TestBundleObserver
      */
     private static final Log LOG = LogFactory.getLog( TestBundleObserver.class );
     /**
-     * Holder for test runner registrations per bundle.
+     * Holder for test runner registrations per bundle. Concurrent, as test probes can arrive in parallel.
      */
     private final Map<Bundle, Registration> m_registrations;
 
@@ -57,18 +58,18 @@ class TestBundleObserver
      */
     TestBundleObserver()
     {
-        m_registrations = new HashMap<Bundle, Registration>();
+        m_registrations = new ConcurrentHashMap<Bundle, Registration>();
     }
 
     /**
      * {@inheritDoc}
-     * Registers specified test case as a service.
+     * Registers specified test methods as services, one service per test method.
      */
     public void addingEntries( final Bundle bundle,
                                final List<ManifestEntry> manifestEntries )
     {
         String testClassName = null;
-        String testMethodName = null;
+        final List<String> testMethodNames = new ArrayList<String>();
         for( ManifestEntry manifestEntry : manifestEntries )
         {
             if( Constants.PROBE_TEST_CLASS.equals( manifestEntry.getKey() ) )
@@ -77,23 +78,41 @@ class TestBundleObserver
             }
             if( Constants.PROBE_TEST_METHOD.equals( manifestEntry.getKey() ) )
             {
-                testMethodName = manifestEntry.getValue();
+                testMethodNames.add( manifestEntry.getValue() );
+            }
+            if( Constants.PROBE_TEST_METHODS.equals( manifestEntry.getKey() ) )
+            {
+                for( String testMethodName : manifestEntry.getValue().split( "," ) )
+                {
+                    if( testMethodName.trim().length() > 0 && !testMethodNames.contains( testMethodName.trim() ) )
+                    {
+                        testMethodNames.add( testMethodName.trim() );
+                    }
+                }
             }
         }
-        if( testClassName != null && testMethodName != null )
+        if( testClassName != null && !testMethodNames.isEmpty() )
         {
-            LOG.info( "Found test: " + testClassName + "." + testMethodName );
-            Dictionary<String, String> props = new Hashtable<String, String>();
-            props.put( Constants.TEST_CASE_ATTRIBUTE, testClassName );
-            props.put( Constants.TEST_METHOD_ATTRIBUTE, testMethodName );
             final BundleContext bundleContext = BundleUtils.getBundleContext( bundle );
-            final ServiceRegistration serviceRegistration = bundleContext.registerService(
-                CallableTestMethod.class.getName(),
-                new CallableTestMethodImpl( bundleContext, testClassName, testMethodName ),
-                props
+            final TestClassMetadataCache metadataCache = new TestClassMetadataCache( bundleContext );
+            final List<ServiceRegistration> serviceRegistrations = new ArrayList<ServiceRegistration>();
+            for( String testMethodName : testMethodNames )
+            {
+                LOG.info( "Found test: " + testClassName + "." + testMethodName );
+                Dictionary<String, String> props = new Hashtable<String, String>();
+                props.put( Constants.TEST_CASE_ATTRIBUTE, testClassName );
+                props.put( Constants.TEST_METHOD_ATTRIBUTE, testMethodName );
+                serviceRegistrations.add( bundleContext.registerService(
+                    CallableTestMethod.class.getName(),
+                    new CallableTestMethodImpl( bundleContext, metadataCache, testClassName, testMethodName ),
+                    props
+                )
+                );
+                LOG.info( "Registered testcase [" + testClassName + "." + testMethodName + "]" );
+            }
+            m_registrations.put(
+                bundle, new Registration( testClassName, testMethodNames, serviceRegistrations, metadataCache )
             );
-            m_registrations.put( bundle, new Registration( testClassName, testMethodName, serviceRegistration ) );
-            LOG.info( "Registered testcase [" + testClassName + "." + testMethodName + "]" );
         }
     }
 
@@ -107,10 +126,15 @@ class TestBundleObserver
         final Registration registration = m_registrations.remove( bundle );
         if( registration != null )
         {
+            // drop the cached test class metadata so the classes of the probe can be garbage collected
+            registration.metadataCache.clear();
             // Do not unregister as bellow, because the services are automatically unregistered as soon as the bundle
             // for which the services are reigistred gets stopped
-            // registration.serviceRegistration.unregister();
-            LOG.info( "Unregistered testcase [" + registration.testCase + "." + registration.testMethod + "]" );
+            // for( ServiceRegistration reg : registration.serviceRegistrations ) { reg.unregister(); }
+            for( String testMethod : registration.testMethods )
+            {
+                LOG.info( "Unregistered testcase [" + registration.testCase + "." + testMethod + "]" );
+            }
         }
     }
 
@@ -121,16 +145,19 @@ class TestBundleObserver
     {
 
         final String testCase;
-        final String testMethod;
-        final ServiceRegistration serviceRegistration;
+        final List<String> testMethods;
+        final List<ServiceRegistration> serviceRegistrations;
+        final TestClassMetadataCache metadataCache;
 
         public Registration( final String testCase,
-                             final String testMethod,
-                             final ServiceRegistration serviceRegistration )
+                             final List<String> testMethods,
+                             final List<ServiceRegistration> serviceRegistrations,
+                             final TestClassMetadataCache metadataCache )
         {
             this.testCase = testCase;
-            this.testMethod = testMethod;
-            this.serviceRegistration = serviceRegistration;
+            this.testMethods = testMethods;
+            this.serviceRegistrations = serviceRegistrations;
+            this.metadataCache = metadataCache;
         }
     }
 
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.junit.extender.impl.internal;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.ops4j.pax.exam.Inject;
+
+/**
+ * Reflective metadata of a test class, resolved once: test methods by name, methods annotated with {@link Before} and
+ * {@link After} and the fields the bundle context is injected into (already made accessible).
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+class TestClassMetadata
+{
+
+    /**
+     * Logger.
+     */
+    private static final Log LOG = LogFactory.getLog( TestClassMetadata.class );
+
+    /**
+     * Test class.
+     */
+    private final Class<?> m_testClass;
+    /**
+     * Public methods of the test class, by name.
+     */
+    private final Map<String, List<Method>> m_methods;
+    /**
+     * Methods annotated with {@link Before}, in the order they should run.
+     */
+    private final List<Method> m_befores;
+    /**
+     * Methods annotated with {@link After}, in the order they should run.
+     */
+    private final List<Method> m_afters;
+    /**
+     * Accessible fields of the test class and its superclasses where the bundle context should be injected.
+     */
+    private final List<Field> m_injectionFields;
+
+    /**
+     * Constructor.
+     *
+     * @param testClass          test class
+     * @param bundleContextClass class of the bundle context to be injected
+     */
+    TestClassMetadata( final Class<?> testClass,
+                       final Class<?> bundleContextClass )
+    {
+        m_testClass = testClass;
+        final Map<String, List<Method>> methods = new HashMap<String, List<Method>>();
+        for( Method method : testClass.getMethods() )
+        {
+            List<Method> named = methods.get( method.getName() );
+            if( named == null )
+            {
+                named = new ArrayList<Method>();
+                methods.put( method.getName(), named );
+            }
+            named.add( method );
+        }
+        m_methods = methods;
+        m_befores = Collections.unmodifiableList( getAnnotatedMethods( testClass, Before.class ) );
+        m_afters = Collections.unmodifiableList( getAnnotatedMethods( testClass, After.class ) );
+        m_injectionFields = Collections.unmodifiableList( getInjectionFields( testClass, bundleContextClass ) );
+    }
+
+    /**
+     * Getter.
+     *
+     * @return test class
+     */
+    Class<?> getTestClass()
+    {
+        return m_testClass;
+    }
+
+    /**
+     * Returns the public methods with a name.
+     *
+     * @param name method name
+     *
+     * @return methods with the name (empty if there are no such methods)
+     */
+    List<Method> getMethods( final String name )
+    {
+        final List<Method> methods = m_methods.get( name );
+        return methods == null ? Collections.<Method>emptyList() : Collections.unmodifiableList( methods );
+    }
+
+    /**
+     * Getter.
+     *
+     * @return methods annotated with {@link Before}
+     */
+    List<Method> getBefores()
+    {
+        return m_befores;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return methods annotated with {@link After}
+     */
+    List<Method> getAfters()
+    {
+        return m_afters;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return accessible fields where the bundle context should be injected, superclass fields first
+     */
+    List<Field> getInjectionFields()
+    {
+        return m_injectionFields;
+    }
+
+    /**
+     * Finds the fields of a class and its superclasses that are marked for injection and can hold a value of the
+     * injected type.
+     *
+     * @param clazz         class to be inspected
+     * @param injectedClass class of injected value
+     *
+     * @return accessible injection fields, superclass fields first
+     */
+    private static List<Field> getInjectionFields( final Class<?> clazz,
+                                                   final Class<?> injectedClass )
+    {
+        final List<Field> results = new ArrayList<Field>();
+        if( clazz.getSuperclass() != null )
+        {
+            results.addAll( getInjectionFields( clazz.getSuperclass(), injectedClass ) );
+        }
+        for( Field field : clazz.getDeclaredFields() )
+        {
+            if( isInjectionField( field ) && isMatchingType( field, injectedClass ) )
+            {
+                field.setAccessible( true );
+                results.add( field );
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Just checks if type of field is a assignable from clazz.
+     *
+     * @param field field to be checked
+     * @param clazz class of value to be set
+     *
+     * @return true if the value can be set
+     */
+    private static boolean isMatchingType( final Field field,
+                                           final Class<?> clazz )
+    {
+        boolean result = field.getType().isAssignableFrom( clazz );
+        LOG.debug( "Trying to match " + field.getType() + " with injection " + clazz.getName() + ": " + result );
+        return result;
+    }
+
+    /**
+     * Tests if the given field has the {@link Inject} annotation.
+     * Due to some osgi quirks, currently direct getAnnotation( Inject.class ) does not work..:(
+     *
+     * @param field field to be tested
+     *
+     * @return true if it has the Inject annotation. Otherwise false.
+     */
+    private static boolean isInjectionField( final Field field )
+    {
+        // Usually, this should be enough.
+        if( field.getAnnotation( Inject.class ) != null )
+        {
+            return true;
+        }
+        // the above one fails in some cases currently (returns null) while annotation is there.
+        // So this is a fallback:
+        for( Annotation annot : field.getAnnotations() )
+        {
+            if( annot.annotationType().getName().equals( Inject.class.getName() ) )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Find all methods marked with a specific annotation, in the class and its superclasses.
+     *
+     * @param testClass       class to be inspected
+     * @param annotationClass annotation class to be found
+     *
+     * @return list of annotated methods (cannot be null)
+     */
+    private static List<Method> getAnnotatedMethods( final Class<?> testClass,
+                                                     final Class<? extends Annotation> annotationClass )
+    {
+        final List<Method> results = new ArrayList<Method>();
+        Class<?> clazz = testClass;
+        while( clazz != null )
+        {
+            for( final Method method : clazz.getDeclaredMethods() )
+            {
+                if( method.getAnnotation( annotationClass ) != null )
+                {
+                    results.add( method );
+                }
+            }
+            clazz = clazz.getSuperclass();
+        }
+        return results;
+    }
+
+}
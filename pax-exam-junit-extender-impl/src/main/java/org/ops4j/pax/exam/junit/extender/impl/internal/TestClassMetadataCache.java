@@ -0,0 +1,85 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.junit.extender.impl.internal;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.osgi.framework.BundleContext;
+
+/**
+ * Cache of {@link TestClassMetadata} of the test classes of one test probe, shared by all test methods of the probe.
+ * The cache is cleared when the probe goes away, so no classes of stopped or uninstalled probes are kept around.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+class TestClassMetadataCache
+{
+
+    /**
+     * Bundle context of the test probe.
+     */
+    private final BundleContext m_bundleContext;
+    /**
+     * Metadata of test classes, by class name.
+     */
+    private final Map<String, TestClassMetadata> m_metadata;
+
+    /**
+     * Constructor.
+     *
+     * @param bundleContext bundle context of the test probe
+     */
+    TestClassMetadataCache( final BundleContext bundleContext )
+    {
+        m_bundleContext = bundleContext;
+        m_metadata = new ConcurrentHashMap<String, TestClassMetadata>();
+    }
+
+    /**
+     * Returns the metadata of a test class, loading the test class and resolving the metadata on first use.
+     *
+     * @param testClassName test class name
+     *
+     * @return test class metadata
+     *
+     * @throws ClassNotFoundException - If test class cannot be loaded by the test probe
+     */
+    TestClassMetadata get( final String testClassName )
+        throws ClassNotFoundException
+    {
+        TestClassMetadata metadata = m_metadata.get( testClassName );
+        if( metadata == null )
+        {
+            // resolving twice in a race is harmless, as the metadata is equivalent
+            metadata = new TestClassMetadata(
+                m_bundleContext.getBundle().loadClass( testClassName ), m_bundleContext.getClass()
+            );
+            m_metadata.put( testClassName, metadata );
+        }
+        return metadata;
+    }
+
+    /**
+     * Drops all cached metadata.
+     */
+    void clear()
+    {
+        m_metadata.clear();
+    }
+
+}
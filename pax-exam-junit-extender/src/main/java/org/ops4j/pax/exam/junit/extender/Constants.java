@@ -34,6 +34,11 @@ public class Constants
      * Manifest header specifying the test method name in the test class.
      */
     public static final String PROBE_TEST_METHOD = "PaxExam-TestMethodName";
+    /**
+     * Manifest header specifying a comma separated list of test method names in the test class. Used by probes that
+     * carry all test methods of a test class, in which case each test method is registered as a separate service.
+     */
+    public static final String PROBE_TEST_METHODS = "PaxExam-TestMethodNames";
     /**
      * Test bundle symbolic name.
      */
@@ -24,8 +24,17 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
 import org.junit.Test;
 import org.junit.internal.runners.ClassRoadie;
 import org.junit.internal.runners.InitializationError;
@@ -47,11 +56,19 @@ import org.ops4j.pax.exam.Option;
 import org.ops4j.pax.exam.OptionUtils;
 import static org.ops4j.pax.exam.junit.JUnitOptions.*;
 import org.ops4j.pax.exam.junit.internal.JUnit4MethodRoadie;
+import org.ops4j.pax.exam.junit.internal.JUnit4RunRecorder;
+import org.ops4j.pax.exam.junit.internal.JUnit4SharedTestContainer;
 import org.ops4j.pax.exam.junit.internal.JUnit4TestMethod;
 import org.ops4j.pax.exam.junit.options.JUnitBundlesOption;
+import org.ops4j.pax.exam.junit.options.ParallelMethodsOption;
+import org.ops4j.pax.exam.junit.options.ReuseContainerOption;
 import org.ops4j.pax.exam.options.CompositeOption;
+import org.ops4j.pax.exam.options.CustomFrameworkOption;
 import org.ops4j.pax.exam.options.DefaultCompositeOption;
 import org.ops4j.pax.exam.options.FrameworkOption;
+import org.ops4j.pax.exam.options.ParallelFrameworksOption;
+import org.ops4j.pax.exam.runtime.PaxExamRuntime;
+import org.ops4j.pax.exam.spi.container.TestContainerFactory;
 
 /**
  * JUnit4 Runner to be used with the {@link org.junit.runner.RunWith} annotation to run with Pax Exam.
@@ -91,27 +108,100 @@ public class JUnit4TestRunner
     {
         final Collection<JUnit4ConfigMethod> configMethods = getConfigurationMethods();
         final List<JUnit4TestMethod> methods = new ArrayList<JUnit4TestMethod>();
+        final Map<List<Object>, JUnit4SharedTestContainer> sharedContainers =
+            new HashMap<List<Object>, JUnit4SharedTestContainer>();
         final Collection<Method> testMethods = m_testClass.getAnnotatedMethods( Test.class );
         for( Method testMethod : testMethods )
         {
-            final Option configOptions = getOptions( testMethod, configMethods );
+            final List<JUnit4ConfigMethod> matchingConfigMethods =
+                getMatchingConfigMethods( testMethod, configMethods );
+            final Option configOptions = getOptions( matchingConfigMethods );
             final FrameworkOption[] frameworkOptions = OptionUtils.filter( FrameworkOption.class, configOptions );
             final Option[] filteredOptions = OptionUtils.remove( FrameworkOption.class, configOptions );
+            final boolean reuseContainer =
+                OptionUtils.filter( ReuseContainerOption.class, configOptions ).length > 0
+                || OptionUtils.filter( ParallelMethodsOption.class, configOptions ).length > 0;
             if( frameworkOptions.length == 0 )
             {
-                methods.add( new JUnit4TestMethod( testMethod, m_testClass, null, filteredOptions ) );
+                methods.add(
+                    new JUnit4TestMethod(
+                        testMethod, m_testClass, null,
+                        reuseContainer
+                        ? getSharedContainer( sharedContainers, matchingConfigMethods, null )
+                        : null,
+                        filteredOptions
+                    )
+                );
             }
             else
             {
                 for( FrameworkOption frameworkOption : frameworkOptions )
                 {
-                    methods.add( new JUnit4TestMethod( testMethod, m_testClass, frameworkOption, filteredOptions ) );
+                    methods.add(
+                        new JUnit4TestMethod(
+                            testMethod, m_testClass, frameworkOption,
+                            reuseContainer
+                            ? getSharedContainer( sharedContainers, matchingConfigMethods, frameworkOption )
+                            : null,
+                            filteredOptions
+                        )
+                    );
                 }
             }
         }
         return methods;
     }
 
+    /**
+     * Returns the shared test container for test methods configured by the same configuration methods and running on
+     * the same framework. As the options of a test method are the result of its matching configuration methods, test
+     * methods with same configuration methods and framework have equal options and can share one test container.
+     *
+     * @param sharedContainers      already created shared test containers
+     * @param matchingConfigMethods configuration methods matching the test method
+     * @param frameworkOption       framework option (can be null = default framework)
+     *
+     * @return shared test container (never null)
+     */
+    private static JUnit4SharedTestContainer getSharedContainer(
+        final Map<List<Object>, JUnit4SharedTestContainer> sharedContainers,
+        final List<JUnit4ConfigMethod> matchingConfigMethods,
+        final FrameworkOption frameworkOption )
+    {
+        final List<Object> key = new ArrayList<Object>( matchingConfigMethods );
+        key.addAll( getFrameworkKey( frameworkOption ) );
+        JUnit4SharedTestContainer sharedContainer = sharedContainers.get( key );
+        if( sharedContainer == null )
+        {
+            sharedContainer = new JUnit4SharedTestContainer();
+            sharedContainers.put( key, sharedContainer );
+        }
+        return sharedContainer;
+    }
+
+    /**
+     * Returns a key identifying a framework, made out of framework type, name and version.
+     *
+     * @param frameworkOption framework option (can be null = default framework)
+     *
+     * @return framework key (never null)
+     */
+    private static List<Object> getFrameworkKey( final FrameworkOption frameworkOption )
+    {
+        final List<Object> key = new ArrayList<Object>();
+        if( frameworkOption != null )
+        {
+            key.add( frameworkOption.getClass() );
+            key.add( frameworkOption.getName() );
+            key.add( frameworkOption.getVersion() );
+            if( frameworkOption instanceof CustomFrameworkOption )
+            {
+                key.add( ( (CustomFrameworkOption) frameworkOption ).getDefinitionURL() );
+            }
+        }
+        return key;
+    }
+
     /**
      * Finds the configuration methods based on the configured {@link ConfigurationStrategy}.
      *
@@ -190,13 +280,358 @@ public class JUnit4TestRunner
     }
 
     protected void runMethods( final RunNotifier notifier )
+    {
+        prefetchContainers();
+        final ParallelFrameworksOption parallelFrameworksOption = getParallelFrameworksOption();
+        if( parallelFrameworksOption != null )
+        {
+            runMethodsInParallel( notifier, parallelFrameworksOption.getThreads() );
+            return;
+        }
+        for( List<JUnit4TestMethod> group : groupBySharedContainer( m_testMethods ) )
+        {
+            try
+            {
+                final ParallelMethodsOption parallelMethodsOption = getParallelMethodsOption( group );
+                if( parallelMethodsOption != null )
+                {
+                    runGroupInParallel( group, notifier, parallelMethodsOption.getThreads() );
+                }
+                else
+                {
+                    for( JUnit4TestMethod method : group )
+                    {
+                        invokeTestMethod( method, notifier );
+                    }
+                }
+            }
+            finally
+            {
+                stopSharedContainer( group );
+            }
+        }
+    }
+
+    /**
+     * Runs the test methods of a group, that share a test container, in parallel. Test events are recorded and
+     * reported in the order of test methods.
+     *
+     * @param group    group of test methods
+     * @param notifier run notifier
+     * @param threads  maximum number of test methods to run in parallel
+     */
+    private void runGroupInParallel( final List<JUnit4TestMethod> group,
+                                     final RunNotifier notifier,
+                                     final int threads )
+    {
+        final List<FutureTask<JUnit4RunRecorder>> results = new ArrayList<FutureTask<JUnit4RunRecorder>>();
+        for( final JUnit4TestMethod method : group )
+        {
+            results.add( new FutureTask<JUnit4RunRecorder>( new Callable<JUnit4RunRecorder>()
+            {
+                public JUnit4RunRecorder call()
+                {
+                    final JUnit4RunRecorder recorder = new JUnit4RunRecorder();
+                    invokeTestMethod( method, recorder.createNotifier() );
+                    return recorder;
+                }
+            }
+            )
+            );
+        }
+        runAll( results, threads );
+        for( int i = 0; i < group.size(); i++ )
+        {
+            try
+            {
+                results.get( i ).get().replay( notifier );
+            }
+            catch( ExecutionException e )
+            {
+                notifier.testAborted( methodDescription( group.get( i ) ), e.getCause() );
+            }
+            catch( InterruptedException e )
+            {
+                Thread.currentThread().interrupt();
+                notifier.testAborted( methodDescription( group.get( i ) ), e );
+                return;
+            }
+        }
+    }
+
+    /**
+     * Runs tasks on a bounded number of threads and waits for all of them to finish. If the waiting thread is
+     * interrupted, tasks not yet started are cancelled.
+     *
+     * @param tasks   tasks to run
+     * @param threads maximum number of tasks to run in parallel
+     */
+    private static void runAll( final List<? extends FutureTask<?>> tasks,
+                                final int threads )
+    {
+        final ExecutorService executor = Executors.newFixedThreadPool(
+            Math.max( 1, Math.min( threads, tasks.size() ) ),
+            new ThreadFactory()
+            {
+                public Thread newThread( final Runnable runnable )
+                {
+                    final Thread thread = new Thread( runnable, "Pax Exam test method runner" );
+                    thread.setDaemon( true );
+                    return thread;
+                }
+            }
+        );
+        try
+        {
+            for( FutureTask<?> task : tasks )
+            {
+                executor.execute( task );
+            }
+            for( FutureTask<?> task : tasks )
+            {
+                try
+                {
+                    task.get();
+                }
+                catch( ExecutionException ignore )
+                {
+                    // reported by the caller
+                }
+            }
+        }
+        catch( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+        }
+        finally
+        {
+            for( FutureTask<?> task : tasks )
+            {
+                task.cancel( false );
+            }
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Lets the test container factories know, in the order test methods will run, about the options of all test
+     * methods, so it can start test containers for the upcoming test methods while earlier ones run.
+     */
+    private void prefetchContainers()
     {
         for( JUnit4TestMethod method : m_testMethods )
         {
-            invokeTestMethod( method, notifier );
+            final TestContainerFactory containerFactory;
+            try
+            {
+                containerFactory = PaxExamRuntime.getTestContainerFactory( method.getOptions() );
+            }
+            catch( RuntimeException ignore )
+            {
+                // no test container factory available, failure will be reported by the test method
+                continue;
+            }
+            containerFactory.prefetch( method.getOptions() );
         }
     }
 
+    /**
+     * Runs test methods of each framework in parallel, on a bounded number of threads. Test methods of the same
+     * framework run one after another. Test events are recorded and reported in the order of test methods, so the
+     * reporting does not depend on which framework finishes first.
+     *
+     * @param notifier run notifier
+     * @param threads  maximum number of frameworks to run in parallel
+     */
+    protected void runMethodsInParallel( final RunNotifier notifier,
+                                         final int threads )
+    {
+        final Map<List<Object>, List<JUnit4TestMethod>> lanes =
+            new LinkedHashMap<List<Object>, List<JUnit4TestMethod>>();
+        final Map<JUnit4TestMethod, FutureTask<JUnit4RunRecorder>> results =
+            new HashMap<JUnit4TestMethod, FutureTask<JUnit4RunRecorder>>();
+        for( final JUnit4TestMethod method : m_testMethods )
+        {
+            final List<Object> key = getFrameworkKey( method.getFrameworkOption() );
+            List<JUnit4TestMethod> lane = lanes.get( key );
+            if( lane == null )
+            {
+                lane = new ArrayList<JUnit4TestMethod>();
+                lanes.put( key, lane );
+            }
+            lane.add( method );
+            results.put( method, new FutureTask<JUnit4RunRecorder>( new Callable<JUnit4RunRecorder>()
+            {
+                public JUnit4RunRecorder call()
+                {
+                    final JUnit4RunRecorder recorder = new JUnit4RunRecorder();
+                    invokeTestMethod( method, recorder.createNotifier() );
+                    return recorder;
+                }
+            }
+            )
+            );
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(
+            Math.max( 1, Math.min( threads, lanes.size() ) ),
+            new ThreadFactory()
+            {
+                public Thread newThread( final Runnable runnable )
+                {
+                    final Thread thread = new Thread( runnable, "Pax Exam framework runner" );
+                    thread.setDaemon( true );
+                    return thread;
+                }
+            }
+        );
+        try
+        {
+            for( final List<JUnit4TestMethod> lane : lanes.values() )
+            {
+                executor.execute( new Runnable()
+                {
+                    public void run()
+                    {
+                        for( List<JUnit4TestMethod> group : groupBySharedContainer( lane ) )
+                        {
+                            try
+                            {
+                                final ParallelMethodsOption parallelMethodsOption =
+                                    getParallelMethodsOption( group );
+                                if( parallelMethodsOption != null )
+                                {
+                                    final List<FutureTask<JUnit4RunRecorder>> tasks =
+                                        new ArrayList<FutureTask<JUnit4RunRecorder>>();
+                                    for( JUnit4TestMethod method : group )
+                                    {
+                                        tasks.add( results.get( method ) );
+                                    }
+                                    runAll( tasks, parallelMethodsOption.getThreads() );
+                                }
+                                else
+                                {
+                                    for( JUnit4TestMethod method : group )
+                                    {
+                                        results.get( method ).run();
+                                    }
+                                }
+                            }
+                            finally
+                            {
+                                stopSharedContainer( group );
+                            }
+                        }
+                    }
+                }
+                );
+            }
+            for( JUnit4TestMethod method : m_testMethods )
+            {
+                try
+                {
+                    results.get( method ).get().replay( notifier );
+                }
+                catch( ExecutionException e )
+                {
+                    notifier.testAborted( methodDescription( method ), e.getCause() );
+                }
+                catch( InterruptedException e )
+                {
+                    Thread.currentThread().interrupt();
+                    notifier.testAborted( methodDescription( method ), e );
+                    return;
+                }
+            }
+        }
+        finally
+        {
+            // skip not yet run test methods (e.g. when the run was stopped) but let running ones finish
+            for( FutureTask<JUnit4RunRecorder> result : results.values() )
+            {
+                result.cancel( false );
+            }
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Groups test methods so test methods sharing a test container are run one after another and so only one test
+     * container of a group is running at a time. Test methods that do not share a test container form a group
+     * alone.
+     *
+     * @param methods test methods to group
+     *
+     * @return groups of test methods, in order of first appearance
+     */
+    private static Collection<List<JUnit4TestMethod>> groupBySharedContainer( final List<JUnit4TestMethod> methods )
+    {
+        final Map<Object, List<JUnit4TestMethod>> groups = new LinkedHashMap<Object, List<JUnit4TestMethod>>();
+        for( JUnit4TestMethod method : methods )
+        {
+            final Object key = method.getSharedContainer() != null ? method.getSharedContainer() : method;
+            List<JUnit4TestMethod> group = groups.get( key );
+            if( group == null )
+            {
+                group = new ArrayList<JUnit4TestMethod>();
+                groups.put( key, group );
+            }
+            group.add( method );
+        }
+        return groups.values();
+    }
+
+    /**
+     * Stops the test container shared by a group of test methods, if any.
+     *
+     * @param group group of test methods
+     */
+    private static void stopSharedContainer( final List<JUnit4TestMethod> group )
+    {
+        final JUnit4SharedTestContainer sharedContainer = group.get( 0 ).getSharedContainer();
+        if( sharedContainer != null )
+        {
+            sharedContainer.stop();
+        }
+    }
+
+    /**
+     * Finds out if the test methods should run in parallel on each framework.
+     *
+     * @return parallel frameworks option of the first test method that has one or null if test methods should run one
+     *         after another
+     */
+    private ParallelFrameworksOption getParallelFrameworksOption()
+    {
+        for( JUnit4TestMethod method : m_testMethods )
+        {
+            final ParallelFrameworksOption[] options =
+                OptionUtils.filter( ParallelFrameworksOption.class, method.getOptions() );
+            if( options.length > 0 )
+            {
+                return options[ 0 ];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds out if the test methods of a group, that share a test container, should run in parallel.
+     *
+     * @param group group of test methods
+     *
+     * @return parallel methods option or null if test methods should run one after another
+     */
+    private static ParallelMethodsOption getParallelMethodsOption( final List<JUnit4TestMethod> group )
+    {
+        if( group.size() < 2 || group.get( 0 ).getSharedContainer() == null )
+        {
+            return null;
+        }
+        final ParallelMethodsOption[] options =
+            OptionUtils.filter( ParallelMethodsOption.class, group.get( 0 ).getOptions() );
+        return options.length > 0 ? options[ 0 ] : null;
+    }
+
     @Override
     public Description getDescription()
     {
@@ -314,8 +749,30 @@ public class JUnit4TestRunner
         return m_testClass;
     }
 
-    private static Option getOptions( final Method methodName,
-                                      final Collection<JUnit4ConfigMethod> configMethods )
+    /**
+     * Finds the configuration methods that apply to a test method.
+     *
+     * @param testMethod    test method
+     * @param configMethods all configuration methods
+     *
+     * @return configuration methods matching the test method, in order (cannot be null)
+     */
+    private static List<JUnit4ConfigMethod> getMatchingConfigMethods(
+        final Method testMethod,
+        final Collection<JUnit4ConfigMethod> configMethods )
+    {
+        final List<JUnit4ConfigMethod> matching = new ArrayList<JUnit4ConfigMethod>();
+        for( JUnit4ConfigMethod configMethod : configMethods )
+        {
+            if( configMethod.matches( testMethod ) )
+            {
+                matching.add( configMethod );
+            }
+        }
+        return matching;
+    }
+
+    private static Option getOptions( final List<JUnit4ConfigMethod> configMethods )
         throws Exception
     {
         // always add the junit extender
@@ -342,10 +799,7 @@ public class JUnit4TestRunner
         // add options based on available configuration options from the test itself
         for( JUnit4ConfigMethod configMethod : configMethods )
         {
-            if( configMethod.matches( methodName ) )
-            {
-                option.add( configMethod.getOptions() );
-            }
+            option.add( configMethod.getOptions() );
         }
         // add junit bundles, if the user did not add junit bundles into configuration
         if( OptionUtils.filter( JUnitBundlesOption.class, option ).length == 0 )
@@ -21,6 +21,9 @@ import org.ops4j.pax.exam.junit.options.EasyMockBundlesOption;
 import org.ops4j.pax.exam.junit.options.JUnitBundlesOption;
 import org.ops4j.pax.exam.junit.options.MockitoBundlesOption;
 import org.ops4j.pax.exam.junit.options.JMockBundlesOption;
+import org.ops4j.pax.exam.junit.options.ParallelMethodsOption;
+import org.ops4j.pax.exam.junit.options.ProbeResourcesOption;
+import org.ops4j.pax.exam.junit.options.ReuseContainerOption;
 
 /**
  * Factory methods for JUnit specific options.
@@ -79,4 +82,36 @@ public class JUnitOptions
         return new JMockBundlesOption();
     }
 
+    /**
+     * Creates a {@link ReuseContainerOption}.
+     *
+     * @return reuse container option
+     */
+    public static ReuseContainerOption reuseContainer()
+    {
+        return new ReuseContainerOption();
+    }
+
+    /**
+     * Creates a {@link ParallelMethodsOption}.
+     *
+     * @return parallel methods option
+     */
+    public static ParallelMethodsOption parallelMethods()
+    {
+        return new ParallelMethodsOption();
+    }
+
+    /**
+     * Creates a {@link ProbeResourcesOption}.
+     *
+     * @param paths paths of resources to be packed into the test probe, relative to test output directory
+     *
+     * @return probe resources option
+     */
+    public static ProbeResourcesOption probeResources( final String... paths )
+    {
+        return new ProbeResourcesOption( paths );
+    }
+
 }
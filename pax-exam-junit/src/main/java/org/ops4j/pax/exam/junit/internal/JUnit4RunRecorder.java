@@ -0,0 +1,150 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.junit.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.runner.Description;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+import org.junit.runner.notification.RunNotifier;
+
+/**
+ * A {@link RunListener} that records test events, to be replayed later on another {@link RunNotifier}. Used to report
+ * tests that run in parallel in a deterministic order.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+public class JUnit4RunRecorder
+    extends RunListener
+{
+
+    private static final int STARTED = 0;
+    private static final int FINISHED = 1;
+    private static final int FAILURE = 2;
+    private static final int IGNORED = 3;
+
+    /**
+     * Recorded events, in order.
+     */
+    private final List<Event> m_events;
+
+    /**
+     * Constructor.
+     */
+    public JUnit4RunRecorder()
+    {
+        m_events = new ArrayList<Event>();
+    }
+
+    /**
+     * Creates a notifier that records all events into this recorder.
+     *
+     * @return recording notifier
+     */
+    public RunNotifier createNotifier()
+    {
+        final RunNotifier notifier = new RunNotifier();
+        notifier.addListener( this );
+        return notifier;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void testStarted( final Description description )
+    {
+        m_events.add( new Event( STARTED, description, null ) );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void testFinished( final Description description )
+    {
+        m_events.add( new Event( FINISHED, description, null ) );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void testFailure( final Failure failure )
+    {
+        m_events.add( new Event( FAILURE, null, failure ) );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void testIgnored( final Description description )
+    {
+        m_events.add( new Event( IGNORED, description, null ) );
+    }
+
+    /**
+     * Fires the recorded events, in the order they were recorded.
+     *
+     * @param notifier notifier to fire the events on
+     */
+    public synchronized void replay( final RunNotifier notifier )
+    {
+        for( Event event : m_events )
+        {
+            switch( event.type )
+            {
+                case STARTED:
+                    notifier.fireTestStarted( event.description );
+                    break;
+                case FINISHED:
+                    notifier.fireTestFinished( event.description );
+                    break;
+                case FAILURE:
+                    notifier.fireTestFailure( event.failure );
+                    break;
+                case IGNORED:
+                    notifier.fireTestIgnored( event.description );
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Recorded event.
+     */
+    private static class Event
+    {
+
+        final int type;
+        final Description description;
+        final Failure failure;
+
+        Event( final int type,
+               final Description description,
+               final Failure failure )
+        {
+            this.type = type;
+            this.description = description;
+            this.failure = failure;
+        }
+    }
+
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.junit.internal;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import static org.ops4j.pax.exam.Constants.*;
+import org.ops4j.pax.exam.Option;
+import org.ops4j.pax.exam.runtime.PaxExamRuntime;
+import org.ops4j.pax.exam.spi.container.BatchExecutionException;
+import org.ops4j.pax.exam.spi.container.TestContainer;
+import static org.ops4j.pax.exam.spi.container.TestContainerOperation.*;
+
+/**
+ * A {@link TestContainer} shared by all {@link JUnit4TestMethod}s of a test class that are configured with the same
+ * options. The test container is started on first use and stays up until {@link #stop()} is called, usually after the
+ * last test method using it was run. Test probes are installed only once per shared test container and stay installed
+ * until the test container is stopped, so all test methods of a test class run out of the same probe.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+public class JUnit4SharedTestContainer
+{
+
+    /**
+     * JCL logger.
+     */
+    private static final Log LOG = LogFactory.getLog( JUnit4SharedTestContainer.class );
+
+    /**
+     * Started test container. Null if not yet started or stopped.
+     */
+    private TestContainer m_container;
+
+    /**
+     * Ids of test probes installed and started in the shared test container, by probe url.
+     */
+    private final Map<String, Long> m_probes = new HashMap<String, Long>();
+
+    /**
+     * Returns the shared test container, starting it if not yet started.
+     *
+     * @param options options used to create the test container, in case that it is not yet started
+     *
+     * @return started test container
+     */
+    public synchronized TestContainer getContainer( final Option... options )
+    {
+        if( m_container == null )
+        {
+            LOG.trace( "Start shared test container" );
+            final TestContainer container = PaxExamRuntime.getTestContainerFactory( options ).newInstance( options );
+            try
+            {
+                container.start();
+            }
+            catch( RuntimeException e )
+            {
+                stop( container );
+                throw e;
+            }
+            m_container = container;
+        }
+        return m_container;
+    }
+
+    /**
+     * Installs and starts a test probe in the shared test container, unless already installed.
+     *
+     * @param probeUrl url of the test probe
+     *
+     * @return id of the installed test probe
+     *
+     * @throws BatchExecutionException - If probe cannot be installed or started
+     * @throws IllegalStateException   - If test container was not yet started
+     */
+    public synchronized long installProbe( final String probeUrl )
+    {
+        if( m_container == null )
+        {
+            throw new IllegalStateException( "Shared test container not started" );
+        }
+        Long bundleId = m_probes.get( probeUrl );
+        if( bundleId == null )
+        {
+            LOG.trace( "Install and start shared test probe" );
+            try
+            {
+                bundleId = (Long) m_container.execute(
+                    installBundle( probeUrl ),
+                    setBundleStartLevel( LAST_INSTALLED_BUNDLE, START_LEVEL_TEST_BUNDLE ),
+                    startBundle( LAST_INSTALLED_BUNDLE )
+                )[ 0 ];
+            }
+            catch( BatchExecutionException e )
+            {
+                if( e.getFailedOperation() > 0 )
+                {
+                    uninstall( (Long) e.getResults()[ 0 ] );
+                }
+                throw e;
+            }
+            m_probes.put( probeUrl, bundleId );
+        }
+        return bundleId;
+    }
+
+    /**
+     * Stops the shared test container, if started. Eventual exceptions during stopping are logged but not re-thrown.
+     */
+    public synchronized void stop()
+    {
+        if( m_container != null )
+        {
+            LOG.trace( "Stop shared test container" );
+            stop( m_container );
+            m_container = null;
+        }
+        m_probes.clear();
+    }
+
+    /**
+     * Uninstalls a test probe by logging eventual exceptions.
+     *
+     * @param bundleId id of test probe to be uninstalled
+     */
+    private void uninstall( final long bundleId )
+    {
+        try
+        {
+            m_container.uninstallBundle( bundleId );
+        }
+        catch( RuntimeException e )
+        {
+            LOG.error( "Cannot uninstall the test probe: " + e.getMessage() );
+        }
+    }
+
+    /**
+     * Stops a test container by logging eventual exceptions.
+     *
+     * @param container test container to be stopped
+     */
+    private static void stop( final TestContainer container )
+    {
+        // Leave handling of proper stop to container implementation
+        try
+        {
+            container.stop();
+        }
+        catch( RuntimeException e )
+        {
+            LOG.error( "Cannot stop the test container: " + e.getMessage() );
+        }
+    }
+
+}
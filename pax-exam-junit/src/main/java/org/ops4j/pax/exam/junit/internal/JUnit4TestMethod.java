@@ -18,10 +18,18 @@
 package org.ops4j.pax.exam.junit.internal;
 
 import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.junit.Test;
 import org.junit.internal.runners.TestClass;
 import org.junit.internal.runners.TestMethod;
 import static org.ops4j.lang.NullArgumentException.*;
@@ -31,10 +39,13 @@ import org.ops4j.pax.exam.Option;
 import org.ops4j.pax.exam.OptionUtils;
 import org.ops4j.pax.exam.junit.extender.CallableTestMethod;
 import org.ops4j.pax.exam.junit.extender.Constants;
+import org.ops4j.pax.exam.junit.options.ProbeResourcesOption;
 import org.ops4j.pax.exam.options.FrameworkOption;
 import org.ops4j.pax.exam.runtime.PaxExamRuntime;
+import org.ops4j.pax.exam.spi.container.BatchExecutionException;
 import org.ops4j.pax.exam.spi.container.TestContainer;
 import org.ops4j.pax.exam.spi.container.TestContainerFactory;
+import static org.ops4j.pax.exam.spi.container.TestContainerOperation.*;
 
 /**
  * A {@link TestMethod} that upon invokation starts a {@link TestContainer} and executes the test in the test container.
@@ -76,6 +87,11 @@ public class JUnit4TestMethod
      */
     private static final Log LOG = LogFactory.getLog( JUnit4TestMethod.class );
 
+    /**
+     * Builder of test bundles out of the class closure of the test class.
+     */
+    private static final ProbeBuilder PROBE_BUILDER = new ProbeBuilder();
+
     /**
      * Test method. Cannot reuse the one from super class as it is not public.
      */
@@ -86,15 +102,42 @@ public class JUnit4TestMethod
      */
     private final Option[] m_options;
 
+    /**
+     * Framework option (on which framework the test method should be run). Null = default framework.
+     */
+    private final FrameworkOption m_frameworkOption;
+
     /**
      * Configuration method name (test method name and eventual the framework and framework version)
      */
     private final String m_name;
 
     /**
-     * Test bundle URL.
+     * Test class.
      */
-    private final String m_testBundleUrl;
+    private final Class<?> m_testClass;
+
+    /**
+     * Names of all test methods of the test class, sorted.
+     */
+    private final Set<String> m_testMethodNames;
+
+    /**
+     * Test bundle URL. The test bundle carries all test methods of the test class, so it is the same for all of them
+     * that are configured with the same probe resources. Built on first invocation. Null if not yet built.
+     */
+    private String m_testBundleUrl;
+
+    /**
+     * Filter selecting the {@link CallableTestMethod} service of this test method out of the ones registered for the
+     * test bundle.
+     */
+    private final String m_testMethodFilter;
+
+    /**
+     * Test container shared with other test methods. Null if the test method should use its own test container.
+     */
+    private final JUnit4SharedTestContainer m_sharedContainer;
 
     /**
      * Constructor.
@@ -109,6 +152,26 @@ public class JUnit4TestMethod
                              final TestClass testClass,
                              final FrameworkOption frameworkOption,
                              final Option... userOptions )
+    {
+        this( testMethod, testClass, frameworkOption, null, userOptions );
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param testMethod      test method (cannot be null)
+     * @param testClass       test class (cannot be null)
+     * @param frameworkOption framework option (on which framework the test method should be run) (can be null =
+     *                        default framework)
+     * @param sharedContainer test container to be shared with other test methods (can be null = the test method
+     *                        starts and stops its own test container)
+     * @param userOptions     user options (can be null)
+     */
+    public JUnit4TestMethod( final Method testMethod,
+                             final TestClass testClass,
+                             final FrameworkOption frameworkOption,
+                             final JUnit4SharedTestContainer sharedContainer,
+                             final Option... userOptions )
     {
         super( testMethod, testClass );
         validateNotNull( testMethod, "Test method" );
@@ -116,12 +179,18 @@ public class JUnit4TestMethod
 
         m_testMethod = testMethod;
         m_options = OptionUtils.combine( userOptions, frameworkOption );
+        m_frameworkOption = frameworkOption;
         m_name = calculateName( testMethod.getName(), frameworkOption );
-        m_testBundleUrl = getTestBundleUrl( testClass.getName(), m_testMethod.getName() );
+        m_testClass = testClass.getJavaClass();
+        m_testMethodNames = getTestMethodNames( testClass );
+        m_testMethodFilter = getTestMethodFilter( testClass.getName(), m_testMethod.getName() );
+        m_sharedContainer = sharedContainer;
     }
 
     /**
      * {@inheritDoc} Starts the test container, installs the test bundle and executes the test within the container.
+     * In case that the test container is shared neither the test container is stopped nor the test bundle is
+     * uninstalled, as the test bundle is shared by all test methods using the test container.
      */
     @Override
     public void invoke( Object test )
@@ -133,24 +202,54 @@ public class JUnit4TestMethod
         LOG.info( "Starting test " + fullTestName );
 
         int executionState = NOT_STARTED;
-        final TestContainerFactory containerFactory = PaxExamRuntime.getTestContainerFactory();
         TestContainer container = null;
         try
         {
-            LOG.trace( "Start test container" );
-            container = containerFactory.newInstance( m_options );
-            container.start();
+            if ( m_sharedContainer != null )
+            {
+                LOG.trace( "Use shared test container" );
+                container = m_sharedContainer.getContainer( m_options );
+            }
+            else
+            {
+                LOG.trace( "Start test container" );
+                final TestContainerFactory containerFactory = PaxExamRuntime.getTestContainerFactory( m_options );
+                container = containerFactory.newInstance( m_options );
+                container.start();
+            }
             executionState = CONTAINER_STARTED;
 
-            LOG.trace( "Install and start test bundle" );
-            final long bundleId = container.installBundle( m_testBundleUrl );
-            executionState = PROBE_INSTALLED;
-            container.setBundleStartLevel( bundleId, START_LEVEL_TEST_BUNDLE );
-            container.startBundle( bundleId );
+            final String testBundleUrl = getTestBundleUrl();
+            if ( m_sharedContainer != null )
+            {
+                LOG.trace( "Use shared test bundle" );
+                m_sharedContainer.installProbe( testBundleUrl );
+            }
+            else
+            {
+                LOG.trace( "Install and start test bundle" );
+                try
+                {
+                    container.execute(
+                        installBundle( testBundleUrl ),
+                        setBundleStartLevel( LAST_INSTALLED_BUNDLE, START_LEVEL_TEST_BUNDLE ),
+                        startBundle( LAST_INSTALLED_BUNDLE )
+                    );
+                }
+                catch ( BatchExecutionException e )
+                {
+                    if ( e.getFailedOperation() > 0 )
+                    {
+                        executionState = PROBE_INSTALLED;
+                    }
+                    throw e;
+                }
+            }
             executionState = PROBE_STARTED;
 
             LOG.trace( "Execute test [" + m_name + "]" );
-            final CallableTestMethod callable = container.getService( CallableTestMethod.class );
+            final CallableTestMethod callable =
+                container.getService( CallableTestMethod.class, m_testMethodFilter, NO_WAIT );
             try
             {
                 LOG.info( "Starting test " + fullTestName );
@@ -174,7 +273,11 @@ public class JUnit4TestMethod
                 // Leave handling of proper stop to container implementation
                 try
                 {
-                    container.stop();
+                    // test bundle of a shared test container is shared by all test methods and stays installed
+                    if ( m_sharedContainer == null )
+                    {
+                        container.stop();
+                    }
                 }
                 catch ( RuntimeException ignore )
                 {
@@ -215,6 +318,55 @@ public class JUnit4TestMethod
         return m_name;
     }
 
+    /**
+     * Getter.
+     *
+     * @return configuration options
+     */
+    public Option[] getOptions()
+    {
+        return m_options;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return framework option on which the test method should be run or null if default framework
+     */
+    public FrameworkOption getFrameworkOption()
+    {
+        return m_frameworkOption;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return test container shared with other test methods or null if the test method uses its own test container
+     */
+    public JUnit4SharedTestContainer getSharedContainer()
+    {
+        return m_sharedContainer;
+    }
+
+    /**
+     * Returns the test bundle url, building the test bundle on first call.
+     *
+     * @return test bundle url
+     */
+    private synchronized String getTestBundleUrl()
+    {
+        if ( m_testBundleUrl == null )
+        {
+            final List<String> resources = new ArrayList<String>();
+            for ( ProbeResourcesOption option : OptionUtils.filter( ProbeResourcesOption.class, m_options ) )
+            {
+                resources.addAll( option.getPaths() );
+            }
+            m_testBundleUrl = getTestBundleUrl( m_testClass, m_testMethodNames, resources );
+        }
+        return m_testBundleUrl;
+    }
+
     /**
      * Computes the test method name out of test method name, framework and framework version.
      * 
@@ -241,15 +393,77 @@ public class JUnit4TestMethod
     }
 
     /**
-     * Returns the test bundle url using an Pax URL Dir url.
-     * 
+     * Returns the names of all test methods of the test class, sorted so the test bundle url is stable.
+     *
+     * @param testClass test class
+     * @return test method names
+     */
+    private static Set<String> getTestMethodNames( final TestClass testClass )
+    {
+        final Set<String> testMethodNames = new TreeSet<String>();
+        for ( Method testMethod : testClass.getAnnotatedMethods( Test.class ) )
+        {
+            testMethodNames.add( testMethod.getName() );
+        }
+        return testMethodNames;
+    }
+
+    /**
+     * Returns the filter selecting the test method service.
+     *
      * @param testClassName test class name
      * @param testMethodName test method name
+     * @return service filter
+     */
+    private static String getTestMethodFilter( final String testClassName,
+                                               final String testMethodName )
+    {
+        return "(&(" + Constants.TEST_CASE_ATTRIBUTE + "=" + testClassName + ")"
+               + "(" + Constants.TEST_METHOD_ATTRIBUTE + "=" + testMethodName + "))";
+    }
+
+    /**
+     * Returns the test bundle url. The test bundle carries all the test methods. If the test class was loaded from a
+     * directory the test bundle is built out of the class closure of the test class, otherwise a Pax URL Dir url is
+     * used.
+     * 
+     * @param testClass test class
+     * @param testMethodNames test method names
+     * @param resources paths of resources to be packed into the test bundle, relative to test output directory
      * @return test bundle url
      */
-    private static String getTestBundleUrl( final String testClassName,
-                                            final String testMethodName )
+    private static String getTestBundleUrl( final Class<?> testClass,
+                                            final Set<String> testMethodNames,
+                                            final List<String> resources )
     {
+        final String testClassName = testClass.getName();
+        final StringBuilder methods = new StringBuilder();
+        for ( String testMethodName : testMethodNames )
+        {
+            if ( methods.length() > 0 )
+            {
+                methods.append( "," );
+            }
+            methods.append( testMethodName );
+        }
+        final File root = ProbeBuilder.getTestOutputDirectory( testClass );
+        if ( root != null )
+        {
+            final Map<String, String> headers = new LinkedHashMap<String, String>();
+            headers.put( org.osgi.framework.Constants.BUNDLE_MANIFESTVERSION, "2" );
+            headers.put( org.osgi.framework.Constants.BUNDLE_SYMBOLICNAME, Constants.PROBE_SYMBOLICNAME );
+            headers.put( org.osgi.framework.Constants.DYNAMICIMPORT_PACKAGE, "*" );
+            headers.put( Constants.PROBE_TEST_CLASS, testClassName );
+            headers.put( Constants.PROBE_TEST_METHODS, methods.toString() );
+            try
+            {
+                return PROBE_BUILDER.build( root, testClassName, headers, resources ).toURI().toASCIIString();
+            }
+            catch ( IOException e )
+            {
+                LOG.warn( "Cannot build test bundle out of class closure of " + testClassName + ": " + e.getMessage() );
+            }
+        }
         final StringBuilder url = new StringBuilder();
         url.append( "dir:" )
            .append( new File( "." ).getAbsolutePath() )
@@ -258,7 +472,7 @@ public class JUnit4TestMethod
            .append( "&" )
            .append( Constants.PROBE_TEST_CLASS ).append( "=" ).append( testClassName )
            .append( "&" )
-           .append( Constants.PROBE_TEST_METHOD ).append( "=" ).append( testMethodName )
+           .append( Constants.PROBE_TEST_METHODS ).append( "=" ).append( methods )
            .append( "&" )
            .append( org.osgi.framework.Constants.BUNDLE_SYMBOLICNAME )
            .append( "=" )
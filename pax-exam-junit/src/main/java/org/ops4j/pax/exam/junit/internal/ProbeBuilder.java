@@ -0,0 +1,687 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.junit.internal;
+
+import static org.ops4j.pax.exam.spi.util.CacheUtils.*;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Builds test probes out of the class closure of a test class: the test class plus all the classes it references,
+ * transitively, as found by parsing the class files. Only classes found in the test output directory of the test class
+ * are packed, together with the resources of that directory the test asks for. Classes from other locations are
+ * expected to be available in the test container and are dynamically imported.
+ * Probes are written to a folder under a name made out of the hash of their content, so a probe is written only once
+ * as long as the classes it contains do not change. Within a JVM a probe is built only once, as classes are not
+ * expected to change during a test run.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+class ProbeBuilder
+{
+
+    /**
+     * JCL logger.
+     */
+    private static final Log LOG = LogFactory.getLog( ProbeBuilder.class );
+
+    /**
+     * Class file extension.
+     */
+    private static final String CLASS_EXTENSION = ".class";
+
+    /**
+     * Pattern of class names referenced from descriptors and signatures.
+     */
+    private static final Pattern DESCRIPTOR_CLASS = Pattern.compile( "L([\\w/$]+)[;<]" );
+
+    /**
+     * Pattern of class names referenced by string constants (e.g. used by reflection).
+     */
+    private static final Pattern CONSTANT_CLASS = Pattern.compile( "[\\w$]+(\\.[\\w$]+)+" );
+
+    /**
+     * Folder where probes are written.
+     */
+    private final File m_probesFolder;
+
+    /**
+     * Probes built so far, by test class name and manifest headers.
+     */
+    private final Map<String, File> m_built;
+
+    /**
+     * True if old probes were already removed.
+     */
+    private boolean m_purged;
+
+    /**
+     * Constructor. Uses ${java.io.tmpdir}/paxexam_closures_${user.name} as probes folder.
+     */
+    ProbeBuilder()
+    {
+        this(
+            new File( System.getProperty( "java.io.tmpdir" ), "paxexam_closures_" + System.getProperty( "user.name" ) )
+        );
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param probesFolder folder where probes are written
+     */
+    ProbeBuilder( final File probesFolder )
+    {
+        m_probesFolder = probesFolder;
+        m_built = new HashMap<String, File>();
+    }
+
+    /**
+     * Returns the directory the test class was loaded from.
+     *
+     * @param testClass test class
+     *
+     * @return test output directory or null if the test class was not loaded from a directory
+     */
+    static File getTestOutputDirectory( final Class<?> testClass )
+    {
+        final CodeSource codeSource = testClass.getProtectionDomain().getCodeSource();
+        if( codeSource == null || codeSource.getLocation() == null
+            || !"file".equals( codeSource.getLocation().getProtocol() ) )
+        {
+            return null;
+        }
+        try
+        {
+            final File location = new File( codeSource.getLocation().toURI() );
+            return location.isDirectory() ? location : null;
+        }
+        catch( URISyntaxException e )
+        {
+            return null;
+        }
+        catch( IllegalArgumentException e )
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Builds a probe out of the class closure of a test class.
+     *
+     * @param root          test output directory (as returned by {@link #getTestOutputDirectory(Class)})
+     * @param testClassName name of test class
+     * @param headers       manifest headers of the probe, in order
+     * @param resources     paths of resources to be packed, relative to test output directory (a directory stands for
+     *                      all the non class files under it)
+     *
+     * @return built probe
+     *
+     * @throws IOException - If the probe cannot be built
+     */
+    synchronized File build( final File root,
+                             final String testClassName,
+                             final Map<String, String> headers,
+                             final Collection<String> resources )
+        throws IOException
+    {
+        final String key = root + "|" + testClassName + "|" + headers + "|" + resources;
+        final File built = m_built.get( key );
+        if( built != null && built.isFile() )
+        {
+            return built;
+        }
+        final SortedMap<String, File> entries = new TreeMap<String, File>();
+        for( String className : getClassClosure( root, testClassName.replace( '.', '/' ) ) )
+        {
+            entries.put( className + CLASS_EXTENSION, new File( root, className + CLASS_EXTENSION ) );
+        }
+        for( String resource : resources )
+        {
+            final String path = resource.replaceAll( "^/+|/+$", "" );
+            final File file = new File( root, path );
+            if( file.isDirectory() )
+            {
+                addResources( file, path.length() == 0 ? "" : path + "/", entries );
+            }
+            else if( file.isFile() )
+            {
+                entries.put( path, file );
+            }
+            else
+            {
+                LOG.warn( "Probe resource [" + resource + "] not found in " + root );
+            }
+        }
+
+        final MessageDigest digest = newDigest();
+        for( Map.Entry<String, String> header : headers.entrySet() )
+        {
+            update( digest, header.getKey() );
+            update( digest, header.getValue() );
+        }
+        for( Map.Entry<String, File> entry : entries.entrySet() )
+        {
+            update( digest, entry.getKey() );
+            digest.update( read( entry.getValue() ) );
+        }
+        m_probesFolder.mkdirs();
+        final File probe = new File( m_probesFolder, toHex( digest.digest() ) + ".jar" );
+        if( probe.isFile() )
+        {
+            probe.setLastModified( System.currentTimeMillis() );
+        }
+        else
+        {
+            LOG.debug( "Building probe of " + entries.size() + " entries for " + testClassName );
+            write( probe, headers, entries );
+        }
+        if( !m_purged )
+        {
+            m_purged = true;
+            if( purge( m_probesFolder ) > 0 )
+            {
+                LOG.debug( "Cannot remove some old probes from " + m_probesFolder );
+            }
+        }
+        m_built.put( key, probe );
+        return probe;
+    }
+
+    /**
+     * Computes the class closure of a class, limited to the classes found in the test output directory.
+     *
+     * @param root      test output directory
+     * @param className internal name of the class
+     *
+     * @return internal names of classes in closure, including the class itself
+     *
+     * @throws IOException - If a class file cannot be read
+     */
+    static Set<String> getClassClosure( final File root,
+                                        final String className )
+        throws IOException
+    {
+        final Set<String> closure = new HashSet<String>();
+        final LinkedList<String> queue = new LinkedList<String>();
+        queue.add( className );
+        while( !queue.isEmpty() )
+        {
+            final String name = queue.removeFirst();
+            final File classFile = new File( root, name + CLASS_EXTENSION );
+            if( closure.contains( name ) || !classFile.isFile() )
+            {
+                continue;
+            }
+            closure.add( name );
+            queue.addAll( getReferencedClasses( classFile ) );
+        }
+        return closure;
+    }
+
+    /**
+     * Returns the names of all classes referenced from a class file: class entries of the constant pool, classes used
+     * in the descriptors and signatures of members, local variables, method types and annotations and string constants
+     * that look like class names. Other strings of the constant pool are not parsed as descriptors.
+     *
+     * @param classFile class file to parse
+     *
+     * @return internal names of referenced classes (can include names of non existing classes)
+     *
+     * @throws IOException - If class file cannot be read or is not a class file
+     */
+    static Set<String> getReferencedClasses( final File classFile )
+        throws IOException
+    {
+        final Set<String> referenced = new HashSet<String>();
+        final DataInputStream in = new DataInputStream( new BufferedInputStream( new FileInputStream( classFile ) ) );
+        try
+        {
+            if( in.readInt() != 0xCAFEBABE )
+            {
+                throw new IOException( classFile + " is not a class file" );
+            }
+            in.readUnsignedShort(); // minor version
+            in.readUnsignedShort(); // major version
+            final int count = in.readUnsignedShort();
+            final String[] utf8 = new String[count];
+            final List<Integer> classes = new ArrayList<Integer>();
+            final List<Integer> strings = new ArrayList<Integer>();
+            final Set<Integer> descriptors = new HashSet<Integer>();
+            for( int i = 1; i < count; i++ )
+            {
+                final int tag = in.readUnsignedByte();
+                switch( tag )
+                {
+                    case 1: // utf8
+                        utf8[ i ] = in.readUTF();
+                        break;
+                    case 7: // class
+                        classes.add( in.readUnsignedShort() );
+                        break;
+                    case 8: // string
+                        strings.add( in.readUnsignedShort() );
+                        break;
+                    case 16: // method type
+                        descriptors.add( in.readUnsignedShort() );
+                        break;
+                    case 19: // module
+                    case 20: // package
+                        in.readUnsignedShort();
+                        break;
+                    case 12: // name and type
+                        in.readUnsignedShort();
+                        descriptors.add( in.readUnsignedShort() );
+                        break;
+                    case 15: // method handle
+                        in.readUnsignedByte();
+                        in.readUnsignedShort();
+                        break;
+                    case 3: // integer
+                    case 4: // float
+                    case 9: // field ref
+                    case 10: // method ref
+                    case 11: // interface method ref
+                    case 17: // dynamic
+                    case 18: // invoke dynamic
+                        in.readInt();
+                        break;
+                    case 5: // long
+                    case 6: // double
+                        in.readLong();
+                        i++;
+                        break;
+                    default:
+                        throw new IOException( "Unknown constant pool tag " + tag + " in " + classFile );
+                }
+            }
+            in.readUnsignedShort(); // access flags
+            in.readUnsignedShort(); // this class
+            in.readUnsignedShort(); // super class
+            for( int interfaces = in.readUnsignedShort(); interfaces > 0; interfaces-- )
+            {
+                in.readUnsignedShort();
+            }
+            for( int members = 2; members > 0; members-- ) // fields then methods
+            {
+                for( int member = in.readUnsignedShort(); member > 0; member-- )
+                {
+                    in.readUnsignedShort(); // access flags
+                    in.readUnsignedShort(); // name
+                    descriptors.add( in.readUnsignedShort() );
+                    readAttributes( in, utf8, descriptors );
+                }
+            }
+            readAttributes( in, utf8, descriptors );
+            for( int index : classes )
+            {
+                final String name = utf8[ index ];
+                if( name != null )
+                {
+                    if( name.startsWith( "[" ) )
+                    {
+                        addDescriptorClasses( name, referenced );
+                    }
+                    else
+                    {
+                        referenced.add( name );
+                    }
+                }
+            }
+            for( int index : strings )
+            {
+                final String value = utf8[ index ];
+                if( value != null && CONSTANT_CLASS.matcher( value ).matches() )
+                {
+                    referenced.add( value.replace( '.', '/' ) );
+                }
+            }
+            for( int index : descriptors )
+            {
+                final String descriptor = utf8[ index ];
+                if( descriptor != null )
+                {
+                    addDescriptorClasses( descriptor, referenced );
+                }
+            }
+        }
+        finally
+        {
+            in.close();
+        }
+        return referenced;
+    }
+
+    /**
+     * Reads the attributes of a class, field, method or code attribute and collects the constant pool indexes of the
+     * descriptors and signatures they refer to. Attributes not referring to descriptors are skipped.
+     *
+     * @param in          class file content, positioned at the attributes count
+     * @param utf8        utf8 constants, by constant pool index
+     * @param descriptors set to add constant pool indexes of descriptors and signatures to
+     *
+     * @throws IOException - If attributes cannot be read
+     */
+    private static void readAttributes( final DataInputStream in,
+                                        final String[] utf8,
+                                        final Set<Integer> descriptors )
+        throws IOException
+    {
+        for( int count = in.readUnsignedShort(); count > 0; count-- )
+        {
+            final String name = utf8[ in.readUnsignedShort() ];
+            final byte[] content = new byte[in.readInt()];
+            in.readFully( content );
+            final DataInputStream attribute = new DataInputStream( new ByteArrayInputStream( content ) );
+            if( "Signature".equals( name ) )
+            {
+                descriptors.add( attribute.readUnsignedShort() );
+            }
+            else if( "Code".equals( name ) )
+            {
+                attribute.skipBytes( 4 ); // max stack and max locals
+                attribute.skipBytes( attribute.readInt() ); // code
+                attribute.skipBytes( 8 * attribute.readUnsignedShort() ); // exception table
+                readAttributes( attribute, utf8, descriptors );
+            }
+            else if( "LocalVariableTable".equals( name ) || "LocalVariableTypeTable".equals( name ) )
+            {
+                for( int variables = attribute.readUnsignedShort(); variables > 0; variables-- )
+                {
+                    attribute.skipBytes( 6 ); // start, length and name
+                    descriptors.add( attribute.readUnsignedShort() );
+                    attribute.skipBytes( 2 ); // index
+                }
+            }
+            else if( "RuntimeVisibleAnnotations".equals( name ) || "RuntimeInvisibleAnnotations".equals( name ) )
+            {
+                readAnnotations( attribute, descriptors );
+            }
+            else if( "RuntimeVisibleParameterAnnotations".equals( name )
+                     || "RuntimeInvisibleParameterAnnotations".equals( name ) )
+            {
+                for( int parameters = attribute.readUnsignedByte(); parameters > 0; parameters-- )
+                {
+                    readAnnotations( attribute, descriptors );
+                }
+            }
+            else if( "AnnotationDefault".equals( name ) )
+            {
+                readElementValue( attribute, descriptors );
+            }
+        }
+    }
+
+    /**
+     * Reads a list of annotations and collects the constant pool indexes of the descriptors they refer to.
+     *
+     * @param in          attribute content, positioned at the annotations count
+     * @param descriptors set to add constant pool indexes of descriptors to
+     *
+     * @throws IOException - If annotations cannot be read
+     */
+    private static void readAnnotations( final DataInputStream in,
+                                         final Set<Integer> descriptors )
+        throws IOException
+    {
+        for( int count = in.readUnsignedShort(); count > 0; count-- )
+        {
+            readAnnotation( in, descriptors );
+        }
+    }
+
+    /**
+     * Reads an annotation and collects the constant pool indexes of the descriptors it refers to.
+     *
+     * @param in          attribute content, positioned at the annotation
+     * @param descriptors set to add constant pool indexes of descriptors to
+     *
+     * @throws IOException - If annotation cannot be read
+     */
+    private static void readAnnotation( final DataInputStream in,
+                                        final Set<Integer> descriptors )
+        throws IOException
+    {
+        descriptors.add( in.readUnsignedShort() ); // type
+        for( int pairs = in.readUnsignedShort(); pairs > 0; pairs-- )
+        {
+            in.readUnsignedShort(); // element name
+            readElementValue( in, descriptors );
+        }
+    }
+
+    /**
+     * Reads an annotation element value and collects the constant pool indexes of the descriptors it refers to.
+     *
+     * @param in          attribute content, positioned at the element value
+     * @param descriptors set to add constant pool indexes of descriptors to
+     *
+     * @throws IOException - If element value cannot be read
+     */
+    private static void readElementValue( final DataInputStream in,
+                                          final Set<Integer> descriptors )
+        throws IOException
+    {
+        final int tag = in.readUnsignedByte();
+        switch( tag )
+        {
+            case 'e': // enum: type and constant name
+                descriptors.add( in.readUnsignedShort() );
+                in.readUnsignedShort();
+                break;
+            case 'c': // class: return descriptor
+                descriptors.add( in.readUnsignedShort() );
+                break;
+            case '@':
+                readAnnotation( in, descriptors );
+                break;
+            case '[':
+                for( int values = in.readUnsignedShort(); values > 0; values-- )
+                {
+                    readElementValue( in, descriptors );
+                }
+                break;
+            default: // constant
+                in.readUnsignedShort();
+        }
+    }
+
+    /**
+     * Adds the classes referenced from a descriptor or signature.
+     *
+     * @param descriptor descriptor or signature
+     * @param referenced set to add classes to
+     */
+    private static void addDescriptorClasses( final String descriptor,
+                                              final Set<String> referenced )
+    {
+        final Matcher matcher = DESCRIPTOR_CLASS.matcher( descriptor );
+        while( matcher.find() )
+        {
+            referenced.add( matcher.group( 1 ) );
+        }
+    }
+
+    /**
+     * Adds all resources (non class files) of a directory, recursively.
+     *
+     * @param folder  directory to scan
+     * @param path    path of the directory relative to test output directory
+     * @param entries entries to add resources to
+     */
+    private static void addResources( final File folder,
+                                      final String path,
+                                      final Map<String, File> entries )
+    {
+        final File[] files = folder.listFiles();
+        if( files == null )
+        {
+            return;
+        }
+        for( File file : files )
+        {
+            if( file.isDirectory() )
+            {
+                addResources( file, path + file.getName() + "/", entries );
+            }
+            else if( !file.getName().endsWith( CLASS_EXTENSION ) )
+            {
+                entries.put( path + file.getName(), file );
+            }
+        }
+    }
+
+    /**
+     * Writes the probe. The probe is written under a temporary name and renamed afterwards so no partial probes are
+     * ever visible.
+     *
+     * @param probe   file to write the probe to
+     * @param headers manifest headers
+     * @param entries probe entries, sorted by name
+     *
+     * @throws IOException - If the probe cannot be written
+     */
+    private void write( final File probe,
+                        final Map<String, String> headers,
+                        final SortedMap<String, File> entries )
+        throws IOException
+    {
+        final Manifest manifest = new Manifest();
+        final Attributes attributes = manifest.getMainAttributes();
+        attributes.put( Attributes.Name.MANIFEST_VERSION, "1.0" );
+        for( Map.Entry<String, String> header : headers.entrySet() )
+        {
+            attributes.putValue( header.getKey(), header.getValue() );
+        }
+        final File tempFile = File.createTempFile( "probe_", ".tmp", m_probesFolder );
+        try
+        {
+            final JarOutputStream out = new JarOutputStream( new FileOutputStream( tempFile ), manifest );
+            try
+            {
+                final Set<String> folders = new HashSet<String>();
+                for( Map.Entry<String, File> entry : entries.entrySet() )
+                {
+                    addFolders( out, entry.getKey(), folders );
+                    out.putNextEntry( new JarEntry( entry.getKey() ) );
+                    out.write( read( entry.getValue() ) );
+                    out.closeEntry();
+                }
+            }
+            finally
+            {
+                out.close();
+            }
+            if( !tempFile.renameTo( probe ) && !probe.isFile() )
+            {
+                throw new IOException( "Cannot store probe " + probe );
+            }
+        }
+        finally
+        {
+            tempFile.delete();
+        }
+    }
+
+    /**
+     * Adds the entries of the folders of an entry, if not already added.
+     *
+     * @param out     jar to add folders to
+     * @param name    entry name
+     * @param folders folders already added
+     *
+     * @throws IOException - If folder entries cannot be added
+     */
+    private static void addFolders( final JarOutputStream out,
+                                    final String name,
+                                    final Set<String> folders )
+        throws IOException
+    {
+        int slash = name.indexOf( '/' );
+        while( slash > 0 )
+        {
+            final String folder = name.substring( 0, slash + 1 );
+            if( folders.add( folder ) )
+            {
+                out.putNextEntry( new JarEntry( folder ) );
+                out.closeEntry();
+            }
+            slash = name.indexOf( '/', slash + 1 );
+        }
+    }
+
+    /**
+     * Reads the content of a file.
+     *
+     * @param file file to read
+     *
+     * @return file content
+     *
+     * @throws IOException - If file cannot be read
+     */
+    private static byte[] read( final File file )
+        throws IOException
+    {
+        final ByteArrayOutputStream content = new ByteArrayOutputStream( (int) file.length() );
+        final InputStream in = new FileInputStream( file );
+        try
+        {
+            final byte[] buffer = new byte[8192];
+            int read;
+            while( ( read = in.read( buffer ) ) > 0 )
+            {
+                content.write( buffer, 0, read );
+            }
+        }
+        finally
+        {
+            in.close();
+        }
+        return content.toByteArray();
+    }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.junit.options;
+
+import org.ops4j.pax.exam.Option;
+
+/**
+ * Option specifying that test methods of a test class that are configured with the same options should run in
+ * parallel, on a bounded number of threads, against one shared test container (implies {@link ReuseContainerOption}).
+ * Meant for test methods that do not change the state of the test container, as for example tests that only read
+ * services. Test results are reported in the order of the test methods.
+ * Calls to the test container are serialized if the test container communicates over a socket, so test methods only
+ * run in parallel if the test container is reached via RMI or runs in process.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+public class ParallelMethodsOption
+    implements Option
+{
+
+    /**
+     * Maximum number of test methods run in parallel.
+     */
+    private int m_threads;
+
+    /**
+     * Constructor. By default as many test methods as available processors are run in parallel.
+     */
+    public ParallelMethodsOption()
+    {
+        m_threads = Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Sets the maximum number of test methods run in parallel.
+     *
+     * @param threads maximum number of test methods run in parallel (must be bigger then zero)
+     *
+     * @return itself, for fluent api usage
+     *
+     * @throws IllegalArgumentException - If number of threads is not bigger then zero
+     */
+    public ParallelMethodsOption threads( final int threads )
+    {
+        if( threads <= 0 )
+        {
+            throw new IllegalArgumentException( "Number of threads must be bigger then zero" );
+        }
+        m_threads = threads;
+        return this;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return maximum number of test methods run in parallel
+     */
+    public int getThreads()
+    {
+        return m_threads;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString()
+    {
+        final StringBuilder sb = new StringBuilder();
+        sb.append( "ParallelMethodsOption" );
+        sb.append( "{threads=" ).append( m_threads );
+        sb.append( '}' );
+        return sb.toString();
+    }
+
+}
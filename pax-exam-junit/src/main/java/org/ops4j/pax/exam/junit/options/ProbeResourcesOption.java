@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.junit.options;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import static org.ops4j.lang.NullArgumentException.*;
+import org.ops4j.pax.exam.Option;
+
+/**
+ * Option specifying resources (non class files) of the test output directory to be packed into the test probe,
+ * together with the classes of the test. Paths are relative to the test output directory; a directory stands for all
+ * the resources under it. Resources not asked for are not packed.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+public class ProbeResourcesOption
+    implements Option
+{
+
+    /**
+     * Paths of resources to be packed, relative to test output directory.
+     */
+    private final List<String> m_paths;
+
+    /**
+     * Constructor.
+     *
+     * @param paths paths of resources to be packed, relative to test output directory (cannot be null)
+     *
+     * @throws IllegalArgumentException - If paths is null
+     */
+    public ProbeResourcesOption( final String... paths )
+    {
+        validateNotNull( paths, "Paths" );
+        m_paths = new ArrayList<String>( Arrays.asList( paths ) );
+    }
+
+    /**
+     * Adds paths of resources to be packed.
+     *
+     * @param paths paths of resources to be packed, relative to test output directory (cannot be null)
+     *
+     * @return itself, for fluent api usage
+     *
+     * @throws IllegalArgumentException - If paths is null
+     */
+    public ProbeResourcesOption add( final String... paths )
+    {
+        validateNotNull( paths, "Paths" );
+        m_paths.addAll( Arrays.asList( paths ) );
+        return this;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return paths of resources to be packed, relative to test output directory
+     */
+    public List<String> getPaths()
+    {
+        return Collections.unmodifiableList( m_paths );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString()
+    {
+        final StringBuilder sb = new StringBuilder();
+        sb.append( "ProbeResourcesOption" );
+        sb.append( "{paths=" ).append( m_paths );
+        sb.append( '}' );
+        return sb.toString();
+    }
+
+}
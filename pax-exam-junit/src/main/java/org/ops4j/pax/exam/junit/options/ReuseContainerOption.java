@@ -0,0 +1,42 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.junit.options;
+
+import org.ops4j.pax.exam.Option;
+
+/**
+ * Option specifying that test methods of a test class that are configured with the same options should share one
+ * running test container instead of starting a new test container per test method. The test probe, carrying all test
+ * methods of the test class, is installed once and stays installed until the test container is stopped.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+public class ReuseContainerOption
+    implements Option
+{
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString()
+    {
+        return "ReuseContainerOption{}";
+    }
+
+}
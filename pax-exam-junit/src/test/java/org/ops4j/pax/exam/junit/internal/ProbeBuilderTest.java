@@ -0,0 +1,219 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.junit.internal;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarFile;
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit Tests for {@link ProbeBuilder}.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+public class ProbeBuilderTest
+{
+
+    private static final String FIXTURE = internalName( ClosureFixture.class );
+    private static final List<String> NO_RESOURCES = Collections.emptyList();
+
+    private File m_root;
+    private File m_probesFolder;
+    private File m_resourcesFolder;
+
+    @Before
+    public void setUp()
+        throws IOException
+    {
+        m_root = ProbeBuilder.getTestOutputDirectory( ProbeBuilderTest.class );
+        m_probesFolder = File.createTempFile( "paxexam", "closures" );
+        m_probesFolder.delete();
+        m_resourcesFolder = new File( m_root, "probe-builder-test" );
+    }
+
+    @After
+    public void tearDown()
+    {
+        final File[] resources = m_resourcesFolder.listFiles();
+        if( resources != null )
+        {
+            for( File resource : resources )
+            {
+                resource.delete();
+            }
+        }
+        m_resourcesFolder.delete();
+        final File[] files = m_probesFolder.listFiles();
+        if( files != null )
+        {
+            for( File file : files )
+            {
+                file.delete();
+            }
+        }
+        m_probesFolder.delete();
+    }
+
+    /**
+     * Closure contains the class and the classes it references, transitively, but no other classes.
+     */
+    @Test
+    public void classClosure()
+        throws IOException
+    {
+        final Set<String> closure = ProbeBuilder.getClassClosure( m_root, FIXTURE );
+
+        assertTrue( "Class itself", closure.contains( FIXTURE ) );
+        assertTrue( "Field type", closure.contains( internalName( ClosureReferenced.class ) ) );
+        assertTrue( "Transitive", closure.contains( internalName( ClosureTransitive.class ) ) );
+        assertTrue( "Generic type argument", closure.contains( internalName( ClosureGeneric.class ) ) );
+        assertFalse( "Unreferenced", closure.contains( internalName( ClosureUnreferenced.class ) ) );
+        assertFalse( "Descriptor like string", closure.contains( internalName( ClosureMentioned.class ) ) );
+        assertFalse( "Outside test output", closure.contains( "java/lang/Object" ) );
+    }
+
+    /**
+     * Built probe carries the headers and the closure and is reused when built again.
+     */
+    @Test
+    public void build()
+        throws IOException
+    {
+        final Map<String, String> headers = new LinkedHashMap<String, String>();
+        headers.put( "Bundle-SymbolicName", "probe" );
+        final File probe = new ProbeBuilder( m_probesFolder ).build(
+            m_root, ClosureFixture.class.getName(), headers, NO_RESOURCES
+        );
+
+        final JarFile jar = new JarFile( probe );
+        try
+        {
+            assertEquals( "Header", "probe", jar.getManifest().getMainAttributes().getValue( "Bundle-SymbolicName" ) );
+            assertNotNull( "Class", jar.getEntry( FIXTURE + ".class" ) );
+            assertNull( "Unreferenced", jar.getEntry( internalName( ClosureUnreferenced.class ) + ".class" ) );
+        }
+        finally
+        {
+            jar.close();
+        }
+        assertEquals(
+            "Same probe",
+            probe,
+            new ProbeBuilder( m_probesFolder ).build( m_root, ClosureFixture.class.getName(), headers, NO_RESOURCES )
+        );
+    }
+
+    /**
+     * Only the resources asked for are packed.
+     */
+    @Test
+    public void buildWithResources()
+        throws IOException
+    {
+        m_resourcesFolder.mkdirs();
+        write( new File( m_resourcesFolder, "requested.txt" ) );
+        write( new File( m_resourcesFolder, "unrequested.txt" ) );
+        final File probe = new ProbeBuilder( m_probesFolder ).build(
+            m_root, ClosureFixture.class.getName(), new LinkedHashMap<String, String>(),
+            Arrays.asList( "probe-builder-test/requested.txt" )
+        );
+
+        final JarFile jar = new JarFile( probe );
+        try
+        {
+            assertNotNull( "Requested", jar.getEntry( "probe-builder-test/requested.txt" ) );
+            assertNull( "Not requested", jar.getEntry( "probe-builder-test/unrequested.txt" ) );
+        }
+        finally
+        {
+            jar.close();
+        }
+    }
+
+    private static void write( final File file )
+        throws IOException
+    {
+        final FileWriter writer = new FileWriter( file );
+        try
+        {
+            writer.write( file.getName() );
+        }
+        finally
+        {
+            writer.close();
+        }
+    }
+
+    private static String internalName( final Class<?> clazz )
+    {
+        return clazz.getName().replace( '.', '/' );
+    }
+
+}
+
+/**
+ * Class whose closure is computed. Top level, so it does not reference the test class as outer class.
+ */
+class ClosureFixture
+{
+
+    private static final String MENTION = "see Lorg/ops4j/pax/exam/junit/internal/ClosureMentioned; for details";
+
+    private ClosureReferenced m_referenced;
+
+    private java.util.List<ClosureGeneric> m_generic;
+
+}
+
+class ClosureReferenced
+{
+
+    private ClosureTransitive m_transitive;
+
+}
+
+class ClosureTransitive
+{
+
+}
+
+class ClosureUnreferenced
+{
+
+}
+
+class ClosureGeneric
+{
+
+}
+
+class ClosureMentioned
+{
+
+}
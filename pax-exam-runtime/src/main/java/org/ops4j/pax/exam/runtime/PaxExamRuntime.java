@@ -17,7 +17,14 @@
  */
 package org.ops4j.pax.exam.runtime;
 
+import static org.ops4j.pax.exam.OptionUtils.filter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import org.apache.commons.discovery.tools.DiscoverSingleton;
+import org.ops4j.pax.exam.Option;
+import org.ops4j.pax.exam.options.TestContainerFactoryOption;
+import org.ops4j.pax.exam.spi.container.TestContainerException;
 import org.ops4j.pax.exam.spi.container.TestContainerFactory;
 
 /**
@@ -29,6 +36,12 @@ import org.ops4j.pax.exam.spi.container.TestContainerFactory;
 public class PaxExamRuntime
 {
 
+    /**
+     * Test container factories specified via options, by class name.
+     */
+    private static final ConcurrentMap<String, TestContainerFactory> FACTORIES =
+        new ConcurrentHashMap<String, TestContainerFactory>();
+
     /**
      * Utility class. Ment to be used via the static factory methods.
      */
@@ -47,4 +60,47 @@ public class PaxExamRuntime
         return (TestContainerFactory) DiscoverSingleton.find( TestContainerFactory.class );
     }
 
+    /**
+     * Returns the test container factory to be used for the provided options. If the options contain a
+     * {@link TestContainerFactoryOption} the specified factory is used, otherwise the factory is discovered.
+     *
+     * @param options integration test options
+     *
+     * @return test container factory
+     *
+     * @throws TestContainerException - If the specified factory cannot be created
+     */
+    public static TestContainerFactory getTestContainerFactory( final Option... options )
+    {
+        final TestContainerFactoryOption[] factoryOptions = filter( TestContainerFactoryOption.class, options );
+        if( factoryOptions.length == 0 )
+        {
+            return getTestContainerFactory();
+        }
+        final String className = factoryOptions[ 0 ].getFactoryClassName();
+        TestContainerFactory factory = FACTORIES.get( className );
+        if( factory == null )
+        {
+            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+            if( classLoader == null )
+            {
+                classLoader = PaxExamRuntime.class.getClassLoader();
+            }
+            try
+            {
+                factory = (TestContainerFactory) classLoader.loadClass( className ).newInstance();
+            }
+            catch( Exception e )
+            {
+                throw new TestContainerException( "Cannot create test container factory " + className, e );
+            }
+            final TestContainerFactory existing = FACTORIES.putIfAbsent( className, factory );
+            if( existing != null )
+            {
+                factory = existing;
+            }
+        }
+        return factory;
+    }
+
 }
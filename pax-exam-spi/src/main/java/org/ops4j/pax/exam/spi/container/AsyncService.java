@@ -0,0 +1,48 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.container;
+
+import java.util.concurrent.Future;
+
+/**
+ * Asynchronous access to a service running in a {@link TestContainer}. Each invocation returns immediately with a
+ * future of its result, so several invocations can be in flight at the same time instead of waiting for each one to
+ * complete before sending the next.
+ * Futures fail with an {@link java.util.concurrent.ExecutionException} caused by the exception thrown by the service
+ * method, or by a {@link TestContainerException} if the service cannot be looked up or reached.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+public interface AsyncService
+{
+
+    /**
+     * Invokes a service method asynchronously.
+     *
+     * @param methodName     name of the method to invoke
+     * @param parameterTypes method parameter types (can be null or empty for methods without parameters)
+     * @param args           actual method arguments
+     *
+     * @return future of the value returned by the method (cannot be cancelled)
+     *
+     * @throws TestContainerException - if the invocation cannot be sent
+     */
+    Future<Object> invoke( String methodName, Class<?>[] parameterTypes, Object... args )
+        throws TestContainerException;
+
+}
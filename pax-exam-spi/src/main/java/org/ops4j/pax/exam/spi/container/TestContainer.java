@@ -17,6 +17,8 @@
  */
 package org.ops4j.pax.exam.spi.container;
 
+import org.ops4j.pax.exam.Option;
+
 /**
  * Management of an OSGi framework that can be used as a integration test container.
  *
@@ -32,6 +34,36 @@ public interface TestContainer
     <T> T getService( Class<T> serviceType, long timeoutInMillis )
         throws TestContainerException;
 
+    /**
+     * Returns a service of the specified type whose properties match a filter.
+     *
+     * @param serviceType     service type
+     * @param filter          LDAP filter the service properties must match (can be null = no filtering)
+     * @param timeoutInMillis timeout for looking up the service
+     * @param <T>             service type
+     *
+     * @return service (proxy)
+     *
+     * @throws TestContainerException if service cannot be looked up
+     */
+    <T> T getService( Class<T> serviceType, String filter, long timeoutInMillis )
+        throws TestContainerException;
+
+    /**
+     * Returns an asynchronous access to a service of the specified type whose properties match a filter. The service is
+     * looked up on each invocation.
+     *
+     * @param serviceType     service type
+     * @param filter          LDAP filter the service properties must match (can be null = no filtering)
+     * @param timeoutInMillis timeout for looking up the service, on each invocation
+     *
+     * @return asynchronous service access
+     *
+     * @throws TestContainerException if service cannot be accessed
+     */
+    AsyncService getAsyncService( Class<?> serviceType, String filter, long timeoutInMillis )
+        throws TestContainerException;
+
     long installBundle( String bundleUrl )
         throws TestContainerException;
 
@@ -41,6 +73,16 @@ public interface TestContainer
     void startBundle( long bundleId )
         throws TestContainerException;
 
+    /**
+     * Uninstalls a bundle.
+     *
+     * @param bundleId bundle id
+     *
+     * @throws TestContainerException if bundle cannot be uninstalled
+     */
+    void uninstallBundle( long bundleId )
+        throws TestContainerException;
+
     /**
      * Sets the start level for a bundle.
      *
@@ -68,6 +110,20 @@ public interface TestContainer
     void stop()
         throws TimeoutException;
 
+    /**
+     * Reconfigures the started test container to run with another set of options, without restarting it. Only options
+     * that can change at runtime (such as provisioned bundles or system properties) are applied; if the options differ
+     * in anything else the test container is left unchanged.
+     *
+     * @param options options the test container should run with
+     *
+     * @return true if the test container runs now with the options, false if it has to be restarted for that
+     *
+     * @throws TestContainerException - if the changes cannot be applied (the test container should not be used anymore)
+     */
+    boolean reconfigure( Option... options )
+        throws TestContainerException;
+
     /**
      * Waits for a bundle to be in a certain state and returns.
      *
@@ -80,4 +136,17 @@ public interface TestContainer
     void waitForState( long bundleId, int state, long timeoutInMillis )
         throws TimeoutException;
 
+    /**
+     * Executes an ordered list of operations in one go (e.g. in one remote call). Execution stops at the first failing
+     * operation.
+     *
+     * @param operations operations to execute
+     *
+     * @return results of operations, in order (bundle id for install operations, null for the rest)
+     *
+     * @throws BatchExecutionException - if an operation fails
+     */
+    Object[] execute( TestContainerOperation... operations )
+        throws BatchExecutionException;
+
 }
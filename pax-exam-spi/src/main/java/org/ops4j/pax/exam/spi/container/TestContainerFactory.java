@@ -37,4 +37,13 @@ public interface TestContainerFactory
      */
     TestContainer newInstance( Option... options );
 
+    /**
+     * Hints the factory that a {@link TestContainer} with the provided options will be needed soon. Factories that
+     * support prefetching can start such a test container in background so it is ready by the time it is created via
+     * {@link #newInstance(Option...)}. Factories that do not support prefetching should just ignore the call.
+     *
+     * @param options integration test options of an upcoming test
+     */
+    void prefetch( Option... options );
+
 }
@@ -0,0 +1,278 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.container;
+
+/**
+ * An operation on a {@link TestContainer}, to be executed as part of a batch via
+ * {@link TestContainer#execute(TestContainerOperation[])}.
+ * Operations that act on a bundle can refer to the bundle installed by the closest preceding install operation of the
+ * same batch by using {@link #LAST_INSTALLED_BUNDLE} as bundle id.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+public class TestContainerOperation
+{
+
+    /**
+     * Bundle id referring to the bundle installed by the closest preceding install operation of the same batch.
+     */
+    public static final long LAST_INSTALLED_BUNDLE = -1;
+
+    /**
+     * Operation types.
+     */
+    public static enum Type
+    {
+
+        INSTALL_BUNDLE, START_BUNDLE, UNINSTALL_BUNDLE, SET_BUNDLE_START_LEVEL, WAIT_FOR_STATE
+
+    }
+
+    /**
+     * Operation type.
+     */
+    private final Type m_type;
+    /**
+     * Bundle id the operation acts on.
+     */
+    private final long m_bundleId;
+    /**
+     * Bundle url or location of the bundle to be installed. Null if not an install operation.
+     */
+    private final String m_location;
+    /**
+     * Content of the bundle to be installed. Null if bundle should be installed from location.
+     */
+    private final byte[] m_content;
+    /**
+     * Start level or expected bundle state.
+     */
+    private final int m_value;
+    /**
+     * Max time (in millis) to wait for the bundle state.
+     */
+    private final long m_timeout;
+
+    /**
+     * Constructor.
+     *
+     * @param type     operation type
+     * @param bundleId bundle id the operation acts on
+     * @param location bundle url or location of the bundle to be installed
+     * @param content  content of the bundle to be installed
+     * @param value    start level or expected bundle state
+     * @param timeout  max time (in millis) to wait for the bundle state
+     */
+    private TestContainerOperation( final Type type,
+                                    final long bundleId,
+                                    final String location,
+                                    final byte[] content,
+                                    final int value,
+                                    final long timeout )
+    {
+        m_type = type;
+        m_bundleId = bundleId;
+        m_location = location;
+        m_content = content;
+        m_value = value;
+        m_timeout = timeout;
+    }
+
+    /**
+     * Creates an operation that installs a bundle from an url. The result of the operation is the bundle id.
+     *
+     * @param bundleUrl url of the bundle to be installed
+     *
+     * @return install operation
+     */
+    public static TestContainerOperation installBundle( final String bundleUrl )
+    {
+        return new TestContainerOperation( Type.INSTALL_BUNDLE, 0, bundleUrl, null, 0, 0 );
+    }
+
+    /**
+     * Creates an operation that installs a bundle given the bundle content. The result of the operation is the bundle
+     * id.
+     *
+     * @param bundleLocation bundle location
+     * @param bundle         bundle content as a byte array
+     *
+     * @return install operation
+     */
+    public static TestContainerOperation installBundle( final String bundleLocation,
+                                                        final byte[] bundle )
+    {
+        return new TestContainerOperation( Type.INSTALL_BUNDLE, 0, bundleLocation, bundle, 0, 0 );
+    }
+
+    /**
+     * Creates an operation that starts a bundle.
+     *
+     * @param bundleId bundle id or {@link #LAST_INSTALLED_BUNDLE}
+     *
+     * @return start operation
+     */
+    public static TestContainerOperation startBundle( final long bundleId )
+    {
+        return new TestContainerOperation( Type.START_BUNDLE, bundleId, null, null, 0, 0 );
+    }
+
+    /**
+     * Creates an operation that uninstalls a bundle.
+     *
+     * @param bundleId bundle id or {@link #LAST_INSTALLED_BUNDLE}
+     *
+     * @return uninstall operation
+     */
+    public static TestContainerOperation uninstallBundle( final long bundleId )
+    {
+        return new TestContainerOperation( Type.UNINSTALL_BUNDLE, bundleId, null, null, 0, 0 );
+    }
+
+    /**
+     * Creates an operation that sets the start level of a bundle.
+     *
+     * @param bundleId   bundle id or {@link #LAST_INSTALLED_BUNDLE}
+     * @param startLevel start level
+     *
+     * @return set start level operation
+     */
+    public static TestContainerOperation setBundleStartLevel( final long bundleId,
+                                                              final int startLevel )
+    {
+        return new TestContainerOperation( Type.SET_BUNDLE_START_LEVEL, bundleId, null, null, startLevel, 0 );
+    }
+
+    /**
+     * Creates an operation that waits for a bundle to be in a certain state.
+     *
+     * @param bundleId        bundle id or {@link #LAST_INSTALLED_BUNDLE}
+     * @param state           expected state
+     * @param timeoutInMillis max time to wait for state
+     *
+     * @return wait for state operation
+     */
+    public static TestContainerOperation waitForState( final long bundleId,
+                                                       final int state,
+                                                       final long timeoutInMillis )
+    {
+        return new TestContainerOperation( Type.WAIT_FOR_STATE, bundleId, null, null, state, timeoutInMillis );
+    }
+
+    /**
+     * Creates an operation that installs the same bundle as this one, but from another url. Used by test containers
+     * that install bundles from a location of their own.
+     *
+     * @param bundleUrl url of the bundle to be installed
+     *
+     * @return install operation
+     */
+    public TestContainerOperation withLocation( final String bundleUrl )
+    {
+        return new TestContainerOperation( m_type, m_bundleId, bundleUrl, m_content, m_value, m_timeout );
+    }
+
+    /**
+     * Getter.
+     *
+     * @return operation type
+     */
+    public Type getType()
+    {
+        return m_type;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return bundle id the operation acts on or {@link #LAST_INSTALLED_BUNDLE}
+     */
+    public long getBundleId()
+    {
+        return m_bundleId;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return bundle url or location of the bundle to be installed
+     */
+    public String getLocation()
+    {
+        return m_location;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return content of the bundle to be installed or null if the bundle should be installed from its url
+     */
+    public byte[] getContent()
+    {
+        return m_content;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return start level of a set start level operation
+     */
+    public int getStartLevel()
+    {
+        return m_value;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return expected state of a wait for state operation
+     */
+    public int getState()
+    {
+        return m_value;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return max time (in millis) to wait for the state of a wait for state operation
+     */
+    public long getTimeout()
+    {
+        return m_timeout;
+    }
+
+    @Override
+    public String toString()
+    {
+        final StringBuilder sb = new StringBuilder();
+        sb.append( "TestContainerOperation" );
+        sb.append( "{type=" ).append( m_type );
+        if( m_location != null )
+        {
+            sb.append( ", location=" ).append( m_location );
+        }
+        else
+        {
+            sb.append( ", bundleId=" ).append( m_bundleId );
+        }
+        sb.append( '}' );
+        return sb.toString();
+    }
+
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.spi.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Utilities shared by the caches of test containers (test probes, options fingerprints, framework snapshots): content
+ * digests used as cache keys and removal of cache entries not used for a long time.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+public class CacheUtils
+{
+
+    /**
+     * Time (in millis) a cache entry is kept since last used.
+     */
+    public static final long MAX_AGE = 7L * 24 * 60 * 60 * 1000;
+
+    /**
+     * Hex digits used to encode digests.
+     */
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * Utility class. Ment to be used via the static methods.
+     */
+    private CacheUtils()
+    {
+        // utility class
+    }
+
+    /**
+     * Creates a SHA-1 message digest.
+     *
+     * @return message digest
+     */
+    public static MessageDigest newDigest()
+    {
+        try
+        {
+            return MessageDigest.getInstance( "SHA-1" );
+        }
+        catch( NoSuchAlgorithmException e )
+        {
+            throw new IllegalStateException( "SHA-1 algorithm not available", e );
+        }
+    }
+
+    /**
+     * Adds a value to the digest, followed by a separator so that values cannot be confused across boundaries.
+     *
+     * @param digest message digest
+     * @param value  value to be added
+     */
+    public static void update( final MessageDigest digest,
+                               final String value )
+    {
+        try
+        {
+            digest.update( value.getBytes( "UTF-8" ) );
+            digest.update( (byte) 0 );
+        }
+        catch( UnsupportedEncodingException e )
+        {
+            throw new IllegalStateException( "UTF-8 encoding not available", e );
+        }
+    }
+
+    /**
+     * Adds the content of a file to the digest.
+     *
+     * @param digest message digest
+     * @param file   file to be added
+     *
+     * @throws IOException - If the file cannot be read
+     */
+    public static void update( final MessageDigest digest,
+                               final File file )
+        throws IOException
+    {
+        final byte[] buffer = new byte[8192];
+        final InputStream in = new FileInputStream( file );
+        try
+        {
+            int read;
+            while( ( read = in.read( buffer ) ) > 0 )
+            {
+                digest.update( buffer, 0, read );
+            }
+        }
+        finally
+        {
+            in.close();
+        }
+    }
+
+    /**
+     * Computes the digest of the provided values.
+     *
+     * @param values values to digest
+     *
+     * @return digest as an hex string
+     */
+    public static String digest( final String... values )
+    {
+        final MessageDigest digest = newDigest();
+        for( String value : values )
+        {
+            update( digest, value );
+        }
+        return toHex( digest.digest() );
+    }
+
+    /**
+     * Encodes bytes as an hex string.
+     *
+     * @param bytes bytes to encode
+     *
+     * @return hex string
+     */
+    public static String toHex( final byte[] bytes )
+    {
+        final StringBuilder hex = new StringBuilder( bytes.length * 2 );
+        for( byte b : bytes )
+        {
+            hex.append( HEX[ ( b >> 4 ) & 0x0F ] ).append( HEX[ b & 0x0F ] );
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Removes the files of a cache folder that were not used (modified) for longer than the maximum age. Files that
+     * cannot be removed (e.g. in use) are left for a later purge.
+     *
+     * @param cacheFolder cache folder
+     *
+     * @return number of files that could not be removed
+     */
+    public static int purge( final File cacheFolder )
+    {
+        final File[] files = cacheFolder.listFiles();
+        if( files == null )
+        {
+            return 0;
+        }
+        int failed = 0;
+        final long oldest = System.currentTimeMillis() - MAX_AGE;
+        for( File file : files )
+        {
+            if( file.lastModified() < oldest && !file.delete() )
+            {
+                failed++;
+            }
+        }
+        return failed;
+    }
+
+}
@@ -39,10 +39,12 @@ import org.ops4j.pax.exam.options.MavenArtifactProvisionOption;
 import org.ops4j.pax.exam.options.MavenArtifactUrlReference;
 import org.ops4j.pax.exam.options.MavenPluginGeneratedConfigOption;
 import org.ops4j.pax.exam.options.OptionalCompositeOption;
+import org.ops4j.pax.exam.options.ParallelFrameworksOption;
 import org.ops4j.pax.exam.options.ProvisionOption;
 import org.ops4j.pax.exam.options.RawUrlReference;
 import org.ops4j.pax.exam.options.SystemPackageOption;
 import org.ops4j.pax.exam.options.SystemPropertyOption;
+import org.ops4j.pax.exam.options.TestContainerFactoryOption;
 import org.ops4j.pax.exam.options.TestContainerStartTimeoutOption;
 import org.ops4j.pax.exam.options.UrlProvisionOption;
 import org.ops4j.pax.exam.options.UrlReference;
@@ -774,4 +776,26 @@ public class CoreOptions
         return waitForFrameworkStartupFor( Constants.WAIT_5_MINUTES );
     }
 
+    /**
+     * Creates a {@link ParallelFrameworksOption}.
+     *
+     * @return parallel frameworks option
+     */
+    public static ParallelFrameworksOption parallelFrameworks()
+    {
+        return new ParallelFrameworksOption();
+    }
+
+    /**
+     * Creates a {@link TestContainerFactoryOption}.
+     *
+     * @param factoryClassName fully qualified class name of test container factory
+     *
+     * @return test container factory option
+     */
+    public static TestContainerFactoryOption testContainerFactory( final String factoryClassName )
+    {
+        return new TestContainerFactoryOption( factoryClassName );
+    }
+
 }
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.options;
+
+import org.ops4j.pax.exam.Option;
+
+/**
+ * Option specifying that tests configured to run on more then one framework (e.g. via allFrameworks()) should run
+ * on each framework in parallel, using a bounded number of threads. Tests on the same framework still run one after
+ * another. As the test containers run at the same time, each framework gets its own default working directory.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+public class ParallelFrameworksOption
+    implements Option
+{
+
+    /**
+     * Maximum number of frameworks run in parallel.
+     */
+    private int m_threads;
+
+    /**
+     * Constructor. By default as many frameworks as available processors are run in parallel.
+     */
+    public ParallelFrameworksOption()
+    {
+        m_threads = Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Sets the maximum number of frameworks run in parallel.
+     *
+     * @param threads maximum number of frameworks run in parallel (must be bigger then zero)
+     *
+     * @return itself, for fluent api usage
+     *
+     * @throws IllegalArgumentException - If number of threads is not bigger then zero
+     */
+    public ParallelFrameworksOption threads( final int threads )
+    {
+        if( threads <= 0 )
+        {
+            throw new IllegalArgumentException( "Number of threads must be bigger then zero" );
+        }
+        m_threads = threads;
+        return this;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return maximum number of frameworks run in parallel
+     */
+    public int getThreads()
+    {
+        return m_threads;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString()
+    {
+        final StringBuilder sb = new StringBuilder();
+        sb.append( "ParallelFrameworksOption" );
+        sb.append( "{threads=" ).append( m_threads );
+        sb.append( '}' );
+        return sb.toString();
+    }
+
+}
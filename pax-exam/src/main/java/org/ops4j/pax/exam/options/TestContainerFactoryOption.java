@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026 OPS4J.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or
+ * implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ops4j.pax.exam.options;
+
+import static org.ops4j.lang.NullArgumentException.*;
+import org.ops4j.pax.exam.Option;
+
+/**
+ * Option specifying the test container factory to be used, instead of the one discovered on the classpath. Allows
+ * choosing a test container implementation per test when more then one is available.
+ *
+ * @since 1.2.3, October 18, 2026
+ */
+public class TestContainerFactoryOption
+    implements Option
+{
+
+    /**
+     * Fully qualified class name of test container factory.
+     */
+    private final String m_factoryClassName;
+
+    /**
+     * Constructor.
+     *
+     * @param factoryClassName fully qualified class name of test container factory (cannot be null or empty)
+     *
+     * @throws IllegalArgumentException - If class name is null or empty
+     */
+    public TestContainerFactoryOption( final String factoryClassName )
+    {
+        validateNotEmpty( factoryClassName, true, "Test container factory class name" );
+        m_factoryClassName = factoryClassName;
+    }
+
+    /**
+     * Getter.
+     *
+     * @return fully qualified class name of test container factory
+     */
+    public String getFactoryClassName()
+    {
+        return m_factoryClassName;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString()
+    {
+        final StringBuilder sb = new StringBuilder();
+        sb.append( "TestContainerFactoryOption" );
+        sb.append( "{factoryClassName='" ).append( m_factoryClassName ).append( '\'' );
+        sb.append( '}' );
+        return sb.toString();
+    }
+
+}